@@ -0,0 +1,47 @@
+package com.silyosbekov.chessmate.engine;
+
+import com.silyosbekov.chessmate.engine.option.MoveOptions;
+
+/**
+ * Standard positions and a sample game shared by the engine benchmarks.
+ */
+final class BenchmarkPositions {
+    static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    static final String PROMOTIONS = "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1";
+    static final String MIDDLEGAME = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8";
+
+    /**
+     * The moves of a sample game, the Ruy Lopez main line into a typical middlegame.
+     */
+    static final String[] SAMPLE_GAME = {
+            "e4", "e5", "Nf3", "Nc6", "Bb5", "a6", "Ba4", "Nf6", "O-O", "Be7",
+            "Re1", "b5", "Bb3", "d6", "c3", "O-O", "h3", "Nb8", "d4", "Nbd7",
+            "Nbd2", "Bb7", "Bc2", "Re8", "Nf1", "Bf8", "Ng3", "g6", "a4", "c5",
+            "d5", "c4", "Bg5", "h6", "Be3", "Nc5", "Qd2", "h5", "Bg5", "Be7"
+    };
+
+    private BenchmarkPositions() {}
+
+    /**
+     * Load a position.
+     */
+    static Chess load(String fen) {
+        return new Chess(fen);
+    }
+
+    /**
+     * Play the sample game from the starting position.
+     */
+    static Chess playSampleGame() {
+        var chess = new Chess();
+        chess.header("White", "White Player", "Black", "Black Player", "Event", "Benchmark");
+
+        for (var san : SAMPLE_GAME) {
+            chess.move(new MoveOptions(null, null, san, null, false));
+        }
+
+        return chess;
+    }
+}
@@ -0,0 +1,44 @@
+package com.silyosbekov.chessmate.engine;
+
+import com.silyosbekov.chessmate.engine.option.MoveOptions;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates the legal moves of a position and plays a move with its undo, the engine calls of every move command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+    @Param({"START", "KIWIPETE"})
+    public String position;
+
+    private Chess chess;
+    private MoveOptions moveOptions;
+
+    @Setup
+    public void setUp() {
+        chess = BenchmarkPositions.load(position.equals("START") ? BenchmarkPositions.START : BenchmarkPositions.KIWIPETE);
+
+        // The last generated move, so the lookup of the move visits every generated move
+        var moves = chess.generateMoves();
+        var move = moves[moves.length - 1];
+        moveOptions = new MoveOptions(move.getFrom(), move.getTo(), null, move.getPromotion(), true);
+    }
+
+    @Benchmark
+    public Move[] generateMoves() {
+        return chess.generateMoves();
+    }
+
+    @Benchmark
+    public Move moveAndUndo() {
+        chess.move(moveOptions);
+        return chess.undo();
+    }
+}
@@ -0,0 +1,57 @@
+package com.silyosbekov.chessmate.engine;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trips the FEN and PGN notations of the engine and the PGN model of the games.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotationBenchmark {
+    private Chess chess;
+    private Chess sampleGame;
+    private String pgn;
+    private String gamePgn;
+
+    @Setup
+    public void setUp() {
+        chess = BenchmarkPositions.load(BenchmarkPositions.KIWIPETE);
+        sampleGame = BenchmarkPositions.playSampleGame();
+        pgn = sampleGame.pgn();
+
+        // The PGN of a game as stored with the game's headers
+        var game = new Pgn("White Player", "Black Player");
+        game.addHeader("TimeControl", "300+3");
+        gamePgn = game.toString() + pgn.substring(pgn.indexOf("\n\n"));
+    }
+
+    @Benchmark
+    public String fenRoundTrip() {
+        var fen = chess.fen();
+        chess.load(fen);
+        return fen;
+    }
+
+    @Benchmark
+    public String loadPgn() {
+        var game = new Chess();
+        game.loadPgn(pgn, false, null);
+        return game.fen();
+    }
+
+    @Benchmark
+    public String pgn() {
+        return sampleGame.pgn();
+    }
+
+    @Benchmark
+    public String pgnModelRoundTrip() {
+        return Pgn.fromString(gamePgn).toString();
+    }
+}
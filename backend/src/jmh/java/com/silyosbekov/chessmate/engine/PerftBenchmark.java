@@ -0,0 +1,42 @@
+package com.silyosbekov.chessmate.engine;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the leaf nodes of the move tree of the standard perft positions, exercising move generation,
+ * make and undo of every move type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+    @Param({"START", "KIWIPETE", "ENDGAME", "PROMOTIONS", "MIDDLEGAME"})
+    public String position;
+
+    @Param({"1", "2", "3"})
+    public int depth;
+
+    private Chess chess;
+
+    @Setup
+    public void setUp() {
+        chess = BenchmarkPositions.load(switch (position) {
+            case "START" -> BenchmarkPositions.START;
+            case "KIWIPETE" -> BenchmarkPositions.KIWIPETE;
+            case "ENDGAME" -> BenchmarkPositions.ENDGAME;
+            case "PROMOTIONS" -> BenchmarkPositions.PROMOTIONS;
+            case "MIDDLEGAME" -> BenchmarkPositions.MIDDLEGAME;
+            default -> throw new IllegalArgumentException("Unknown position " + position);
+        });
+    }
+
+    @Benchmark
+    public int perft() {
+        return chess.perft(depth);
+    }
+}
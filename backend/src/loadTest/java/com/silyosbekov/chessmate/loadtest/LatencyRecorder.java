@@ -0,0 +1,44 @@
+package com.silyosbekov.chessmate.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Records latencies in nanoseconds and computes their percentiles. Every sample is kept,
+ * the percentiles are exact for the sample counts of a load test run.
+ */
+final class LatencyRecorder {
+    private long[] samples = new long[1024];
+    private int count;
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+
+        samples[count++] = nanos;
+    }
+
+    synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Get the latency below which the given share of the samples fall.
+     * @param percentile The percentile between 0 and 100
+     * @return The latency in nanoseconds, or 0 if nothing was recorded
+     */
+    synchronized long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+
+        var sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        var index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sorted[Math.min(Math.max(index, 0), count - 1)];
+    }
+
+    synchronized long getMax() {
+        return getPercentile(100);
+    }
+}
@@ -0,0 +1,130 @@
+package com.silyosbekov.chessmate.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silyosbekov.chessmate.Application;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of a single node, run with {@code ./gradlew loadTest}.
+ * <p>
+ *     Starts the backend with an in-memory H2 database, unless the URL of a running node is given,
+ *     and plays the games of the simulated player pairs over real WebSocket connections to the {@code /ws}
+ *     STOMP endpoint, see {@link SimulatedPair}. Each pair runs on its own virtual thread. The rate limits
+ *     are turned off on the embedded node, the pairs send far more commands than a real player.
+ *     Prints the move round trip percentiles, the move throughput and the events received by all clients,
+ *     and exits with status 1 if a pair failed or a move was rejected.
+ * </p>
+ * <p>
+ *     Options, all of the form {@code --name=value}:
+ *     {@code pairs} (100), {@code games-per-pair} (5), {@code ramp-up-ms} (5000), {@code think-time-ms} (0),
+ *     {@code timeout-ms} (10000), {@code url} of a running node, e.g. {@code ws://localhost:8000/ws},
+ *     and {@code relay}, the {@code host:port} of the STOMP broker the embedded node relays the topics to.
+ * </p>
+ */
+public final class LoadTest {
+    private static final int MAX_REPORTED_FAILURES = 10;
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws InterruptedException {
+        var options = LoadTestOptions.parse(args);
+        var context = options.url() == null ? startNode(options) : null;
+        var url = context != null
+                ? "ws://localhost:%d/ws".formatted(((WebServerApplicationContext) context).getWebServer().getPort())
+                : options.url();
+
+        var stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        var messageConverter = new MappingJackson2MessageConverter();
+        messageConverter.setObjectMapper(new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+        stompClient.setMessageConverter(messageConverter);
+
+        var results = new LoadTestResults();
+        var failures = new ArrayList<String>();
+        var delayNanos = TimeUnit.MILLISECONDS.toNanos(options.rampUpMillis()) / options.pairs();
+        System.out.printf("Running %d pairs, %d games each, against %s%n", options.pairs(), options.gamesPerPair(), url);
+        var start = System.nanoTime();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var i = 0; i < options.pairs(); i++) {
+                executor.execute(() -> runPair(stompClient, url, options, results, failures));
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            }
+        }
+
+        var elapsedNanos = System.nanoTime() - start;
+        stompClient.stop();
+        failures.stream().limit(MAX_REPORTED_FAILURES).forEach(System.err::println);
+        results.print(System.out, elapsedNanos);
+
+        if (context != null) {
+            context.close();
+        }
+
+        System.exit(results.hasFailures() ? 1 : 0);
+    }
+
+    private static void runPair(
+            WebSocketStompClient stompClient,
+            String url,
+            LoadTestOptions options,
+            LoadTestResults results,
+            List<String> failures)
+    {
+        try (var host = StompPlayer.connect(stompClient, url, options.timeoutMillis(), results.getReceivedEvents());
+             var guest = StompPlayer.connect(stompClient, url, options.timeoutMillis(), results.getReceivedEvents()))
+        {
+            new SimulatedPair(host, guest, options, results).play();
+        }
+        catch (Exception e) {
+            results.pairFailed();
+
+            synchronized (failures) {
+                failures.add("Pair failed: " + e);
+            }
+        }
+    }
+
+    /**
+     * Start an embedded node on a random port. The properties are passed as command line arguments,
+     * which take precedence over application.properties.
+     */
+    private static ConfigurableApplicationContext startNode(LoadTestOptions options) {
+        var properties = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--chessmate.rate-limit.stomp=",
+                "--chessmate.rate-limit.rest="));
+
+        if (options.relay() != null) {
+            var hostAndPort = options.relay().split(":");
+            properties.add("--chessmate.broker.relay.enabled=true");
+            properties.add("--chessmate.broker.relay.host=" + hostAndPort[0]);
+
+            if (hostAndPort.length > 1) {
+                properties.add("--chessmate.broker.relay.port=" + hostAndPort[1]);
+            }
+        }
+
+        return SpringApplication.run(Application.class, properties.toArray(String[]::new));
+    }
+}
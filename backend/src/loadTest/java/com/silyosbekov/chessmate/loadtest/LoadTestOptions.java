@@ -0,0 +1,51 @@
+package com.silyosbekov.chessmate.loadtest;
+
+import java.util.HashMap;
+
+/**
+ * Options of a load test run, parsed from {@code --name=value} arguments.
+ * @param pairs The number of simulated player pairs playing at the same time
+ * @param gamesPerPair The number of games each pair plays one after another
+ * @param rampUpMillis The time over which the pairs are started
+ * @param thinkTimeMillis The pause of a player before each move
+ * @param timeoutMillis The maximum time to wait for a reply of the server
+ * @param url The WebSocket URL of a running node, or null to start an embedded node
+ * @param relay The host and port of the STOMP broker the embedded node relays to, or null for the simple broker
+ */
+record LoadTestOptions(
+        int pairs,
+        int gamesPerPair,
+        long rampUpMillis,
+        long thinkTimeMillis,
+        long timeoutMillis,
+        String url,
+        String relay)
+{
+    static LoadTestOptions parse(String[] args) {
+        var values = new HashMap<String, String>();
+
+        for (var arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected an argument of the form --name=value, got " + arg);
+            }
+
+            var separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        var options = new LoadTestOptions(
+                Integer.parseInt(values.getOrDefault("pairs", "100")),
+                Integer.parseInt(values.getOrDefault("games-per-pair", "5")),
+                Long.parseLong(values.getOrDefault("ramp-up-ms", "5000")),
+                Long.parseLong(values.getOrDefault("think-time-ms", "0")),
+                Long.parseLong(values.getOrDefault("timeout-ms", "10000")),
+                values.get("url"),
+                values.get("relay"));
+
+        if (options.pairs() <= 0 || options.gamesPerPair() <= 0) {
+            throw new IllegalArgumentException("Pairs and games per pair must be positive");
+        }
+
+        return options;
+    }
+}
@@ -0,0 +1,74 @@
+package com.silyosbekov.chessmate.loadtest;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of a load test run, updated by all simulated pairs.
+ */
+final class LoadTestResults {
+    private final LatencyRecorder moveLatencies = new LatencyRecorder();
+    private final LongAdder receivedEvents = new LongAdder();
+    private final LongAdder rejectedMoves = new LongAdder();
+    private final AtomicInteger ongoingGames = new AtomicInteger();
+    private final AtomicInteger peakOngoingGames = new AtomicInteger();
+    private final LongAdder completedGames = new LongAdder();
+    private final LongAdder failedPairs = new LongAdder();
+
+    LongAdder getReceivedEvents() {
+        return receivedEvents;
+    }
+
+    void gameStarted() {
+        peakOngoingGames.accumulateAndGet(ongoingGames.incrementAndGet(), Math::max);
+    }
+
+    void gameCompleted() {
+        ongoingGames.decrementAndGet();
+        completedGames.increment();
+    }
+
+    void moveAcknowledged(long roundTripNanos, boolean isAccepted) {
+        moveLatencies.record(roundTripNanos);
+
+        if (!isAccepted) {
+            rejectedMoves.increment();
+        }
+    }
+
+    void pairFailed() {
+        failedPairs.increment();
+    }
+
+    boolean hasFailures() {
+        return failedPairs.sum() > 0 || rejectedMoves.sum() > 0;
+    }
+
+    /**
+     * Print the summary of the run.
+     * @param out The stream to print to
+     * @param elapsedNanos The duration of the run
+     */
+    void print(PrintStream out, long elapsedNanos) {
+        var seconds = elapsedNanos / 1e9;
+        var moves = moveLatencies.getCount();
+
+        out.printf("Duration:           %.1f s%n", seconds);
+        out.printf("Games completed:    %d, peak ongoing %d%n", completedGames.sum(), peakOngoingGames.get());
+        out.printf("Pairs failed:       %d%n", failedPairs.sum());
+        out.printf("Moves:              %d, rejected %d%n", moves, rejectedMoves.sum());
+        out.printf("Move throughput:    %.1f moves/s%n", moves / seconds);
+        out.printf("Events received:    %.1f events/s%n", receivedEvents.sum() / seconds);
+        out.printf("Move RTT (ms):      p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                millis(moveLatencies.getPercentile(50)),
+                millis(moveLatencies.getPercentile(90)),
+                millis(moveLatencies.getPercentile(99)),
+                millis(moveLatencies.getPercentile(99.9)),
+                millis(moveLatencies.getMax()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
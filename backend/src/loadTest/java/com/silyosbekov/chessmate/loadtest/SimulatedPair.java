@@ -0,0 +1,129 @@
+package com.silyosbekov.chessmate.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.silyosbekov.chessmate.dto.AcceptDrawCommand;
+import com.silyosbekov.chessmate.dto.CreateAnonymousGameCommand;
+import com.silyosbekov.chessmate.dto.JoinGameCommand;
+import com.silyosbekov.chessmate.dto.MakeMoveCommand;
+import com.silyosbekov.chessmate.dto.OfferDrawCommand;
+import com.silyosbekov.chessmate.dto.ResignGameCommand;
+import com.silyosbekov.chessmate.model.PlayerColor;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Two simulated players playing a series of anonymous games against each other.
+ * <p>
+ *     The host creates a game as white and the guest joins it. The players then play the scripted moves,
+ *     each move is timed from sending the command until the mover receives its acknowledgement.
+ *     The games end alternately by the host resigning and by a draw offered by the host and accepted by the guest.
+ * </p>
+ */
+final class SimulatedPair {
+    /**
+     * The scripted moves as from and to squares, a quiet Italian game without castling or promotions.
+     */
+    static final String[] MOVES = {
+            "e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "f8c5", "c2c3", "g8f6", "d2d3", "d7d6",
+            "b1d2", "a7a6", "h2h3", "h7h6", "a2a4", "a6a5", "d2f1", "c8e6", "c4e6", "f7e6"
+    };
+
+    private final StompPlayer host;
+    private final StompPlayer guest;
+    private final LoadTestOptions options;
+    private final LoadTestResults results;
+
+    SimulatedPair(StompPlayer host, StompPlayer guest, LoadTestOptions options, LoadTestResults results) {
+        this.host = host;
+        this.guest = guest;
+        this.options = options;
+        this.results = results;
+    }
+
+    /**
+     * Play the games of the pair.
+     * @throws TimeoutException if the server did not reply in time, the remaining games are not played
+     */
+    void play() throws ExecutionException, InterruptedException, TimeoutException {
+        for (var i = 0; i < options.gamesPerPair(); i++) {
+            var gameId = createGame();
+            joinGame(gameId);
+            results.gameStarted();
+
+            for (var ply = 0; ply < MOVES.length; ply++) {
+                makeMove(gameId, ply);
+            }
+
+            if (i % 2 == 0) {
+                resign(gameId);
+            }
+            else {
+                draw(gameId);
+            }
+
+            results.gameCompleted();
+        }
+    }
+
+    private UUID createGame() throws ExecutionException, InterruptedException, TimeoutException {
+        var created = host.expect("created:" + host.getId());
+        host.send("/app/game/createAnonymous", new CreateAnonymousGameCommand(host.getId(), PlayerColor.WHITE));
+        return UUID.fromString(await(created).path("id").asText());
+    }
+
+    private void joinGame(UUID gameId) throws ExecutionException, InterruptedException, TimeoutException {
+        var joined = guest.expect("join:" + gameId);
+        guest.send("/app/match/joinAnonymous", new JoinGameCommand(gameId, guest.getId()));
+        await(joined);
+    }
+
+    private void makeMove(UUID gameId, int ply) throws ExecutionException, InterruptedException, TimeoutException {
+        var isWhite = ply % 2 == 0;
+        var mover = isWhite ? host : guest;
+        var move = MOVES[ply];
+
+        if (options.thinkTimeMillis() > 0) {
+            Thread.sleep(options.thinkTimeMillis());
+        }
+
+        var ack = mover.expect("ack:" + gameId + ":" + ply);
+        var command = new MakeMoveCommand(
+                gameId,
+                isWhite ? PlayerColor.WHITE : PlayerColor.BLACK,
+                ply,
+                move.substring(0, 2),
+                move.substring(2, 4),
+                null,
+                false,
+                false);
+
+        var start = System.nanoTime();
+        mover.send("/app/match/move", command);
+        var status = await(ack).path("status").asText();
+        results.moveAcknowledged(System.nanoTime() - start, "ACCEPTED".equals(status));
+    }
+
+    private void resign(UUID gameId) throws ExecutionException, InterruptedException, TimeoutException {
+        var resigned = host.expect("status:" + gameId + ":RESIGNED");
+        host.send("/app/match/resign", new ResignGameCommand(gameId, host.getId()));
+        await(resigned);
+    }
+
+    private void draw(UUID gameId) throws ExecutionException, InterruptedException, TimeoutException {
+        var offered = guest.expect("drawOffered:" + gameId);
+        host.send("/app/match/offerDraw", new OfferDrawCommand(gameId, host.getId()));
+        await(offered);
+
+        var drawn = guest.expect("status:" + gameId + ":DRAW");
+        guest.send("/app/match/acceptDraw", new AcceptDrawCommand(gameId, guest.getId()));
+        await(drawn);
+    }
+
+    private JsonNode await(CompletableFuture<JsonNode> reply) throws ExecutionException, InterruptedException, TimeoutException {
+        return reply.get(options.timeoutMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,124 @@
+package com.silyosbekov.chessmate.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Simulated player with its own STOMP session, subscribed to the match topics like the web client.
+ * <p>
+ *     The match topics are broadcast to every subscriber, so each player receives the events of all games
+ *     and only completes the replies it awaits. A reply is awaited by a key derived from the event,
+ *     the key must be registered with {@link #expect(String)} before the command is sent.
+ * </p>
+ */
+final class StompPlayer implements AutoCloseable {
+    private final UUID id = UUID.randomUUID();
+    private final StompSession session;
+    private final LongAdder receivedEvents;
+    private final Map<String, CompletableFuture<JsonNode>> expectedReplies = new ConcurrentHashMap<>();
+
+    private StompPlayer(StompSession session, LongAdder receivedEvents) {
+        this.session = session;
+        this.receivedEvents = receivedEvents;
+    }
+
+    /**
+     * Connect a new player and subscribe to the game and match topics.
+     * @param stompClient The client opening the WebSocket connection
+     * @param url The WebSocket URL of the STOMP endpoint
+     * @param timeoutMillis The maximum time to wait for the connection
+     * @param receivedEvents Counts the events received by all players
+     */
+    static StompPlayer connect(WebSocketStompClient stompClient, String url, long timeoutMillis, LongAdder receivedEvents)
+            throws ExecutionException, InterruptedException, TimeoutException
+    {
+        var session = stompClient.connectAsync(url, new StompSessionHandlerAdapter() {})
+                .get(timeoutMillis, TimeUnit.MILLISECONDS);
+        var player = new StompPlayer(session, receivedEvents);
+
+        player.subscribe("/topic/game.created", game -> "created:" + game.path("hostPlayerId").asText());
+        player.subscribe("/topic/match.join", game -> "join:" + game.path("id").asText());
+        player.subscribe("/user/queue/match.moveAck", ack -> "ack:" + ack.path("gameId").asText() + ":" + ack.path("requestedPly").asInt());
+        player.subscribe("/topic/match.state", StompPlayer::stateKey);
+        return player;
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    /**
+     * Register a reply to wait for.
+     * @param key The key of the awaited event
+     * @return Completed with the event when it arrives
+     */
+    CompletableFuture<JsonNode> expect(String key) {
+        var reply = new CompletableFuture<JsonNode>();
+        expectedReplies.put(key, reply);
+        return reply;
+    }
+
+    /**
+     * Send a command to an application destination.
+     * @param destination The destination, e.g. {@code /app/match/move}
+     * @param command The command, sent as JSON
+     */
+    void send(String destination, Object command) {
+        session.send(destination, command);
+    }
+
+    @Override
+    public void close() {
+        if (session.isConnected()) {
+            session.disconnect();
+        }
+    }
+
+    private void subscribe(String destination, Function<JsonNode, String> keyOf) {
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return JsonNode.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                receivedEvents.increment();
+                var key = keyOf.apply((JsonNode) payload);
+                var reply = key != null ? expectedReplies.remove(key) : null;
+
+                if (reply != null) {
+                    reply.complete((JsonNode) payload);
+                }
+            }
+        });
+    }
+
+    /**
+     * Key of a game state delta, only the draw offers and the final statuses are awaited.
+     */
+    private static String stateKey(JsonNode delta) {
+        var gameId = delta.path("gameId").asText();
+
+        if (delta.hasNonNull("drawOfferedBy")) {
+            return "drawOffered:" + gameId;
+        }
+
+        return delta.hasNonNull("status") ? "status:" + gameId + ":" + delta.path("status").asText() : null;
+    }
+}
@@ -2,11 +2,13 @@ package com.silyosbekov.chessmate;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main class of the application.
  */
 @SpringBootApplication
+@EnableScheduling
 public class Application {
 
     /**
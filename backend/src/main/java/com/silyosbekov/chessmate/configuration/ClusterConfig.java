@@ -0,0 +1,18 @@
+package com.silyosbekov.chessmate.configuration;
+
+import com.silyosbekov.chessmate.core.ClusterBus;
+import com.silyosbekov.chessmate.core.InProcessClusterBus;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ClusterConfig {
+
+    /**
+     * The in-process bus runs the nodes of a single JVM, a network transport replaces it for multi-host clusters.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ClusterBus clusterBus() {
+        return new InProcessClusterBus();
+    }
+}
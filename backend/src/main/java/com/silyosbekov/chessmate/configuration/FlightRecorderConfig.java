@@ -0,0 +1,89 @@
+package com.silyosbekov.chessmate.configuration;
+
+import com.silyosbekov.chessmate.jfr.EngineMoveEvent;
+import com.silyosbekov.chessmate.jfr.GameLifecycleEvent;
+import com.silyosbekov.chessmate.jfr.MoveEvent;
+import com.silyosbekov.chessmate.jfr.PgnParseEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Starts a continuous flight recording of the ChessMate events when enabled by the configuration.
+ * <p>
+ *     The events are disabled by default, so they cost a single check on the hot paths until a recording enables
+ *     them. This recording enables them with the configured threshold and keeps the last events on disk
+ *     for the maximum age, it is dumped to the destination when the application stops. A recording started
+ *     with jcmd enables the events the same way through its settings, e.g. {@code chessmate.Move#enabled=true}.
+ * </p>
+ */
+@Configuration
+public class FlightRecorderConfig {
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderConfig.class);
+    private static final List<Class<? extends Event>> EVENT_TYPES = List.of(
+            MoveEvent.class,
+            EngineMoveEvent.class,
+            PgnParseEvent.class,
+            GameLifecycleEvent.class);
+
+    private final boolean isEnabled;
+    private final long thresholdMillis;
+    private final long maxAgeMinutes;
+    private final String destination;
+    private Recording recording;
+
+    public FlightRecorderConfig(
+            @Value("${chessmate.jfr.enabled:false}") boolean isEnabled,
+            @Value("${chessmate.jfr.threshold-ms:0}") long thresholdMillis,
+            @Value("${chessmate.jfr.max-age-minutes:30}") long maxAgeMinutes,
+            @Value("${chessmate.jfr.destination:chessmate.jfr}") String destination)
+    {
+        this.isEnabled = isEnabled;
+        this.thresholdMillis = thresholdMillis;
+        this.maxAgeMinutes = maxAgeMinutes;
+        this.destination = destination;
+    }
+
+    @PostConstruct
+    public void startRecording() throws IOException {
+        if (!isEnabled || !FlightRecorder.isAvailable()) {
+            return;
+        }
+
+        recording = new Recording();
+        recording.setName("chessmate");
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        recording.setDestination(Path.of(destination));
+
+        for (var eventType : EVENT_TYPES) {
+            recording.enable(eventType).withThreshold(Duration.ofMillis(thresholdMillis));
+        }
+
+        recording.start();
+        logger.info("Started flight recording of the ChessMate events, dumped to {} on shutdown", destination);
+    }
+
+    /**
+     * Stop the recording and dump it to the destination.
+     */
+    @PreDestroy
+    public void stopRecording() {
+        if (recording != null) {
+            recording.stop();
+            recording.close();
+            recording = null;
+        }
+    }
+}
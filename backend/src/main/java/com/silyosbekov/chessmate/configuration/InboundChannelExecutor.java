@@ -0,0 +1,62 @@
+package com.silyosbekov.chessmate.configuration;
+
+import com.silyosbekov.chessmate.core.KeyedSerialExecutor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor of the client inbound channel that handles every STOMP message on its own virtual thread
+ * instead of a bounded thread pool, so handlers blocked on the database do not stall the other games.
+ * <p>
+ *     The messages of a WebSocket session are handled one at a time in the order they were received,
+ *     the same guarantee the single connection of a player had with the thread pool. The moves of a game
+ *     are further ordered by the game's ply sequence in {@link com.silyosbekov.chessmate.service.MatchService}.
+ *     The channel registration only accepts a {@link ThreadPoolTaskExecutor}, the inherited pool is never used.
+ * </p>
+ */
+public class InboundChannelExecutor extends ThreadPoolTaskExecutor {
+    private final ExecutorService virtualThreadExecutor;
+    private final KeyedSerialExecutor sessionExecutor;
+
+    public InboundChannelExecutor(MeterRegistry meterRegistry) {
+        this.virtualThreadExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("inbound-", 0).factory());
+        this.sessionExecutor = new KeyedSerialExecutor(virtualThreadExecutor, InboundChannelExecutor::sessionIdOf);
+        setThreadNamePrefix("inbound-");
+
+        Gauge.builder("chessmate.inbound.queued", sessionExecutor, KeyedSerialExecutor::getQueuedCount)
+                .description("Inbound messages waiting behind an earlier message of the same session")
+                .register(meterRegistry);
+        Gauge.builder("chessmate.inbound.running", sessionExecutor, KeyedSerialExecutor::getRunningCount)
+                .description("Inbound messages being handled")
+                .register(meterRegistry);
+        Gauge.builder("chessmate.inbound.sessions", sessionExecutor, KeyedSerialExecutor::getActiveKeysCount)
+                .description("Sessions with inbound messages being handled or waiting")
+                .register(meterRegistry);
+        FunctionCounter.builder("chessmate.inbound.completed", sessionExecutor, KeyedSerialExecutor::getCompletedCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        sessionExecutor.execute(task);
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        virtualThreadExecutor.shutdown();
+    }
+
+    private static Object sessionIdOf(Runnable task) {
+        return task instanceof MessageHandlingRunnable runnable
+                ? SimpMessageHeaderAccessor.getSessionId(runnable.getMessage().getHeaders())
+                : null;
+    }
+}
@@ -0,0 +1,215 @@
+package com.silyosbekov.chessmate.configuration;
+
+import com.silyosbekov.chessmate.core.OutboundQueues;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BinaryOperator;
+
+/**
+ * Executor of the client outbound channel that queues the messages of each WebSocket session separately,
+ * so a slow client only backs up its own queue, see {@link OutboundQueues}.
+ * <p>
+ *     Messages sent to the destinations with a payload coalescer supersede the queued message of the same
+ *     destination, their payloads are merged into one message. The merged message is still sent by the channel's
+ *     send task of the newest message, which the executor replaces with the merged message as the first
+ *     interceptor of the channel, so the other interceptors handle the message actually sent.
+ *     Sessions exceeding the limits are closed with {@link CloseStatus#SESSION_NOT_RELIABLE} and the reason.
+ *     The executor also decorates the WebSocket handler to know the open sessions. The channel registration
+ *     only accepts a {@link ThreadPoolTaskExecutor}, the inherited pool is never used.
+ * </p>
+ */
+public class OutboundChannelExecutor extends ThreadPoolTaskExecutor
+        implements WebSocketHandlerDecoratorFactory, ExecutorChannelInterceptor
+{
+    private static final Logger logger = LoggerFactory.getLogger(OutboundChannelExecutor.class);
+    private static final ThreadLocal<Message<?>> mergedMessage = new ThreadLocal<>();
+
+    private final ExecutorService virtualThreadExecutor;
+    private final OutboundQueues queues;
+    private final Map<String, BinaryOperator<byte[]>> payloadCoalescers;
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new executor.
+     * @param meterRegistry The registry of the buffer metrics
+     * @param bufferSizeLimit The maximum number of bytes queued for a session
+     * @param sendTimeLimitMillis The maximum time a single send may take in milliseconds
+     * @param payloadCoalescers Merge a queued payload with a newer payload, keyed by destination
+     */
+    public OutboundChannelExecutor(
+            MeterRegistry meterRegistry,
+            int bufferSizeLimit,
+            int sendTimeLimitMillis,
+            Map<String, BinaryOperator<byte[]>> payloadCoalescers)
+    {
+        this.virtualThreadExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbound-", 0).factory());
+        this.queues = new OutboundQueues(virtualThreadExecutor, bufferSizeLimit, sendTimeLimitMillis, this::closeSlowConsumer);
+        this.payloadCoalescers = payloadCoalescers;
+        setThreadNamePrefix("outbound-");
+
+        Gauge.builder("chessmate.outbound.buffered.bytes", queues, OutboundQueues::getBufferedBytes)
+                .description("Bytes queued for all sessions")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("chessmate.outbound.buffered.messages", queues, OutboundQueues::getBufferedCount)
+                .description("Messages queued for all sessions")
+                .register(meterRegistry);
+        Gauge.builder("chessmate.outbound.buffered.max", queues, OutboundQueues::getMaxSessionBufferedBytes)
+                .description("Bytes queued for the most backed up session")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("chessmate.outbound.sessions", queues, OutboundQueues::getSessionsCount)
+                .register(meterRegistry);
+        FunctionCounter.builder("chessmate.outbound.coalesced", queues, OutboundQueues::getCoalescedCount)
+                .description("Messages superseded by a newer message before they were sent")
+                .register(meterRegistry);
+        FunctionCounter.builder("chessmate.outbound.slow.consumers", queues, OutboundQueues::getSlowConsumersCount)
+                .description("Sessions closed for exceeding the outbound limits")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        var sessionId = task instanceof MessageHandlingRunnable runnable
+                ? SimpMessageHeaderAccessor.getSessionId(runnable.getMessage().getHeaders())
+                : null;
+
+        // Messages of closed sessions are not queued, the queue would never be removed
+        if (sessionId == null || !sessions.containsKey(sessionId)) {
+            virtualThreadExecutor.execute(task);
+            return;
+        }
+
+        var runnable = (MessageHandlingRunnable) task;
+        var destination = SimpMessageHeaderAccessor.getDestination(runnable.getMessage().getHeaders());
+        var payloadCoalescer = destination != null ? payloadCoalescers.get(destination) : null;
+        queues.enqueue(sessionId, new OutboundMessage(runnable, runnable.getMessage(), destination, payloadCoalescer));
+    }
+
+    /**
+     * Replace the message of a coalesced send task with the merged message.
+     * Must be the first interceptor of the channel.
+     */
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        var merged = mergedMessage.get();
+        return merged != null ? merged : message;
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        virtualThreadExecutor.shutdown();
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), session);
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                queues.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private void closeSlowConsumer(String sessionId, String reason) {
+        var session = sessions.get(sessionId);
+        logger.warn("Closing slow WebSocket session {}: {}", sessionId, reason);
+
+        if (session == null) {
+            return;
+        }
+
+        // Closing may block on the same slow connection, keep it off the publishing thread
+        virtualThreadExecutor.execute(() -> {
+            try {
+                session.close(CloseStatus.SESSION_NOT_RELIABLE.withReason(reason));
+            }
+            catch (IOException e) {
+                logger.debug("Failed to close WebSocket session {}", sessionId, e);
+            }
+        });
+    }
+
+    /**
+     * Outbound message of a session. A coalesced message is sent by the channel's send task of the newest message,
+     * with the merged message set for {@link #beforeHandle} on the sending thread.
+     */
+    private static final class OutboundMessage implements OutboundQueues.Message {
+        private final MessageHandlingRunnable sendTask;
+        private final Message<?> message;
+        private final String destination;
+        private final BinaryOperator<byte[]> payloadCoalescer;
+
+        OutboundMessage(MessageHandlingRunnable sendTask, Message<?> message, String destination, BinaryOperator<byte[]> payloadCoalescer) {
+            this.sendTask = sendTask;
+            this.message = message;
+            this.destination = destination;
+            this.payloadCoalescer = payloadCoalescer;
+        }
+
+        @Override
+        public void send() {
+            if (message == sendTask.getMessage()) {
+                sendTask.run();
+                return;
+            }
+
+            mergedMessage.set(message);
+
+            try {
+                sendTask.run();
+            }
+            finally {
+                mergedMessage.remove();
+            }
+        }
+
+        @Override
+        public int size() {
+            return message.getPayload() instanceof byte[] payload ? payload.length : 0;
+        }
+
+        @Override
+        public Object coalesceKey() {
+            return payloadCoalescer != null && message.getPayload() instanceof byte[] ? destination : null;
+        }
+
+        @Override
+        public OutboundQueues.Message coalesce(OutboundQueues.Message queued) {
+            var queuedPayload = (byte[]) ((OutboundMessage) queued).message.getPayload();
+            var payload = payloadCoalescer.apply(queuedPayload, (byte[]) message.getPayload());
+            return new OutboundMessage(sendTask, MessageBuilder.createMessage(payload, message.getHeaders()), destination, payloadCoalescer);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.silyosbekov.chessmate.configuration;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silyosbekov.chessmate.dto.MakeMoveCommand;
+import com.silyosbekov.chessmate.dto.MoveAckDto;
+import com.silyosbekov.chessmate.model.MoveAckStatus;
+import com.silyosbekov.chessmate.service.RateLimitService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Client inbound channel interceptor that drops the STOMP messages of a client exceeding the rate limit
+ * of their destination. Clients are keyed by their authenticated user, or by the WebSocket session
+ * for anonymous players, and by the player named in the payload, so a player cannot reset the limit
+ * by reconnecting. A dropped move command is answered with a {@link MoveAckStatus#REJECTED} acknowledgement,
+ * so the client does not wait for it.
+ */
+public class RateLimitChannelInterceptor implements ChannelInterceptor {
+    public static final String MOVE_DESTINATION = "/app/match/move";
+    public static final String MOVE_ACK_DESTINATION = "/queue/match.moveAck";
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitChannelInterceptor.class);
+
+    private final RateLimitService rateLimitService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The messaging template is created by the WebSocket configuration registering this interceptor,
+     * so it is only looked up once a move has to be rejected
+     */
+    private final ObjectProvider<SimpMessagingTemplate> simpMessagingTemplate;
+
+    public RateLimitChannelInterceptor(
+            RateLimitService rateLimitService,
+            ObjectMapper objectMapper,
+            ObjectProvider<SimpMessagingTemplate> simpMessagingTemplate)
+    {
+        this.rateLimitService = rateLimitService;
+        this.objectMapper = objectMapper;
+        this.simpMessagingTemplate = simpMessagingTemplate;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        var headers = message.getHeaders();
+
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+
+        var destination = SimpMessageHeaderAccessor.getDestination(headers);
+
+        if (!rateLimitService.isStompLimited(destination)) {
+            return message;
+        }
+
+        var user = SimpMessageHeaderAccessor.getUser(headers);
+        var sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        var clientKey = user != null ? user.getName() : sessionId;
+        var payload = readPayload(message);
+        var playerKey = playerKeyOf(payload);
+
+        if (rateLimitService.tryAcquireStomp(destination, clientKey)
+                && (playerKey == null || rateLimitService.tryAcquireStomp(destination, playerKey)))
+        {
+            return message;
+        }
+
+        logger.debug("Dropped message to {} from {}, rate limit exceeded", destination, clientKey);
+
+        if (MOVE_DESTINATION.equals(destination) && payload != null && sessionId != null) {
+            rejectMove(payload, user != null ? user.getName() : sessionId, sessionId);
+        }
+
+        return null;
+    }
+
+    /**
+     * Send the rejected acknowledgement of a move command to the session that sent it, like the acknowledgements
+     * of the match controller. The interceptor does not know the game, so the ack carries the requested ply.
+     */
+    private void rejectMove(JsonNode payload, String user, String sessionId) {
+        MakeMoveCommand command;
+
+        try {
+            command = objectMapper.treeToValue(payload, MakeMoveCommand.class);
+        }
+        catch (JsonProcessingException e) {
+            return;
+        }
+
+        var ack = new MoveAckDto(command.gameId(), command.color(), command.ply(), command.ply(), MoveAckStatus.REJECTED, List.of());
+        var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setLeaveMutable(true);
+        simpMessagingTemplate.getObject().convertAndSendToUser(user, MOVE_ACK_DESTINATION, ack, accessor.getMessageHeaders());
+    }
+
+    private JsonNode readPayload(Message<?> message) {
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            return null;
+        }
+
+        try {
+            var node = objectMapper.readTree(payload);
+            return node != null && node.isObject() ? node : null;
+        }
+        catch (IOException e) {
+            // Not JSON, e.g. a binary move frame
+            return null;
+        }
+    }
+
+    /**
+     * The player sending a command, the player ID of the payload or the seat of a move command.
+     */
+    private static String playerKeyOf(JsonNode payload) {
+        if (payload == null) {
+            return null;
+        }
+
+        if (payload.hasNonNull("playerId")) {
+            return "player:" + payload.get("playerId").asText();
+        }
+        else if (payload.hasNonNull("gameId") && payload.hasNonNull("color")) {
+            return "seat:" + payload.get("gameId").asText() + ":" + payload.get("color").asText();
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.silyosbekov.chessmate.configuration;
+
+import com.silyosbekov.chessmate.service.RateLimitService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter that rejects the REST requests of a client exceeding the rate limit of the endpoint
+ * with 429 Too Many Requests and a Retry-After header. Clients are keyed by their authenticated user,
+ * or by their address for anonymous players.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimitService rateLimitService;
+
+    public RateLimitFilter(RateLimitService rateLimitService) {
+        this.rateLimitService = rateLimitService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException
+    {
+        var endpoint = request.getMethod() + " " + request.getRequestURI();
+        var principal = request.getUserPrincipal();
+        var clientKey = principal != null ? principal.getName() : request.getRemoteAddr();
+        var retryAfterSeconds = rateLimitService.acquireRest(endpoint, clientKey);
+
+        if (retryAfterSeconds > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
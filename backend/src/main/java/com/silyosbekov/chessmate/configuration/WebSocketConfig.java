@@ -1,14 +1,75 @@
 package com.silyosbekov.chessmate.configuration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silyosbekov.chessmate.dto.PresenceDeltaDto;
+import com.silyosbekov.chessmate.service.OnlinePlayersService;
+import com.silyosbekov.chessmate.service.RateLimitService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.function.BinaryOperator;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final RateLimitService rateLimitService;
+    private final ObjectProvider<SimpMessagingTemplate> simpMessagingTemplate;
+    private final int bufferSizeLimit;
+    private final int sendTimeLimitMillis;
+    private final OutboundChannelExecutor outboundChannelExecutor;
+    private final boolean isRelayEnabled;
+    private final String relayHost;
+    private final int relayPort;
+    private final String relayLogin;
+    private final String relayPasscode;
+    private final String relayVirtualHost;
+
+    public WebSocketConfig(
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper,
+            RateLimitService rateLimitService,
+            ObjectProvider<SimpMessagingTemplate> simpMessagingTemplate,
+            @Value("${chessmate.outbound.buffer-size-limit:524288}") int bufferSizeLimit,
+            @Value("${chessmate.outbound.send-time-limit-ms:10000}") int sendTimeLimitMillis,
+            @Value("${chessmate.broker.relay.enabled:false}") boolean isRelayEnabled,
+            @Value("${chessmate.broker.relay.host:localhost}") String relayHost,
+            @Value("${chessmate.broker.relay.port:61613}") int relayPort,
+            @Value("${chessmate.broker.relay.login:guest}") String relayLogin,
+            @Value("${chessmate.broker.relay.passcode:guest}") String relayPasscode,
+            @Value("${chessmate.broker.relay.virtual-host:}") String relayVirtualHost)
+    {
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.rateLimitService = rateLimitService;
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.isRelayEnabled = isRelayEnabled;
+        this.relayHost = relayHost;
+        this.relayPort = relayPort;
+        this.relayLogin = relayLogin;
+        this.relayPasscode = relayPasscode;
+        this.relayVirtualHost = relayVirtualHost;
+
+        // Presence deltas waiting for a slow client are merged, moves and game state are never coalesced
+        this.outboundChannelExecutor = new OutboundChannelExecutor(meterRegistry, bufferSizeLimit, sendTimeLimitMillis, Map.of(
+                OnlinePlayersService.PRESENCE_TOPIC,
+                jsonCoalescer(PresenceDeltaDto.class, OnlinePlayersService::mergePresenceDeltas)));
+    }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
@@ -16,10 +77,65 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*");
     }
 
+    /**
+     * Configure the broker of the topics. The simple broker only delivers to the subscribers connected to this node.
+     * In relay mode the topics are relayed to an external STOMP broker (RabbitMQ with the STOMP plugin,
+     * ActiveMQ Artemis), so the events published on one node reach the subscribers of every node.
+     * The queues hold the replies to a single session, e.g. the move acknowledgements sent to {@code /user/queue/...}.
+     */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic");
+        if (isRelayEnabled) {
+            var relay = registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+
+            if (!relayVirtualHost.isBlank()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+        }
+        else {
+            registry.enableSimpleBroker("/topic", "/queue");
+        }
+
         registry.setApplicationDestinationPrefixes("/app");
         //registry.setUserDestinationPrefix("/user");
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(new InboundChannelExecutor(meterRegistry));
+        registration.interceptors(new RateLimitChannelInterceptor(rateLimitService, objectMapper, simpMessagingTemplate));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(outboundChannelExecutor);
+        // Replaces the messages of coalesced send tasks, registered first so later interceptors see the merged message
+        registration.interceptors(outboundChannelExecutor);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // The session's own buffer only backs up the outbound queues, sends of a session never overlap
+        registration.setSendBufferSizeLimit(bufferSizeLimit)
+                .setSendTimeLimit(sendTimeLimitMillis)
+                .addDecoratorFactory(outboundChannelExecutor);
+    }
+
+    private <T> BinaryOperator<byte[]> jsonCoalescer(Class<T> type, BinaryOperator<T> merge) {
+        return (queuedPayload, payload) -> {
+            try {
+                var merged = merge.apply(objectMapper.readValue(queuedPayload, type), objectMapper.readValue(payload, type));
+                return objectMapper.writeValueAsBytes(merged);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
 }
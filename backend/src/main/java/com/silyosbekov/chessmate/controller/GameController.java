@@ -6,6 +6,7 @@ import com.silyosbekov.chessmate.dto.CreateGameCommand;
 import com.silyosbekov.chessmate.dto.GameDto;
 import com.silyosbekov.chessmate.mapper.GameMapper;
 import com.silyosbekov.chessmate.service.GameService;
+import com.silyosbekov.chessmate.service.PlayerCacheService;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.stereotype.Controller;
@@ -14,9 +15,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 @Controller
 public class GameController {
     private final GameService gameService;
+    private final PlayerCacheService playerCacheService;
 
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, PlayerCacheService playerCacheService) {
         this.gameService = gameService;
+        this.playerCacheService = playerCacheService;
     }
 
     /**
@@ -28,7 +31,7 @@ public class GameController {
     @SendTo("/topic/game.created")
     public GameDto createGame(@RequestBody CreateGameCommand command) {
         var game = gameService.createNewGame(command.hostPlayerId(), command.hostPlayerColor());
-        return GameMapper.toDto(game);
+        return GameMapper.toDto(game, playerCacheService::getPlayer);
     }
 
     /**
@@ -39,7 +42,7 @@ public class GameController {
     @SendTo("/topic/game.created")
     public GameDto createAnonymousGame(@RequestBody CreateAnonymousGameCommand command) {
         var game = gameService.createNewAnonymousGame(command.hostPlayerId(), command.hostPlayerColor());
-        return GameMapper.toDto(game);
+        return GameMapper.toDto(game, playerCacheService::getPlayer);
     }
 
     /**
@@ -51,6 +54,6 @@ public class GameController {
     @SendTo("/topic/game.cancelled")
     public GameDto cancelGame(@RequestBody CancelGameCommand command) {
         var game = gameService.cancelGame(command.gameId());
-        return GameMapper.toDto(game);
+        return GameMapper.toDto(game, playerCacheService::getPlayer);
     }
 }
@@ -1,33 +1,81 @@
 package com.silyosbekov.chessmate.controller;
 
+import com.silyosbekov.chessmate.core.KeysetPagedResult;
 import com.silyosbekov.chessmate.dto.*;
 import com.silyosbekov.chessmate.mapper.GameMapper;
 import com.silyosbekov.chessmate.model.GameStatus;
+import com.silyosbekov.chessmate.model.PlayerColor;
 import com.silyosbekov.chessmate.service.GameService;
+import com.silyosbekov.chessmate.service.LobbyService;
+import com.silyosbekov.chessmate.service.PlayerCacheService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @RestController
 public class GameRestController {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final GameService gameService;
+    private final LobbyService lobbyService;
+    private final PlayerCacheService playerCacheService;
 
-    public GameRestController(GameService gameService) {
+    public GameRestController(
+            GameService gameService,
+            LobbyService lobbyService,
+            PlayerCacheService playerCacheService)
+    {
         this.gameService = gameService;
+        this.lobbyService = lobbyService;
+        this.playerCacheService = playerCacheService;
     }
 
+    /**
+     * Get a page of games, newest games first
+     * @param gameStatus Filter games by status
+     * @param cursor The cursor returned with the previous page, omit to get the first page
+     * @param pageSize The maximum number of games in the page
+     * @return The page of games without PGNs and the cursor of the next page
+     */
     @GetMapping("/api/games")
-    public ResponseEntity<List<GameDto>> getGame(@RequestParam(name = "gameStatus", required = false) GameStatus gameStatus) {
-        var games = gameService.getGames(gameStatus);
-        var gamesDto = new ArrayList<GameDto>();
+    public ResponseEntity<KeysetPagedResult<GameListItemDto>> getGame(
+            @RequestParam(name = "gameStatus", required = false) GameStatus gameStatus,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "pageSize", defaultValue = "20") int pageSize)
+    {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().body(KeysetPagedResult.fail("Page size must be between 1 and " + MAX_PAGE_SIZE));
+        }
 
-        for (var game : games) {
-            gamesDto.add(GameMapper.toDto(game));
+        try {
+            return ResponseEntity.ok(gameService.getGames(gameStatus, cursor, pageSize));
         }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(KeysetPagedResult.fail(e.getMessage()));
+        }
+    }
 
-        return ResponseEntity.ok(gamesDto);
+    /**
+     * Get the open games from the in-memory lobby index, newest games first.
+     * Changes of the lobby are pushed as deltas to the {@value LobbyService#LOBBY_TOPIC} topic.
+     * @param hostPlayerColor Filter by the host player's color
+     * @param isRanked Filter by ranked games
+     * @param isTimerEnabled Filter by games with a timer
+     * @param minElo Filter by the minimum Elo of the host player
+     * @param maxElo Filter by the maximum Elo of the host player
+     * @return List of open games
+     */
+    @GetMapping("/api/games/open")
+    public ResponseEntity<List<GameDto>> getOpenGames(
+            @RequestParam(name = "hostPlayerColor", required = false) PlayerColor hostPlayerColor,
+            @RequestParam(name = "isRanked", required = false) Boolean isRanked,
+            @RequestParam(name = "isTimerEnabled", required = false) Boolean isTimerEnabled,
+            @RequestParam(name = "minElo", required = false) Integer minElo,
+            @RequestParam(name = "maxElo", required = false) Integer maxElo)
+    {
+        var query = new GetOpenGamesQuery(hostPlayerColor, isRanked, isTimerEnabled, minElo, maxElo);
+        return ResponseEntity.ok(lobbyService.getOpenGames(query));
     }
 
     /**
@@ -38,7 +86,7 @@ public class GameRestController {
     @GetMapping("/api/games/{id}")
     public ResponseEntity<GameDto> getGameById(@PathVariable("id") UUID id) {
         var game = gameService.getGameById(id);
-        var gameDto = GameMapper.toDto(game);
+        var gameDto = GameMapper.toDto(game, playerCacheService::getPlayer);
         return ResponseEntity.ok(gameDto);
     }
 
@@ -50,7 +98,7 @@ public class GameRestController {
     @PostMapping("/api/games")
     public ResponseEntity<GameDto> createGame(@RequestBody CreateGameCommand command) {
         var game = gameService.createNewGame(command.hostPlayerId(), command.hostPlayerColor());
-        var gameDto = GameMapper.toDto(game);
+        var gameDto = GameMapper.toDto(game, playerCacheService::getPlayer);
         return ResponseEntity.ok(gameDto);
     }
 
@@ -61,7 +109,7 @@ public class GameRestController {
     @PostMapping("/api/games/anonymous")
     public ResponseEntity<GameDto> createAnonymousGame(@RequestBody CreateAnonymousGameCommand command) {
         var game = gameService.createNewAnonymousGame(command.hostPlayerId(), command.hostPlayerColor());
-        var gameDto = GameMapper.toDto(game);
+        var gameDto = GameMapper.toDto(game, playerCacheService::getPlayer);
         return ResponseEntity.ok(gameDto);
     }
 }
@@ -0,0 +1,77 @@
+package com.silyosbekov.chessmate.controller;
+
+import com.silyosbekov.chessmate.dto.LeaderboardEntryDto;
+import com.silyosbekov.chessmate.service.LeaderboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+@RestController
+public class LeaderboardController {
+    private static final int MAX_COUNT = 100;
+
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    /**
+     * Get the top rated players
+     * @param count The maximum number of players
+     * @return The leaderboard entries, the highest rated player first
+     */
+    @GetMapping("/api/leaderboard")
+    public ResponseEntity<List<LeaderboardEntryDto>> getTopPlayers(
+            @RequestParam(name = "count", defaultValue = "50") int count)
+    {
+        if (count < 1 || count > MAX_COUNT) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(leaderboardService.getTopPlayers(count));
+    }
+
+    /**
+     * Get the rank of a player
+     * @param playerId The player ID
+     * @return The leaderboard entry of the player
+     */
+    @GetMapping("/api/leaderboard/players/{playerId}")
+    public ResponseEntity<LeaderboardEntryDto> getPlayerEntry(@PathVariable("playerId") UUID playerId) {
+        try {
+            return ResponseEntity.ok(leaderboardService.getPlayerEntry(playerId));
+        }
+        catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Get the players ranked around a player
+     * @param playerId The player ID
+     * @param count The maximum number of players above and below the player
+     * @return The leaderboard entries in rank order, including the player
+     */
+    @GetMapping("/api/leaderboard/players/{playerId}/neighbours")
+    public ResponseEntity<List<LeaderboardEntryDto>> getNeighbours(
+            @PathVariable("playerId") UUID playerId,
+            @RequestParam(name = "count", defaultValue = "5") int count)
+    {
+        if (count < 0 || count > MAX_COUNT) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(leaderboardService.getNeighbours(playerId, count));
+        }
+        catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -1,12 +1,24 @@
 package com.silyosbekov.chessmate.controller;
 
 import com.silyosbekov.chessmate.dto.*;
+import com.silyosbekov.chessmate.jfr.MoveEvent;
 import com.silyosbekov.chessmate.mapper.GameMapper;
+import com.silyosbekov.chessmate.model.MoveAckStatus;
+import com.silyosbekov.chessmate.service.ClusterService;
+import com.silyosbekov.chessmate.service.GameStateService;
 import com.silyosbekov.chessmate.service.MatchService;
 import com.silyosbekov.chessmate.service.OnlinePlayersService;
+import com.silyosbekov.chessmate.service.PlayerCacheService;
+import com.silyosbekov.chessmate.service.SpectatorService;
+import com.silyosbekov.chessmate.service.WireProtocolService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 import java.util.UUID;
 
@@ -15,40 +27,169 @@ public class MatchController {
     private final MatchService matchService;
     private final SimpMessagingTemplate simpMessagingTemplate;
     private final OnlinePlayersService onlinePlayersService;
+    private final PlayerCacheService playerCacheService;
+    private final SpectatorService spectatorService;
+    private final WireProtocolService wireProtocolService;
+    private final GameStateService gameStateService;
+    private final ClusterService clusterService;
 
     public MatchController(
             MatchService matchService,
             SimpMessagingTemplate simpMessagingTemplate,
-            OnlinePlayersService onlinePlayersService
+            OnlinePlayersService onlinePlayersService,
+            PlayerCacheService playerCacheService,
+            SpectatorService spectatorService,
+            WireProtocolService wireProtocolService,
+            GameStateService gameStateService,
+            ClusterService clusterService
     )
     {
         this.matchService = matchService;
         this.simpMessagingTemplate = simpMessagingTemplate;
         this.onlinePlayersService = onlinePlayersService;
+        this.playerCacheService = playerCacheService;
+        this.spectatorService = spectatorService;
+        this.wireProtocolService = wireProtocolService;
+        this.gameStateService = gameStateService;
+        this.clusterService = clusterService;
+    }
+
+    /**
+     * Registers the handlers of the game commands, which run on the cluster node owning the game.
+     */
+    @PostConstruct
+    public void registerClusterHandlers() {
+        clusterService.registerHandler(MakeMoveCommand.class, this::handleMove);
+        clusterService.registerHandler(MakeBinaryMoveCommand.class, this::handleBinaryMove);
+        clusterService.registerHandler(OfferDrawCommand.class, this::handleOfferDraw);
+        clusterService.registerHandler(AcceptDrawCommand.class, this::handleAcceptDraw);
+        clusterService.registerHandler(DeclineDrawCommand.class, this::handleDeclineDraw);
+        clusterService.registerHandler(ResignGameCommand.class, this::handleResign);
+        clusterService.registerHandler(LeaveGameCommand.class, this::handleLeave);
+        clusterService.registerHandler(GetGameStateQuery.class, this::handleGetGameState);
+        clusterService.registerHandler(GetGameHandleQuery.class, query -> wireProtocolService.getHandle(query.gameId()));
+        clusterService.registerHandler(SpectateGameQuery.class, this::handleSpectateGame);
     }
 
     /**
      * Handles a player's move in a game.
+     * Accepted moves are sent to both players in a single message together with the opponent's premove if one
+     * was applied, every command is acknowledged with the authoritative ply of the game. The acknowledgement is sent
+     * only to the session that sent the command, on {@code /user/queue/match.moveAck}.
+     * The move is handled on the cluster node owning the game, like the other game commands.
      * @param command represents the move made by a player, including game ID, player ID, and the move details.
      */
     @MessageMapping("/match/move")
-    @SendTo("/topic/match.moveReceived")
-    public MoveDto makeMove(MakeMoveCommand command) {
-        var moveDto = matchService.makeMove(command);
+    @SendToUser(destinations = "/queue/match.moveAck", broadcast = false)
+    public MoveAckDto makeMove(MakeMoveCommand command) {
+        return clusterService.route(command.gameId(), command);
+    }
+
+    private MoveAckDto handleMove(MakeMoveCommand command) {
+        var moveEvent = new MoveEvent();
+        var startNanos = System.nanoTime();
+        moveEvent.begin();
+
+        // The moves are broadcast before a checkmate or stalemate ends the game and releases its handle and state
+        var moveAck = matchService.makeMove(command, moves -> {
+            moveEvent.validationDuration = System.nanoTime() - startNanos;
+            wireProtocolService.publishMoves(moves);
+            moves.forEach(spectatorService::recordMove);
+            gameStateService.handleMoves(matchService.getActiveGame(command.gameId()), moves);
+        });
+
+        moveEvent.end();
+
+        if (moveEvent.shouldCommit()) {
+            var elapsedNanos = System.nanoTime() - startNanos;
+            moveEvent.gameId = command.gameId().toString();
+            moveEvent.ply = command.ply();
+            moveEvent.status = moveAck.status().name();
+
+            if (moveAck.status() != MoveAckStatus.ACCEPTED) {
+                moveEvent.validationDuration = elapsedNanos;
+            }
+
+            moveEvent.broadcastDuration = elapsedNanos - moveEvent.validationDuration;
+            moveEvent.commit();
+        }
+
         //sendToPlayer(moveDto.whitePlayerId(), "/topic/match/move.received", moveDto);
         //sendToPlayer(moveDto.blackPlayerId(), "/topic/match/move.received", moveDto);
-        return moveDto;
+        return moveAck;
+    }
+
+    /**
+     * Handles a player's move encoded in the binary wire protocol, see {@link com.silyosbekov.chessmate.core.MoveCodec}.
+     * The frame is decoded on the node that assigned its game handle, which the client names in the
+     * {@value WireProtocolService#NODE_HEADER} header. The acknowledgement is encoded too and sent only to the session
+     * that sent the command, on {@code /user/queue/match.moveAck.bin}.
+     * @param payload The encoded frame with the game handle, the ply and a single move
+     * @param nodeId The ID of the node owning the game, from the handle of the game
+     */
+    @MessageMapping("/match/move.bin")
+    @SendToUser(destinations = "/queue/match.moveAck.bin", broadcast = false)
+    public byte[] makeBinaryMove(byte[] payload, @Header(WireProtocolService.NODE_HEADER) String nodeId) {
+        return clusterService.routeTo(nodeId, new MakeBinaryMoveCommand(payload));
+    }
+
+    private byte[] handleBinaryMove(MakeBinaryMoveCommand command) {
+        var decodedCommand = wireProtocolService.decodeMoveCommand(command.frame());
+        var moveAck = handleMove(decodedCommand.command());
+        return wireProtocolService.encodeMoveAck(decodedCommand.handle(), moveAck);
+    }
+
+    /**
+     * Gets the handle of an ongoing game used by the binary wire protocol, from the node owning the game.
+     * @param gameId The ID of the game
+     */
+    @SubscribeMapping("/match/{gameId}/handle")
+    public GameHandleDto getGameHandle(@DestinationVariable UUID gameId) {
+        return clusterService.route(gameId, new GetGameHandleQuery(gameId));
+    }
+
+    /**
+     * Gets the full state of an ongoing game, requested by clients that missed a version of the game state stream.
+     * @param gameId The ID of the game
+     */
+    @SubscribeMapping("/match/{gameId}/state")
+    public GameStateDto getGameState(@DestinationVariable UUID gameId) {
+        return clusterService.route(gameId, new GetGameStateQuery(gameId));
+    }
+
+    private GameStateDto handleGetGameState(GetGameStateQuery query) {
+        return gameStateService.getState(matchService.getActiveGame(query.gameId()));
+    }
+
+    /**
+     * Starts watching a game. The snapshot is sent to the subscribing spectator only,
+     * the following moves are sent in batches to the topic included in the snapshot.
+     * The snapshot is taken on the cluster node owning the game.
+     * @param gameId The ID of the game to watch
+     * @param sessionId The WebSocket session ID of the spectator
+     */
+    @SubscribeMapping("/match/{gameId}/spectate")
+    public SpectatorSnapshotDto spectateGame(@DestinationVariable UUID gameId, @Header("simpSessionId") String sessionId) {
+        return clusterService.route(gameId, new SpectateGameQuery(gameId, sessionId));
+    }
+
+    private SpectatorSnapshotDto handleSpectateGame(SpectateGameQuery query) {
+        var game = matchService.getActiveGame(query.gameId());
+        var snapshot = spectatorService.getSnapshot(query.gameId(), query.sessionId());
+        var gameDto = GameMapper.toDto(game, playerCacheService::getPlayer);
+        return new SpectatorSnapshotDto(gameDto, snapshot.moves(), snapshot.topic(), snapshot.spectatorsCount());
     }
 
     /**
      * Starts a new game match.
+     * The full game is sent once here as version 0 of the game state, the following changes are sent as deltas.
      * @param command contains information necessary to start a new game, such as player IDs.
      */
     @MessageMapping("/match/join")
     @SendTo("/topic/match.join")
     public GameDto joinGame(JoinGameCommand command) {
         var game = matchService.joinGame(command.gameId(), command.playerId());
-        var gameDto = GameMapper.toDto(game);
+        var gameDto = GameMapper.toDto(game, playerCacheService::getPlayer);
         // sendToPlayer(command.playerId(), "/topic/match/join", gameDto);
         // sendToPlayer(game.getHostPlayerId(), "/topic/match/join", gameDto);
         return gameDto;
@@ -63,52 +204,83 @@ public class MatchController {
     @SendTo("/topic/match.join")
     public GameDto joinAnonymousGame(JoinGameCommand command) {
         var game = matchService.joinAnonymousGame(command.gameId(), command.playerId());
-        var gameDto = GameMapper.toDto(game);
+        var gameDto = GameMapper.toDto(game, playerCacheService::getPlayer);
         // sendToPlayer(command.playerId(), "/topic/match.join", gameDto);
         // sendToPlayer(game.getHostPlayerId(), "/topic/match.join", gameDto);
         return gameDto;
     }
 
+    /**
+     * Offers a draw to the opponent, the offer is sent on the game state stream.
+     * @param command contains the game ID and the ID of the player offering a draw.
+     */
     @MessageMapping("/match/offerDraw")
-    @SendTo("/topic/match.receivedDrawOffer")
-    public GameDto offerDraw(OfferDrawCommand command) {
+    public void offerDraw(OfferDrawCommand command) {
+        clusterService.route(command.gameId(), command);
+    }
+
+    private Void handleOfferDraw(OfferDrawCommand command) {
         var game = matchService.getActiveGame(command.gameId());
-        return GameMapper.toDto(game);
+        gameStateService.offerDraw(game, command.playerId());
+        return null;
     }
 
+    /**
+     * Ends the game in a draw, the result is sent on the game state stream.
+     * @param command contains the game ID and the ID of the player accepting the draw.
+     */
     @MessageMapping("/match/acceptDraw")
-    @SendTo("/topic/match.acceptedDraw")
-    public GameDto acceptDraw(AcceptDrawCommand command) {
-        var game = matchService.drawGame(command.gameId());
-        return GameMapper.toDto(game);
+    public void acceptDraw(AcceptDrawCommand command) {
+        clusterService.route(command.gameId(), command);
     }
 
+    private Void handleAcceptDraw(AcceptDrawCommand command) {
+        matchService.drawGame(command.gameId());
+        return null;
+    }
+
+    /**
+     * Declines the pending draw offer, the withdrawn offer is sent on the game state stream.
+     * @param command contains the game ID and the ID of the player declining the draw.
+     */
     @MessageMapping("/match/declineDraw")
-    @SendTo("/topic/match.declinedDraw")
-    public GameDto declineDraw(DeclineDrawCommand command) {
+    public void declineDraw(DeclineDrawCommand command) {
+        clusterService.route(command.gameId(), command);
+    }
+
+    private Void handleDeclineDraw(DeclineDrawCommand command) {
         var game = matchService.getActiveGame(command.gameId());
-        return GameMapper.toDto(game);
+        gameStateService.declineDraw(game);
+        return null;
     }
 
+    /**
+     * Resigns the game, the result is sent on the game state stream.
+     * @param command contains the game ID and the ID of the resigning player.
+     */
     @MessageMapping("/match/resign")
-    @SendTo("/topic/match.resigned")
-    public GameDto resignGame(ResignGameCommand command) {
-        var game = matchService.resignGame(command.gameId(), command.playerId());
-        return GameMapper.toDto(game);
+    public void resignGame(ResignGameCommand command) {
+        clusterService.route(command.gameId(), command);
+    }
+
+    private Void handleResign(ResignGameCommand command) {
+        matchService.resignGame(command.gameId(), command.playerId());
+        return null;
     }
 
     /**
-     * Ends the current game match.
+     * Ends the current game match, the new status is sent on the game state stream.
      * @param command contains information necessary to end the game, such as player IDs.
      */
     @MessageMapping("/match/leave")
-    @SendTo("/topic/match.playerLeft")
-    public GameDto leaveGame(LeaveGameCommand command) {
+    public void leaveGame(LeaveGameCommand command) {
+        clusterService.route(command.gameId(), command);
+    }
+
+    private Void handleLeave(LeaveGameCommand command) {
         var game = matchService.leaveGame(command.gameId(), command.playerId());
-        var gameDto = GameMapper.toDto(game);
-        // sendToPlayer(command.playerId(), "/topic/match.playerLeft", gameDto);
-        // sendToPlayer(game.getHostPlayerId(), "/topic/match.playerLeft", gameDto);
-        return gameDto;
+        gameStateService.publish(game);
+        return null;
     }
 
     private void sendToPlayer(UUID playerId, String destination, Object payload) {
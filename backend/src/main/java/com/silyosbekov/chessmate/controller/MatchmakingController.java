@@ -0,0 +1,35 @@
+package com.silyosbekov.chessmate.controller;
+
+import com.silyosbekov.chessmate.dto.JoinMatchmakingCommand;
+import com.silyosbekov.chessmate.dto.LeaveMatchmakingCommand;
+import com.silyosbekov.chessmate.service.MatchmakingService;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+
+@Controller
+public class MatchmakingController {
+    private final MatchmakingService matchmakingService;
+
+    public MatchmakingController(MatchmakingService matchmakingService) {
+        this.matchmakingService = matchmakingService;
+    }
+
+    /**
+     * Wait for an automatically matched opponent of a similar rating.
+     * The started game is sent to the {@value MatchmakingService#MATCH_JOIN_TOPIC} topic.
+     * @param command contains the player's ID and the time control of the game
+     */
+    @MessageMapping("/matchmaking/join")
+    public void joinQueue(JoinMatchmakingCommand command) {
+        matchmakingService.joinQueue(command.playerId(), command.timeControl());
+    }
+
+    /**
+     * Stop waiting for an opponent.
+     * @param command contains the player's ID
+     */
+    @MessageMapping("/matchmaking/leave")
+    public void leaveQueue(LeaveMatchmakingCommand command) {
+        matchmakingService.leaveQueue(command.playerId());
+    }
+}
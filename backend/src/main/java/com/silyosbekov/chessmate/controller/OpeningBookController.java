@@ -0,0 +1,48 @@
+package com.silyosbekov.chessmate.controller;
+
+import com.silyosbekov.chessmate.dto.BookMoveDto;
+import com.silyosbekov.chessmate.dto.OpeningBookDto;
+import com.silyosbekov.chessmate.engine.Chess;
+import com.silyosbekov.chessmate.service.OpeningBookService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+public class OpeningBookController {
+    private final OpeningBookService openingBookService;
+
+    public OpeningBookController(OpeningBookService openingBookService) {
+        this.openingBookService = openingBookService;
+    }
+
+    /**
+     * Get the book moves of a position
+     * @param fen The position in FEN, the starting position by default
+     * @return The book moves, the highest weight first
+     */
+    @GetMapping("/api/opening-book/moves")
+    public ResponseEntity<List<BookMoveDto>> getBookMoves(
+            @RequestParam(name = "fen", defaultValue = Chess.DEFAULT_POSITION) String fen)
+    {
+        try {
+            return ResponseEntity.ok(openingBookService.getBookMoves(new Chess(fen)));
+        }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Build the opening book from the finished games
+     * @return The summary of the built book
+     */
+    @PostMapping("/api/opening-book/build")
+    public ResponseEntity<OpeningBookDto> buildBook() throws IOException {
+        return ResponseEntity.ok(openingBookService.buildBook());
+    }
+}
@@ -5,8 +5,11 @@ import com.silyosbekov.chessmate.service.OnlinePlayersService;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import java.util.List;
+import java.util.UUID;
 
 @Controller
 public class PlayerController {
@@ -21,6 +24,25 @@ public class PlayerController {
         onlinePlayersService.addPlayer(command.playerId(), sessionId);
     }
 
+    /**
+     * Keeps the player connected with the session online.
+     * Players who miss heartbeats longer than the heartbeat timeout are considered offline.
+     */
+    @MessageMapping("/player/heartbeat")
+    public void heartbeat(@Header("simpSessionId") String sessionId) {
+        onlinePlayersService.heartbeat(sessionId);
+    }
+
+    /**
+     * Snapshot of the online players, sent once on subscription.
+     * Further changes are pushed as deltas to the {@value OnlinePlayersService#PRESENCE_TOPIC} topic.
+     * @return List of online player IDs
+     */
+    @SubscribeMapping("/player/online")
+    public List<UUID> getOnlinePlayers() {
+        return onlinePlayersService.getOnlinePlayerIds();
+    }
+
     @EventListener
     public void handleWebSocketDisconnectListener(SessionDisconnectEvent event) {
         var sessionId = (String)event.getMessage().getHeaders().get("simpSessionId");
@@ -0,0 +1,109 @@
+package com.silyosbekov.chessmate.controller;
+
+import com.silyosbekov.chessmate.dto.CreateTournamentCommand;
+import com.silyosbekov.chessmate.dto.JoinTournamentCommand;
+import com.silyosbekov.chessmate.dto.TournamentDto;
+import com.silyosbekov.chessmate.dto.TournamentStandingDto;
+import com.silyosbekov.chessmate.service.TournamentService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+@RestController
+public class TournamentController {
+    private static final int MAX_STANDINGS_COUNT = 500;
+
+    private final TournamentService tournamentService;
+
+    public TournamentController(TournamentService tournamentService) {
+        this.tournamentService = tournamentService;
+    }
+
+    @GetMapping("/api/tournaments")
+    public ResponseEntity<List<TournamentDto>> getTournaments() {
+        return ResponseEntity.ok(tournamentService.getTournaments());
+    }
+
+    @GetMapping("/api/tournaments/{id}")
+    public ResponseEntity<TournamentDto> getTournament(@PathVariable("id") UUID id) {
+        try {
+            return ResponseEntity.ok(tournamentService.getTournament(id));
+        }
+        catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Create a new Swiss or arena tournament
+     * @param command The tournament settings
+     * @return The created tournament
+     */
+    @PostMapping("/api/tournaments")
+    public ResponseEntity<TournamentDto> createTournament(@RequestBody CreateTournamentCommand command) {
+        try {
+            return ResponseEntity.ok(tournamentService.createTournament(command));
+        }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/api/tournaments/{id}/join")
+    public ResponseEntity<Void> joinTournament(@PathVariable("id") UUID id, @RequestBody JoinTournamentCommand command) {
+        try {
+            tournamentService.joinTournament(id, command.playerId());
+            return ResponseEntity.ok().build();
+        }
+        catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+        catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Start a tournament, the games are sent to the players the same way as matched games
+     * @param id The tournament ID
+     */
+    @PostMapping("/api/tournaments/{id}/start")
+    public ResponseEntity<Void> startTournament(@PathVariable("id") UUID id) {
+        try {
+            tournamentService.startTournament(id);
+            return ResponseEntity.ok().build();
+        }
+        catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+        catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    /**
+     * Get the standings of a tournament
+     * @param id The tournament ID
+     * @param count The maximum number of players
+     * @return The standings, the leader first
+     */
+    @GetMapping("/api/tournaments/{id}/standings")
+    public ResponseEntity<List<TournamentStandingDto>> getStandings(
+            @PathVariable("id") UUID id,
+            @RequestParam(name = "count", defaultValue = "100") int count)
+    {
+        if (count < 1 || count > MAX_STANDINGS_COUNT) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(tournamentService.getStandings(id, count));
+        }
+        catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
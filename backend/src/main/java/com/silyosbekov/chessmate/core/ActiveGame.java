@@ -0,0 +1,85 @@
+package com.silyosbekov.chessmate.core;
+
+import com.silyosbekov.chessmate.dto.MakeMoveCommand;
+import com.silyosbekov.chessmate.dto.MoveDto;
+import com.silyosbekov.chessmate.engine.Chess;
+import com.silyosbekov.chessmate.model.Game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory state of an ongoing game: the game, its chess engine, the moves applied so far and the queued premove.
+ * The moves of a game are applied while holding the monitor of its active game,
+ * so they are strictly ordered and different games never contend with each other.
+ */
+public final class ActiveGame {
+    private final Game game;
+    private final Chess chess;
+    private final List<MoveDto> moves = new ArrayList<>();
+    private MakeMoveCommand premove;
+
+    public ActiveGame(Game game, Chess chess) {
+        this.game = game;
+        this.chess = chess;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public Chess getChess() {
+        return chess;
+    }
+
+    /**
+     * Get the number of plies played, which is also the ply of the next move.
+     */
+    public synchronized int getPly() {
+        return moves.size();
+    }
+
+    /**
+     * Get the move applied at a ply.
+     * @param ply The ply of the move, starting from 0
+     * @return The move, or null if the ply has not been played yet
+     */
+    public synchronized MoveDto getMove(int ply) {
+        return ply >= 0 && ply < moves.size() ? moves.get(ply) : null;
+    }
+
+    public synchronized List<MoveDto> getMoves() {
+        return List.copyOf(moves);
+    }
+
+    /**
+     * Append a move played at the current ply.
+     * @param move The move
+     * @throws IllegalArgumentException if the move is not played at the current ply
+     */
+    public synchronized void addMove(MoveDto move) {
+        if (move.ply() != moves.size()) {
+            throw new IllegalArgumentException("Move of ply %d does not follow ply %d".formatted(move.ply(), moves.size()));
+        }
+
+        moves.add(move);
+    }
+
+    /**
+     * Queue a premove, replacing the previous one.
+     * @param premove The move command of the player who is not to move
+     */
+    public synchronized void setPremove(MakeMoveCommand premove) {
+        this.premove = premove;
+    }
+
+    /**
+     * Remove the queued premove.
+     * @return The premove, or null if no premove is queued
+     */
+    public synchronized MakeMoveCommand takePremove() {
+        var queuedPremove = premove;
+        premove = null;
+        return queuedPremove;
+    }
+}
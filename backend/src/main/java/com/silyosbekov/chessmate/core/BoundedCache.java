@@ -0,0 +1,231 @@
+package com.silyosbekov.chessmate.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Thread-safe in-memory cache bounded by size and time to live.
+ * <p>
+ *     The keys are spread over up to {@value #MAX_SEGMENTS} segments, each with its own lock and share of the
+ *     maximum size, so threads accessing different segments never contend. When a segment is full, its least
+ *     recently used entry is evicted. Entries older than the time to live are evicted lazily on access.
+ * </p>
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+public class BoundedCache<K, V> {
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Segment<K, V>[] segments;
+
+    /**
+     * The pending loads by key, a load is only cached if the key was not written or invalidated in the meantime
+     */
+    private final Map<K, Object> loads = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     * @param maximumSize The maximum number of entries
+     * @param ttlMillis The time to live of an entry in milliseconds
+     */
+    public BoundedCache(int maximumSize, long ttlMillis) {
+        this(maximumSize, ttlMillis, System::nanoTime);
+    }
+
+    /**
+     * Creates a new cache with a custom clock.
+     * @param maximumSize The maximum number of entries
+     * @param ttlMillis The time to live of an entry in milliseconds
+     * @param nanoClock The clock in nanoseconds
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedCache(int maximumSize, long ttlMillis, LongSupplier nanoClock) {
+        if (maximumSize <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Maximum size and time to live must be positive");
+        }
+
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.nanoClock = nanoClock;
+
+        // Small caches keep a single segment, so their eviction order is exactly least recently used
+        var segmentCount = Integer.highestOneBit(Math.clamp(maximumSize / MIN_SEGMENT_SIZE, 1, MAX_SEGMENTS));
+        this.segments = new Segment[segmentCount];
+
+        for (var i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * Get the cached value of the key.
+     * @param key The key
+     * @return The cached value, or null if the key is not cached or has expired
+     */
+    public V get(K key) {
+        var segment = segmentOf(key);
+
+        synchronized (segment) {
+            var entry = segment.entries.get(key);
+
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+
+            if (nanoClock.getAsLong() - entry.createdNanos() > ttlNanos) {
+                segment.entries.remove(key);
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+
+            hits.increment();
+            return entry.value();
+        }
+    }
+
+    /**
+     * Get the cached value of the key, loading and caching it on a miss. The loader runs without holding a lock.
+     * A value loaded while the key is written or invalidated may be outdated, so it is returned but not cached.
+     * @param key The key
+     * @param loader Loads the value of the key, e.g. from the database
+     * @return The cached or loaded value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        var value = get(key);
+
+        if (value != null) {
+            return value;
+        }
+
+        var load = new Object();
+        loads.put(key, load);
+        V loadedValue;
+
+        try {
+            loadedValue = loader.apply(key);
+        }
+        catch (RuntimeException e) {
+            loads.remove(key, load);
+            throw e;
+        }
+
+        var segment = segmentOf(key);
+
+        synchronized (segment) {
+            if (loads.remove(key, load)) {
+                put(segment, key, loadedValue);
+            }
+        }
+
+        return loadedValue;
+    }
+
+    /**
+     * Cache the value of the key, evicting the least recently used entry of its segment if the segment is full.
+     * @param key The key
+     * @param value The value
+     */
+    public void put(K key, V value) {
+        var segment = segmentOf(key);
+
+        synchronized (segment) {
+            loads.remove(key);
+            put(segment, key, value);
+        }
+    }
+
+    /**
+     * Replace the cached value of the key, if the key is cached.
+     * Does not count as a cache access.
+     * @param key The key
+     * @param updater Computes the new value from the cached value
+     */
+    public void computeIfPresent(K key, UnaryOperator<V> updater) {
+        var segment = segmentOf(key);
+
+        synchronized (segment) {
+            // A value being loaded may predate the update
+            loads.remove(key);
+            segment.entries.computeIfPresent(key, (k, entry) -> new Entry<>(updater.apply(entry.value()), nanoClock.getAsLong()));
+        }
+    }
+
+    /**
+     * Remove the key from the cache.
+     * @param key The key
+     */
+    public void invalidate(K key) {
+        var segment = segmentOf(key);
+
+        synchronized (segment) {
+            loads.remove(key);
+            segment.entries.remove(key);
+        }
+    }
+
+    public int size() {
+        var size = 0;
+
+        for (var segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+
+        return size;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private void put(Segment<K, V> segment, K key, V value) {
+        segment.entries.put(key, new Entry<>(value, nanoClock.getAsLong()));
+
+        while (segment.entries.size() > segment.maximumSize) {
+            var eldestKey = segment.entries.keySet().iterator().next();
+            segment.entries.remove(eldestKey);
+            evictions.increment();
+        }
+    }
+
+    private Segment<K, V> segmentOf(K key) {
+        var hash = key.hashCode();
+        return segments[(hash ^ hash >>> 16) & segments.length - 1];
+    }
+
+    private record Entry<V>(V value, long createdNanos) {}
+
+    /**
+     * Entries of a segment in access order, guarded by the segment's monitor.
+     */
+    private static final class Segment<K, V> {
+        final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        final int maximumSize;
+
+        Segment(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+    }
+}
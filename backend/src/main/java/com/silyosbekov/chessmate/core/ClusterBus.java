@@ -0,0 +1,53 @@
+package com.silyosbekov.chessmate.core;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transport between the nodes of a cluster: membership and request-reply messaging.
+ */
+public interface ClusterBus {
+    /**
+     * Add a node to the cluster. Every node, including the new one, is notified of the new membership.
+     * @param nodeId The unique ID of the node
+     * @param node Handles the requests and membership changes of the node
+     */
+    void join(String nodeId, Node node);
+
+    /**
+     * Remove a node from the cluster. The remaining nodes are notified of the new membership.
+     * @param nodeId The ID of the node
+     */
+    void leave(String nodeId);
+
+    /**
+     * Get the IDs of the nodes in the cluster.
+     */
+    Set<String> getNodeIds();
+
+    /**
+     * Send a request to a node.
+     * @param nodeId The ID of the target node
+     * @param request The request
+     * @return The reply of the node, completed exceptionally with the node's exception if the request failed
+     */
+    CompletableFuture<Object> request(String nodeId, Object request);
+
+    /**
+     * A node of the cluster.
+     */
+    interface Node {
+        /**
+         * Handle a request of another node.
+         * @param request The request
+         * @return The reply, may be null
+         */
+        Object handleRequest(Object request);
+
+        /**
+         * Called after a node joined or left the cluster.
+         * @param nodeIds The IDs of the nodes in the cluster
+         */
+        void membershipChanged(Set<String> nodeIds);
+    }
+}
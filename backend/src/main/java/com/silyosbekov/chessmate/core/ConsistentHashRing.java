@@ -0,0 +1,77 @@
+package com.silyosbekov.chessmate.core;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent hash ring that assigns keys to nodes.
+ * <p>
+ *     Each node is placed on the ring at a number of virtual points, a key belongs to the node of the first point
+ *     at or after the key's hash. Adding or removing a node only moves the keys of the ring segments it gains or
+ *     loses, about 1 / n of the keys. Hashes are the first 8 bytes of the MD5 digest of the string form,
+ *     so every JVM builds the same ring from the same node IDs.
+ * </p>
+ * @param <N> The type of the nodes, their string form must be unique
+ */
+public final class ConsistentHashRing<N> {
+    private final TreeMap<Long, N> points = new TreeMap<>();
+    private final List<N> nodes;
+
+    /**
+     * Creates a new ring.
+     * @param nodes The nodes
+     * @param virtualNodes The number of points of each node
+     */
+    public ConsistentHashRing(Collection<N> nodes, int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Number of virtual nodes must be positive");
+        }
+
+        this.nodes = List.copyOf(nodes);
+
+        for (var node : this.nodes) {
+            for (var i = 0; i < virtualNodes; i++) {
+                points.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    /**
+     * Get the node owning a key.
+     * @param key The key
+     * @return The owner node
+     * @throws IllegalStateException if the ring has no nodes
+     */
+    public N getOwner(Object key) {
+        if (points.isEmpty()) {
+            throw new IllegalStateException("Ring has no nodes");
+        }
+
+        var point = points.ceilingEntry(hash(key.toString()));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    public List<N> getNodes() {
+        return nodes;
+    }
+
+    private static long hash(String value) {
+        try {
+            var digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            var hash = 0L;
+
+            for (var i = 0; i < 8; i++) {
+                hash = hash << 8 | digest[i] & 0xFF;
+            }
+
+            return hash;
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
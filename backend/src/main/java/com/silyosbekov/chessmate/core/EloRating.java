@@ -0,0 +1,32 @@
+package com.silyosbekov.chessmate.core;
+
+/**
+ * Elo rating calculation.
+ */
+public final class EloRating {
+    private EloRating() {
+    }
+
+    /**
+     * Calculate the expected score of a player against an opponent.
+     * @param elo The rating of the player
+     * @param opponentElo The rating of the opponent
+     * @return The expected score between 0 and 1
+     */
+    public static double expectedScore(int elo, int opponentElo) {
+        return 1.0 / (1.0 + Math.pow(10, (opponentElo - elo) / 400.0));
+    }
+
+    /**
+     * Calculate the rating change of a player after a game.
+     * The opponent's change is the negated change of the player.
+     * @param elo The rating of the player
+     * @param opponentElo The rating of the opponent
+     * @param score The score of the player, 1 for a win, 0.5 for a draw and 0 for a loss
+     * @param kFactor The maximum rating change of a single game
+     * @return The rating change of the player
+     */
+    public static int ratingChange(int elo, int opponentElo, double score, int kFactor) {
+        return (int) Math.round(kFactor * (score - expectedScore(elo, opponentElo)));
+    }
+}
@@ -0,0 +1,92 @@
+package com.silyosbekov.chessmate.core;
+
+/**
+ * Fenwick tree (binary indexed tree) of counts.
+ * Updating a count and querying a prefix sum are both O(log n). Not thread-safe.
+ */
+public class FenwickTree {
+    private final long[] tree;
+    private long total;
+
+    /**
+     * Creates a new Fenwick tree with all counts set to zero.
+     * @param size The number of counts, indexed from 0 to size - 1
+     */
+    public FenwickTree(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+
+        this.tree = new long[size + 1];
+    }
+
+    public int size() {
+        return tree.length - 1;
+    }
+
+    /**
+     * Get the sum of all counts.
+     * @return The sum of all counts
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Add a delta to the count at the index.
+     * @param index The index of the count
+     * @param delta The value to add, may be negative
+     */
+    public void add(int index, long delta) {
+        checkIndex(index);
+        total += delta;
+
+        for (var i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Get the sum of the counts from index 0 to the given index, inclusive.
+     * @param index The last index of the range, or -1 for an empty range
+     * @return The prefix sum
+     */
+    public long prefixSum(int index) {
+        if (index < -1 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        var sum = 0L;
+
+        for (var i = index + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+
+        return sum;
+    }
+
+    /**
+     * Get the sum of the counts from the given index to the last index, inclusive.
+     * @param index The first index of the range
+     * @return The suffix sum
+     */
+    public long suffixSum(int index) {
+        return total - prefixSum(index - 1);
+    }
+
+    /**
+     * Get the count at the index.
+     * @param index The index of the count
+     * @return The count
+     */
+    public long get(int index) {
+        checkIndex(index);
+        return prefixSum(index) - prefixSum(index - 1);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+    }
+}
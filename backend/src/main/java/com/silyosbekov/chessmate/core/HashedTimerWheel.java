@@ -0,0 +1,147 @@
+package com.silyosbekov.chessmate.core;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel. Keys are hashed into a fixed number of slots by their deadline tick,
+ * so scheduling, rescheduling and cancelling a key are O(1), and advancing the wheel only visits
+ * the slots whose ticks have elapsed.
+ * <p>
+ *     Rescheduling a key to a later deadline only updates its deadline, the key is moved to its new slot
+ *     lazily when the old slot comes up. This keeps frequent touches (e.g. heartbeats) cheap.
+ *     Keys can be scheduled from any thread, but the wheel must be advanced from a single thread.
+ * </p>
+ * @param <K> The type of the scheduled keys
+ */
+public class HashedTimerWheel<K> {
+    private final long tickMillis;
+    private final Queue<K>[] slots;
+
+    /**
+     * The deadline tick of each scheduled key
+     */
+    private final Map<K, Long> deadlines = new ConcurrentHashMap<>();
+
+    /**
+     * The last tick that has been processed
+     */
+    private volatile long currentTick;
+
+    /**
+     * Creates a new timer wheel.
+     * @param tickMillis The duration of a single tick in milliseconds
+     * @param slotCount The number of slots in the wheel
+     * @param nowMillis The current time in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long tickMillis, int slotCount, long nowMillis) {
+        if (tickMillis <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("Tick duration and slot count must be positive");
+        }
+
+        this.tickMillis = tickMillis;
+        this.slots = new Queue[slotCount];
+        this.currentTick = nowMillis / tickMillis;
+
+        for (var i = 0; i < slotCount; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Schedule a key to expire after the given delay. If the key is already scheduled, its deadline is replaced.
+     * @param key The key to schedule
+     * @param delayMillis The delay in milliseconds
+     * @param nowMillis The current time in milliseconds
+     */
+    public void schedule(K key, long delayMillis, long nowMillis) {
+        var deadline = Math.max(Math.ceilDiv(nowMillis + delayMillis, tickMillis), currentTick + 1);
+        var previous = deadlines.put(key, deadline);
+
+        // A later deadline is picked up lazily from the old slot, an earlier one needs its own slot entry
+        if (previous == null || deadline < previous) {
+            slotOf(deadline).add(key);
+        }
+    }
+
+    /**
+     * Cancel a scheduled key.
+     * @param key The key to cancel
+     * @return True if the key was scheduled, otherwise false
+     */
+    public boolean cancel(K key) {
+        return deadlines.remove(key) != null;
+    }
+
+    /**
+     * Whether the key is scheduled and has not expired yet.
+     * @param key The key to check
+     * @return True if the key is scheduled, otherwise false
+     */
+    public boolean isScheduled(K key) {
+        return deadlines.containsKey(key);
+    }
+
+    /**
+     * Get the number of scheduled keys.
+     * @return The number of scheduled keys
+     */
+    public int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Advance the wheel to the given time and expire every key whose deadline has passed.
+     * @param nowMillis The current time in milliseconds
+     * @param onExpired Callback invoked for each expired key
+     */
+    public void advance(long nowMillis, Consumer<K> onExpired) {
+        var targetTick = nowMillis / tickMillis;
+
+        while (currentTick < targetTick) {
+            var tick = currentTick + 1;
+            var slot = slotOf(tick);
+            var keys = new ArrayList<K>(slot.size());
+            K key;
+
+            while ((key = slot.poll()) != null) {
+                keys.add(key);
+            }
+
+            currentTick = tick;
+
+            for (var expiredKey : keys) {
+                expire(expiredKey, tick, onExpired);
+            }
+        }
+    }
+
+    private void expire(K key, long tick, Consumer<K> onExpired) {
+        while (true) {
+            var deadline = deadlines.get(key);
+
+            if (deadline == null) { // cancelled or already expired from another slot
+                return;
+            }
+
+            if (deadline > tick) { // rescheduled, move the key to its new slot
+                slotOf(deadline).add(key);
+                return;
+            }
+
+            if (deadlines.remove(key, deadline)) {
+                onExpired.accept(key);
+                return;
+            }
+        }
+    }
+
+    private Queue<K> slotOf(long tick) {
+        return slots[(int) (tick % slots.length)];
+    }
+}
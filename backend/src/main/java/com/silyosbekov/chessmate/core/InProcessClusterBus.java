@@ -0,0 +1,64 @@
+package com.silyosbekov.chessmate.core;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cluster bus connecting nodes in the same JVM. Requests are handled on virtual threads of the bus,
+ * like they would be on the threads of a network transport. Membership changes are serialized,
+ * so every node sees them in the same order. Used by single-node deployments and for running
+ * several nodes in one JVM.
+ */
+public class InProcessClusterBus implements ClusterBus {
+    private final Map<String, Node> nodes = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cluster-bus-", 0).factory());
+
+    @Override
+    public synchronized void join(String nodeId, Node node) {
+        if (nodes.putIfAbsent(nodeId, node) != null) {
+            throw new IllegalStateException("Node '%s' has already joined".formatted(nodeId));
+        }
+
+        notifyMembershipChanged();
+    }
+
+    @Override
+    public synchronized void leave(String nodeId) {
+        if (nodes.remove(nodeId) != null) {
+            notifyMembershipChanged();
+        }
+    }
+
+    @Override
+    public Set<String> getNodeIds() {
+        return Set.copyOf(nodes.keySet());
+    }
+
+    @Override
+    public CompletableFuture<Object> request(String nodeId, Object request) {
+        var node = nodes.get(nodeId);
+
+        if (node == null) {
+            return CompletableFuture.failedFuture(new NoSuchElementException("Node '%s' does not exist".formatted(nodeId)));
+        }
+
+        return CompletableFuture.supplyAsync(() -> node.handleRequest(request), executor);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void notifyMembershipChanged() {
+        var nodeIds = getNodeIds();
+
+        for (var node : nodes.values()) {
+            node.membershipChanged(nodeIds);
+        }
+    }
+}
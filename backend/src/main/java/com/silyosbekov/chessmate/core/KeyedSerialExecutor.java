@@ -0,0 +1,154 @@
+package com.silyosbekov.chessmate.core;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Executor that runs the tasks of the same key one at a time in submission order,
+ * while tasks of different keys run concurrently on the delegate executor.
+ * <p>
+ *     Each key with pending tasks occupies at most one delegate thread, which runs the queued tasks of the key
+ *     until the queue is empty. Tasks without a key are passed to the delegate directly. The executor is meant
+ *     to be backed by virtual threads, a task blocking on I/O then only holds up the tasks of its own key.
+ * </p>
+ */
+public class KeyedSerialExecutor implements Executor {
+    private final Executor delegate;
+    private final Function<Runnable, Object> keyOf;
+    private final Map<Object, Queue<Runnable>> queues = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedCount = new AtomicInteger();
+    private final AtomicInteger runningCount = new AtomicInteger();
+    private final LongAdder completedCount = new LongAdder();
+
+    /**
+     * Creates a new executor.
+     * @param delegate The executor running the tasks
+     * @param keyOf Resolves the ordering key of a task, tasks with a null key are not ordered
+     */
+    public KeyedSerialExecutor(Executor delegate, Function<Runnable, Object> keyOf) {
+        this.delegate = delegate;
+        this.keyOf = keyOf;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        var key = keyOf.apply(task);
+
+        if (key == null) {
+            queuedCount.incrementAndGet();
+            delegate.execute(() -> {
+                queuedCount.decrementAndGet();
+                run(task);
+            });
+            return;
+        }
+
+        var isIdle = new boolean[1];
+        queuedCount.incrementAndGet();
+
+        queues.compute(key, (k, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                isIdle[0] = true;
+            }
+
+            queue.add(task);
+            return queue;
+        });
+
+        if (isIdle[0]) {
+            delegate.execute(() -> drain(key, task));
+        }
+    }
+
+    /**
+     * Get the number of tasks waiting to run, either for a delegate thread or behind a task of the same key.
+     */
+    public int getQueuedCount() {
+        return queuedCount.get();
+    }
+
+    /**
+     * Get the number of tasks running.
+     */
+    public int getRunningCount() {
+        return runningCount.get();
+    }
+
+    /**
+     * Get the number of keys with queued or running tasks.
+     */
+    public int getActiveKeysCount() {
+        return queues.size();
+    }
+
+    /**
+     * Get the number of tasks completed since the executor was created.
+     */
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    /**
+     * Run the tasks of a key until its queue is empty. The running task stays at the head of the queue,
+     * so a task submitted meanwhile is queued behind it instead of starting another drain.
+     * @param first The head of the queue, taken under the lock of the queue by the caller
+     */
+    private void drain(Object key, Runnable first) {
+        var task = first;
+
+        while (task != null) {
+            queuedCount.decrementAndGet();
+
+            try {
+                run(task);
+            }
+            catch (RuntimeException | Error e) {
+                // Hand the remaining tasks of the key to a new thread before the exception ends this one
+                var next = removeHead(key);
+
+                if (next != null) {
+                    delegate.execute(() -> drain(key, next));
+                }
+
+                throw e;
+            }
+
+            task = removeHead(key);
+        }
+    }
+
+    /**
+     * Remove the completed task of a key and get the next one.
+     * @return The next task, or null if the queue is empty and has been removed
+     */
+    private Runnable removeHead(Object key) {
+        var next = new Runnable[1];
+
+        queues.computeIfPresent(key, (k, queue) -> {
+            queue.poll();
+            next[0] = queue.peek();
+            return next[0] != null ? queue : null;
+        });
+
+        return next[0];
+    }
+
+    private void run(Runnable task) {
+        runningCount.incrementAndGet();
+
+        try {
+            task.run();
+        }
+        finally {
+            runningCount.decrementAndGet();
+            completedCount.increment();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.silyosbekov.chessmate.core;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Result of a keyset paginated query. Unlike {@link PagedResult} it does not count the total items,
+ * instead it returns a cursor to fetch the next page, so its cost does not grow with the table size.
+ */
+public class KeysetPagedResult<T> implements IResult {
+    @JsonInclude
+    private final boolean isSuccess;
+
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private final String error;
+
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private final List<T> data;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final String nextCursor;
+
+    public KeysetPagedResult() {
+        this(null, null, null);
+    }
+
+    public KeysetPagedResult(List<T> data, String nextCursor, String error) {
+        this.isSuccess = error == null || error.isEmpty();
+        this.error = error;
+        this.data = data;
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public boolean isSuccess() {
+        return this.isSuccess;
+    }
+
+    @Override
+    public String getError() {
+        return error;
+    }
+
+    public List<T> getData() {
+        return data;
+    }
+
+    /**
+     * Gets the cursor of the next page.
+     * @return The cursor of the next page, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public static <T> KeysetPagedResult<T> success(List<T> items, String nextCursor) {
+        return new KeysetPagedResult<>(items, nextCursor, null);
+    }
+
+    public static <T> KeysetPagedResult<T> fail(String error) {
+        return new KeysetPagedResult<>(null, null, error);
+    }
+}
@@ -0,0 +1,188 @@
+package com.silyosbekov.chessmate.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Pool of players waiting for an opponent, bucketed by Elo rating.
+ * <p>
+ *     Players can be added and removed from any thread. Pairing is done by a single thread in passes:
+ *     a pass drains the buckets in rating order, so the waiting players are sorted by a bucket sort,
+ *     and pairs each player with the next one if their ratings are within the acceptable window.
+ *     The window starts narrow and widens with the wait time of the player who has waited longer,
+ *     so every player is paired within a bounded time once the window reaches its maximum.
+ * </p>
+ * @param <K> The type of the player keys
+ */
+public class MatchmakingPool<K> {
+    private final int bucketWidth;
+    private final int initialWindow;
+    private final int windowGrowthPerSecond;
+    private final int maximumWindow;
+    private final Map<K, Ticket<K>> tickets = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Queue<Ticket<K>>> buckets = new ConcurrentSkipListMap<>();
+
+    /**
+     * Creates a new matchmaking pool.
+     * @param bucketWidth The rating range of a single bucket
+     * @param initialWindow The maximum rating difference of a pair when the players have just been added
+     * @param windowGrowthPerSecond How much the rating window widens per second of waiting
+     * @param maximumWindow The maximum rating difference of a pair
+     */
+    public MatchmakingPool(int bucketWidth, int initialWindow, int windowGrowthPerSecond, int maximumWindow) {
+        if (bucketWidth <= 0 || initialWindow < 0 || windowGrowthPerSecond < 0 || maximumWindow < initialWindow) {
+            throw new IllegalArgumentException("Invalid bucket width or rating window");
+        }
+
+        this.bucketWidth = bucketWidth;
+        this.initialWindow = initialWindow;
+        this.windowGrowthPerSecond = windowGrowthPerSecond;
+        this.maximumWindow = maximumWindow;
+    }
+
+    /**
+     * Add a player to the pool.
+     * @param key The player key
+     * @param elo The rating of the player
+     * @param nowNanos The current time in nanoseconds
+     * @return True if the player was added, false if the player is already in the pool
+     */
+    public boolean add(K key, int elo, long nowNanos) {
+        var ticket = new Ticket<>(key, elo, nowNanos);
+
+        if (tickets.putIfAbsent(key, ticket) != null) {
+            return false;
+        }
+
+        bucketOf(elo).add(ticket);
+        return true;
+    }
+
+    /**
+     * Remove a player from the pool. The player's bucket entry is discarded lazily by the next pass.
+     * @param key The player key
+     * @return True if the player was in the pool, otherwise false
+     */
+    public boolean remove(K key) {
+        return tickets.remove(key) != null;
+    }
+
+    public boolean contains(K key) {
+        return tickets.containsKey(key);
+    }
+
+    /**
+     * Get the number of waiting players.
+     * @return The number of waiting players
+     */
+    public int size() {
+        return tickets.size();
+    }
+
+    /**
+     * Pair the waiting players. The paired players are removed from the pool,
+     * the others keep waiting with their original enqueue time.
+     * Must not be called concurrently.
+     * @param nowNanos The current time in nanoseconds
+     * @return The pairs of matched players
+     */
+    public List<Match<K>> pair(long nowNanos) {
+        var waiting = drain();
+        var matches = new ArrayList<Match<K>>();
+        var i = 0;
+
+        while (i < waiting.size() - 1) {
+            var ticket = waiting.get(i);
+            var next = waiting.get(i + 1);
+            var window = Math.max(windowOf(ticket, nowNanos), windowOf(next, nowNanos));
+
+            if (next.elo() - ticket.elo() <= window && claim(ticket, next)) {
+                matches.add(new Match<>(ticket.key(), next.key(), ticket.enqueuedNanos(), next.enqueuedNanos()));
+                i += 2;
+            }
+            else {
+                requeue(ticket);
+                i++;
+            }
+        }
+
+        if (i < waiting.size()) {
+            requeue(waiting.get(i));
+        }
+
+        return matches;
+    }
+
+    /**
+     * Take the live tickets out of the buckets, sorted by rating.
+     */
+    private List<Ticket<K>> drain() {
+        var waiting = new ArrayList<Ticket<K>>(tickets.size());
+
+        for (var bucket : buckets.values()) {
+            var start = waiting.size();
+            Ticket<K> ticket;
+
+            while ((ticket = bucket.poll()) != null) {
+                if (tickets.get(ticket.key()) == ticket) { // skip removed players
+                    waiting.add(ticket);
+                }
+            }
+
+            // Buckets are visited in rating order, only the players within a bucket need sorting
+            waiting.subList(start, waiting.size()).sort(Comparator.comparingInt(Ticket::elo));
+        }
+
+        return waiting;
+    }
+
+    /**
+     * Remove both players from the pool, unless one of them has left in the meantime.
+     */
+    private boolean claim(Ticket<K> first, Ticket<K> second) {
+        if (!tickets.remove(first.key(), first)) {
+            return false;
+        }
+
+        if (!tickets.remove(second.key(), second)) {
+            tickets.putIfAbsent(first.key(), first);
+            return false;
+        }
+
+        return true;
+    }
+
+    private void requeue(Ticket<K> ticket) {
+        if (tickets.get(ticket.key()) == ticket) {
+            bucketOf(ticket.elo()).add(ticket);
+        }
+    }
+
+    private long windowOf(Ticket<K> ticket, long nowNanos) {
+        var waitSeconds = (nowNanos - ticket.enqueuedNanos()) / 1_000_000_000L;
+        return Math.min(initialWindow + waitSeconds * windowGrowthPerSecond, maximumWindow);
+    }
+
+    private Queue<Ticket<K>> bucketOf(int elo) {
+        return buckets.computeIfAbsent(Math.floorDiv(elo, bucketWidth), bucket -> new ConcurrentLinkedQueue<>());
+    }
+
+    /**
+     * A pair of matched players.
+     * @param first The lower rated player
+     * @param second The higher rated player
+     * @param firstEnqueuedNanos The time the first player was added to the pool
+     * @param secondEnqueuedNanos The time the second player was added to the pool
+     */
+    public record Match<K>(K first, K second, long firstEnqueuedNanos, long secondEnqueuedNanos) {
+    }
+
+    private record Ticket<K>(K key, int elo, long enqueuedNanos) {
+    }
+}
@@ -0,0 +1,243 @@
+package com.silyosbekov.chessmate.core;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of moves.
+ * <p>
+ *     A frame starts with the game handle and the ply of the first move as unsigned varints, followed by the moves.
+ *     A move is a 16-bit big-endian word: bits 0-5 hold the from square, bits 6-11 the to square
+ *     (rank * 8 + file, a1 = 0), bits 12-14 the promotion piece (0 none, 1 knight, 2 bishop, 3 rook, 4 queen)
+ *     and bit 15 tells whether a flags byte follows, which is only written for moves ending the game
+ *     (bit 0 checkmate, bit 1 stalemate). A frame of a single move is typically 4 bytes.
+ *     The color of each move follows from its ply, white plays the even plies.
+ * </p>
+ * <p>
+ *     An acknowledgement frame starts with the game handle, the requested ply, the status and the authoritative ply
+ *     of the game as unsigned varints, followed by the moves applied by the command starting at the requested ply.
+ * </p>
+ */
+public final class MoveCodec {
+    private static final String PROMOTION_PIECES = "nbrq";
+    private static final int HAS_FLAGS_BIT = 0x8000;
+    private static final int CHECKMATE_FLAG = 0x01;
+    private static final int STALEMATE_FLAG = 0x02;
+
+    private MoveCodec() {
+    }
+
+    /**
+     * Encode moves played in order starting from a ply.
+     * @param handle The handle of the game
+     * @param firstPly The ply of the first move
+     * @param moves The moves
+     * @return The encoded frame
+     */
+    public static byte[] encode(int handle, int firstPly, List<Move> moves) {
+        var output = new ByteArrayOutputStream(4 + moves.size() * 2);
+        writeVarInt(output, handle);
+        writeVarInt(output, firstPly);
+        writeMoves(output, moves);
+        return output.toByteArray();
+    }
+
+    /**
+     * Decode a frame.
+     * @param data The encoded frame
+     * @return The decoded frame
+     * @throws IllegalArgumentException if the frame is malformed
+     */
+    public static Frame decode(byte[] data) {
+        var position = new int[1];
+        var handle = readVarInt(data, position);
+        var firstPly = readVarInt(data, position);
+        return new Frame(handle, firstPly, readMoves(data, position));
+    }
+
+    /**
+     * Encode the acknowledgement of a move command.
+     * @param handle The handle of the game
+     * @param requestedPly The ply of the command
+     * @param status The status of the command, the ordinal of its {@code MoveAckStatus}
+     * @param ply The authoritative number of plies played in the game
+     * @param moves The moves applied by the command, starting at the requested ply
+     * @return The encoded acknowledgement frame
+     */
+    public static byte[] encodeAck(int handle, int requestedPly, int status, int ply, List<Move> moves) {
+        var output = new ByteArrayOutputStream(6 + moves.size() * 2);
+        writeVarInt(output, handle);
+        writeVarInt(output, requestedPly);
+        writeVarInt(output, status);
+        writeVarInt(output, ply);
+        writeMoves(output, moves);
+        return output.toByteArray();
+    }
+
+    /**
+     * Decode an acknowledgement frame.
+     * @param data The encoded acknowledgement frame
+     * @return The decoded acknowledgement
+     * @throws IllegalArgumentException if the frame is malformed
+     */
+    public static Ack decodeAck(byte[] data) {
+        var position = new int[1];
+        var handle = readVarInt(data, position);
+        var requestedPly = readVarInt(data, position);
+        var status = readVarInt(data, position);
+        var ply = readVarInt(data, position);
+        return new Ack(handle, requestedPly, status, ply, readMoves(data, position));
+    }
+
+    private static void writeMoves(ByteArrayOutputStream output, List<Move> moves) {
+        for (var move : moves) {
+            var flags = (move.isCheckmate() ? CHECKMATE_FLAG : 0) | (move.isStalemate() ? STALEMATE_FLAG : 0);
+            var word = encodeSquare(move.from())
+                    | encodeSquare(move.to()) << 6
+                    | encodePromotion(move.promotion()) << 12
+                    | (flags != 0 ? HAS_FLAGS_BIT : 0);
+
+            output.write(word >>> 8);
+            output.write(word & 0xFF);
+
+            if (flags != 0) {
+                output.write(flags);
+            }
+        }
+    }
+
+    private static List<Move> readMoves(byte[] data, int[] position) {
+        var moves = new ArrayList<Move>();
+
+        while (position[0] < data.length) {
+            if (position[0] + 2 > data.length) {
+                throw new IllegalArgumentException("Truncated move");
+            }
+
+            var word = (data[position[0]] & 0xFF) << 8 | data[position[0] + 1] & 0xFF;
+            position[0] += 2;
+            var flags = 0;
+
+            if ((word & HAS_FLAGS_BIT) != 0) {
+                if (position[0] >= data.length) {
+                    throw new IllegalArgumentException("Truncated move flags");
+                }
+
+                flags = data[position[0]++];
+            }
+
+            moves.add(new Move(
+                    decodeSquare(word & 0x3F),
+                    decodeSquare(word >>> 6 & 0x3F),
+                    decodePromotion(word >>> 12 & 0x07),
+                    (flags & CHECKMATE_FLAG) != 0,
+                    (flags & STALEMATE_FLAG) != 0));
+        }
+
+        return moves;
+    }
+
+    private static int encodeSquare(String square) {
+        if (square == null || square.length() != 2) {
+            throw new IllegalArgumentException("Invalid square '%s'".formatted(square));
+        }
+
+        var file = square.charAt(0) - 'a';
+        var rank = square.charAt(1) - '1';
+
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            throw new IllegalArgumentException("Invalid square '%s'".formatted(square));
+        }
+
+        return rank * 8 + file;
+    }
+
+    private static String decodeSquare(int index) {
+        return String.valueOf((char) ('a' + index % 8)) + (char) ('1' + index / 8);
+    }
+
+    private static int encodePromotion(Character promotion) {
+        if (promotion == null) {
+            return 0;
+        }
+
+        var index = PROMOTION_PIECES.indexOf(Character.toLowerCase(promotion));
+
+        if (index < 0) {
+            throw new IllegalArgumentException("Invalid promotion piece '%s'".formatted(promotion));
+        }
+
+        return index + 1;
+    }
+
+    private static Character decodePromotion(int value) {
+        if (value > PROMOTION_PIECES.length()) {
+            throw new IllegalArgumentException("Invalid promotion piece " + value);
+        }
+
+        return value == 0 ? null : PROMOTION_PIECES.charAt(value - 1);
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream output, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative");
+        }
+
+        var remaining = value;
+
+        while (remaining >= 0x80) {
+            output.write(remaining & 0x7F | 0x80);
+            remaining >>>= 7;
+        }
+
+        output.write(remaining);
+    }
+
+    private static int readVarInt(byte[] data, int[] position) {
+        var value = 0;
+
+        for (var shift = 0; shift < 32; shift += 7) {
+            if (position[0] >= data.length) {
+                throw new IllegalArgumentException("Truncated varint");
+            }
+
+            var b = data[position[0]++];
+            value |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IllegalArgumentException("Varint is too long");
+    }
+
+    /**
+     * @param from The square the piece moves from, e.g. e2
+     * @param to The square the piece moves to, e.g. e4
+     * @param promotion The piece type a pawn is promoted to, or null
+     * @param isCheckmate Whether the move checkmates the opponent
+     * @param isStalemate Whether the move stalemates the opponent
+     */
+    public record Move(String from, String to, Character promotion, boolean isCheckmate, boolean isStalemate) {
+    }
+
+    /**
+     * @param handle The handle of the game
+     * @param firstPly The ply of the first move
+     * @param moves The moves in order
+     */
+    public record Frame(int handle, int firstPly, List<Move> moves) {
+    }
+
+    /**
+     * @param handle The handle of the game
+     * @param requestedPly The ply of the command
+     * @param status The status of the command, the ordinal of its {@code MoveAckStatus}
+     * @param ply The authoritative number of plies played in the game
+     * @param moves The moves applied by the command in order, starting at the requested ply
+     */
+    public record Ack(int handle, int requestedPly, int status, int ply, List<Move> moves) {
+    }
+}
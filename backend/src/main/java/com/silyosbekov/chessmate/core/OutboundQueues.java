@@ -0,0 +1,309 @@
+package com.silyosbekov.chessmate.core;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded per-session queues of outbound messages.
+ * <p>
+ *     The messages of a session are sent one at a time in order by a single delegate thread, the others wait in the
+ *     session's queue. A queued message with a coalesce key is superseded by a newer message with the same key,
+ *     which takes its place in the queue merged with it, messages without a key are never dropped.
+ *     A session whose queued messages exceed the buffer size limit, or whose current send has taken longer than
+ *     the send time limit when a new message arrives, is a slow consumer. Its queue is discarded and the session
+ *     is handed to the slow consumer handler with the reason, no further messages are queued for it
+ *     until the session is removed.
+ * </p>
+ */
+public class OutboundQueues {
+    private final Executor delegate;
+    private final long bufferSizeLimit;
+    private final long sendTimeLimitNanos;
+    private final LongSupplier nanoClock;
+    private final BiConsumer<String, String> slowConsumerHandler;
+    private final Map<String, Outbox> outboxes = new ConcurrentHashMap<>();
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private final AtomicInteger bufferedCount = new AtomicInteger();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder slowConsumersCount = new LongAdder();
+
+    /**
+     * Creates new outbound queues.
+     * @param delegate The executor sending the messages
+     * @param bufferSizeLimit The maximum number of bytes queued for a session, including the message being sent
+     * @param sendTimeLimitMillis The maximum time a single send may take in milliseconds
+     * @param slowConsumerHandler Closes the session with the given ID for the given reason
+     */
+    public OutboundQueues(Executor delegate, long bufferSizeLimit, long sendTimeLimitMillis, BiConsumer<String, String> slowConsumerHandler) {
+        this(delegate, bufferSizeLimit, sendTimeLimitMillis, System::nanoTime, slowConsumerHandler);
+    }
+
+    /**
+     * Creates new outbound queues with a custom clock.
+     * @param delegate The executor sending the messages
+     * @param bufferSizeLimit The maximum number of bytes queued for a session, including the message being sent
+     * @param sendTimeLimitMillis The maximum time a single send may take in milliseconds
+     * @param nanoClock The clock in nanoseconds
+     * @param slowConsumerHandler Closes the session with the given ID for the given reason
+     */
+    public OutboundQueues(
+            Executor delegate,
+            long bufferSizeLimit,
+            long sendTimeLimitMillis,
+            LongSupplier nanoClock,
+            BiConsumer<String, String> slowConsumerHandler)
+    {
+        if (bufferSizeLimit <= 0 || sendTimeLimitMillis <= 0) {
+            throw new IllegalArgumentException("Buffer size and send time limits must be positive");
+        }
+
+        this.delegate = delegate;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.sendTimeLimitNanos = sendTimeLimitMillis * 1_000_000;
+        this.nanoClock = nanoClock;
+        this.slowConsumerHandler = slowConsumerHandler;
+    }
+
+    /**
+     * Queue a message for a session and start sending if the session is idle.
+     * @param sessionId The ID of the session
+     * @param message The message
+     */
+    public void enqueue(String sessionId, Message message) {
+        var outbox = outboxes.computeIfAbsent(sessionId, id -> new Outbox());
+        var isIdle = false;
+        String slowConsumerReason = null;
+
+        synchronized (outbox) {
+            if (outbox.isClosed) {
+                return;
+            }
+
+            if (outbox.isSending && nanoClock.getAsLong() - outbox.sendStartNanos > sendTimeLimitNanos) {
+                slowConsumerReason = "Send time limit of %d ms exceeded".formatted(sendTimeLimitNanos / 1_000_000);
+            }
+            else {
+                add(outbox, message);
+
+                if (outbox.bufferedBytes > bufferSizeLimit) {
+                    slowConsumerReason = "Outbound buffer limit of %d bytes exceeded".formatted(bufferSizeLimit);
+                }
+                else if (!outbox.isSending) {
+                    outbox.isSending = true;
+                    isIdle = true;
+                }
+            }
+
+            if (slowConsumerReason != null) {
+                close(outbox);
+            }
+        }
+
+        if (slowConsumerReason != null) {
+            slowConsumersCount.increment();
+            slowConsumerHandler.accept(sessionId, slowConsumerReason);
+        }
+        else if (isIdle) {
+            delegate.execute(() -> drain(outbox));
+        }
+    }
+
+    /**
+     * Discard the queued messages of a closed session and forget the session.
+     * @param sessionId The ID of the session
+     */
+    public void remove(String sessionId) {
+        var outbox = outboxes.remove(sessionId);
+
+        if (outbox != null) {
+            synchronized (outbox) {
+                close(outbox);
+            }
+        }
+    }
+
+    /**
+     * Get the number of bytes queued for all sessions.
+     */
+    public long getBufferedBytes() {
+        return bufferedBytes.get();
+    }
+
+    /**
+     * Get the number of messages queued for all sessions.
+     */
+    public int getBufferedCount() {
+        return bufferedCount.get();
+    }
+
+    /**
+     * Get the largest number of bytes queued for a single session.
+     */
+    public long getMaxSessionBufferedBytes() {
+        var max = 0L;
+
+        for (var outbox : outboxes.values()) {
+            synchronized (outbox) {
+                max = Math.max(max, outbox.bufferedBytes);
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Get the number of sessions with a queue.
+     */
+    public int getSessionsCount() {
+        return outboxes.size();
+    }
+
+    /**
+     * Get the number of messages superseded by a newer message since the queues were created.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * Get the number of sessions handed to the slow consumer handler since the queues were created.
+     */
+    public long getSlowConsumersCount() {
+        return slowConsumersCount.sum();
+    }
+
+    /**
+     * Append the message, or merge it into a queued message with the same coalesce key.
+     * The message being sent is no longer in the queue and is never merged into.
+     */
+    private void add(Outbox outbox, Message message) {
+        if (message.coalesceKey() != null) {
+            for (var queued : outbox.messages) {
+                if (message.coalesceKey().equals(queued.message.coalesceKey())) {
+                    var merged = message.coalesce(queued.message);
+                    changeBufferedBytes(outbox, merged.size() - queued.message.size());
+                    queued.message = merged;
+                    coalescedCount.increment();
+                    return;
+                }
+            }
+        }
+
+        outbox.messages.add(new QueuedMessage(message));
+        bufferedCount.incrementAndGet();
+        changeBufferedBytes(outbox, message.size());
+    }
+
+    /**
+     * Send the queued messages of a session until its queue is empty.
+     */
+    private void drain(Outbox outbox) {
+        while (true) {
+            Message message;
+
+            synchronized (outbox) {
+                var queued = outbox.messages.poll();
+
+                if (queued == null || outbox.isClosed) {
+                    outbox.isSending = false;
+                    return;
+                }
+
+                message = queued.message;
+                bufferedCount.decrementAndGet();
+                outbox.sendStartNanos = nanoClock.getAsLong();
+            }
+
+            try {
+                message.send();
+            }
+            catch (RuntimeException | Error e) {
+                // Hand the remaining messages to a new thread before the exception ends this one
+                completeSend(outbox, message);
+                delegate.execute(() -> drain(outbox));
+                throw e;
+            }
+
+            completeSend(outbox, message);
+        }
+    }
+
+    private void completeSend(Outbox outbox, Message message) {
+        synchronized (outbox) {
+            if (!outbox.isClosed) {
+                changeBufferedBytes(outbox, -message.size());
+            }
+        }
+    }
+
+    private void close(Outbox outbox) {
+        if (outbox.isClosed) {
+            return;
+        }
+
+        outbox.isClosed = true;
+        bufferedCount.addAndGet(-outbox.messages.size());
+        bufferedBytes.addAndGet(-outbox.bufferedBytes);
+        outbox.messages.clear();
+        outbox.bufferedBytes = 0;
+    }
+
+    private void changeBufferedBytes(Outbox outbox, long delta) {
+        outbox.bufferedBytes += delta;
+        bufferedBytes.addAndGet(delta);
+    }
+
+    /**
+     * Outbound message of a session.
+     */
+    public interface Message {
+        /**
+         * Send the message to the session.
+         */
+        void send();
+
+        /**
+         * Get the size of the message in bytes.
+         */
+        int size();
+
+        /**
+         * Get the key of the messages superseding each other.
+         * @return The key, or null if the message is never dropped
+         */
+        Object coalesceKey();
+
+        /**
+         * Merge a queued message with the same coalesce key into this newer message.
+         * @param queued The queued message
+         * @return The message replacing the queued message
+         */
+        Message coalesce(Message queued);
+    }
+
+    private static final class QueuedMessage {
+        Message message;
+
+        QueuedMessage(Message message) {
+            this.message = message;
+        }
+    }
+
+    /**
+     * Queue of a session, guarded by its monitor.
+     */
+    private static final class Outbox {
+        final ArrayDeque<QueuedMessage> messages = new ArrayDeque<>();
+        long bufferedBytes;
+        long sendStartNanos;
+        boolean isSending;
+        boolean isClosed;
+    }
+}
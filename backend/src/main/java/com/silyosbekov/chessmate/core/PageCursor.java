@@ -0,0 +1,46 @@
+package com.silyosbekov.chessmate.core;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset pagination cursor. Points to the last item of a page ordered by creation date and ID,
+ * the next page starts right after it.
+ * @param createdDate The creation date of the last item
+ * @param id The ID of the last item
+ */
+public record PageCursor(Instant createdDate, UUID id) {
+
+    /**
+     * Encode the cursor to an opaque URL-safe string.
+     * @return The encoded cursor
+     */
+    public String encode() {
+        var value = createdDate.getEpochSecond() + ":" + createdDate.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor encoded by {@link #encode()}.
+     * @param cursor The encoded cursor, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     * @return The decoded cursor, or null if the cursor is null or empty
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var parts = value.split(":", 3);
+            var createdDate = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new PageCursor(createdDate, UUID.fromString(parts[2]));
+        }
+        catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor '%s'".formatted(cursor), e);
+        }
+    }
+}
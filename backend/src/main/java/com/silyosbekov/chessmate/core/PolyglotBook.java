@@ -0,0 +1,136 @@
+package com.silyosbekov.chessmate.core;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opening book in the Polyglot format, memory mapped and searched in place.
+ * <p>
+ *     The book is a file of 16-byte big-endian entries sorted by the unsigned position key: the 64-bit key,
+ *     the 16-bit move, the 16-bit weight and 32 bits of learning data. The entries of a position are found
+ *     by a binary search over the mapped file, nothing is copied to the heap and the pages are loaded by the
+ *     operating system on first access. Lookups only use absolute reads of the mapping and are thread safe.
+ *     The mapping stays valid after the file is replaced and is released when the book is garbage collected.
+ * </p>
+ */
+public class PolyglotBook {
+    public static final int ENTRY_SIZE = 16;
+
+    private static final String PROMOTION_PIECES = " nbrq";
+
+    private final MappedByteBuffer buffer;
+    private final int entriesCount;
+
+    private PolyglotBook(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.entriesCount = buffer.capacity() / ENTRY_SIZE;
+    }
+
+    /**
+     * Map a book file into memory.
+     * @param path The path of the book file
+     * @throws IllegalArgumentException if the file size is not a multiple of the entry size or exceeds 2 GB
+     */
+    public static PolyglotBook open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var size = channel.size();
+
+            if (size % ENTRY_SIZE != 0 || size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid Polyglot book %s of %d bytes".formatted(path, size));
+            }
+
+            return new PolyglotBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Encode a move in the Polyglot move format. Castling is encoded as the king moving to the square of its rook,
+     * e.g. e1h1 for white short castling.
+     * @param from The origin square, e.g. e2
+     * @param to The destination square, e.g. e4
+     * @param promotion The piece a pawn is promoted to, one of n, b, r and q, or null
+     */
+    public static int encodeMove(String from, String to, Character promotion) {
+        var promotionPiece = promotion != null ? PROMOTION_PIECES.indexOf(Character.toLowerCase(promotion)) : 0;
+
+        if (promotionPiece < 0) {
+            throw new IllegalArgumentException("Invalid promotion piece " + promotion);
+        }
+
+        return squareOf(to) | squareOf(from) << 6 | promotionPiece << 12;
+    }
+
+    /**
+     * Get the number of entries of the book.
+     */
+    public int getEntriesCount() {
+        return entriesCount;
+    }
+
+    /**
+     * Find the moves of a position.
+     * @param key The Polyglot key of the position
+     * @return The entries of the position in book order, empty if the position is not in the book
+     */
+    public List<Entry> find(long key) {
+        var entries = new ArrayList<Entry>();
+
+        for (var index = lowerBound(key); index < entriesCount && keyAt(index) == key; index++) {
+            var offset = index * ENTRY_SIZE;
+            entries.add(new Entry(
+                    Short.toUnsignedInt(buffer.getShort(offset + 8)),
+                    Short.toUnsignedInt(buffer.getShort(offset + 10))));
+        }
+
+        return entries;
+    }
+
+    /**
+     * Find the index of the first entry whose key is not less than the given key.
+     */
+    private int lowerBound(long key) {
+        var low = 0;
+        var high = entriesCount;
+
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+
+            if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return buffer.getLong(index * ENTRY_SIZE);
+    }
+
+    private static int squareOf(String square) {
+        var file = square.length() == 2 ? square.charAt(0) - 'a' : -1;
+        var rank = square.length() == 2 ? square.charAt(1) - '1' : -1;
+
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            throw new IllegalArgumentException("Invalid square " + square);
+        }
+
+        return 8 * rank + file;
+    }
+
+    /**
+     * Book move of a position.
+     * @param move The move in the Polyglot move format, see {@link #encodeMove(String, String, Character)}
+     * @param weight The weight of the move relative to the other moves of the position
+     */
+    public record Entry(int move, int weight) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.silyosbekov.chessmate.core;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects the moves played in positions and writes them as a book in the Polyglot format, see {@link PolyglotBook}.
+ * <p>
+ *     The weights of a move played in the same position are summed. Moves without weight are left out,
+ *     a position whose largest weight does not fit the 16 bits of the format has its weights scaled down
+ *     proportionally, keeping at least 1. The entries are written sorted by the unsigned key,
+ *     the moves of a position by weight from the highest.
+ * </p>
+ */
+public class PolyglotBookWriter {
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private final Map<Long, Map<Integer, Long>> positions = new HashMap<>();
+
+    /**
+     * Add a move played in a position.
+     * @param key The Polyglot key of the position
+     * @param move The move in the Polyglot move format
+     * @param weight The weight to add to the move, zero only records the position
+     */
+    public void add(long key, int move, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must not be negative");
+        }
+
+        positions.computeIfAbsent(key, k -> new HashMap<>()).merge(move, (long) weight, Long::sum);
+    }
+
+    /**
+     * Get the number of positions added.
+     */
+    public int getPositionsCount() {
+        return positions.size();
+    }
+
+    /**
+     * Write the book.
+     * @param path The path of the book file, replaced if it exists
+     * @return The number of entries written
+     */
+    public int write(Path path) throws IOException {
+        var keys = new ArrayList<>(positions.keySet());
+        keys.sort(Long::compareUnsigned);
+        var entriesCount = 0;
+
+        try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            for (var key : keys) {
+                var moves = new ArrayList<>(positions.get(key).entrySet());
+                moves.removeIf(move -> move.getValue() == 0);
+                moves.sort(Map.Entry.<Integer, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()));
+
+                var maxWeight = moves.isEmpty() ? 0 : moves.getFirst().getValue();
+                var scale = maxWeight > MAX_WEIGHT ? (double) MAX_WEIGHT / maxWeight : 1;
+
+                for (var move : moves) {
+                    output.writeLong(key);
+                    output.writeShort(move.getKey());
+                    output.writeShort((int) Math.max(1, move.getValue() * scale));
+                    output.writeInt(0);
+                    entriesCount++;
+                }
+            }
+        }
+
+        return entriesCount;
+    }
+}
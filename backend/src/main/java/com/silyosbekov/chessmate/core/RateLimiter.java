@@ -0,0 +1,106 @@
+package com.silyosbekov.chessmate.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket rate limiter with a bucket per key, written as a rate and a burst, e.g. 10:20.
+ * <p>
+ *     The buckets are tracked with the generic cell rate algorithm: instead of a token count, each key stores
+ *     the theoretical arrival time of its next request, which is advanced by one emission interval per permit.
+ *     A request is allowed while the theoretical arrival time is at most a burst of intervals ahead of now.
+ *     This is equivalent to a bucket refilled at the rate up to the burst, and a single compare-and-set
+ *     updates it without locking. Keys whose bucket is full again are evicted.
+ * </p>
+ */
+public class RateLimiter {
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+
+    /**
+     * The theoretical arrival time of the next request of each key in nanoseconds
+     */
+    private final Map<Object, AtomicLong> arrivalTimes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new rate limiter.
+     * @param permitsPerSecond The rate the buckets are refilled at
+     * @param burst The capacity of the buckets
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+
+        this.emissionIntervalNanos = Math.max((long) (1_000_000_000 / permitsPerSecond), 1);
+        this.burstNanos = emissionIntervalNanos * burst;
+    }
+
+    /**
+     * Parse a rate limiter.
+     * @param value The permits per second and the burst, e.g. 10:20, or 10 with a burst equal to the rate
+     * @throws IllegalArgumentException if the rate limit is malformed
+     * @return The rate limiter
+     */
+    public static RateLimiter parse(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Rate limit is required");
+        }
+
+        var parts = value.split(":", -1);
+
+        try {
+            if (parts.length == 1) {
+                var permitsPerSecond = Double.parseDouble(parts[0].trim());
+                return new RateLimiter(permitsPerSecond, (int) Math.max(Math.ceil(permitsPerSecond), 1));
+            }
+            if (parts.length == 2) {
+                return new RateLimiter(Double.parseDouble(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+        }
+        catch (NumberFormatException e) {
+            // Reported below
+        }
+
+        throw new IllegalArgumentException("Malformed rate limit '%s'".formatted(value));
+    }
+
+    /**
+     * Take a permit from the bucket of a key.
+     * @param key The key, e.g. the ID of a session or a player
+     * @param nowNanos The current time in nanoseconds
+     * @return 0 if a permit was taken, otherwise the nanoseconds until the next permit
+     */
+    public long acquire(Object key, long nowNanos) {
+        var arrivalTime = arrivalTimes.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+
+        while (true) {
+            var current = arrivalTime.get();
+            var next = Math.max(current, nowNanos) + emissionIntervalNanos;
+
+            if (next - nowNanos > burstNanos) {
+                return next - nowNanos - burstNanos;
+            }
+            if (arrivalTime.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Forget the keys whose bucket has been refilled to the burst, a new request of the key starts a full bucket.
+     * A request racing with the eviction of its key may get one permit more than the burst.
+     * @param nowNanos The current time in nanoseconds
+     */
+    public void evictFull(long nowNanos) {
+        arrivalTimes.values().removeIf(arrivalTime -> arrivalTime.get() - nowNanos <= 0);
+    }
+
+    /**
+     * Get the number of keys tracked.
+     */
+    public int getKeysCount() {
+        return arrivalTimes.size();
+    }
+}
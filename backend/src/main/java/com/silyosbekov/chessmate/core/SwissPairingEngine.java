@@ -0,0 +1,231 @@
+package com.silyosbekov.chessmate.core;
+
+import com.silyosbekov.chessmate.model.PlayerColor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Swiss system pairing, a simplified Dutch system.
+ * <p>
+ *     Players are sorted by score and rating and split into score groups. Each group, together with the players
+ *     floated down from the group above, is split in half and the top half is paired against the bottom half.
+ *     Players who have already met are never paired if another opponent is available, and colours are balanced
+ *     by giving white to the player who has played black more often. Players who cannot be paired within their
+ *     group float down to the next group. A round of thousands of players is paired in linear time
+ *     in the usual case, since the first candidate of each player is almost always acceptable.
+ * </p>
+ */
+public final class SwissPairingEngine {
+    /**
+     * How many candidates are checked for a matching colour preference before any new opponent is accepted
+     */
+    private static final int COLOUR_LOOKAHEAD = 8;
+
+    private SwissPairingEngine() {
+    }
+
+    /**
+     * Pair the next round.
+     * @param players The players of the tournament
+     * @return The pairings and the player who gets a bye, if the number of players is odd
+     * @param <K> The type of the player keys
+     */
+    public static <K> Round<K> pair(List<Player<K>> players) {
+        var sorted = new ArrayList<>(players);
+        sorted.sort(Comparator.<Player<K>>comparingInt(Player::score).reversed()
+                .thenComparing(Comparator.<Player<K>>comparingInt(Player::rating).reversed()));
+
+        K byePlayer = null;
+
+        if (sorted.size() % 2 == 1) {
+            byePlayer = sorted.remove(findByeIndex(sorted)).key();
+        }
+
+        var pairings = new ArrayList<Pairing<K>>(sorted.size() / 2);
+        var floaters = new ArrayList<Player<K>>();
+        var groupStart = 0;
+
+        while (groupStart < sorted.size()) {
+            var groupEnd = groupStart;
+
+            while (groupEnd < sorted.size() && sorted.get(groupEnd).score() == sorted.get(groupStart).score()) {
+                groupEnd++;
+            }
+
+            var group = new ArrayList<Player<K>>(floaters.size() + groupEnd - groupStart);
+            group.addAll(floaters);
+            group.addAll(sorted.subList(groupStart, groupEnd));
+            floaters = pairGroup(group, pairings);
+            groupStart = groupEnd;
+        }
+
+        // The last players could not avoid rematches, pair them in order anyway
+        for (var i = 0; i + 1 < floaters.size(); i += 2) {
+            pairings.add(assignColours(floaters.get(i), floaters.get(i + 1), pairings.size()));
+        }
+
+        return new Round<>(pairings, byePlayer);
+    }
+
+    /**
+     * Pair the top half of the group against the bottom half.
+     * @return The players who could not be paired within the group
+     */
+    private static <K> ArrayList<Player<K>> pairGroup(List<Player<K>> group, List<Pairing<K>> pairings) {
+        var paired = new boolean[group.size()];
+        var half = group.size() / 2;
+
+        for (var i = 0; i < group.size(); i++) {
+            if (paired[i]) {
+                continue;
+            }
+
+            // The top half looks for opponents in the bottom half first, wrapping around to the rest of the group
+            var start = i < half ? half + i : i + 1;
+            var opponent = findOpponent(group, paired, i, start);
+
+            if (opponent >= 0) {
+                paired[i] = true;
+                paired[opponent] = true;
+                pairings.add(assignColours(group.get(i), group.get(opponent), pairings.size()));
+            }
+        }
+
+        var floaters = new ArrayList<Player<K>>();
+
+        for (var i = 0; i < group.size(); i++) {
+            if (!paired[i]) {
+                floaters.add(group.get(i));
+            }
+        }
+
+        return floaters;
+    }
+
+    /**
+     * Find the first unpaired new opponent from the start index, wrapping around to the players after the player,
+     * preferring an opponent with a compatible colour among the first few candidates.
+     * @return The index of the opponent, or -1 if every unpaired player has already been met
+     */
+    private static <K> int findOpponent(List<Player<K>> group, boolean[] paired, int index, int start) {
+        var player = group.get(index);
+        var firstNewOpponent = -1;
+        var candidates = 0;
+        var range = group.size() - index - 1;
+
+        for (var offset = 0; offset < range; offset++) {
+            var j = index + 1 + Math.floorMod(start - index - 1 + offset, range);
+            var candidate = group.get(j);
+
+            if (paired[j] || player.opponents().contains(candidate.key())) {
+                continue;
+            }
+
+            if (isColourCompatible(player, candidate)) {
+                return j;
+            }
+
+            if (firstNewOpponent < 0) {
+                firstNewOpponent = j;
+            }
+
+            if (++candidates >= COLOUR_LOOKAHEAD) {
+                break;
+            }
+        }
+
+        return firstNewOpponent;
+    }
+
+    private static <K> int findByeIndex(List<Player<K>> sorted) {
+        for (var i = sorted.size() - 1; i >= 0; i--) {
+            if (!sorted.get(i).hadBye()) {
+                return i;
+            }
+        }
+
+        return sorted.size() - 1;
+    }
+
+    private static <K> boolean isColourCompatible(Player<K> first, Player<K> second) {
+        var firstPreference = preferredColour(first);
+        var secondPreference = preferredColour(second);
+        return firstPreference == null || secondPreference == null || firstPreference != secondPreference;
+    }
+
+    /**
+     * The colour the player should get to balance the colours, or null if the player has no preference.
+     */
+    private static <K> PlayerColor preferredColour(Player<K> player) {
+        if (player.colourBalance() != 0) {
+            return player.colourBalance() < 0 ? PlayerColor.WHITE : PlayerColor.BLACK;
+        }
+
+        if (player.lastColour() != null) {
+            return player.lastColour() == PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
+        }
+
+        return null;
+    }
+
+    /**
+     * Give white to the player who needs it more, the higher ranked player decides ties.
+     * Boards without any preference alternate colours.
+     */
+    private static <K> Pairing<K> assignColours(Player<K> higher, Player<K> lower, int board) {
+        var higherPreference = preferredColour(higher);
+        var lowerPreference = preferredColour(lower);
+        boolean isHigherWhite;
+
+        if (higherPreference != null && higherPreference != lowerPreference) {
+            isHigherWhite = higherPreference == PlayerColor.WHITE;
+        }
+        else if (lowerPreference != null && higherPreference == null) {
+            isHigherWhite = lowerPreference == PlayerColor.BLACK;
+        }
+        else if (higherPreference != null) {
+            // Both prefer the same colour, the stronger imbalance wins
+            var isHigherStronger = Math.abs(higher.colourBalance()) >= Math.abs(lower.colourBalance());
+            isHigherWhite = (higherPreference == PlayerColor.WHITE) == isHigherStronger;
+        }
+        else {
+            isHigherWhite = board % 2 == 0;
+        }
+
+        return isHigherWhite ? new Pairing<>(higher.key(), lower.key()) : new Pairing<>(lower.key(), higher.key());
+    }
+
+    /**
+     * State of a player before the round.
+     * @param key The player key
+     * @param score The score of the player in half points
+     * @param rating The rating of the player
+     * @param colourBalance The number of games played with white minus the number of games played with black
+     * @param lastColour The colour of the last game, or null if the player has not played yet
+     * @param opponents The keys of the players already met
+     * @param hadBye Whether the player already had a bye
+     */
+    public record Player<K>(
+            K key,
+            int score,
+            int rating,
+            int colourBalance,
+            PlayerColor lastColour,
+            Set<K> opponents,
+            boolean hadBye)
+    {
+    }
+
+    public record Pairing<K>(K white, K black) {
+    }
+
+    /**
+     * @param pairings The pairings of the round
+     * @param byePlayer The player who sits out the round, or null if the number of players is even
+     */
+    public record Round<K>(List<Pairing<K>> pairings, K byePlayer) {
+    }
+}
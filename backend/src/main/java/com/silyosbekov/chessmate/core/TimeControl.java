@@ -0,0 +1,55 @@
+package com.silyosbekov.chessmate.core;
+
+/**
+ * Time control of a game, written as base time in minutes plus increment in seconds, e.g. 5+3.
+ * @param baseMinutes The base time of each player in minutes
+ * @param incrementSeconds The time added after each move in seconds
+ */
+public record TimeControl(int baseMinutes, int incrementSeconds) {
+    public TimeControl {
+        if (baseMinutes <= 0 || incrementSeconds < 0) {
+            throw new IllegalArgumentException("Base time must be positive and increment must not be negative");
+        }
+    }
+
+    /**
+     * Parse a time control.
+     * @param value The time control, e.g. 5+3, or 10 without increment
+     * @throws IllegalArgumentException if the time control is malformed
+     * @return The parsed time control
+     */
+    public static TimeControl parse(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Time control is required");
+        }
+
+        var parts = value.split("\\+", -1);
+
+        try {
+            if (parts.length == 1) {
+                return new TimeControl(Integer.parseInt(parts[0].trim()), 0);
+            }
+            if (parts.length == 2) {
+                return new TimeControl(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+        }
+        catch (NumberFormatException e) {
+            // Reported below
+        }
+
+        throw new IllegalArgumentException("Malformed time control '%s'".formatted(value));
+    }
+
+    /**
+     * Format the time control for the PGN TimeControl header, base time in seconds plus increment, e.g. 300+3.
+     * @return The PGN time control
+     */
+    public String toPgn() {
+        return (baseMinutes * 60) + "+" + incrementSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return baseMinutes + "+" + incrementSeconds;
+    }
+}
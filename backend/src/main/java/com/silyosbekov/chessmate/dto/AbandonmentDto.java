@@ -0,0 +1,12 @@
+package com.silyosbekov.chessmate.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Pending completion of a game left by a player, carried over when the game is handed off to another node.
+ * @param playerId The ID of the player who left the game
+ * @param deadline When the game is completed as a win for the opponent, unless it ends before
+ */
+public record AbandonmentDto(UUID playerId, Instant deadline) {
+}
@@ -0,0 +1,14 @@
+package com.silyosbekov.chessmate.dto;
+
+/**
+ * Move of a position in the opening book.
+ * @param weight The weight of the move relative to the other book moves of the position
+ */
+public record BookMoveDto(
+        String from,
+        String to,
+        Character promotion,
+        String san,
+        int weight)
+{
+}
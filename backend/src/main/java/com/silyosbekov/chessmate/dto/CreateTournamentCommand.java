@@ -0,0 +1,20 @@
+package com.silyosbekov.chessmate.dto;
+
+import com.silyosbekov.chessmate.model.TournamentType;
+
+/**
+ * Command to create a tournament.
+ * @param name The name of the tournament
+ * @param type The pairing system of the tournament
+ * @param timeControl The time control of the games in minutes plus increment in seconds, e.g. 3+2
+ * @param rounds The number of rounds of a Swiss tournament
+ * @param durationMinutes The duration of an arena tournament in minutes
+ */
+public record CreateTournamentCommand(
+        String name,
+        TournamentType type,
+        String timeControl,
+        int rounds,
+        int durationMinutes)
+{
+}
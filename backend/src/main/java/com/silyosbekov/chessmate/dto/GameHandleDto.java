@@ -0,0 +1,14 @@
+package com.silyosbekov.chessmate.dto;
+
+import java.util.UUID;
+
+/**
+ * Handle of an ongoing game in the binary wire protocol.
+ * @param gameId The ID of the game
+ * @param handle The handle used instead of the game ID in binary frames, unique on the node owning the game
+ *               and reused after the game ends or moves to another node
+ * @param nodeId The ID of the node owning the game, sent with the binary move commands of the game
+ * @param topic The topic of the owning node where the moves of the game are sent as binary frames
+ */
+public record GameHandleDto(UUID gameId, int handle, String nodeId, String topic) {
+}
@@ -0,0 +1,30 @@
+package com.silyosbekov.chessmate.dto;
+
+import com.silyosbekov.chessmate.model.GameStatus;
+import com.silyosbekov.chessmate.model.PlayerColor;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Lightweight projection of a game for listings, without the PGN.
+ */
+public record GameListItemDto(
+        UUID id,
+        UUID hostPlayerId,
+        String hostPlayerUsername,
+        PlayerColor hostPlayerColor,
+        int hostPlayerElo,
+        UUID whitePlayerId,
+        String whitePlayerUsername,
+        int whitePlayerElo,
+        UUID blackPlayerId,
+        String blackPlayerUsername,
+        int blackPlayerElo,
+        PlayerColor winnerPlayer,
+        GameStatus status,
+        PlayerColor currentTurn,
+        boolean isRanked,
+        boolean isTimerEnabled,
+        Instant createdDate)
+{
+}
@@ -0,0 +1,26 @@
+package com.silyosbekov.chessmate.dto;
+
+import com.silyosbekov.chessmate.model.PlayerColor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory state of an ongoing game handed off to the node that takes over its ownership.
+ * The game itself is loaded from the database by the new owner.
+ * @param gameId The ID of the game
+ * @param moves The moves played so far in ply order
+ * @param premove The queued premove, or null
+ * @param stateVersion The last published version of the game state
+ * @param drawOfferedBy The color of the player offering a draw, or null
+ * @param abandonment The pending completion of the game if a player left it, or null
+ */
+public record GameSnapshotDto(
+        UUID gameId,
+        List<MoveDto> moves,
+        MakeMoveCommand premove,
+        long stateVersion,
+        PlayerColor drawOfferedBy,
+        AbandonmentDto abandonment)
+{
+}
@@ -0,0 +1,29 @@
+package com.silyosbekov.chessmate.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.silyosbekov.chessmate.model.PlayerColor;
+
+import java.util.UUID;
+
+/**
+ * Change of the state of a game. Only the fields changed since the previous version are set,
+ * the others are null and left out of the message.
+ * @param gameId The ID of the game
+ * @param version The version of the game state, incremented by one with every delta
+ * @param status The new status of the game
+ * @param winnerPlayer The color of the winner
+ * @param isDrawOffered Whether a draw offer is pending
+ * @param drawOfferedBy The color of the player offering a draw, set together with {@code isDrawOffered}
+ * @param currentTurn The color of the player to move
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GameStateDeltaDto(
+        UUID gameId,
+        long version,
+        String status,
+        PlayerColor winnerPlayer,
+        Boolean isDrawOffered,
+        PlayerColor drawOfferedBy,
+        PlayerColor currentTurn)
+{
+}
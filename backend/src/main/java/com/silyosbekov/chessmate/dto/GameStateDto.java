@@ -0,0 +1,16 @@
+package com.silyosbekov.chessmate.dto;
+
+import com.silyosbekov.chessmate.model.PlayerColor;
+
+/**
+ * Full state of a game, used to resynchronize after a missed delta.
+ * @param game The game
+ * @param version The version of the game state the game corresponds to
+ * @param drawOfferedBy The color of the player offering a draw, or null if no draw offer is pending
+ */
+public record GameStateDto(
+        GameDto game,
+        long version,
+        PlayerColor drawOfferedBy)
+{
+}
@@ -0,0 +1,31 @@
+package com.silyosbekov.chessmate.dto;
+
+import com.silyosbekov.chessmate.model.PlayerColor;
+
+/**
+ * Filters of the open games lobby. Null values are not filtered.
+ * @param hostPlayerColor The color of the host player
+ * @param isRanked Whether the game is ranked
+ * @param isTimerEnabled Whether the game has a timer
+ * @param minElo The minimum Elo of the host player, inclusive
+ * @param maxElo The maximum Elo of the host player, inclusive
+ */
+public record GetOpenGamesQuery(
+        PlayerColor hostPlayerColor,
+        Boolean isRanked,
+        Boolean isTimerEnabled,
+        Integer minElo,
+        Integer maxElo)
+{
+    public static GetOpenGamesQuery all() {
+        return new GetOpenGamesQuery(null, null, null, null, null);
+    }
+
+    public boolean matches(GameDto game) {
+        return (hostPlayerColor == null || hostPlayerColor == game.hostPlayerColor()) &&
+               (isRanked == null || isRanked == game.isRanked()) &&
+               (isTimerEnabled == null || isTimerEnabled == game.isTimerEnabled()) &&
+               (minElo == null || game.hostPlayerElo() >= minElo) &&
+               (maxElo == null || game.hostPlayerElo() <= maxElo);
+    }
+}
@@ -0,0 +1,11 @@
+package com.silyosbekov.chessmate.dto;
+
+import java.util.UUID;
+
+/**
+ * Command to wait for an automatically matched opponent.
+ * @param playerId The ID of the player
+ * @param timeControl The time control of the game in minutes plus increment in seconds, e.g. 5+3
+ */
+public record JoinMatchmakingCommand(UUID playerId, String timeControl) {
+}
@@ -0,0 +1,15 @@
+package com.silyosbekov.chessmate.dto;
+
+import java.util.UUID;
+
+/**
+ * Leaderboard entry of a player.
+ * @param rank The rank of the player, players with equal ratings share the same rank
+ */
+public record LeaderboardEntryDto(
+        int rank,
+        UUID playerId,
+        String username,
+        int elo)
+{
+}
@@ -0,0 +1,20 @@
+package com.silyosbekov.chessmate.dto;
+
+import java.util.UUID;
+
+/**
+ * Incremental change of the open games lobby.
+ * @param type Whether the game was added to or removed from the lobby
+ * @param gameId The ID of the changed game
+ * @param game The added game, or null if the game was removed
+ */
+public record LobbyDeltaDto(
+        Type type,
+        UUID gameId,
+        GameDto game)
+{
+    public enum Type {
+        ADDED,
+        REMOVED
+    }
+}
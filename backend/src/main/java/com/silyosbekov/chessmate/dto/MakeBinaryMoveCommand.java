@@ -0,0 +1,8 @@
+package com.silyosbekov.chessmate.dto;
+
+/**
+ * Move command encoded in the binary wire protocol, decoded by the node that assigned the game handle of the frame.
+ * @param frame The encoded frame with the game handle, the ply and a single move
+ */
+public record MakeBinaryMoveCommand(byte[] frame) {
+}
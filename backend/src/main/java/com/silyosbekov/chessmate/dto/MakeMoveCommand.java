@@ -4,11 +4,26 @@ import com.silyosbekov.chessmate.model.PlayerColor;
 
 import java.util.UUID;
 
+/**
+ * Move command of a player.
+ * @param gameId The ID of the game
+ * @param color The color of the player making the move
+ * @param ply The ply the move is played at, the number of plies already played in the game.
+ *            Commands are applied only in ply order, a retried command with an already applied ply is ignored,
+ *            and a command for the next ply sent while the opponent is to move is queued as a premove.
+ * @param from The square the piece moves from
+ * @param to The square the piece moves to
+ * @param promotion The piece type a pawn is promoted to, e.g. q, or null if the move is not a promotion
+ * @param isCheckmate Whether the move checkmates the opponent
+ * @param isStalemate Whether the move stalemates the opponent
+ */
 public record MakeMoveCommand(
         UUID gameId,
         PlayerColor color,
+        int ply,
         String from,
         String to,
+        Character promotion,
         boolean isCheckmate,
         boolean isStalemate)
 {
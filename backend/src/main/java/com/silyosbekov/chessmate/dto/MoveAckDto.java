@@ -0,0 +1,28 @@
+package com.silyosbekov.chessmate.dto;
+
+import com.silyosbekov.chessmate.model.MoveAckStatus;
+import com.silyosbekov.chessmate.model.PlayerColor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Acknowledgement of a move command.
+ * @param gameId The ID of the game
+ * @param color The color of the player who sent the command
+ * @param requestedPly The ply of the command
+ * @param ply The authoritative number of plies played in the game,
+ *            or the requested ply if the command was rejected before reaching the game, e.g. over the rate limit
+ * @param status Whether the move was applied
+ * @param moves The moves applied by the command in order, the move followed by the opponent's premove if it was legal.
+ *              A duplicate command returns the originally applied move, other commands return no moves
+ */
+public record MoveAckDto(
+        UUID gameId,
+        PlayerColor color,
+        int requestedPly,
+        int ply,
+        MoveAckStatus status,
+        List<MoveDto> moves)
+{
+}
@@ -11,7 +11,9 @@ public record MoveDto(
         PlayerColor color,
         String from,
         String to,
+        Character promotion,
         boolean isCheckmate,
-        boolean isStalemate)
+        boolean isStalemate,
+        int ply)
 {
 }
@@ -0,0 +1,14 @@
+package com.silyosbekov.chessmate.dto;
+
+/**
+ * Summary of a built opening book.
+ * @param gamesCount The number of games the book was built from
+ * @param positionsCount The number of distinct positions played in the games
+ * @param entriesCount The number of moves of the book
+ */
+public record OpeningBookDto(
+        int gamesCount,
+        int positionsCount,
+        int entriesCount)
+{
+}
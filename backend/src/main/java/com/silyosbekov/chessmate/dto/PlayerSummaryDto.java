@@ -0,0 +1,13 @@
+package com.silyosbekov.chessmate.dto;
+
+import java.util.UUID;
+
+/**
+ * Immutable summary of a player, used wherever only the player's name and rating are needed.
+ */
+public record PlayerSummaryDto(
+        UUID id,
+        String username,
+        int elo)
+{
+}
@@ -0,0 +1,10 @@
+package com.silyosbekov.chessmate.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record PresenceDeltaDto(
+        List<UUID> online,
+        List<UUID> offline)
+{
+}
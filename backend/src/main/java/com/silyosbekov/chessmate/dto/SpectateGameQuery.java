@@ -0,0 +1,6 @@
+package com.silyosbekov.chessmate.dto;
+
+import java.util.UUID;
+
+public record SpectateGameQuery(UUID gameId, String sessionId) {
+}
@@ -0,0 +1,20 @@
+package com.silyosbekov.chessmate.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batch of moves sent to the spectators of a game.
+ * Spectators drop the moves already included in their snapshot and request a new snapshot if moves are missing.
+ * @param gameId The ID of the game
+ * @param firstMoveIndex The index of the first move of the batch in the game, starting from 0
+ * @param moves The new moves, in order
+ * @param status The final status of the game if the game has ended, otherwise null
+ */
+public record SpectatorFrameDto(
+        UUID gameId,
+        int firstMoveIndex,
+        List<MoveDto> moves,
+        String status)
+{
+}
@@ -0,0 +1,18 @@
+package com.silyosbekov.chessmate.dto;
+
+import java.util.List;
+
+/**
+ * Current state of a spectated game, sent once when a spectator starts watching the game.
+ * @param game The game
+ * @param moves The moves made so far, in order
+ * @param topic The topic the spectator has to subscribe to for the following moves
+ * @param spectatorsCount The number of spectators of the game
+ */
+public record SpectatorSnapshotDto(
+        GameDto game,
+        List<MoveDto> moves,
+        String topic,
+        int spectatorsCount)
+{
+}
@@ -0,0 +1,25 @@
+package com.silyosbekov.chessmate.dto;
+
+import com.silyosbekov.chessmate.model.TournamentStatus;
+import com.silyosbekov.chessmate.model.TournamentType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * @param currentRound The number of the current Swiss round, starting from 1, or 0 if the tournament has not started
+ * @param endDate The end of an arena tournament, or null if the tournament has not started or is a Swiss tournament
+ */
+public record TournamentDto(
+        UUID id,
+        String name,
+        TournamentType type,
+        TournamentStatus status,
+        String timeControl,
+        int rounds,
+        int currentRound,
+        int durationMinutes,
+        int playersCount,
+        Instant endDate)
+{
+}
@@ -0,0 +1,19 @@
+package com.silyosbekov.chessmate.dto;
+
+import java.util.UUID;
+
+/**
+ * Standing of a player in a tournament.
+ * @param rank The rank of the player, starting from 1
+ * @param score The score of the player, 1 point per win and half a point per draw in Swiss tournaments,
+ *              2 points per win and 1 point per draw in arena tournaments
+ */
+public record TournamentStandingDto(
+        int rank,
+        UUID playerId,
+        String username,
+        int elo,
+        double score,
+        int gamesPlayed)
+{
+}
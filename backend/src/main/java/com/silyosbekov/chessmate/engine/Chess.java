@@ -110,10 +110,6 @@ public class Chess {
      */
     public Chess(String fen) {
         this.load(fen, false, false);
-        kings.put(PieceColors.WHITE, EMPTY);
-        kings.put(PieceColors.BLACK, EMPTY);
-        castling.put(PieceColors.WHITE, 0);
-        castling.put(PieceColors.BLACK, 0);
     }
 
     /**
@@ -218,7 +214,7 @@ public class Chess {
                 square += Character.digit(piece, 10);
             } else {
                 var color = piece < 'a' ? PieceColors.WHITE : PieceColors.BLACK;
-                this.put(new Piece(Character.toLowerCase(piece), color), algebraic(square), false);
+                this.put(new Piece(color, Character.toLowerCase(piece)), algebraic(square), false);
                 square++;
             }
         }
@@ -666,7 +662,7 @@ public class Chess {
      * @return An array of legal moves.
      */
     public Move[] generateMoves() {
-        var moves = this.generateMovesInternal(new MovesOptions(true, false));
+        var moves = this.generateMovesInternal(new MovesOptions(true, true));
         return moves.stream().map(this::makePretty).toArray(Move[]::new);
     }
 
@@ -866,13 +862,13 @@ public class Chess {
                 board[move.getTo() - 16] = null;
             }
             else {
-                board[move.getFrom() + 16] = null;
+                board[move.getTo() + 16] = null;
             }
         }
 
         // if pawn promotion, replace with new piece
         if (move.getPromotion() != null) {
-            board[move.getTo()] = new Piece(move.getPromotion(), us);
+            board[move.getTo()] = new Piece(us, move.getPromotion());
         }
 
         // if we moved the king
@@ -972,7 +968,8 @@ public class Chess {
             moveObj = moveFromSan(options.san.get(), options.strict);
         }
         else if (options.from.isPresent() && options.to.isPresent()) {
-            var moves = this.generateMovesInternal(new MovesOptions());
+            // only the moves of the from square, legal moves only so a move may not leave the king in check
+            var moves = this.generateMovesInternal(new MovesOptions(false, true, options.from.get(), null));
 
             // convert the pretty move object to an ugly move object
             for (var m : moves) {
@@ -1146,8 +1143,8 @@ public class Chess {
      * @param newline The newline character to use. If null, the default newline character is used, which is \r?\n.
      */
     public void loadPgn(String pgn, boolean strict, String newline) {
-        newline = newline == null ? "\\r?\\n" : newline;
-        var maskedNewline = newline.replace("\\", "\\\\");
+        // The newline is used as a regular expression
+        var maskedNewline = newline == null ? "\\r?\\n" : newline;
 
         // strip whitespace from head/tail of PGN block
         pgn = pgn.trim();
@@ -1179,7 +1176,7 @@ public class Chess {
             if (key.equalsIgnoreCase("fen")) {
                 fen = headers.get(key);
             }
-            headers.put(key, headers.get(key));
+            this.headers.put(key, headers.get(key));
         }
 
         /*
@@ -1222,7 +1219,7 @@ public class Chess {
         }
 
         // delete move numbers
-        ms = ms.replaceAll("\\d+\\.\\.\\.", "");
+        ms = ms.replaceAll("\\d+\\.(\\.\\.)?", "");
 
         // delete ... indicating black to move
         ms = ms.replaceAll("\\.\\.\\.", "");
@@ -1300,7 +1297,7 @@ public class Chess {
     }
 
     private String encodePgnComment(String comment, String newline) {
-        var commentPattern = Pattern.compile("({[^}]*})+?|;([^" + newline + "]*)");
+        var commentPattern = Pattern.compile("(\\{[^}]*})+?|;([^" + newline + "]*)");
         var commentMatcher = commentPattern.matcher(comment);
         var sb = new StringBuilder();
 
@@ -1416,10 +1413,10 @@ public class Chess {
         var matcher = Pattern.compile("([pnbrqkPNBRQK])?([a-h][1-8])x?-?([a-h][1-8])([qrbnQRBN])?").matcher(cleanMove);
 
         if (matcher.matches()) {
-            piece = matcher.group(1).charAt(0);
+            piece = firstChar(matcher.group(1));
             from = matcher.group(2);
             to = matcher.group(3);
-            promotion = matcher.group(4).charAt(0);
+            promotion = firstChar(matcher.group(4));
 
             if (from.length() == 1) {
                 overlyDisambiguated = true;
@@ -1435,19 +1432,19 @@ public class Chess {
             matcher = Pattern.compile("([pnbrqkPNBRQK])?([a-h]?[1-8]?)x?-?([a-h][1-8])([qrbnQRBN])?").matcher(cleanMove);
 
             if (matcher.matches()) {
-                piece = matcher.group(1).charAt(0);
-                from = matcher.group(2);
+                piece = firstChar(matcher.group(1));
+                from = matcher.group(2).isEmpty() ? null : matcher.group(2);
                 to = matcher.group(3);
-                promotion = matcher.group(4).charAt(0);
+                promotion = firstChar(matcher.group(4));
 
-                if (from.length() == 1) {
+                if (from != null && from.length() == 1) {
                     overlyDisambiguated = true;
                 }
             }
         }
 
         pieceType = inferPieceType(cleanMove);
-        moves = generateMovesInternal(new MovesOptions(false, piece != null ? piece : pieceType));
+        moves = generateMovesInternal(new MovesOptions(true, piece != null ? Character.valueOf(Character.toLowerCase(piece)) : pieceType));
 
         if (to == null) {
             return null;
@@ -1706,11 +1703,11 @@ public class Chess {
                 } else {
                     index = move.getTo() + 16;
                 }
-                board[index] = new Piece(PieceTypes.PAWN, them);
+                board[index] = new Piece(them, PieceTypes.PAWN);
             }
             else {
                 // regular capture
-                board[move.getTo()] = new Piece(move.getCaptured(), them);
+                board[move.getTo()] = new Piece(them, move.getCaptured());
             }
         }
 
@@ -2116,6 +2113,15 @@ public class Chess {
         return move.replace("=", "").replaceAll("[+#]?[?!]*$", "");
     }
 
+    /**
+     * Gets the first character of an optional regex group
+     * @param group The matched group, or null if it did not participate in the match
+     * @return The first character, or null
+     */
+    private static Character firstChar(String group) {
+        return group == null || group.isEmpty() ? null : group.charAt(0);
+    }
+
     /**
      * remove last two fields in FEN string as they're not needed when checking
      * for repetition
@@ -87,6 +87,26 @@ public class Pgn {
         return true;
     }
 
+    /**
+     * Replaces the moves with the given moves numbered in the standard movetext form, e.g. {@code 1. e4 e5 2. Nf3}.
+     * @param movesSan The moves of the game from the starting position in SAN
+     */
+    public void setMoves(String[] movesSan) {
+        moves.setLength(0);
+
+        for (var i = 0; i < movesSan.length; i++) {
+            if (i > 0) {
+                moves.append(" ");
+            }
+
+            if (i % 2 == 0) {
+                moves.append(i / 2 + 1).append(". ");
+            }
+
+            moves.append(movesSan[i]);
+        }
+    }
+
     public static Pgn fromString(String pgnString) {
         var newPgn = new Pgn();
         var moveSection = new StringBuilder();
@@ -16,6 +16,12 @@ public final class Bits {
     public static final int KSIDE_CASTLE = 32;
     public static final int QSIDE_CASTLE = 64;
 
+
+    public static final RookSide WHITE_ROOK_QSIDE_CASTLE = new RookSide(Ox88.A1, QSIDE_CASTLE);
+    public static final RookSide WHITE_ROOK_KSIDE_CASTLE = new RookSide(Ox88.H1, KSIDE_CASTLE);
+    public static final RookSide BLACK_ROOK_QSIDE_CASTLE = new RookSide(Ox88.A8, QSIDE_CASTLE);
+    public static final RookSide BLACK_ROOK_KSIDE_CASTLE = new RookSide(Ox88.H8, KSIDE_CASTLE);
+
     /**
      * Rooks that are involved in castling.
      * <p>
@@ -30,11 +36,6 @@ public final class Bits {
         put(PieceColors.BLACK, new RookSide[]{BLACK_ROOK_QSIDE_CASTLE, BLACK_ROOK_KSIDE_CASTLE});
     }};
 
-    public static final RookSide WHITE_ROOK_QSIDE_CASTLE = new RookSide(Ox88.A1, QSIDE_CASTLE);
-    public static final RookSide WHITE_ROOK_KSIDE_CASTLE = new RookSide(Ox88.H1, KSIDE_CASTLE);
-    public static final RookSide BLACK_ROOK_QSIDE_CASTLE = new RookSide(Ox88.A8, QSIDE_CASTLE);
-    public static final RookSide BLACK_ROOK_KSIDE_CASTLE = new RookSide(Ox88.H8, KSIDE_CASTLE);
-
     /**
      * Returns the castling side of the given piece type.
      * @param side The castling side, either 'k' or 'q'
@@ -10,7 +10,7 @@ public class MovesOptions {
 
     public MovesOptions() {
         verbose = false;
-        legal = false;
+        legal = true;
         square = Optional.empty();
         piece = Optional.empty();
     }
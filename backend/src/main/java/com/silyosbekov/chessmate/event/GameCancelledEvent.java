@@ -0,0 +1,10 @@
+package com.silyosbekov.chessmate.event;
+
+import com.silyosbekov.chessmate.model.Game;
+
+/**
+ * Published when an open game is cancelled by its host.
+ * @param game The cancelled game
+ */
+public record GameCancelledEvent(Game game) {
+}
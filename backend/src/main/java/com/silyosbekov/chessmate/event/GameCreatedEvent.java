@@ -0,0 +1,10 @@
+package com.silyosbekov.chessmate.event;
+
+import com.silyosbekov.chessmate.model.Game;
+
+/**
+ * Published when a new game is created and is open for the second player to join.
+ * @param game The created game
+ */
+public record GameCreatedEvent(Game game) {
+}
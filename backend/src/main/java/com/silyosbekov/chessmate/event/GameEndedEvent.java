@@ -0,0 +1,10 @@
+package com.silyosbekov.chessmate.event;
+
+import com.silyosbekov.chessmate.model.Game;
+
+/**
+ * Published when a game ends with a result, i.e. a win, a loss or a draw.
+ * @param game The ended game, the winner is not set if the game is a draw
+ */
+public record GameEndedEvent(Game game) {
+}
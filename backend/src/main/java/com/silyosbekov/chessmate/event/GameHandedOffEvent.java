@@ -0,0 +1,12 @@
+package com.silyosbekov.chessmate.event;
+
+import java.util.UUID;
+
+/**
+ * Published on the node that handed off an ongoing game to another node of the cluster, after the new owner
+ * took over the game.
+ * @param gameId The ID of the handed off game
+ * @param ownerNodeId The ID of the node now owning the game
+ */
+public record GameHandedOffEvent(UUID gameId, String ownerNodeId) {
+}
@@ -0,0 +1,11 @@
+package com.silyosbekov.chessmate.event;
+
+import com.silyosbekov.chessmate.model.Game;
+
+/**
+ * Published on the node that took over an ongoing game handed off by another node of the cluster,
+ * after the game is played on this node.
+ * @param game The imported game
+ */
+public record GameImportedEvent(Game game) {
+}
@@ -0,0 +1,10 @@
+package com.silyosbekov.chessmate.event;
+
+import com.silyosbekov.chessmate.model.Game;
+
+/**
+ * Published when the second player joins a game and the game starts.
+ * @param game The joined game
+ */
+public record GameJoinedEvent(Game game) {
+}
@@ -0,0 +1,10 @@
+package com.silyosbekov.chessmate.event;
+
+import com.silyosbekov.chessmate.model.Player;
+
+/**
+ * Published when a new player has been persisted.
+ * @param player The created player
+ */
+public record PlayerCreatedEvent(Player player) {
+}
@@ -0,0 +1,10 @@
+package com.silyosbekov.chessmate.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a player goes offline, either by closing the WebSocket session or by missing heartbeats.
+ * @param playerId The ID of the disconnected player
+ */
+public record PlayerDisconnectedEvent(UUID playerId) {
+}
@@ -0,0 +1,12 @@
+package com.silyosbekov.chessmate.event;
+
+import java.util.UUID;
+
+/**
+ * Published after the new rating of a player has been persisted.
+ * @param playerId The ID of the player
+ * @param oldElo The previous rating of the player
+ * @param newElo The new rating of the player
+ */
+public record RatingChangedEvent(UUID playerId, int oldElo, int newElo) {
+}
@@ -0,0 +1,11 @@
+package com.silyosbekov.chessmate.event;
+
+import com.silyosbekov.chessmate.model.Game;
+
+/**
+ * Published on the other nodes of the cluster when a game ends on the node owning it, for the state some nodes
+ * keep about games they do not own, e.g. tournament rounds. The {@link GameEndedEvent} is only published on the owner.
+ * @param game The ended game
+ */
+public record RemoteGameEndedEvent(Game game) {
+}
@@ -0,0 +1,30 @@
+package com.silyosbekov.chessmate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a move validated and applied by the chess engine of a game.
+ */
+@Name("chessmate.EngineMove")
+@Label("Engine Move")
+@Category({"ChessMate", "Engine"})
+@Description("Move validated and applied by the chess engine")
+@Enabled(false)
+public class EngineMoveEvent extends Event {
+    @Label("Game ID")
+    public String gameId;
+
+    @Label("Ply")
+    public int ply;
+
+    @Label("Move")
+    public String move;
+
+    @Label("Legal")
+    public boolean isLegal;
+}
@@ -0,0 +1,40 @@
+package com.silyosbekov.chessmate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event of a game starting or ending, the event's duration covers the update and the save of the game.
+ */
+@Name("chessmate.GameLifecycle")
+@Label("Game Lifecycle")
+@Category({"ChessMate", "Match"})
+@Description("Game started or ended")
+@Enabled(false)
+public class GameLifecycleEvent extends Event {
+    public static final String STARTED = "STARTED";
+    public static final String ENDED = "ENDED";
+
+    @Label("Game ID")
+    public String gameId;
+
+    @Label("Transition")
+    @Description("STARTED or ENDED")
+    public String transition;
+
+    @Label("Status")
+    public String status;
+
+    @Label("Ranked")
+    public boolean isRanked;
+
+    @Label("Game Duration")
+    @Description("Time since the game was created")
+    @Timespan(Timespan.MILLISECONDS)
+    public long gameDuration;
+}
@@ -0,0 +1,39 @@
+package com.silyosbekov.chessmate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event of a move command, from the receipt of the command on the node owning the game
+ * until the applied moves are broadcast.
+ */
+@Name("chessmate.Move")
+@Label("Move")
+@Category({"ChessMate", "Match"})
+@Description("Move command from receipt through validation to broadcast")
+@Enabled(false)
+public class MoveEvent extends Event {
+    @Label("Game ID")
+    public String gameId;
+
+    @Label("Ply")
+    public int ply;
+
+    @Label("Acknowledgement Status")
+    public String status;
+
+    @Label("Validation Duration")
+    @Description("Time to validate and apply the move, including the wait for the game's lock")
+    @Timespan
+    public long validationDuration;
+
+    @Label("Broadcast Duration")
+    @Description("Time to publish the applied moves to the players, the spectators and the game state stream, and to end the game if they end it")
+    @Timespan
+    public long broadcastDuration;
+}
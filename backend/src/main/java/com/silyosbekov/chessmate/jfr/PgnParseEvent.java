@@ -0,0 +1,26 @@
+package com.silyosbekov.chessmate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a game's PGN parsed to update its headers or result.
+ */
+@Name("chessmate.PgnParse")
+@Label("PGN Parse")
+@Category({"ChessMate", "Engine"})
+@Description("PGN of a game parsed")
+@Enabled(false)
+public class PgnParseEvent extends Event {
+    @Label("Game ID")
+    public String gameId;
+
+    @Label("PGN Length")
+    @DataAmount(DataAmount.BYTES)
+    public int pgnLength;
+}
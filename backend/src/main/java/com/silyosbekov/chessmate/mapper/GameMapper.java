@@ -1,7 +1,12 @@
 package com.silyosbekov.chessmate.mapper;
 
+import com.silyosbekov.chessmate.constant.GameConst;
 import com.silyosbekov.chessmate.dto.GameDto;
+import com.silyosbekov.chessmate.dto.PlayerSummaryDto;
 import com.silyosbekov.chessmate.model.Game;
+import com.silyosbekov.chessmate.model.Player;
+
+import java.util.function.Function;
 
 /**
  * Mapper for Game entity. It maps Game entity to GameDto and vice versa.
@@ -16,22 +21,37 @@ public final class GameMapper {
      * @return GameDto
      */
     public static GameDto toDto(Game game) {
+        return toDto(game, PlayerMapper::toSummaryDto);
+    }
+
+    /**
+     * Maps Game entity to GameDto, resolving the players' usernames and ratings with the given function
+     * instead of reading them from the player entities, e.g. from the player cache.
+     * @param game Game entity
+     * @param playerSummaries Resolves the summary of a player, only the player's ID may be read
+     * @return GameDto
+     */
+    public static GameDto toDto(Game game, Function<Player, PlayerSummaryDto> playerSummaries) {
         if (game == null) {
             return null;
         }
 
+        var hostPlayer = summaryOf(game.getHostPlayer(), playerSummaries);
+        var whitePlayer = summaryOf(game.getWhitePlayer(), playerSummaries);
+        var blackPlayer = summaryOf(game.getBlackPlayer(), playerSummaries);
+
         return new GameDto(
                 game.getId(),
                 game.getHostPlayerId(),
-                game.getHostPlayerUsername(),
+                usernameOf(hostPlayer),
                 game.getHostPlayerColor(),
-                game.getHostPlayerElo(),
+                eloOf(hostPlayer),
                 game.getWhitePlayerId(),
-                game.getWhitePlayerUsername(),
-                game.getWhitePlayerElo(),
+                usernameOf(whitePlayer),
+                eloOf(whitePlayer),
                 game.getBlackPlayerId(),
-                game.getBlackPlayerUsername(),
-                game.getBlackPlayerElo(),
+                usernameOf(blackPlayer),
+                eloOf(blackPlayer),
                 game.getWinnerPlayer(),
                 game.getStatus().name(),
                 game.getCurrentTurn(),
@@ -41,4 +61,16 @@ public final class GameMapper {
                 game.getCreatedDate()
         );
     }
+
+    private static PlayerSummaryDto summaryOf(Player player, Function<Player, PlayerSummaryDto> playerSummaries) {
+        return player != null ? playerSummaries.apply(player) : null;
+    }
+
+    private static String usernameOf(PlayerSummaryDto player) {
+        return player != null ? player.username() : "Anonymous";
+    }
+
+    private static int eloOf(PlayerSummaryDto player) {
+        return player != null ? player.elo() : GameConst.DEFAULT_ELO;
+    }
 }
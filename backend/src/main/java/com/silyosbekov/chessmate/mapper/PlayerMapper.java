@@ -0,0 +1,25 @@
+package com.silyosbekov.chessmate.mapper;
+
+import com.silyosbekov.chessmate.dto.PlayerSummaryDto;
+import com.silyosbekov.chessmate.model.Player;
+
+/**
+ * Mapper for Player entity.
+ */
+public final class PlayerMapper {
+    private PlayerMapper() {
+    }
+
+    /**
+     * Maps Player entity to PlayerSummaryDto.
+     * @param player Player entity
+     * @return PlayerSummaryDto
+     */
+    public static PlayerSummaryDto toSummaryDto(Player player) {
+        if (player == null) {
+            return null;
+        }
+
+        return new PlayerSummaryDto(player.getId(), player.getUsername(), player.getElo());
+    }
+}
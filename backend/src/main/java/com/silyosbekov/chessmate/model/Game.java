@@ -9,7 +9,10 @@ import java.util.UUID;
  * It contains the players' ids, the current turn player's id, the game's status, and the game's PGN.
  */
 @Entity
-@Table(name = "games")
+@Table(name = "games", indexes = {
+    @Index(name = "ix_games_created_date_id", columnList = "created_date DESC, id DESC"),
+    @Index(name = "ix_games_status_created_date_id", columnList = "status, created_date DESC, id DESC")
+})
 public class Game extends AuditableEntity {
     /**
      * The player who hosts the game.
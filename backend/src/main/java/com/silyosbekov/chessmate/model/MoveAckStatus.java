@@ -0,0 +1,23 @@
+package com.silyosbekov.chessmate.model;
+
+public enum MoveAckStatus {
+    /**
+     * The move was applied at the requested ply
+     */
+    ACCEPTED,
+
+    /**
+     * The move was sent while the opponent is to move and is applied right after the opponent's move
+     */
+    QUEUED,
+
+    /**
+     * The same move was already applied at the requested ply, e.g. a retried command
+     */
+    DUPLICATE,
+
+    /**
+     * The move does not follow the current ply or it is not the player's turn
+     */
+    REJECTED,
+}
@@ -8,6 +8,7 @@ import jakarta.persistence.*;
  */
 @Entity
 @Table(name = "players")
+@EntityListeners(PlayerEntityListener.class)
 public class Player extends AuditableEntity {
     @Column(name = "first_name")
     private String firstName;
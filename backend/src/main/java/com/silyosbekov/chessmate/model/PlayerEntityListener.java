@@ -0,0 +1,24 @@
+package com.silyosbekov.chessmate.model;
+
+import com.silyosbekov.chessmate.event.PlayerCreatedEvent;
+import jakarta.persistence.PostPersist;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener of {@link Player}, publishes a {@link PlayerCreatedEvent} once a new player is inserted.
+ * Hibernate resolves the listener from the Spring context, so it can publish application events.
+ */
+@Component
+public class PlayerEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PlayerEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void handlePlayerPersisted(Player player) {
+        eventPublisher.publishEvent(new PlayerCreatedEvent(player));
+    }
+}
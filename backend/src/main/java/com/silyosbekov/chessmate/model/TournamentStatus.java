@@ -0,0 +1,7 @@
+package com.silyosbekov.chessmate.model;
+
+public enum TournamentStatus {
+    OPEN,
+    ONGOING,
+    COMPLETED
+}
@@ -0,0 +1,13 @@
+package com.silyosbekov.chessmate.model;
+
+public enum TournamentType {
+    /**
+     * Fixed number of rounds, every round pairs players of similar scores who have not met yet
+     */
+    SWISS,
+
+    /**
+     * Fixed duration, players are paired again as soon as they finish their games
+     */
+    ARENA
+}
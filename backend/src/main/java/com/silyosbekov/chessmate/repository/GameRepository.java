@@ -1,16 +1,151 @@
 package com.silyosbekov.chessmate.repository;
 
+import com.silyosbekov.chessmate.constant.GameConst;
+import com.silyosbekov.chessmate.dto.GameListItemDto;
 import com.silyosbekov.chessmate.model.Game;
 import com.silyosbekov.chessmate.model.GameStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * GameRepository interface.
  * Provides methods to interact with the games table in the database.
  */
 public interface GameRepository extends JpaRepository<Game, UUID> {
+    /**
+     * Find games by status, fetching the host, white and black players in the same query.
+     * @param gameStatus The game status
+     * @return List of games with their players
+     */
+    @EntityGraph(attributePaths = {"hostPlayer", "whitePlayer", "blackPlayer"})
     List<Game> findByStatus(GameStatus gameStatus);
+
+    /**
+     * Find a game by its ID, fetching the host, white and black players in the same query.
+     * @param id The game ID
+     * @return The game with its players
+     */
+    @EntityGraph(attributePaths = {"hostPlayer", "whitePlayer", "blackPlayer"})
+    Optional<Game> findWithPlayersById(UUID id);
+
+    /**
+     * Stream the PGNs of the games with the given statuses without loading the games.
+     * The stream must be consumed in a transaction and closed.
+     * @param statuses The game statuses
+     * @return Stream of the PGNs
+     */
+    @Query("select g.pgn from Game g where g.status in :statuses")
+    Stream<String> streamPgnByStatusIn(@Param("statuses") Collection<GameStatus> statuses);
+
+    /**
+     * Find a page of games ordered by the creation date and ID, newest games first.
+     * Selects only the listed columns and joins the players in the same query.
+     * @param gameStatus Filter games by status, or null to get all games
+     * @param createdDate The creation date of the last game of the previous page, or null for the first page
+     * @param id The ID of the last game of the previous page, or null for the first page
+     * @param pageable The page size, the offset is always zero
+     * @return List of the games after the given cursor
+     */
+    default List<GameListItemDto> findListItemsAfter(GameStatus gameStatus, Instant createdDate, UUID id, Pageable pageable) {
+        // Optional filters in a single query would keep the planner from deriving the start of the index scan
+        if (gameStatus == null) {
+            return createdDate == null
+                    ? findAllListItems(GameConst.DEFAULT_ELO, pageable)
+                    : findAllListItemsAfter(createdDate, id, GameConst.DEFAULT_ELO, pageable);
+        }
+
+        return createdDate == null
+                ? findListItemsByStatus(gameStatus, GameConst.DEFAULT_ELO, pageable)
+                : findListItemsByStatusAfter(gameStatus, createdDate, id, GameConst.DEFAULT_ELO, pageable);
+    }
+
+    String LIST_ITEM_SELECT = """
+            select new com.silyosbekov.chessmate.dto.GameListItemDto(
+                g.id,
+                coalesce(h.id, g.anonymousHostPlayerId),
+                coalesce(h.username, 'Anonymous'),
+                g.hostPlayerColor,
+                coalesce(h.elo, :defaultElo),
+                coalesce(w.id, g.whiteAnonymousPlayerId),
+                coalesce(w.username, 'Anonymous'),
+                coalesce(w.elo, :defaultElo),
+                coalesce(b.id, g.blackAnonymousPlayerId),
+                coalesce(b.username, 'Anonymous'),
+                coalesce(b.elo, :defaultElo),
+                g.winnerPlayer,
+                g.status,
+                g.currentTurn,
+                g.isRanked,
+                g.isTimerEnabled,
+                g.createdDate)
+            from Game g
+            left join g.hostPlayer h
+            left join g.whitePlayer w
+            left join g.blackPlayer b
+            """;
+
+    /**
+     * Find the first page of all games, reading the index {@code ix_games_created_date_id} from its start.
+     */
+    @Query(LIST_ITEM_SELECT + """
+            order by g.createdDate desc, g.id desc
+            """)
+    List<GameListItemDto> findAllListItems(@Param("defaultElo") int defaultElo, Pageable pageable);
+
+    /**
+     * Find a page of all games after the cursor. The redundant bound on the creation date is the start key
+     * of the range scan on the index {@code ix_games_created_date_id}, the other condition only skips the games
+     * created at the same time as the cursor's game and up to it.
+     */
+    @Query(LIST_ITEM_SELECT + """
+            where g.createdDate <= :createdDate
+              and (g.createdDate < :createdDate or g.id < :id)
+            order by g.createdDate desc, g.id desc
+            """)
+    List<GameListItemDto> findAllListItemsAfter(
+            @Param("createdDate") Instant createdDate,
+            @Param("id") UUID id,
+            @Param("defaultElo") int defaultElo,
+            Pageable pageable);
+
+    /**
+     * Find the first page of the games with the status, reading the status prefix
+     * of the index {@code ix_games_status_created_date_id} from its start.
+     */
+    @Query(LIST_ITEM_SELECT + """
+            where g.status = :gameStatus
+            order by g.createdDate desc, g.id desc
+            """)
+    List<GameListItemDto> findListItemsByStatus(
+            @Param("gameStatus") GameStatus gameStatus,
+            @Param("defaultElo") int defaultElo,
+            Pageable pageable);
+
+    /**
+     * Find a page of the games with the status after the cursor. The status and the redundant bound
+     * on the creation date are the start key of the range scan on the index {@code ix_games_status_created_date_id},
+     * see {@link #findAllListItemsAfter}.
+     */
+    @Query(LIST_ITEM_SELECT + """
+            where g.status = :gameStatus
+              and g.createdDate <= :createdDate
+              and (g.createdDate < :createdDate or g.id < :id)
+            order by g.createdDate desc, g.id desc
+            """)
+    List<GameListItemDto> findListItemsByStatusAfter(
+            @Param("gameStatus") GameStatus gameStatus,
+            @Param("createdDate") Instant createdDate,
+            @Param("id") UUID id,
+            @Param("defaultElo") int defaultElo,
+            Pageable pageable);
 }
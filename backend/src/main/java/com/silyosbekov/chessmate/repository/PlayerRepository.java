@@ -1,7 +1,10 @@
 package com.silyosbekov.chessmate.repository;
 
+import com.silyosbekov.chessmate.dto.PlayerSummaryDto;
 import com.silyosbekov.chessmate.model.Player;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -9,4 +12,11 @@ import java.util.UUID;
  * Provides methods to interact with the players table in the database.
  */
 public interface PlayerRepository extends JpaRepository<Player, UUID> {
+
+    /**
+     * Find the summaries of all players without loading the player entities.
+     * @return List of player summaries
+     */
+    @Query("select new com.silyosbekov.chessmate.dto.PlayerSummaryDto(p.id, p.username, p.elo) from Player p")
+    List<PlayerSummaryDto> findAllSummaries();
 }
@@ -0,0 +1,301 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.core.ClusterBus;
+import com.silyosbekov.chessmate.core.ConsistentHashRing;
+import com.silyosbekov.chessmate.dto.GameSnapshotDto;
+import com.silyosbekov.chessmate.event.GameEndedEvent;
+import com.silyosbekov.chessmate.event.GameHandedOffEvent;
+import com.silyosbekov.chessmate.event.GameImportedEvent;
+import com.silyosbekov.chessmate.event.GameJoinedEvent;
+import com.silyosbekov.chessmate.event.RemoteGameEndedEvent;
+import com.silyosbekov.chessmate.model.Game;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Cluster service, assigns the ongoing games to the nodes of the cluster and routes their commands to the owner.
+ * <p>
+ *     The owner of a game is picked by a consistent hash ring over the IDs of the nodes on the {@link ClusterBus}.
+ *     A command for a game owned by another node is sent to the owner and handled there by the handler registered
+ *     for the command's type, the entry node returns the owner's reply. When a node joins or leaves,
+ *     each node hands off the games it no longer owns by sending their snapshots to the new owners.
+ *     A game started on a node that does not own it is handed off right after its transaction commits.
+ *     When a handoff fails, the game is imported back from its snapshot and handed off again later.
+ *     A {@link GameHandedOffEvent} is published on the node giving up a game and a {@link GameImportedEvent}
+ *     on the node taking it over, for the state kept next to the game on its owner.
+ *     The end of a game is announced to the other nodes with a {@link RemoteGameEndedEvent}.
+ *     With a single node every game is owned locally and no command leaves the JVM.
+ * </p>
+ */
+@Service
+public class ClusterService implements ClusterBus.Node {
+    private static final Logger logger = LoggerFactory.getLogger(ClusterService.class);
+
+    private final ClusterBus clusterBus;
+    private final MatchService matchService;
+    private final GameStateService gameStateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+    private final int virtualNodes;
+    private final Map<Class<?>, Function<Object, Object>> handlers = new ConcurrentHashMap<>();
+    private final AtomicBoolean handOffFailed = new AtomicBoolean();
+    private volatile ConsistentHashRing<String> ring;
+
+    public ClusterService(
+            ClusterBus clusterBus,
+            MatchService matchService,
+            GameStateService gameStateService,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${chessmate.cluster.node-id:}") String nodeId,
+            @Value("${chessmate.cluster.virtual-nodes:128}") int virtualNodes)
+    {
+        this.clusterBus = clusterBus;
+        this.matchService = matchService;
+        this.gameStateService = gameStateService;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.virtualNodes = virtualNodes;
+        this.ring = new ConsistentHashRing<>(Set.of(this.nodeId), virtualNodes);
+    }
+
+    @PostConstruct
+    public void join() {
+        clusterBus.join(nodeId, this);
+    }
+
+    /**
+     * Leave the cluster and hand off the games of this node to the remaining nodes.
+     */
+    @PreDestroy
+    public void leave() {
+        clusterBus.leave(nodeId);
+        var nodeIds = clusterBus.getNodeIds();
+
+        if (!nodeIds.isEmpty()) {
+            ring = new ConsistentHashRing<>(nodeIds, virtualNodes);
+            handOffGames();
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Register the handler of a command type. Every node registers the same handlers.
+     * @param commandType The type of the command
+     * @param handler Handles the command on the owner of its game and returns the reply
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void registerHandler(Class<T> commandType, Function<T, ?> handler) {
+        handlers.put(commandType, command -> handler.apply((T) command));
+    }
+
+    /**
+     * Check whether this node owns a game.
+     * @param gameId The ID of the game
+     */
+    public boolean isOwner(UUID gameId) {
+        return nodeId.equals(ring.getOwner(gameId));
+    }
+
+    /**
+     * Handle a command of a game on the node owning the game.
+     * @param gameId The ID of the game
+     * @param command The command, a handler must be registered for its type
+     * @return The reply of the handler
+     * @throws IllegalArgumentException if no handler is registered for the command
+     */
+    public <R> R route(UUID gameId, Object command) {
+        return routeTo(ring.getOwner(gameId), command);
+    }
+
+    /**
+     * Handle a command on a given node, e.g. a command referring to state that only exists on that node.
+     * @param nodeId The ID of the node
+     * @param command The command, a handler must be registered for its type
+     * @return The reply of the handler
+     * @throws IllegalArgumentException if no handler is registered for the command
+     * @throws java.util.NoSuchElementException if the node is not in the cluster
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R routeTo(String nodeId, Object command) {
+        if (nodeId.equals(this.nodeId)) {
+            return (R) handleCommand(command);
+        }
+
+        try {
+            return (R) clusterBus.request(nodeId, new RoutedCommand(command)).join();
+        }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+    }
+
+    @Override
+    public Object handleRequest(Object request) {
+        return switch (request) {
+            case RoutedCommand routedCommand -> handleCommand(routedCommand.command());
+            case GameSnapshotDto snapshot -> {
+                var game = importGame(snapshot);
+                eventPublisher.publishEvent(new GameImportedEvent(game));
+                yield null;
+            }
+            case RemoteGameEndedEvent remoteGameEndedEvent -> {
+                eventPublisher.publishEvent(remoteGameEndedEvent);
+                yield null;
+            }
+            default -> throw new IllegalArgumentException("Unsupported cluster request " + request.getClass().getName());
+        };
+    }
+
+    @Override
+    public void membershipChanged(Set<String> nodeIds) {
+        if (!nodeIds.contains(nodeId)) {
+            return;
+        }
+
+        ring = new ConsistentHashRing<>(nodeIds, virtualNodes);
+        logger.info("Cluster membership changed, {} nodes", nodeIds.size());
+        handOffGames();
+    }
+
+    /**
+     * Hand off again the games this node no longer owns after a handoff failed.
+     */
+    @Scheduled(fixedDelayString = "${chessmate.cluster.hand-off-retry-ms:5000}")
+    public void retryHandOffs() {
+        if (handOffFailed.getAndSet(false)) {
+            handOffGames();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleGameJoined(GameJoinedEvent event) {
+        var gameId = event.game().getId();
+        var owner = ring.getOwner(gameId);
+
+        if (!owner.equals(nodeId)) {
+            handOff(gameId, owner);
+        }
+    }
+
+    /**
+     * Announce the end of a game to the other nodes, without waiting for them.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleGameEnded(GameEndedEvent event) {
+        var remoteEvent = new RemoteGameEndedEvent(event.game());
+
+        for (var otherNodeId : clusterBus.getNodeIds()) {
+            if (otherNodeId.equals(nodeId)) {
+                continue;
+            }
+
+            clusterBus.request(otherNodeId, remoteEvent).whenComplete((reply, e) -> {
+                if (e != null) {
+                    logger.error("Failed to announce the end of game {} to node {}", event.game().getId(), otherNodeId, e);
+                }
+            });
+        }
+    }
+
+    private Object handleCommand(Object command) {
+        var handler = handlers.get(command.getClass());
+
+        if (handler == null) {
+            throw new IllegalArgumentException("No handler for command " + command.getClass().getName());
+        }
+
+        return handler.apply(command);
+    }
+
+    private void handOffGames() {
+        var ring = this.ring;
+
+        for (var gameId : matchService.getActiveGameIds()) {
+            var owner = ring.getOwner(gameId);
+
+            if (!owner.equals(nodeId)) {
+                handOff(gameId, owner);
+            }
+        }
+    }
+
+    private void handOff(UUID gameId, String owner) {
+        var activeGame = matchService.removeActiveGame(gameId);
+
+        if (activeGame == null) {
+            return;
+        }
+
+        GameSnapshotDto snapshot;
+
+        // Wait for a move being applied, no move can be applied after the game is removed
+        synchronized (activeGame) {
+            var state = gameStateService.removeState(activeGame.getGame());
+            snapshot = new GameSnapshotDto(gameId, activeGame.getMoves(), activeGame.takePremove(), state.version(),
+                    state.drawOfferedBy(), matchService.takeAbandonment(gameId));
+        }
+
+        try {
+            clusterBus.request(owner, snapshot).join();
+            logger.info("Handed off game {} to node {}", gameId, owner);
+            eventPublisher.publishEvent(new GameHandedOffEvent(gameId, owner));
+        }
+        catch (CompletionException e) {
+            logger.error("Failed to hand off game {} to node {}", gameId, owner, e.getCause());
+            restoreGame(snapshot);
+        }
+    }
+
+    private void restoreGame(GameSnapshotDto snapshot) {
+        try {
+            importGame(snapshot);
+            handOffFailed.set(true);
+        }
+        catch (RuntimeException e) {
+            logger.error("Failed to restore game {} after a failed handoff", snapshot.gameId(), e);
+        }
+    }
+
+    /**
+     * Import a game from its snapshot. A game restored after a failed handoff kept the rest of its state on this node,
+     * so no {@link GameImportedEvent} is published here.
+     */
+    private Game importGame(GameSnapshotDto snapshot) {
+        var game = matchService.importActiveGame(snapshot.gameId(), snapshot.moves(), snapshot.premove());
+        gameStateService.restoreState(game, snapshot.stateVersion(), snapshot.drawOfferedBy());
+
+        if (snapshot.abandonment() != null) {
+            matchService.scheduleAbandonment(snapshot.gameId(), snapshot.abandonment());
+        }
+
+        return game;
+    }
+
+    /**
+     * Command forwarded by the entry node to the owner of its game.
+     */
+    private record RoutedCommand(Object command) {
+    }
+}
@@ -1,11 +1,17 @@
 package com.silyosbekov.chessmate.service;
 
+import com.silyosbekov.chessmate.core.KeysetPagedResult;
+import com.silyosbekov.chessmate.core.PageCursor;
+import com.silyosbekov.chessmate.dto.GameListItemDto;
 import com.silyosbekov.chessmate.engine.Pgn;
+import com.silyosbekov.chessmate.event.GameCancelledEvent;
+import com.silyosbekov.chessmate.event.GameCreatedEvent;
 import com.silyosbekov.chessmate.model.*;
 import com.silyosbekov.chessmate.repository.GameRepository;
-import com.silyosbekov.chessmate.repository.PlayerRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import java.util.List;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
@@ -15,11 +21,17 @@ import java.util.UUID;
 @Service
 public class GameService {
     private final GameRepository gameRepository;
-    private final PlayerRepository playerRepository;
+    private final PlayerCacheService playerCacheService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public GameService(GameRepository gameRepository, PlayerRepository playerRepository) {
+    public GameService(
+            GameRepository gameRepository,
+            PlayerCacheService playerCacheService,
+            ApplicationEventPublisher eventPublisher)
+    {
         this.gameRepository = gameRepository;
-        this.playerRepository = playerRepository;
+        this.playerCacheService = playerCacheService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -29,19 +41,33 @@ public class GameService {
      * @return The game
      */
     public Game getGameById(UUID gameId) {
-        return gameRepository.findById(gameId).orElseThrow();
+        return gameRepository.findWithPlayersById(gameId).orElseThrow();
     }
 
     /**
-     * Get all games
+     * Get a page of games, newest games first
      * @param gameStatus Filter games by status, or null to get all games
-     * @return List of all games
+     * @param cursor The cursor returned with the previous page, or null to get the first page
+     * @param pageSize The maximum number of games in the page
+     * @throws IllegalArgumentException if the cursor is malformed
+     * @return The page of games with the cursor of the next page
      */
-    public List<Game> getGames(GameStatus gameStatus) {
-        if (gameStatus != null) {
-            return gameRepository.findByStatus(gameStatus);
+    public KeysetPagedResult<GameListItemDto> getGames(GameStatus gameStatus, String cursor, int pageSize) {
+        var pageCursor = PageCursor.decode(cursor);
+        var createdDate = pageCursor != null ? pageCursor.createdDate() : null;
+        var lastGameId = pageCursor != null ? pageCursor.id() : null;
+
+        // Fetch one extra game to know whether there is a next page
+        var games = gameRepository.findListItemsAfter(gameStatus, createdDate, lastGameId, PageRequest.ofSize(pageSize + 1));
+
+        if (games.size() <= pageSize) {
+            return KeysetPagedResult.success(games, null);
         }
-        return gameRepository.findAll();
+
+        var page = games.subList(0, pageSize);
+        var lastGame = page.get(pageSize - 1);
+        var nextCursor = new PageCursor(lastGame.createdDate(), lastGame.id()).encode();
+        return KeysetPagedResult.success(page, nextCursor);
     }
 
     /**
@@ -51,8 +77,9 @@ public class GameService {
      * @throws NoSuchElementException if the host player does not exist
      * @return The newly created game
      */
+    @Transactional
     public Game createNewGame(UUID hostPlayerId, PlayerColor hostPlayerColor) {
-        var hostPlayer = playerRepository.findById(hostPlayerId).orElseThrow();
+        var hostPlayer = playerCacheService.getPlayerReference(hostPlayerId);
         return createGameWithHostPlayer(hostPlayer, hostPlayerColor, null);
     }
 
@@ -61,6 +88,7 @@ public class GameService {
      * @param hostPlayerColor The color of the host player
      * @return The newly created game
      */
+    @Transactional
     public Game createNewAnonymousGame(UUID hostPlayerId, PlayerColor hostPlayerColor) {
         return createGameWithHostPlayer(null, hostPlayerColor, hostPlayerId);
     }
@@ -86,12 +114,17 @@ public class GameService {
 
         var pgn = new Pgn();
         game.setPgn(pgn.toString());
-        return gameRepository.save(game);
+        var savedGame = gameRepository.save(game);
+        eventPublisher.publishEvent(new GameCreatedEvent(savedGame));
+        return savedGame;
     }
 
+    @Transactional
     public Game cancelGame(UUID gameId) {
-        var game = gameRepository.findById(gameId).orElseThrow();
+        var game = gameRepository.findWithPlayersById(gameId).orElseThrow();
         game.setStatus(GameStatus.CANCELLED);
-        return gameRepository.save(game);
+        var savedGame = gameRepository.save(game);
+        eventPublisher.publishEvent(new GameCancelledEvent(savedGame));
+        return savedGame;
     }
 }
@@ -0,0 +1,256 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.dto.GameStateDeltaDto;
+import com.silyosbekov.chessmate.dto.GameStateDto;
+import com.silyosbekov.chessmate.dto.MoveDto;
+import com.silyosbekov.chessmate.event.GameEndedEvent;
+import com.silyosbekov.chessmate.event.GameJoinedEvent;
+import com.silyosbekov.chessmate.mapper.GameMapper;
+import com.silyosbekov.chessmate.model.Game;
+import com.silyosbekov.chessmate.model.GameStatus;
+import com.silyosbekov.chessmate.model.PlayerColor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Game state service, publishes the changes of the state of ongoing games on {@value #STATE_TOPIC}.
+ * <p>
+ *     Each change is sent as a {@link GameStateDeltaDto} holding only the changed fields and the next version of the
+ *     game state. The game sent on the match join topic is version 0, a client that receives a delta whose version
+ *     does not directly follow its own requests the full state with {@code /app/match/{gameId}/state}.
+ *     Moves are not part of the stream, they have their own ply sequence.
+ * </p>
+ */
+@Service
+public class GameStateService {
+    public static final String STATE_TOPIC = "/topic/match.state";
+
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final PlayerCacheService playerCacheService;
+    private final Map<UUID, GameState> states = new ConcurrentHashMap<>();
+
+    public GameStateService(SimpMessagingTemplate simpMessagingTemplate, PlayerCacheService playerCacheService) {
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.playerCacheService = playerCacheService;
+    }
+
+    /**
+     * Get the full state of a game.
+     * @param game The ongoing game
+     * @return The game with the version of its state, version 0 if the state of the game is not tracked
+     */
+    public GameStateDto getState(Game game) {
+        return toDto(game, states.get(game.getId()));
+    }
+
+    /**
+     * Stop tracking the state of a game, e.g. to hand it off to another node.
+     * @param game The game
+     * @return The full state of the game
+     */
+    public GameStateDto removeState(Game game) {
+        return toDto(game, states.remove(game.getId()));
+    }
+
+    /**
+     * Resume tracking the state of a game handed off by another node, so its versions continue where they left off.
+     * @param game The game
+     * @param version The last published version
+     * @param drawOfferedBy The color of the player offering a draw, or null
+     */
+    public void restoreState(Game game, long version, PlayerColor drawOfferedBy) {
+        var state = new GameState(game);
+        state.version = version;
+        state.drawOfferedBy = drawOfferedBy;
+        states.put(game.getId(), state);
+    }
+
+    /**
+     * Publish the fields of a game that changed since the last published version.
+     * @param game The game
+     * @return The published delta, or null if nothing changed or the game has ended
+     */
+    public GameStateDeltaDto publish(Game game) {
+        var state = states.get(game.getId());
+
+        if (state == null) {
+            return null;
+        }
+
+        synchronized (state) {
+            return publish(game, state);
+        }
+    }
+
+    /**
+     * Record a draw offer and publish it.
+     * @param game The ongoing game
+     * @param playerId The ID of the player offering a draw
+     * @throws NoSuchElementException if the player does not exist in the game
+     * @return The published delta, or null if the player had already offered a draw or the game has ended
+     */
+    public GameStateDeltaDto offerDraw(Game game, UUID playerId) {
+        var color = colorOf(game, playerId);
+        var state = states.get(game.getId());
+
+        if (state == null) {
+            return null;
+        }
+
+        synchronized (state) {
+            state.setDrawOfferedBy(color);
+            return publish(game, state);
+        }
+    }
+
+    /**
+     * Withdraw the pending draw offer of a game and publish it.
+     * @param game The ongoing game
+     * @return The published delta, or null if no draw offer was pending or the game has ended
+     */
+    public GameStateDeltaDto declineDraw(Game game) {
+        var state = states.get(game.getId());
+
+        if (state == null) {
+            return null;
+        }
+
+        synchronized (state) {
+            state.setDrawOfferedBy(null);
+            return publish(game, state);
+        }
+    }
+
+    /**
+     * Withdraw the pending draw offer of a game once the opponent of the offering player moves.
+     * @param game The ongoing game
+     * @param moves The moves applied together
+     */
+    public void handleMoves(Game game, List<MoveDto> moves) {
+        var state = states.get(game.getId());
+
+        if (state == null) {
+            return;
+        }
+
+        synchronized (state) {
+            var offeredBy = state.drawOfferedBy;
+
+            if (offeredBy != null && moves.stream().anyMatch(move -> move.color() != offeredBy)) {
+                state.setDrawOfferedBy(null);
+                publish(game, state);
+            }
+        }
+    }
+
+    @EventListener
+    public void handleGameJoined(GameJoinedEvent event) {
+        states.put(event.game().getId(), new GameState(event.game()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleGameEnded(GameEndedEvent event) {
+        var state = states.remove(event.game().getId());
+
+        if (state != null) {
+            synchronized (state) {
+                state.setDrawOfferedBy(null);
+                publish(event.game(), state);
+            }
+        }
+    }
+
+    /**
+     * Send the changed fields with the next version. The caller holds the state's monitor,
+     * so the deltas of a game are sent in version order.
+     */
+    private GameStateDeltaDto publish(Game game, GameState state) {
+        var status = changed(state.status, game.getStatus());
+        var winnerPlayer = changed(state.winnerPlayer, game.getWinnerPlayer());
+        var currentTurn = changed(state.currentTurn, game.getCurrentTurn());
+        var isDrawOfferChanged = state.isDrawOfferChanged;
+
+        if (status == null && winnerPlayer == null && currentTurn == null && !isDrawOfferChanged) {
+            return null;
+        }
+
+        state.version++;
+        state.status = game.getStatus();
+        state.winnerPlayer = game.getWinnerPlayer();
+        state.currentTurn = game.getCurrentTurn();
+        state.isDrawOfferChanged = false;
+
+        var delta = new GameStateDeltaDto(
+                game.getId(),
+                state.version,
+                status != null ? status.name() : null,
+                winnerPlayer,
+                isDrawOfferChanged ? state.drawOfferedBy != null : null,
+                isDrawOfferChanged ? state.drawOfferedBy : null,
+                currentTurn);
+
+        simpMessagingTemplate.convertAndSend(STATE_TOPIC, delta);
+        return delta;
+    }
+
+    private GameStateDto toDto(Game game, GameState state) {
+        var gameDto = GameMapper.toDto(game, playerCacheService::getPlayer);
+
+        if (state == null) {
+            return new GameStateDto(gameDto, 0, null);
+        }
+
+        synchronized (state) {
+            return new GameStateDto(gameDto, state.version, state.drawOfferedBy);
+        }
+    }
+
+    private static <T> T changed(T previous, T current) {
+        return Objects.equals(previous, current) ? null : current;
+    }
+
+    private static PlayerColor colorOf(Game game, UUID playerId) {
+        if (playerId.equals(game.getWhitePlayerId())) {
+            return PlayerColor.WHITE;
+        }
+        else if (playerId.equals(game.getBlackPlayerId())) {
+            return PlayerColor.BLACK;
+        }
+
+        throw new NoSuchElementException("Player with '%s' does not exist in the game".formatted(playerId));
+    }
+
+    /**
+     * Last published state of a game, guarded by its monitor.
+     */
+    private static final class GameState {
+        long version;
+        GameStatus status;
+        PlayerColor winnerPlayer;
+        PlayerColor currentTurn;
+        PlayerColor drawOfferedBy;
+        boolean isDrawOfferChanged;
+
+        GameState(Game game) {
+            this.status = game.getStatus();
+            this.winnerPlayer = game.getWinnerPlayer();
+            this.currentTurn = game.getCurrentTurn();
+        }
+
+        void setDrawOfferedBy(PlayerColor color) {
+            if (drawOfferedBy != color) {
+                drawOfferedBy = color;
+                isDrawOfferChanged = true;
+            }
+        }
+    }
+}
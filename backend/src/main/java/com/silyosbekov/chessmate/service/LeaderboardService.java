@@ -0,0 +1,275 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.core.FenwickTree;
+import com.silyosbekov.chessmate.dto.LeaderboardEntryDto;
+import com.silyosbekov.chessmate.dto.PlayerSummaryDto;
+import com.silyosbekov.chessmate.event.PlayerCreatedEvent;
+import com.silyosbekov.chessmate.event.RatingChangedEvent;
+import com.silyosbekov.chessmate.repository.PlayerRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Leaderboard service, ranks the players by their Elo ratings in memory.
+ * <p>
+ *     The number of players of each rating is kept in a Fenwick tree, so the rank of a player is
+ *     the number of players rated higher, counted in O(log n). Players of the same rating share a bucket
+ *     and are listed by ID. The leaderboard is loaded once on startup and then maintained incrementally
+ *     from the created players and the rating changes.
+ * </p>
+ */
+@Service
+public class LeaderboardService {
+    public static final int MIN_ELO = 0;
+    public static final int MAX_ELO = 4000;
+
+    private final PlayerRepository playerRepository;
+    private final PlayerCacheService playerCacheService;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final FenwickTree ratingCounts = new FenwickTree(MAX_ELO - MIN_ELO + 1);
+    private final NavigableMap<Integer, NavigableSet<UUID>> buckets = new TreeMap<>();
+    private final Map<UUID, PlayerSummaryDto> players = new HashMap<>();
+
+    public LeaderboardService(PlayerRepository playerRepository, PlayerCacheService playerCacheService) {
+        this.playerRepository = playerRepository;
+        this.playerCacheService = playerCacheService;
+    }
+
+    /**
+     * Load the ratings of all players.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPlayers() {
+        var summaries = playerRepository.findAllSummaries();
+
+        lock.writeLock().lock();
+        try {
+            for (var summary : summaries) {
+                putPlayer(summary);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rank a player registered after the leaderboard was loaded.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handlePlayerCreated(PlayerCreatedEvent event) {
+        var player = event.player();
+
+        lock.writeLock().lock();
+        try {
+            // A rating change handled in the meantime is newer than the created player
+            if (!players.containsKey(player.getId())) {
+                putPlayer(new PlayerSummaryDto(player.getId(), player.getUsername(), player.getElo()));
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void handleRatingChanged(RatingChangedEvent event) {
+        var player = findPlayer(event.playerId());
+
+        // Loaded before taking the write lock, so a cache miss does not block the readers on the database
+        if (player == null) {
+            player = playerCacheService.getPlayer(event.playerId());
+        }
+
+        lock.writeLock().lock();
+        try {
+            putPlayer(new PlayerSummaryDto(player.id(), player.username(), event.newElo()));
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of ranked players.
+     * @return The number of players
+     */
+    public int getPlayersCount() {
+        lock.readLock().lock();
+        try {
+            return players.size();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the top rated players.
+     * @param count The maximum number of players
+     * @return The leaderboard entries, the highest rated player first
+     */
+    public List<LeaderboardEntryDto> getTopPlayers(int count) {
+        lock.readLock().lock();
+        try {
+            var entries = new ArrayList<LeaderboardEntryDto>(Math.min(count, players.size()));
+            var playersAbove = 0;
+
+            for (var bucket : buckets.descendingMap().entrySet()) {
+                for (var playerId : bucket.getValue()) {
+                    if (entries.size() == count) {
+                        return entries;
+                    }
+
+                    entries.add(toEntry(playerId, playersAbove + 1));
+                }
+
+                playersAbove += bucket.getValue().size();
+            }
+
+            return entries;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the leaderboard entry of a player.
+     * @param playerId The ID of the player
+     * @throws NoSuchElementException if the player is not ranked
+     * @return The leaderboard entry
+     */
+    public LeaderboardEntryDto getPlayerEntry(UUID playerId) {
+        lock.readLock().lock();
+        try {
+            return toEntry(requirePlayer(playerId).id());
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the players ranked around a player, including the player.
+     * @param playerId The ID of the player
+     * @param count The maximum number of players to get above and below the player
+     * @throws NoSuchElementException if the player is not ranked
+     * @return The leaderboard entries in rank order
+     */
+    public List<LeaderboardEntryDto> getNeighbours(UUID playerId, int count) {
+        lock.readLock().lock();
+        try {
+            var player = requirePlayer(playerId);
+            var bucket = bucketIndex(player.elo());
+            var above = new ArrayList<UUID>(count);
+            var below = new ArrayList<UUID>(count);
+
+            // Players of the same rating with smaller IDs are listed above the player
+            collect(buckets.get(bucket).headSet(playerId, false).descendingSet(), above, count);
+            for (var higher : buckets.tailMap(bucket, false).values()) {
+                if (above.size() == count) {
+                    break;
+                }
+
+                collect(higher.descendingSet(), above, count);
+            }
+
+            collect(buckets.get(bucket).tailSet(playerId, false), below, count);
+            for (var lower : buckets.headMap(bucket, false).descendingMap().values()) {
+                if (below.size() == count) {
+                    break;
+                }
+
+                collect(lower, below, count);
+            }
+
+            var entries = new ArrayList<LeaderboardEntryDto>(above.size() + below.size() + 1);
+
+            for (var i = above.size() - 1; i >= 0; i--) {
+                entries.add(toEntry(above.get(i)));
+            }
+
+            entries.add(toEntry(playerId));
+
+            for (var neighbourId : below) {
+                entries.add(toEntry(neighbourId));
+            }
+
+            return entries;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void collect(Collection<UUID> playerIds, List<UUID> target, int count) {
+        var iterator = playerIds.iterator();
+
+        while (target.size() < count && iterator.hasNext()) {
+            target.add(iterator.next());
+        }
+    }
+
+    private void putPlayer(PlayerSummaryDto player) {
+        var previous = players.put(player.id(), player);
+
+        if (previous != null) {
+            var previousBucket = bucketIndex(previous.elo());
+            var previousPlayers = buckets.get(previousBucket);
+            previousPlayers.remove(player.id());
+            ratingCounts.add(previousBucket - MIN_ELO, -1);
+
+            if (previousPlayers.isEmpty()) {
+                buckets.remove(previousBucket);
+            }
+        }
+
+        var bucket = bucketIndex(player.elo());
+        buckets.computeIfAbsent(bucket, elo -> new TreeSet<>()).add(player.id());
+        ratingCounts.add(bucket - MIN_ELO, 1);
+    }
+
+    private PlayerSummaryDto findPlayer(UUID playerId) {
+        lock.readLock().lock();
+        try {
+            return players.get(playerId);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private PlayerSummaryDto requirePlayer(UUID playerId) {
+        var player = players.get(playerId);
+
+        if (player == null) {
+            throw new NoSuchElementException("Player with ID '%s' is not ranked".formatted(playerId));
+        }
+
+        return player;
+    }
+
+    private LeaderboardEntryDto toEntry(UUID playerId) {
+        var bucket = bucketIndex(players.get(playerId).elo());
+        var playersAbove = bucket < MAX_ELO ? ratingCounts.suffixSum(bucket - MIN_ELO + 1) : 0;
+        return toEntry(playerId, (int) playersAbove + 1);
+    }
+
+    private LeaderboardEntryDto toEntry(UUID playerId, int rank) {
+        var player = players.get(playerId);
+        return new LeaderboardEntryDto(rank, player.id(), player.username(), player.elo());
+    }
+
+    private static int bucketIndex(int elo) {
+        return Math.clamp(elo, MIN_ELO, MAX_ELO);
+    }
+}
@@ -0,0 +1,100 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.dto.GameDto;
+import com.silyosbekov.chessmate.dto.GetOpenGamesQuery;
+import com.silyosbekov.chessmate.dto.LobbyDeltaDto;
+import com.silyosbekov.chessmate.event.GameCancelledEvent;
+import com.silyosbekov.chessmate.event.GameCreatedEvent;
+import com.silyosbekov.chessmate.event.GameJoinedEvent;
+import com.silyosbekov.chessmate.mapper.GameMapper;
+import com.silyosbekov.chessmate.model.GameStatus;
+import com.silyosbekov.chessmate.repository.GameRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lobby service, keeps an in-memory index of the open games.
+ * The index is loaded once on startup and then maintained from the game lifecycle events,
+ * so the lobby is served from memory and every change is pushed to the lobby topic as a delta.
+ * The events are handled after the transaction publishing them commits, a rolled back game never reaches the lobby.
+ */
+@Service
+public class LobbyService {
+    public static final String LOBBY_TOPIC = "/topic/lobby";
+
+    private final Map<UUID, GameDto> openGames = new ConcurrentHashMap<>();
+    private final GameRepository gameRepository;
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final PlayerCacheService playerCacheService;
+
+    public LobbyService(
+            GameRepository gameRepository,
+            SimpMessagingTemplate simpMessagingTemplate,
+            PlayerCacheService playerCacheService)
+    {
+        this.gameRepository = gameRepository;
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.playerCacheService = playerCacheService;
+    }
+
+    /**
+     * Get the open games matching the query, newest games first.
+     * @param query The lobby filters
+     * @return List of open games
+     */
+    public List<GameDto> getOpenGames(GetOpenGamesQuery query) {
+        return openGames.values().stream()
+                .filter(query::matches)
+                .sorted(Comparator.comparing(GameDto::createdDate).reversed())
+                .toList();
+    }
+
+    /**
+     * Get the number of open games.
+     * @return The number of open games
+     */
+    public int getOpenGamesCount() {
+        return openGames.size();
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenGames() {
+        for (var game : gameRepository.findByStatus(GameStatus.OPEN)) {
+            openGames.put(game.getId(), GameMapper.toDto(game, playerCacheService::getPlayer));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleGameCreated(GameCreatedEvent event) {
+        var gameDto = GameMapper.toDto(event.game(), playerCacheService::getPlayer);
+        openGames.put(gameDto.id(), gameDto);
+        simpMessagingTemplate.convertAndSend(LOBBY_TOPIC, new LobbyDeltaDto(LobbyDeltaDto.Type.ADDED, gameDto.id(), gameDto));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleGameJoined(GameJoinedEvent event) {
+        removeGame(event.game().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleGameCancelled(GameCancelledEvent event) {
+        removeGame(event.game().getId());
+    }
+
+    private void removeGame(UUID gameId) {
+        if (openGames.remove(gameId) != null) {
+            simpMessagingTemplate.convertAndSend(LOBBY_TOPIC, new LobbyDeltaDto(LobbyDeltaDto.Type.REMOVED, gameId, null));
+        }
+    }
+}
@@ -1,37 +1,229 @@
 package com.silyosbekov.chessmate.service;
 
-import com.silyosbekov.chessmate.core.Pair;
+import com.silyosbekov.chessmate.core.ActiveGame;
+import com.silyosbekov.chessmate.dto.AbandonmentDto;
 import com.silyosbekov.chessmate.dto.MakeMoveCommand;
+import com.silyosbekov.chessmate.dto.MoveAckDto;
 import com.silyosbekov.chessmate.dto.MoveDto;
 import com.silyosbekov.chessmate.engine.Chess;
 import com.silyosbekov.chessmate.engine.Pgn;
 import com.silyosbekov.chessmate.engine.option.MoveOptions;
+import com.silyosbekov.chessmate.event.GameEndedEvent;
+import com.silyosbekov.chessmate.event.GameJoinedEvent;
+import com.silyosbekov.chessmate.jfr.EngineMoveEvent;
+import com.silyosbekov.chessmate.jfr.GameLifecycleEvent;
+import com.silyosbekov.chessmate.jfr.PgnParseEvent;
 import com.silyosbekov.chessmate.model.Game;
 import com.silyosbekov.chessmate.model.GameStatus;
+import com.silyosbekov.chessmate.model.MoveAckStatus;
 import com.silyosbekov.chessmate.model.Player;
 import com.silyosbekov.chessmate.model.PlayerColor;
 import com.silyosbekov.chessmate.repository.GameRepository;
 import com.silyosbekov.chessmate.repository.PlayerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 @Service
 public class MatchService {
+    private static final Duration ABANDON_DELAY = Duration.ofMinutes(1);
+
     private final GameRepository gameRepository;
     private final PlayerRepository playerRepository;
+    private final PlayerCacheService playerCacheService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * A map of active games with their UUIDs as keys and a pair of the game and its chess engine as values
+     * A map of active games with their UUIDs as keys
      */
-    private final Map<UUID, Pair<Game, Chess>> activeGames = new HashMap<>();
+    private final Map<UUID, ActiveGame> activeGames = new ConcurrentHashMap<>();
 
-    public MatchService(GameRepository gameRepository, PlayerRepository playerRepository) {
+    /**
+     * The completion timers of the abandoned games with the games' UUIDs as keys
+     */
+    private final Map<UUID, AbandonTimer> abandonTimers = new ConcurrentHashMap<>();
+
+    private final Map<MoveAckStatus, Timer> moveTimers = new EnumMap<>(MoveAckStatus.class);
+    private final Timer joinTimer;
+    private final Timer leaveTimer;
+    private final Timer engineMoveTimer;
+    private final Timer pgnParseTimer;
+
+    public MatchService(
+            GameRepository gameRepository,
+            PlayerRepository playerRepository,
+            PlayerCacheService playerCacheService,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry)
+    {
         this.gameRepository = gameRepository;
         this.playerRepository = playerRepository;
+        this.playerCacheService = playerCacheService;
+        this.eventPublisher = eventPublisher;
+
+        for (var status : MoveAckStatus.values()) {
+            moveTimers.put(status, Timer.builder("chessmate.match.move")
+                    .description("Time to handle a move command, from the lookup of the game to the acknowledgement")
+                    .tag("status", status.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+
+        this.joinTimer = Timer.builder("chessmate.match.join")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.leaveTimer = Timer.builder("chessmate.match.leave")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.engineMoveTimer = Timer.builder("chessmate.engine")
+                .description("Time spent in the chess engine")
+                .tag("operation", "move")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.pgnParseTimer = Timer.builder("chessmate.engine")
+                .description("Time spent in the chess engine")
+                .tag("operation", "parsePgn")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        Gauge.builder("chessmate.match.active", activeGames, Map::size)
+                .description("Games played on this node")
+                .register(meterRegistry);
+        Gauge.builder("chessmate.match.abandon.pending", abandonTimers, Map::size)
+                .description("Abandoned games waiting to be completed")
+                .register(meterRegistry);
     }
 
     public Game getActiveGame(UUID gameId) {
-        return activeGames.get(gameId).item1();
+        var activeGame = activeGames.get(gameId);
+
+        if (activeGame == null) {
+            throw new NoSuchElementException("Game with ID '%s' does not exist".formatted(gameId));
+        }
+
+        return activeGame.getGame();
+    }
+
+    /**
+     * Whether a game is ongoing and played on this node.
+     * @param gameId The ID of the game
+     */
+    public boolean isActiveGame(UUID gameId) {
+        return activeGames.containsKey(gameId);
+    }
+
+    /**
+     * Get the moves played so far in a game played on this node.
+     * @param gameId The ID of the game
+     * @throws NoSuchElementException if the game is not ongoing on this node
+     * @return The moves in ply order
+     */
+    public List<MoveDto> getActiveGameMoves(UUID gameId) {
+        var activeGame = activeGames.get(gameId);
+
+        if (activeGame == null) {
+            throw new NoSuchElementException("Game with ID '%s' does not exist".formatted(gameId));
+        }
+
+        return activeGame.getMoves();
+    }
+
+    /**
+     * Get the IDs of the games played on this node.
+     */
+    public Set<UUID> getActiveGameIds() {
+        return Set.copyOf(activeGames.keySet());
+    }
+
+    /**
+     * Stop playing a game on this node, e.g. to hand it off to another node.
+     * @param gameId The ID of the game
+     * @return The removed game with its moves and premove, or null if the game is not played on this node
+     */
+    public ActiveGame removeActiveGame(UUID gameId) {
+        return activeGames.remove(gameId);
+    }
+
+    /**
+     * Stop the abandon timer of a game left by a player, e.g. to hand the game off to another node.
+     * @param gameId The ID of the game
+     * @return The pending abandonment of the game, or null if no player left the game
+     */
+    public AbandonmentDto takeAbandonment(UUID gameId) {
+        var abandonTimer = abandonTimers.remove(gameId);
+
+        if (abandonTimer == null) {
+            return null;
+        }
+
+        abandonTimer.timer().cancel();
+        return abandonTimer.abandonment();
+    }
+
+    /**
+     * Schedule the completion of a game left by a player, replacing any pending one.
+     * The game is completed as a win for the opponent at the deadline, unless it ends before.
+     * @param gameId The ID of the game
+     * @param abandonment The player who left the game and the deadline, a past deadline completes the game right away
+     */
+    public void scheduleAbandonment(UUID gameId, AbandonmentDto abandonment) {
+        var timer = new java.util.Timer();
+        var abandonTimer = new AbandonTimer(timer, abandonment);
+        var previousTimer = abandonTimers.put(gameId, abandonTimer);
+
+        if (previousTimer != null) {
+            previousTimer.timer().cancel();
+        }
+
+        timer.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                try {
+                    completeAbandonedGame(gameId, abandonment.playerId());
+                }
+                finally {
+                    abandonTimers.remove(gameId, abandonTimer);
+                    timer.cancel();
+                }
+            }
+        }, Date.from(abandonment.deadline()));
+    }
+
+    /**
+     * Resume a game handed off by another node by replaying its moves on a new chess engine.
+     * @param gameId The ID of the game
+     * @param moves The moves played so far in ply order
+     * @param premove The queued premove, or null
+     * @throws NoSuchElementException if the game does not exist
+     * @throws IllegalArgumentException if a move is not legal
+     * @return The resumed game
+     */
+    @Transactional
+    public Game importActiveGame(UUID gameId, List<MoveDto> moves, MakeMoveCommand premove) {
+        var game = gameRepository.findWithPlayersById(gameId)
+                .orElseThrow(() -> new NoSuchElementException("Game with ID '%s' does not exist".formatted(gameId)));
+        var activeGame = new ActiveGame(game, new Chess());
+
+        for (var move : moves) {
+            activeGame.getChess().move(new MoveOptions(move.from(), move.to(), null, move.promotion(), true));
+            activeGame.addMove(move);
+        }
+
+        activeGame.setPremove(premove);
+        game.setCurrentTurn(colorToMove(activeGame.getPly()));
+        activeGames.put(gameId, activeGame);
+        return game;
     }
 
     /**
@@ -40,10 +232,18 @@ public class MatchService {
      * @param playerId The ID of the player joining the game
      * @return The updated game
      */
+    @Transactional
     public Game joinGame(UUID gameId, UUID playerId) {
-        var game = gameRepository.findById(gameId).orElseThrow();
-        var player = playerRepository.findById(playerId).orElseThrow();
-        return joinGameCommon(game, playerId, player);
+        var start = System.nanoTime();
+
+        try {
+            var game = gameRepository.findWithPlayersById(gameId).orElseThrow();
+            var player = playerCacheService.getPlayer(playerId);
+            return joinGameCommon(game, playerId, playerRepository.getReferenceById(playerId), player.username());
+        }
+        finally {
+            joinTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     /**
@@ -52,9 +252,17 @@ public class MatchService {
      * @param playerId The ID of the player joining the game
      * @return The updated game
      */
+    @Transactional
     public Game joinAnonymousGame(UUID gameId, UUID playerId) {
-        var game = gameRepository.findById(gameId).orElseThrow();
-        return joinGameCommon(game, playerId, null);
+        var start = System.nanoTime();
+
+        try {
+            var game = gameRepository.findWithPlayersById(gameId).orElseThrow();
+            return joinGameCommon(game, playerId, null, "Anonymous");
+        }
+        finally {
+            joinTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     /**
@@ -62,15 +270,19 @@ public class MatchService {
      * @param game The game to join
      * @param playerId The joining player's ID
      * @param player The joining player entity. Set to null if the player is anonymous
+     * @param playerName The joining player's username
      * @return The updated game
      */
-    private Game joinGameCommon(Game game, UUID playerId, Player player) {
+    private Game joinGameCommon(Game game, UUID playerId, Player player, String playerName) {
+        var lifecycleEvent = new GameLifecycleEvent();
+        lifecycleEvent.begin();
+
         if (game.isFull()) {
             throw new IllegalStateException("Game is already full");
         }
 
         var secondPlayerColor = determineSecondPlayerColor(game);
-        var secondPlayerName = player == null ? "Anonymous" : player.getUsername();
+        var secondPlayerName = player == null ? "Anonymous" : playerName;
 
         if (secondPlayerColor == PlayerColor.WHITE) {
             if (secondPlayerName.equals("Anonymous")) {
@@ -96,7 +308,7 @@ public class MatchService {
         game.setStatus(GameStatus.ONGOING);
 
         // Set the player's color in the PGN
-        var pgn = Pgn.fromString(game.getPgn());
+        var pgn = parsePgn(game.getId(), game.getPgn());
 
         if (secondPlayerColor == PlayerColor.WHITE) {
             pgn.setWhitePlayer(secondPlayerName);
@@ -108,8 +320,66 @@ public class MatchService {
         pgn.setWhiteTurn();
         game.setCurrentTurn(PlayerColor.WHITE);
         game.setPgn(pgn.toString());
-        activeGames.put(game.getId(), Pair.of(game, new Chess()));
-        return gameRepository.save(game);
+        activeGames.put(game.getId(), new ActiveGame(game, new Chess()));
+        var savedGame = gameRepository.save(game);
+        commitLifecycleEvent(lifecycleEvent, savedGame, GameLifecycleEvent.STARTED);
+        eventPublisher.publishEvent(new GameJoinedEvent(savedGame));
+        return savedGame;
+    }
+
+    /**
+     * Create a ranked game between two matched players and start it in a single transaction,
+     * so the game never shows up as open in the lobby.
+     * @param whitePlayerId The ID of the player playing white, the host of the game
+     * @param blackPlayerId The ID of the player playing black
+     * @param timeControl The time control in the PGN format, base time in seconds plus increment, e.g. 300+3
+     * @throws NoSuchElementException if one of the players does not exist
+     * @return The started game
+     */
+    @Transactional
+    public Game startMatchedGame(UUID whitePlayerId, UUID blackPlayerId, String timeControl) {
+        return startMatchedGame(whitePlayerId, blackPlayerId, timeControl, gameId -> {});
+    }
+
+    /**
+     * Create a ranked game between two matched players and start it, see {@link #startMatchedGame(UUID, UUID, String)}.
+     * @param whitePlayerId The ID of the player playing white, the host of the game
+     * @param blackPlayerId The ID of the player playing black
+     * @param timeControl The time control in the PGN format, base time in seconds plus increment, e.g. 300+3
+     * @param beforeStart Called with the ID of the saved game before the game can receive moves and end,
+     *                    e.g. to track the game's end
+     * @throws NoSuchElementException if one of the players does not exist
+     * @return The started game
+     */
+    @Transactional
+    public Game startMatchedGame(UUID whitePlayerId, UUID blackPlayerId, String timeControl, Consumer<UUID> beforeStart) {
+        var lifecycleEvent = new GameLifecycleEvent();
+        lifecycleEvent.begin();
+        var whitePlayer = playerCacheService.getPlayer(whitePlayerId);
+        var blackPlayer = playerCacheService.getPlayer(blackPlayerId);
+        var whitePlayerReference = playerRepository.getReferenceById(whitePlayerId);
+
+        var game = new Game();
+        game.setHostPlayer(whitePlayerReference);
+        game.setHostPlayerColor(PlayerColor.WHITE);
+        game.setWhitePlayer(whitePlayerReference);
+        game.setBlackPlayer(playerRepository.getReferenceById(blackPlayerId));
+        game.setRanked(true);
+        game.setTimerEnabled(true);
+        game.setStatus(GameStatus.ONGOING);
+        game.setCurrentTurn(PlayerColor.WHITE);
+
+        var pgn = new Pgn(whitePlayer.username(), blackPlayer.username());
+        pgn.addHeader("TimeControl", timeControl);
+        pgn.setWhiteTurn();
+        game.setPgn(pgn.toString());
+
+        var savedGame = gameRepository.save(game);
+        beforeStart.accept(game.getId());
+        activeGames.put(game.getId(), new ActiveGame(game, new Chess()));
+        commitLifecycleEvent(lifecycleEvent, savedGame, GameLifecycleEvent.STARTED);
+        eventPublisher.publishEvent(new GameJoinedEvent(savedGame));
+        return savedGame;
     }
 
     /**
@@ -129,82 +399,370 @@ public class MatchService {
         }
     }
 
+    @Transactional
     public Game leaveGame(UUID gameId, UUID playerId) {
-        final Game game;
-        var activeGame = activeGames.get(gameId).item1();
+        return leaveTimer.record(() -> leaveGameInternal(gameId, playerId));
+    }
 
-        if (activeGame == null) {
-            activeGame = gameRepository.findById(gameId).orElseThrow();
+    private Game leaveGameInternal(UUID gameId, UUID playerId) {
+        var activeGame = activeGames.get(gameId);
+        final var game = activeGame != null
+                ? activeGame.getGame()
+                : gameRepository.findWithPlayersById(gameId).orElseThrow();
+
+        // An ended game keeps its result
+        if (activeGame == null && !isInProgress(game)) {
+            return game;
         }
 
-        game = activeGame;
         game.setStatus(GameStatus.CANCELLED);
 
-        // Schedule a timer to complete the abandoned game after 1 minute
-        var timer = new Timer();
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                completeAbandonedGame(game, playerId);
-            }
-        }, 60000); // 60000 ms = 1 minute
+        // Complete the abandoned game after 1 minute, unless the game ends before
+        scheduleAbandonment(gameId, new AbandonmentDto(playerId, Instant.now().plus(ABANDON_DELAY)));
 
-        return gameRepository.save(game);
+        // Return the in-memory game, its players are already loaded unlike the merged copy
+        gameRepository.save(game);
+        return game;
     }
 
     /**
      * Complete an abandoned game by declaring
      * the other player as the winner and updating the game status to completed.
-     * @param game The game to complete
+     * Nothing is done if the game has already ended in the meantime.
+     * @param gameId The ID of the game to complete
      * @param abandonedPlayerId The ID of the player who abandoned the game
      */
-    private void completeAbandonedGame(Game game, UUID abandonedPlayerId) {
-        var winnerPlayerId = game.getWhitePlayerId() == abandonedPlayerId ? game.getBlackPlayerId() : game.getWhitePlayerId();
-        var pgn = Pgn.fromString(game.getPgn());
+    private void completeAbandonedGame(UUID gameId, UUID abandonedPlayerId) {
+        tryEndGame(gameId, (game, pgn) -> {
+            var winnerPlayerId = abandonedPlayerId.equals(game.getWhitePlayerId()) ? game.getBlackPlayerId() : game.getWhitePlayerId();
 
-        if (winnerPlayerId.equals(game.getWhitePlayerId())){
-            game.setWinnerPlayer(PlayerColor.WHITE);
-            pgn.setWhiteWinResult();
-        }
-        else if (winnerPlayerId.equals(game.getBlackPlayerId())) {
-            game.setWinnerPlayer(PlayerColor.BLACK);
-            pgn.setBlackWinResult();
-        }
-        else {
-            throw new NoSuchElementException("Winner with '%s' does not exist in the game".formatted(winnerPlayerId.toString()));
+            if (winnerPlayerId.equals(game.getWhitePlayerId())){
+                game.setWinnerPlayer(PlayerColor.WHITE);
+                pgn.setWhiteWinResult();
+            }
+            else if (winnerPlayerId.equals(game.getBlackPlayerId())) {
+                game.setWinnerPlayer(PlayerColor.BLACK);
+                pgn.setBlackWinResult();
+            }
+            else {
+                throw new NoSuchElementException("Winner with '%s' does not exist in the game".formatted(winnerPlayerId.toString()));
+            }
+
+            game.setStatus(GameStatus.COMPLETED);
+        });
+    }
+
+    /**
+     * Apply a move at the ply of the command.
+     * <p>
+     *     Commands of a game are applied one at a time in ply order. A command for an already played ply with the same
+     *     move is a retry and is acknowledged as a duplicate, any other command that does not follow the current ply,
+     *     is not sent by the player to move or is not a legal move is rejected. The game state is left unchanged in
+     *     both cases.
+     * </p>
+     * <p>
+     *     A command for the next ply sent while the opponent is to move is a premove. It replaces any earlier premove
+     *     of the game and is applied right after the opponent's move in the same step, so both moves are returned
+     *     together. A premove that is not legal after the opponent's move is dropped.
+     * </p>
+     * <p>
+     *     A move that checkmates or stalemates the opponent ends the game, as a win for the player who moved or as
+     *     a draw, and publishes a {@link GameEndedEvent}.
+     * </p>
+     * @param command The move command
+     * @throws NoSuchElementException if the game does not exist
+     * @return The acknowledgement with the authoritative ply of the game and the applied moves
+     */
+    public MoveAckDto makeMove(MakeMoveCommand command) {
+        return makeMove(command, moves -> {});
+    }
+
+    /**
+     * Apply a move at the ply of the command, see {@link #makeMove(MakeMoveCommand)}.
+     * @param command The move command
+     * @param movesListener Called with the applied moves of an accepted command while the game is still active,
+     *                      before a checkmate or stalemate ends it, e.g. to broadcast the moves
+     * @throws NoSuchElementException if the game does not exist
+     * @return The acknowledgement with the authoritative ply of the game and the applied moves
+     */
+    public MoveAckDto makeMove(MakeMoveCommand command, Consumer<List<MoveDto>> movesListener) {
+        var start = System.nanoTime();
+        var ack = makeMoveInternal(command);
+        moveTimers.get(ack.status()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (ack.status() == MoveAckStatus.ACCEPTED) {
+            movesListener.accept(ack.moves());
+            var lastMove = ack.moves().getLast();
+
+            if (lastMove.isCheckmate() || lastMove.isStalemate()) {
+                completeGameByMove(lastMove);
+            }
         }
 
-        game.setStatus(GameStatus.COMPLETED);
-        activeGames.remove(game.getId());
-        gameRepository.save(game);
+        return ack;
     }
 
-    public MoveDto makeMove(MakeMoveCommand command)  {
+    private MoveAckDto makeMoveInternal(MakeMoveCommand command) {
         var activeGame = activeGames.get(command.gameId());
 
         if (activeGame == null) {
             throw new NoSuchElementException("Game with ID '%s' does not exist".formatted(command.gameId()));
         }
 
-        // TODO: Fix engine move validation error
-//        var move = activeGame.item2().move(new MoveOptions(command.from(), command.to(), null, null, true));
-//
-//        if (move == null) {
-//            throw new IllegalArgumentException("Invalid move");
-//        }
+        synchronized (activeGame) {
+            // The game may have been handed off to another node while waiting for the lock
+            if (activeGames.get(command.gameId()) != activeGame) {
+                throw new NoSuchElementException("Game with ID '%s' does not exist".formatted(command.gameId()));
+            }
+
+            var ply = activeGame.getPly();
+
+            if (command.ply() < ply) {
+                var appliedMove = activeGame.getMove(command.ply());
+                var isDuplicate = appliedMove != null
+                        && appliedMove.from().equals(command.from())
+                        && appliedMove.to().equals(command.to());
+
+                return isDuplicate
+                        ? createAck(command, ply, MoveAckStatus.DUPLICATE, List.of(appliedMove))
+                        : createAck(command, ply, MoveAckStatus.REJECTED, List.of());
+            }
+
+            if (command.ply() > ply + 1 || command.color() != colorToMove(command.ply())) {
+                return createAck(command, ply, MoveAckStatus.REJECTED, List.of());
+            }
+
+            if (command.ply() > ply) {
+                activeGame.setPremove(command);
+                return createAck(command, ply, MoveAckStatus.QUEUED, List.of());
+            }
+
+            var move = applyMove(activeGame, command);
+
+            if (move == null) {
+                return createAck(command, ply, MoveAckStatus.REJECTED, List.of());
+            }
 
-        var whitePlayerId = activeGame.item1().getWhitePlayerId();
-        var blackPlayerId = activeGame.item1().getBlackPlayerId();
+            var appliedMoves = new ArrayList<MoveDto>(2);
+            appliedMoves.add(move);
+            var premove = activeGame.takePremove();
+
+            if (premove != null && premove.ply() == activeGame.getPly()) {
+                var appliedPremove = applyMove(activeGame, premove);
+
+                if (appliedPremove != null) {
+                    appliedMoves.add(appliedPremove);
+                }
+            }
+
+            activeGame.getGame().setCurrentTurn(colorToMove(activeGame.getPly()));
+            return createAck(command, activeGame.getPly(), MoveAckStatus.ACCEPTED, appliedMoves);
+        }
+    }
+
+    /**
+     * Validate and apply a move with the game's chess engine.
+     * @return The applied move, or null if the move is not legal
+     */
+    private MoveDto applyMove(ActiveGame activeGame, MakeMoveCommand command) {
+        var chess = activeGame.getChess();
+        var engineEvent = new EngineMoveEvent();
+        var start = System.nanoTime();
+        engineEvent.begin();
+
+        try {
+            chess.move(new MoveOptions(command.from(), command.to(), null, command.promotion(), true));
+            engineEvent.isLegal = true;
+        }
+        catch (IllegalArgumentException e) {
+            return null;
+        }
+        finally {
+            engineMoveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            engineEvent.end();
+
+            if (engineEvent.shouldCommit()) {
+                engineEvent.gameId = command.gameId().toString();
+                engineEvent.ply = command.ply();
+                engineEvent.move = command.from() + command.to() + (command.promotion() != null ? command.promotion() : "");
+                engineEvent.commit();
+            }
+        }
 
-        return new MoveDto(
+        var whitePlayerId = activeGame.getGame().getWhitePlayerId();
+        var blackPlayerId = activeGame.getGame().getBlackPlayerId();
+
+        var move = new MoveDto(
                 command.gameId(),
                 whitePlayerId,
                 blackPlayerId,
                 command.color(),
                 command.from(),
                 command.to(),
-                command.isCheckmate(),
-                command.isStalemate());
+                command.promotion(),
+                chess.isCheckmate(),
+                chess.isStalemate(),
+                command.ply());
+
+        activeGame.addMove(move);
+        return move;
+    }
+
+    /**
+     * Complete a game ended by a checkmate or a stalemate, a checkmate wins the game for the player who moved.
+     * Nothing is done if the game has already ended in the meantime, e.g. by a resignation.
+     * @param move The last move of the game
+     */
+    private void completeGameByMove(MoveDto move) {
+        tryEndActiveGame(move.gameId(), (game, pgn) -> {
+            if (move.isCheckmate()) {
+                game.setWinnerPlayer(move.color());
+                game.setStatus(GameStatus.COMPLETED);
+
+                if (move.color() == PlayerColor.WHITE) {
+                    pgn.setWhiteWinResult();
+                }
+                else {
+                    pgn.setBlackWinResult();
+                }
+            }
+            else {
+                game.setStatus(GameStatus.DRAW);
+                pgn.setDrawResult();
+            }
+        });
+    }
+
+    /**
+     * End a game with a result.
+     * @param setResult Sets the status, the winner and the PGN result of the game, throws before changing the game
+     *                  to refuse the ending
+     * @throws NoSuchElementException if the game does not exist
+     * @throws IllegalStateException if the game has already ended
+     * @return The ended game
+     */
+    private Game endGame(UUID gameId, BiConsumer<Game, Pgn> setResult) {
+        var game = tryEndGame(gameId, setResult);
+
+        if (game == null) {
+            throw new IllegalStateException("Game with ID '%s' has already ended".formatted(gameId));
+        }
+
+        return game;
+    }
+
+    /**
+     * End a game with a result unless it has already ended, see {@link #tryEndActiveGame}.
+     * A game not played on this node, e.g. after a restart, is ended only if it is still in progress.
+     * @throws NoSuchElementException if the game does not exist
+     * @return The ended game, or null if the game has already ended
+     */
+    private Game tryEndGame(UUID gameId, BiConsumer<Game, Pgn> setResult) {
+        if (activeGames.containsKey(gameId)) {
+            return tryEndActiveGame(gameId, setResult);
+        }
+
+        var lifecycleEvent = new GameLifecycleEvent();
+        lifecycleEvent.begin();
+        var game = gameRepository.findWithPlayersById(gameId).orElseThrow();
+
+        if (!isInProgress(game)) {
+            return null;
+        }
+
+        var pgn = parsePgn(gameId, game.getPgn());
+        setResult.accept(game, pgn);
+        game.setPgn(pgn.toString());
+        return saveEndedGame(game, lifecycleEvent);
+    }
+
+    /**
+     * End a game played on this node with a result and stop tracking it, its moves are written to the PGN.
+     * The game is ended under its lock only while it is still tracked, so when a resignation, a draw, a checkmate
+     * and the abandon timer race, only the first ending is saved and published.
+     * @return The ended game, or null if the game is not played on this node, e.g. because it has already ended
+     */
+    private Game tryEndActiveGame(UUID gameId, BiConsumer<Game, Pgn> setResult) {
+        var activeGame = activeGames.get(gameId);
+
+        if (activeGame == null) {
+            return null;
+        }
+
+        var lifecycleEvent = new GameLifecycleEvent();
+        lifecycleEvent.begin();
+        var game = activeGame.getGame();
+
+        synchronized (activeGame) {
+            if (activeGames.get(gameId) != activeGame) {
+                return null;
+            }
+
+            var pgn = parsePgn(gameId, game.getPgn());
+            setResult.accept(game, pgn);
+            activeGames.remove(gameId);
+            pgn.setMoves(activeGame.getChess().historyAsStrings());
+            game.setPgn(pgn.toString());
+        }
+
+        return saveEndedGame(game, lifecycleEvent);
+    }
+
+    private Game saveEndedGame(Game game, GameLifecycleEvent lifecycleEvent) {
+        takeAbandonment(game.getId());
+        var savedGame = gameRepository.save(game);
+        commitLifecycleEvent(lifecycleEvent, savedGame, GameLifecycleEvent.ENDED);
+        eventPublisher.publishEvent(new GameEndedEvent(savedGame));
+        return savedGame;
+    }
+
+    /**
+     * Whether a game has not ended yet, it is ongoing or left by a player and waiting for its abandon timer.
+     */
+    private static boolean isInProgress(Game game) {
+        return game.getStatus() == GameStatus.ONGOING
+                || game.getStatus() == GameStatus.CANCELLED && game.getWhitePlayerId() != null && game.getBlackPlayerId() != null;
+    }
+
+    private Pgn parsePgn(UUID gameId, String pgn) {
+        var parseEvent = new PgnParseEvent();
+        var start = System.nanoTime();
+        parseEvent.begin();
+
+        try {
+            return Pgn.fromString(pgn);
+        }
+        finally {
+            pgnParseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            parseEvent.end();
+
+            if (parseEvent.shouldCommit()) {
+                parseEvent.gameId = gameId.toString();
+                parseEvent.pgnLength = pgn.length();
+                parseEvent.commit();
+            }
+        }
+    }
+
+    private static void commitLifecycleEvent(GameLifecycleEvent event, Game game, String transition) {
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.gameId = game.getId().toString();
+            event.transition = transition;
+            event.status = game.getStatus().name();
+            event.isRanked = game.isRanked();
+            event.gameDuration = Duration.between(game.getCreatedDate(), Instant.now()).toMillis();
+            event.commit();
+        }
+    }
+
+    private static MoveAckDto createAck(MakeMoveCommand command, int ply, MoveAckStatus status, List<MoveDto> moves) {
+        return new MoveAckDto(command.gameId(), command.color(), command.ply(), ply, status, moves);
+    }
+
+    private static PlayerColor colorToMove(int ply) {
+        return ply % 2 == 0 ? PlayerColor.WHITE : PlayerColor.BLACK;
     }
 
     /**
@@ -212,43 +770,41 @@ public class MatchService {
      * @param gameId The ID of the game to resign from
      * @param playerId The ID of the player who is resigning
      * @throws NoSuchElementException if the game does not exist or if the player does not exist in the game
+     * @throws IllegalStateException if the game has already ended
      * @return The updated game
      */
+    @Transactional
     public Game resignGame(UUID gameId, UUID playerId) {
-        var game = gameRepository.findById(gameId).orElseThrow();
-        var pgn = Pgn.fromString(game.getPgn());
-
-        if (game.getWhitePlayerId().equals(playerId)) { // White player resigned
-            game.setWinnerPlayer(PlayerColor.WHITE); // Black player wins
-            pgn.setBlackWinResult();
-        }
-        else if (game.getBlackPlayerId().equals(playerId)) { // Black player resigned
-            game.setWinnerPlayer(PlayerColor.BLACK); // White player wins
-            pgn.setWhiteWinResult();
-        }
-        else {
-            throw new NoSuchElementException("Player with '%s' does not exist in the game".formatted(playerId));
-        }
+        return endGame(gameId, (game, pgn) -> {
+            if (playerId.equals(game.getWhitePlayerId())) { // White player resigned
+                game.setWinnerPlayer(PlayerColor.BLACK); // Black player wins
+                pgn.setBlackWinResult();
+            }
+            else if (playerId.equals(game.getBlackPlayerId())) { // Black player resigned
+                game.setWinnerPlayer(PlayerColor.WHITE); // White player wins
+                pgn.setWhiteWinResult();
+            }
+            else {
+                throw new NoSuchElementException("Player with '%s' does not exist in the game".formatted(playerId));
+            }
 
-        game.setStatus(GameStatus.RESIGNED);
-        game.setPgn(pgn.toString());
-        return gameRepository.save(game);
+            game.setStatus(GameStatus.RESIGNED);
+        });
     }
 
     /**
      * Draw a game
      * @param gameId The ID of the game to draw
      * @throws NoSuchElementException if the game does not exist
+     * @throws IllegalStateException if the game has already ended
      * @return The updated game
      */
+    @Transactional
     public Game drawGame(UUID gameId) {
-        var game = gameRepository.findById(gameId).orElseThrow();
-        var pgn = Pgn.fromString(game.getPgn());
-        pgn.setDrawResult();
-
-        game.setStatus(GameStatus.DRAW);
-        game.setPgn(pgn.toString());
-        return gameRepository.save(game);
+        return endGame(gameId, (game, pgn) -> {
+            game.setStatus(GameStatus.DRAW);
+            pgn.setDrawResult();
+        });
     }
 
     /**
@@ -257,9 +813,17 @@ public class MatchService {
      * @throws NoSuchElementException if the game does not exist
      * @return The updated game
      */
+    @Transactional
     public Game abortGame(UUID gameId) {
-        var game = gameRepository.findById(gameId).orElseThrow();
+        var game = gameRepository.findWithPlayersById(gameId).orElseThrow();
         game.setStatus(GameStatus.ABORTED);
         return gameRepository.save(game);
     }
+
+    /**
+     * @param timer Completes the abandoned game at the deadline
+     * @param abandonment The player who left the game and the deadline
+     */
+    private record AbandonTimer(java.util.Timer timer, AbandonmentDto abandonment) {
+    }
 }
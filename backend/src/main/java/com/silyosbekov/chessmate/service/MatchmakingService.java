@@ -0,0 +1,168 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.core.MatchmakingPool;
+import com.silyosbekov.chessmate.core.TimeControl;
+import com.silyosbekov.chessmate.event.PlayerDisconnectedEvent;
+import com.silyosbekov.chessmate.mapper.GameMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Matchmaking service, pairs waiting players of similar ratings automatically.
+ * Every supported time control has its own pool of players bucketed by Elo.
+ * The pools are paired by a single scheduler pass on a fixed tick, and the matched games are pushed
+ * to the {@value #MATCH_JOIN_TOPIC} topic the same way as manually joined games.
+ */
+@Service
+public class MatchmakingService {
+    public static final String MATCH_JOIN_TOPIC = "/topic/match.join";
+    private static final Logger logger = LoggerFactory.getLogger(MatchmakingService.class);
+
+    private final MatchService matchService;
+    private final PlayerCacheService playerCacheService;
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final Timer waitTimer;
+
+    /**
+     * The matchmaking pools keyed by time control
+     */
+    private final Map<String, MatchmakingPool<UUID>> pools;
+
+    /**
+     * The time control each waiting player is queued for, a player can wait in a single pool only.
+     * A player's ticket is added to and removed from the pool while holding the player's entry, so the entry
+     * exists exactly while the player has a ticket in the pool or is being paired.
+     */
+    private final Map<UUID, String> queuedPlayers = new ConcurrentHashMap<>();
+
+    public MatchmakingService(
+            MatchService matchService,
+            PlayerCacheService playerCacheService,
+            SimpMessagingTemplate simpMessagingTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${chessmate.matchmaking.time-controls:1+0,3+0,3+2,5+0,5+3,10+0,15+10}") List<String> timeControls,
+            @Value("${chessmate.matchmaking.bucket-width:100}") int bucketWidth,
+            @Value("${chessmate.matchmaking.initial-window:50}") int initialWindow,
+            @Value("${chessmate.matchmaking.window-growth-per-second:25}") int windowGrowthPerSecond,
+            @Value("${chessmate.matchmaking.maximum-window:400}") int maximumWindow)
+    {
+        this.matchService = matchService;
+        this.playerCacheService = playerCacheService;
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.pools = timeControls.stream().collect(Collectors.toUnmodifiableMap(
+                timeControl -> TimeControl.parse(timeControl).toString(),
+                timeControl -> new MatchmakingPool<>(bucketWidth, initialWindow, windowGrowthPerSecond, maximumWindow)));
+
+        this.waitTimer = Timer.builder("chessmate.matchmaking.wait")
+                .description("Time from joining the matchmaking queue until the game is started")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("chessmate.matchmaking.queued", queuedPlayers, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Add a player to the matchmaking queue of the time control.
+     * @param playerId The ID of the player
+     * @param timeControl The time control in minutes plus increment in seconds, e.g. 5+3
+     * @throws IllegalArgumentException if the time control is malformed or not supported
+     * @throws IllegalStateException if the player is already waiting for a game
+     * @throws java.util.NoSuchElementException if the player does not exist
+     */
+    public void joinQueue(UUID playerId, String timeControl) {
+        var poolKey = TimeControl.parse(timeControl).toString();
+        var pool = pools.get(poolKey);
+
+        if (pool == null) {
+            throw new IllegalArgumentException("Time control '%s' is not supported".formatted(timeControl));
+        }
+
+        var elo = playerCacheService.getPlayer(playerId).elo();
+
+        queuedPlayers.compute(playerId, (id, queuedTimeControl) -> {
+            if (queuedTimeControl != null) {
+                throw new IllegalStateException("Player is already waiting for a game");
+            }
+
+            pool.add(id, elo, System.nanoTime());
+            return poolKey;
+        });
+    }
+
+    /**
+     * Remove a player from the matchmaking queue. A player who has already been paired stays queued
+     * until the game is started.
+     * @param playerId The ID of the player
+     * @return True if the player was waiting for a game, false if the player was not queued or has already been paired
+     */
+    public boolean leaveQueue(UUID playerId) {
+        var isRemoved = new AtomicBoolean();
+
+        queuedPlayers.computeIfPresent(playerId, (id, timeControl) -> {
+            isRemoved.set(pools.get(timeControl).remove(id));
+            return isRemoved.get() ? null : timeControl;
+        });
+
+        return isRemoved.get();
+    }
+
+    public boolean isQueued(UUID playerId) {
+        return queuedPlayers.containsKey(playerId);
+    }
+
+    @EventListener
+    public void handlePlayerDisconnected(PlayerDisconnectedEvent event) {
+        leaveQueue(event.playerId());
+    }
+
+    /**
+     * Pair the waiting players of all pools and start their games.
+     */
+    @Scheduled(fixedDelayString = "${chessmate.matchmaking.tick-ms:100}")
+    public void pairWaitingPlayers() {
+        for (var entry : pools.entrySet()) {
+            var timeControl = entry.getKey();
+
+            for (var match : entry.getValue().pair(System.nanoTime())) {
+                queuedPlayers.remove(match.first(), timeControl);
+                queuedPlayers.remove(match.second(), timeControl);
+                startGame(match, timeControl);
+            }
+        }
+    }
+
+    private void startGame(MatchmakingPool.Match<UUID> match, String timeControl) {
+        // Ratings of the pair are close, so colors are assigned randomly
+        var isFirstWhite = ThreadLocalRandom.current().nextBoolean();
+        var whitePlayerId = isFirstWhite ? match.first() : match.second();
+        var blackPlayerId = isFirstWhite ? match.second() : match.first();
+
+        try {
+            var game = matchService.startMatchedGame(whitePlayerId, blackPlayerId, TimeControl.parse(timeControl).toPgn());
+            var now = System.nanoTime();
+            waitTimer.record(now - match.firstEnqueuedNanos(), TimeUnit.NANOSECONDS);
+            waitTimer.record(now - match.secondEnqueuedNanos(), TimeUnit.NANOSECONDS);
+            simpMessagingTemplate.convertAndSend(MATCH_JOIN_TOPIC, GameMapper.toDto(game, playerCacheService::getPlayer));
+        }
+        catch (RuntimeException e) {
+            logger.warn("Could not start the matched game of players {} and {}", whitePlayerId, blackPlayerId, e);
+        }
+    }
+}
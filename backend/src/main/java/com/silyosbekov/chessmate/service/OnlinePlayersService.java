@@ -1,25 +1,132 @@
 package com.silyosbekov.chessmate.service;
 
+import com.silyosbekov.chessmate.core.HashedTimerWheel;
+import com.silyosbekov.chessmate.dto.PresenceDeltaDto;
+import com.silyosbekov.chessmate.event.PlayerDisconnectedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Online players service, tracks connected players and their presence.
+ * Players have to send heartbeats to stay online, missed heartbeats are detected on a timer wheel.
+ * Presence changes are coalesced and broadcast to the lobby as batched deltas.
+ */
 @Service
 public class OnlinePlayersService {
+    public static final String PRESENCE_TOPIC = "/topic/player.presence";
+
     private final Map<UUID, String> players = new ConcurrentHashMap<>();
+    private final Map<String, UUID> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * The latest presence state of the players whose presence changed since the last broadcast,
+     * true if the player came online and false if the player went offline
+     */
+    private final Map<UUID, Boolean> pendingChanges = new ConcurrentHashMap<>();
+
+    private final HashedTimerWheel<UUID> heartbeats;
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long heartbeatTimeoutMillis;
+
+    public OnlinePlayersService(
+            SimpMessagingTemplate simpMessagingTemplate,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${chessmate.presence.heartbeat-timeout-ms:30000}") long heartbeatTimeoutMillis,
+            @Value("${chessmate.presence.tick-ms:100}") long tickMillis)
+    {
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.eventPublisher = eventPublisher;
+        this.heartbeatTimeoutMillis = heartbeatTimeoutMillis;
+        this.heartbeats = new HashedTimerWheel<>(tickMillis, 512, System.currentTimeMillis());
+
+        Gauge.builder("chessmate.presence.online", players, Map::size)
+                .description("Players connected to this node")
+                .register(meterRegistry);
+        Gauge.builder("chessmate.presence.heartbeats.pending", heartbeats, HashedTimerWheel::size)
+                .description("Heartbeat timeouts scheduled on the timer wheel")
+                .register(meterRegistry);
+    }
 
     public void addPlayer(UUID playerId, String sessionId) {
-        players.put(playerId, sessionId);
+        var previousSessionId = players.put(playerId, sessionId);
+
+        if (previousSessionId != null) {
+            sessions.remove(previousSessionId, playerId);
+        }
+
+        sessions.put(sessionId, playerId);
+        heartbeats.schedule(playerId, heartbeatTimeoutMillis, System.currentTimeMillis());
+
+        if (previousSessionId == null) {
+            pendingChanges.put(playerId, true);
+        }
     }
 
     public void removePlayer(UUID playerId) {
-        players.remove(playerId);
+        var sessionId = players.remove(playerId);
+
+        if (sessionId != null) {
+            sessions.remove(sessionId, playerId);
+            heartbeats.cancel(playerId);
+            pendingChanges.put(playerId, false);
+            eventPublisher.publishEvent(new PlayerDisconnectedEvent(playerId));
+        }
     }
 
     public void removePlayerBySessionId(String sessionId) {
-        players.entrySet().removeIf(entry -> entry.getValue().equals(sessionId));
+        var playerId = sessions.remove(sessionId);
+
+        if (playerId != null && players.remove(playerId, sessionId)) {
+            heartbeats.cancel(playerId);
+            pendingChanges.put(playerId, false);
+            eventPublisher.publishEvent(new PlayerDisconnectedEvent(playerId));
+        }
+    }
+
+    /**
+     * Register a heartbeat from the player connected with the given session.
+     * A player who went offline after missing heartbeats comes back online with the session's next heartbeat.
+     * @param sessionId The WebSocket session ID
+     * @return True if the session belongs to an online player, otherwise false
+     */
+    public boolean heartbeat(String sessionId) {
+        var playerId = sessions.get(sessionId);
+
+        if (playerId == null) {
+            return false;
+        }
+
+        var currentSessionId = players.putIfAbsent(playerId, sessionId);
+
+        if (currentSessionId == null) {
+            // The session may have disconnected after it was looked up, it must not bring the player back then
+            if (!sessions.containsKey(sessionId)) {
+                players.remove(playerId, sessionId);
+                return false;
+            }
+
+            pendingChanges.put(playerId, true);
+        }
+        else if (!currentSessionId.equals(sessionId)) {
+            return false;
+        }
+
+        heartbeats.schedule(playerId, heartbeatTimeoutMillis, System.currentTimeMillis());
+        return true;
     }
 
     public String getSessionId(UUID playerId) {
@@ -29,4 +136,82 @@ public class OnlinePlayersService {
     public boolean isPlayerOnline(UUID playerId) {
         return players.containsKey(playerId);
     }
+
+    /**
+     * Get the IDs of all online players.
+     * @return List of online player IDs
+     */
+    public List<UUID> getOnlinePlayerIds() {
+        return new ArrayList<>(players.keySet());
+    }
+
+    /**
+     * Get the number of online players.
+     * @return The number of online players
+     */
+    public int getOnlinePlayersCount() {
+        return players.size();
+    }
+
+    /**
+     * Advance the heartbeat timer wheel and take the players who missed their heartbeats offline.
+     * Their sessions stay registered until they disconnect, so a late heartbeat brings them back online.
+     */
+    @Scheduled(fixedDelayString = "${chessmate.presence.tick-ms:100}")
+    public void expireMissedHeartbeats() {
+        heartbeats.advance(System.currentTimeMillis(), this::expirePlayer);
+    }
+
+    private void expirePlayer(UUID playerId) {
+        if (players.remove(playerId) != null) {
+            pendingChanges.put(playerId, false);
+            eventPublisher.publishEvent(new PlayerDisconnectedEvent(playerId));
+        }
+    }
+
+    /**
+     * Broadcast the presence changes collected since the last broadcast as a single delta message.
+     */
+    @Scheduled(fixedRateString = "${chessmate.presence.broadcast-interval-ms:500}")
+    public void broadcastPresenceChanges() {
+        if (pendingChanges.isEmpty()) {
+            return;
+        }
+
+        var online = new ArrayList<UUID>();
+        var offline = new ArrayList<UUID>();
+
+        for (var playerId : pendingChanges.keySet()) {
+            var isOnline = pendingChanges.remove(playerId);
+
+            if (isOnline == null) {
+                continue;
+            }
+
+            if (isOnline) {
+                online.add(playerId);
+            }
+            else {
+                offline.add(playerId);
+            }
+        }
+
+        simpMessagingTemplate.convertAndSend(PRESENCE_TOPIC, new PresenceDeltaDto(online, offline));
+    }
+
+    /**
+     * Merge two consecutive presence deltas into one, the later presence of a player wins.
+     * @param earlier The earlier delta
+     * @param later The later delta
+     * @return The merged delta
+     */
+    public static PresenceDeltaDto mergePresenceDeltas(PresenceDeltaDto earlier, PresenceDeltaDto later) {
+        var online = new LinkedHashSet<>(earlier.online());
+        var offline = new LinkedHashSet<>(earlier.offline());
+        later.online().forEach(offline::remove);
+        later.offline().forEach(online::remove);
+        online.addAll(later.online());
+        offline.addAll(later.offline());
+        return new PresenceDeltaDto(List.copyOf(online), List.copyOf(offline));
+    }
 }
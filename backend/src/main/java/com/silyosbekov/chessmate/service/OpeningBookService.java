@@ -0,0 +1,247 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.core.PolyglotBook;
+import com.silyosbekov.chessmate.core.PolyglotBookWriter;
+import com.silyosbekov.chessmate.dto.BookMoveDto;
+import com.silyosbekov.chessmate.dto.OpeningBookDto;
+import com.silyosbekov.chessmate.engine.Chess;
+import com.silyosbekov.chessmate.engine.Move;
+import com.silyosbekov.chessmate.engine.ZobristHash;
+import com.silyosbekov.chessmate.engine.option.MoveOptions;
+import com.silyosbekov.chessmate.model.GameStatus;
+import com.silyosbekov.chessmate.repository.GameRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * Opening book service, answers the book moves of a position from a memory-mapped Polyglot book.
+ * <p>
+ *     The book is built from the PGNs of the finished games. Each move of the first plies of a game is weighted
+ *     by the result for the side that played it, 2 for a win, 1 for a draw and 0 for a loss, and the weights of
+ *     the same move in the same position add up. The positions are keyed by {@link ZobristHash}. The built book
+ *     replaces the book file and is mapped again, lookups in progress keep using the previous mapping.
+ *     Book moves are matched against the legal moves of the position, a move of a colliding key is never returned.
+ * </p>
+ */
+@Service
+public class OpeningBookService {
+    private static final Logger logger = LoggerFactory.getLogger(OpeningBookService.class);
+    private static final Set<GameStatus> FINISHED_STATUSES = Set.of(GameStatus.COMPLETED, GameStatus.RESIGNED, GameStatus.DRAW);
+
+    private final GameRepository gameRepository;
+    private final Path bookPath;
+    private final int maxPlies;
+    private volatile PolyglotBook book;
+
+    public OpeningBookService(
+            GameRepository gameRepository,
+            @Value("${chessmate.opening-book.path:opening-book.bin}") String bookPath,
+            @Value("${chessmate.opening-book.max-plies:24}") int maxPlies)
+    {
+        this.gameRepository = gameRepository;
+        this.bookPath = Path.of(bookPath);
+        this.maxPlies = maxPlies;
+    }
+
+    /**
+     * Map the book file if it exists.
+     */
+    @PostConstruct
+    public void loadBook() {
+        if (!Files.exists(bookPath)) {
+            logger.info("No opening book at {}", bookPath.toAbsolutePath());
+            return;
+        }
+
+        try {
+            book = PolyglotBook.open(bookPath);
+            logger.info("Loaded opening book {} with {} entries", bookPath.toAbsolutePath(), book.getEntriesCount());
+        }
+        catch (IOException | IllegalArgumentException e) {
+            logger.error("Failed to load opening book {}", bookPath.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Get the book moves of the current position of a game.
+     * @param chess The game
+     * @return The book moves, the highest weight first, empty if the position is not in the book
+     */
+    public List<BookMoveDto> getBookMoves(Chess chess) {
+        var book = this.book;
+
+        if (book == null) {
+            return List.of();
+        }
+
+        var entries = book.find(ZobristHash.of(chess));
+
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        var legalMoves = new HashMap<Integer, Move>();
+
+        for (var move : chess.generateMoves()) {
+            legalMoves.put(encodeMove(move), move);
+        }
+
+        var bookMoves = new ArrayList<BookMoveDto>();
+
+        for (var entry : entries) {
+            var move = legalMoves.get(entry.move());
+
+            if (move != null) {
+                bookMoves.add(new BookMoveDto(move.getFrom(), move.getTo(), move.getPromotion(), move.getSan(), entry.weight()));
+            }
+        }
+
+        return bookMoves;
+    }
+
+    /**
+     * Pick a book move of the current position of a game at random, with the probability of its weight.
+     * @param chess The game
+     * @param random The source of randomness
+     * @return The book move, or empty if the position is not in the book
+     */
+    public Optional<BookMoveDto> pickBookMove(Chess chess, RandomGenerator random) {
+        var bookMoves = getBookMoves(chess);
+        var totalWeight = bookMoves.stream().mapToLong(BookMoveDto::weight).sum();
+
+        if (totalWeight == 0) {
+            return Optional.empty();
+        }
+
+        var target = random.nextLong(totalWeight);
+
+        for (var bookMove : bookMoves) {
+            target -= bookMove.weight();
+
+            if (target < 0) {
+                return Optional.of(bookMove);
+            }
+        }
+
+        throw new IllegalStateException("Book move weights changed while picking");
+    }
+
+    /**
+     * Build the book from the PGNs of the finished games and replace the book file.
+     * Games without moves, with an unknown result, from a custom position or with an invalid PGN are skipped.
+     * @return The summary of the built book
+     */
+    @Transactional(readOnly = true)
+    public OpeningBookDto buildBook() throws IOException {
+        var writer = new PolyglotBookWriter();
+        var gamesCount = 0;
+
+        try (var pgns = gameRepository.streamPgnByStatusIn(FINISHED_STATUSES)) {
+            for (var pgn : (Iterable<String>) pgns::iterator) {
+                if (addGame(writer, pgn)) {
+                    gamesCount++;
+                }
+            }
+        }
+
+        var directory = bookPath.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        var tempPath = Files.createTempFile(directory, "opening-book", ".tmp");
+
+        try {
+            var entriesCount = writer.write(tempPath);
+            Files.move(tempPath, bookPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            book = PolyglotBook.open(bookPath);
+            logger.info("Built opening book {} from {} games with {} entries", bookPath.toAbsolutePath(), gamesCount, entriesCount);
+            return new OpeningBookDto(gamesCount, writer.getPositionsCount(), entriesCount);
+        }
+        finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    /**
+     * Add the first moves of a game to the book.
+     * @return Whether the game was added
+     */
+    private boolean addGame(PolyglotBookWriter writer, String pgn) {
+        var game = new Chess();
+
+        try {
+            game.loadPgn(pgn, false, null);
+        }
+        catch (IllegalStateException | IllegalArgumentException e) {
+            logger.debug("Skipped invalid PGN in opening book", e);
+            return false;
+        }
+
+        var moves = game.history();
+        var result = game.header().getOrDefault("Result", "*");
+        int whiteWeight;
+        int blackWeight;
+
+        switch (result) {
+            case "1-0" -> {
+                whiteWeight = 2;
+                blackWeight = 0;
+            }
+            case "0-1" -> {
+                whiteWeight = 0;
+                blackWeight = 2;
+            }
+            case "1/2-1/2" -> {
+                whiteWeight = 1;
+                blackWeight = 1;
+            }
+            default -> {
+                return false;
+            }
+        }
+
+        // The replay starts from the standard position
+        if (moves.length == 0 || game.header().containsKey("FEN")) {
+            return false;
+        }
+
+        var replay = new Chess();
+
+        for (var ply = 0; ply < Math.min(moves.length, maxPlies); ply++) {
+            var move = moves[ply];
+            writer.add(ZobristHash.of(replay), encodeMove(move), ply % 2 == 0 ? whiteWeight : blackWeight);
+            replay.move(new MoveOptions(move.getFrom(), move.getTo(), null, move.getPromotion(), true));
+        }
+
+        return true;
+    }
+
+    /**
+     * Encode a move in the Polyglot move format, castling as the king moving to the square of its rook.
+     */
+    private static int encodeMove(Move move) {
+        var to = move.getTo();
+
+        if (move.getFlags().contains("k")) {
+            to = "h" + to.charAt(1);
+        }
+        else if (move.getFlags().contains("q")) {
+            to = "a" + to.charAt(1);
+        }
+
+        return PolyglotBook.encodeMove(move.getFrom(), to, move.getPromotion());
+    }
+}
@@ -0,0 +1,111 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.core.BoundedCache;
+import com.silyosbekov.chessmate.dto.PlayerSummaryDto;
+import com.silyosbekov.chessmate.mapper.PlayerMapper;
+import com.silyosbekov.chessmate.model.Player;
+import com.silyosbekov.chessmate.repository.PlayerRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Read-through cache of player summaries.
+ * Players rarely change, so their usernames and ratings are served from memory
+ * and the database is only queried on a cache miss.
+ */
+@Service
+public class PlayerCacheService {
+    private final PlayerRepository playerRepository;
+    private final BoundedCache<UUID, PlayerSummaryDto> cache;
+
+    public PlayerCacheService(
+            PlayerRepository playerRepository,
+            MeterRegistry meterRegistry,
+            @Value("${chessmate.player-cache.maximum-size:10000}") int maximumSize,
+            @Value("${chessmate.player-cache.ttl-ms:600000}") long ttlMillis)
+    {
+        this.playerRepository = playerRepository;
+        this.cache = new BoundedCache<>(maximumSize, ttlMillis);
+
+        FunctionCounter.builder("chessmate.player.cache.requests", cache, BoundedCache::getHitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("chessmate.player.cache.requests", cache, BoundedCache::getMissCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("chessmate.player.cache.evictions", cache, BoundedCache::getEvictionCount)
+                .register(meterRegistry);
+        Gauge.builder("chessmate.player.cache.size", cache, BoundedCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the summary of a player, loading it from the database on a cache miss.
+     * A summary loaded while the rating of the player is updated is not cached, as it may hold the previous rating.
+     * @param playerId The ID of the player
+     * @throws NoSuchElementException if the player does not exist
+     * @return The player summary
+     */
+    public PlayerSummaryDto getPlayer(UUID playerId) {
+        return cache.get(playerId, id -> playerRepository.findById(id)
+                .map(PlayerMapper::toSummaryDto)
+                .orElseThrow(() -> new NoSuchElementException("Player with ID '%s' does not exist".formatted(id))));
+    }
+
+    /**
+     * Get the summary of a player entity. Only the ID of the entity is read if the player is cached,
+     * an already loaded entity fills the cache without querying the database.
+     * @param player The player entity or an uninitialized proxy
+     * @return The player summary
+     */
+    public PlayerSummaryDto getPlayer(Player player) {
+        var summary = cache.get(player.getId());
+
+        if (summary != null) {
+            return summary;
+        }
+
+        if (Hibernate.isInitialized(player)) {
+            summary = PlayerMapper.toSummaryDto(player);
+            cache.put(player.getId(), summary);
+            return summary;
+        }
+
+        return getPlayer(player.getId());
+    }
+
+    /**
+     * Get a reference to the player entity to use in associations, without loading the entity.
+     * @param playerId The ID of the player
+     * @throws NoSuchElementException if the player does not exist
+     * @return The player reference
+     */
+    public Player getPlayerReference(UUID playerId) {
+        getPlayer(playerId);
+        return playerRepository.getReferenceById(playerId);
+    }
+
+    /**
+     * Update the cached rating of a player after the rating has been persisted.
+     * @param playerId The ID of the player
+     * @param elo The new rating of the player
+     */
+    public void updateElo(UUID playerId, int elo) {
+        cache.computeIfPresent(playerId, summary -> new PlayerSummaryDto(playerId, summary.username(), elo));
+    }
+
+    /**
+     * Remove a player from the cache, the next access loads the player from the database.
+     * @param playerId The ID of the player
+     */
+    public void invalidate(UUID playerId) {
+        cache.invalidate(playerId);
+    }
+}
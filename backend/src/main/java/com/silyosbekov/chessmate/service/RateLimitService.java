@@ -0,0 +1,133 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.core.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rate limit service, limits how fast a client may send to the STOMP destinations and the REST endpoints.
+ * <p>
+ *     Each limited destination has its own token bucket per client, see {@link RateLimiter}.
+ *     The limits are configured as destination=rate:burst, e.g. /app/match/move=10:20 or POST /api/games=1:5,
+ *     destinations without a limit are not limited. Rejected requests are counted per destination.
+ * </p>
+ */
+@Service
+public class RateLimitService {
+    private final Map<String, RateLimiter> stompLimiters;
+    private final Map<String, RateLimiter> restLimiters;
+    private final Map<String, Counter> rejectedCounters = new HashMap<>();
+
+    public RateLimitService(
+            MeterRegistry meterRegistry,
+            @Value("${chessmate.rate-limit.stomp:}") List<String> stompLimits,
+            @Value("${chessmate.rate-limit.rest:}") List<String> restLimits)
+    {
+        this.stompLimiters = parseLimits(stompLimits);
+        this.restLimiters = parseLimits(restLimits);
+
+        for (var destination : stompLimiters.keySet()) {
+            registerMeters(meterRegistry, "stomp", destination, stompLimiters.get(destination));
+        }
+        for (var destination : restLimiters.keySet()) {
+            registerMeters(meterRegistry, "rest", destination, restLimiters.get(destination));
+        }
+    }
+
+    /**
+     * Whether messages to a STOMP destination are limited.
+     * @param destination The destination of the message, e.g. /app/match/move
+     * @return True if the destination has a limit, otherwise false
+     */
+    public boolean isStompLimited(String destination) {
+        return destination != null && stompLimiters.containsKey(destination);
+    }
+
+    /**
+     * Take a permit for a STOMP message.
+     * @param destination The destination of the message, e.g. /app/match/move
+     * @param clientKey The client sending the message, e.g. its player or session ID
+     * @return True if the message is allowed, otherwise false
+     */
+    public boolean tryAcquireStomp(String destination, Object clientKey) {
+        return acquire(stompLimiters, destination, clientKey) == 0;
+    }
+
+    /**
+     * Take a permit for a REST request.
+     * @param endpoint The method and path of the request, e.g. POST /api/games
+     * @param clientKey The client sending the request, e.g. its principal or address
+     * @return 0 if the request is allowed, otherwise the seconds until the client may retry
+     */
+    public long acquireRest(String endpoint, Object clientKey) {
+        var waitNanos = acquire(restLimiters, endpoint, clientKey);
+        return waitNanos > 0 ? Math.ceilDiv(waitNanos, 1_000_000_000) : 0;
+    }
+
+    /**
+     * Forget the clients whose buckets are full, so closed sessions do not pile up.
+     */
+    @Scheduled(fixedDelayString = "${chessmate.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleClients() {
+        var now = System.nanoTime();
+        stompLimiters.values().forEach(limiter -> limiter.evictFull(now));
+        restLimiters.values().forEach(limiter -> limiter.evictFull(now));
+    }
+
+    private long acquire(Map<String, RateLimiter> limiters, String destination, Object clientKey) {
+        var limiter = destination != null ? limiters.get(destination) : null;
+
+        if (limiter == null || clientKey == null) {
+            return 0;
+        }
+
+        var waitNanos = limiter.acquire(clientKey, System.nanoTime());
+
+        if (waitNanos > 0) {
+            rejectedCounters.get(destination).increment();
+        }
+
+        return waitNanos;
+    }
+
+    private void registerMeters(MeterRegistry meterRegistry, String transport, String destination, RateLimiter limiter) {
+        rejectedCounters.put(destination, Counter.builder("chessmate.ratelimit.rejected")
+                .description("Requests rejected for exceeding the rate limit of their destination")
+                .tag("transport", transport)
+                .tag("destination", destination)
+                .register(meterRegistry));
+        Gauge.builder("chessmate.ratelimit.clients", limiter, RateLimiter::getKeysCount)
+                .description("Clients with a partially drained bucket")
+                .tag("transport", transport)
+                .tag("destination", destination)
+                .register(meterRegistry);
+    }
+
+    private static Map<String, RateLimiter> parseLimits(List<String> limits) {
+        var limiters = new HashMap<String, RateLimiter>();
+
+        for (var limit : limits) {
+            if (limit.isBlank()) {
+                continue;
+            }
+
+            var separatorIndex = limit.lastIndexOf('=');
+
+            if (separatorIndex <= 0) {
+                throw new IllegalArgumentException("Malformed rate limit '%s', expected destination=rate:burst".formatted(limit));
+            }
+
+            limiters.put(limit.substring(0, separatorIndex).trim(), RateLimiter.parse(limit.substring(separatorIndex + 1)));
+        }
+
+        return Map.copyOf(limiters);
+    }
+}
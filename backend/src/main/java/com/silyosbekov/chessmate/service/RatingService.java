@@ -0,0 +1,217 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.core.EloRating;
+import com.silyosbekov.chessmate.event.GameEndedEvent;
+import com.silyosbekov.chessmate.event.RatingChangedEvent;
+import com.silyosbekov.chessmate.model.Player;
+import com.silyosbekov.chessmate.model.PlayerColor;
+import com.silyosbekov.chessmate.repository.PlayerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Rating service, updates the Elo ratings of the players when ranked games end.
+ * <p>
+ *     Results are queued when the games end and applied in batches by a single scheduler thread,
+ *     so concurrent results of the same player never race. Within a batch the results are applied
+ *     in the order the games ended, the players are loaded with a single query and saved together.
+ *     A game's result is queued once, even if the game's end is published again.
+ * </p>
+ */
+@Service
+public class RatingService {
+    private static final Logger logger = LoggerFactory.getLogger(RatingService.class);
+
+    private final PlayerRepository playerRepository;
+    private final PlayerCacheService playerCacheService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int kFactor;
+    private final int batchSize;
+    private final Deque<GameResult> pendingResults = new ConcurrentLinkedDeque<>();
+    private final Set<UUID> pendingGameIds = ConcurrentHashMap.newKeySet();
+
+    public RatingService(
+            PlayerRepository playerRepository,
+            PlayerCacheService playerCacheService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${chessmate.rating.k-factor:32}") int kFactor,
+            @Value("${chessmate.rating.batch-size:500}") int batchSize)
+    {
+        this.playerRepository = playerRepository;
+        this.playerCacheService = playerCacheService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kFactor = kFactor;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Queue the result of an ended game. Only ranked games between registered players are rated.
+     * The result is queued once the game's transaction has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleGameEnded(GameEndedEvent event) {
+        var game = event.game();
+
+        if (!game.isRanked() || game.getWhitePlayer() == null || game.getBlackPlayer() == null) {
+            return;
+        }
+
+        if (!pendingGameIds.add(game.getId())) {
+            return;
+        }
+
+        var whiteScore = game.getWinnerPlayer() == null ? 0.5 : game.getWinnerPlayer() == PlayerColor.WHITE ? 1.0 : 0.0;
+        pendingResults.add(new GameResult(game.getId(), game.getWhitePlayerId(), game.getBlackPlayerId(), whiteScore));
+    }
+
+    /**
+     * Get the number of results waiting to be applied.
+     * @return The number of pending results
+     */
+    public int getPendingResultsCount() {
+        return pendingResults.size();
+    }
+
+    /**
+     * Apply the queued results in batches.
+     * The results of a batch that fails are applied one by one, see {@link #applyResultsOneByOne}.
+     */
+    @Scheduled(fixedDelayString = "${chessmate.rating.flush-interval-ms:1000}")
+    public void applyPendingResults() {
+        while (!pendingResults.isEmpty()) {
+            var batch = new ArrayList<GameResult>(Math.min(pendingResults.size(), batchSize));
+            GameResult result;
+
+            while (batch.size() < batchSize && (result = pendingResults.poll()) != null) {
+                batch.add(result);
+            }
+
+            try {
+                var changes = transactionTemplate.execute(status -> applyResults(batch));
+                publishChanges(changes);
+                batch.forEach(appliedResult -> pendingGameIds.remove(appliedResult.gameId()));
+            }
+            catch (RuntimeException e) {
+                logger.warn("Could not apply {} game results, applying them one by one", batch.size(), e);
+
+                if (!applyResultsOneByOne(batch)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply the results of a failed batch one by one, each in its own transaction.
+     * If at least one result is applied, the failing results are dropped, so a result that can never be applied
+     * does not block the others. If every result fails, e.g. while the database is unavailable,
+     * the batch is put back in its original order and retried on the next run.
+     * @return Whether at least one result was applied
+     */
+    private boolean applyResultsOneByOne(List<GameResult> batch) {
+        var failedResults = new ArrayList<GameResult>();
+
+        for (var result : batch) {
+            try {
+                var changes = transactionTemplate.execute(status -> applyResults(List.of(result)));
+                publishChanges(changes);
+            }
+            catch (RuntimeException e) {
+                failedResults.add(result);
+            }
+        }
+
+        if (failedResults.size() == batch.size()) {
+            for (var i = batch.size() - 1; i >= 0; i--) {
+                pendingResults.addFirst(batch.get(i));
+            }
+
+            logger.warn("Could not apply {} game results, retrying later", batch.size());
+            return false;
+        }
+
+        for (var result : failedResults) {
+            logger.error("Dropping the result of game {}, it could not be applied", result.gameId());
+        }
+
+        batch.forEach(result -> pendingGameIds.remove(result.gameId()));
+        return true;
+    }
+
+    /**
+     * Apply the results in order and save the players whose ratings have changed.
+     * @return The rating changes of the players
+     */
+    private List<RatingChangedEvent> applyResults(List<GameResult> results) {
+        var playerIds = new HashSet<UUID>();
+
+        for (var result : results) {
+            playerIds.add(result.whitePlayerId());
+            playerIds.add(result.blackPlayerId());
+        }
+
+        var players = playerRepository.findAllById(playerIds).stream()
+                .collect(Collectors.toMap(Player::getId, Function.identity()));
+        var oldRatings = new HashMap<UUID, Integer>();
+
+        for (var result : results) {
+            var whitePlayer = players.get(result.whitePlayerId());
+            var blackPlayer = players.get(result.blackPlayerId());
+
+            if (whitePlayer == null || blackPlayer == null) {
+                continue;
+            }
+
+            oldRatings.putIfAbsent(whitePlayer.getId(), whitePlayer.getElo());
+            oldRatings.putIfAbsent(blackPlayer.getId(), blackPlayer.getElo());
+
+            var change = EloRating.ratingChange(whitePlayer.getElo(), blackPlayer.getElo(), result.whiteScore(), kFactor);
+            whitePlayer.setElo(whitePlayer.getElo() + change);
+            blackPlayer.setElo(blackPlayer.getElo() - change);
+        }
+
+        var changes = new ArrayList<RatingChangedEvent>();
+        var changedPlayers = new ArrayList<Player>();
+
+        for (var entry : oldRatings.entrySet()) {
+            var player = players.get(entry.getKey());
+
+            if (player.getElo() != entry.getValue()) {
+                changedPlayers.add(player);
+                changes.add(new RatingChangedEvent(player.getId(), entry.getValue(), player.getElo()));
+            }
+        }
+
+        playerRepository.saveAll(changedPlayers);
+        return changes;
+    }
+
+    private void publishChanges(List<RatingChangedEvent> changes) {
+        for (var change : changes) {
+            playerCacheService.updateElo(change.playerId(), change.newElo());
+            eventPublisher.publishEvent(change);
+        }
+    }
+
+    /**
+     * @param whiteScore The score of the white player, 1 for a win, 0.5 for a draw and 0 for a loss
+     */
+    private record GameResult(UUID gameId, UUID whitePlayerId, UUID blackPlayerId, double whiteScore) {
+    }
+}
@@ -0,0 +1,425 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.dto.MoveDto;
+import com.silyosbekov.chessmate.dto.SpectatorFrameDto;
+import com.silyosbekov.chessmate.event.GameEndedEvent;
+import com.silyosbekov.chessmate.event.GameHandedOffEvent;
+import com.silyosbekov.chessmate.event.GameImportedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Spectator service, fans out the moves of games to their spectators.
+ * <p>
+ *     The spectators of a game are spread over a fixed number of shard topics, {@value #SPECTATE_TOPIC_PREFIX}{gameId}.{shard}.
+ *     Moves are only buffered on the thread that handles the move, the players get their moves right away.
+ *     A dedicated fan-out thread sends the buffered moves of each game as a single frame per shard on a fixed interval,
+ *     and spreads the shards of a game over the interval, so a game with thousands of spectators never floods
+ *     the outbound channel with one burst.
+ * </p>
+ * <p>
+ *     Only ongoing games with spectators are tracked. The snapshot is taken from the moves of the active game,
+ *     moves are buffered while the game has spectators, and the game is dropped once its last spectator leaves
+ *     or it ends.
+ * </p>
+ * <p>
+ *     The spectators of a game are counted on the cluster node owning the game, where its moves are recorded,
+ *     while their subscriptions are kept on the node they are connected to. When a game is handed off, the previous
+ *     owner sends its buffered moves and passes the spectator counts to the new owner, which buffers the moves
+ *     of the game in the meantime.
+ * </p>
+ */
+@Service
+public class SpectatorService {
+    public static final String SPECTATE_TOPIC_PREFIX = "/topic/spectate.";
+
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final MatchService matchService;
+    private final ClusterService clusterService;
+    private final int shardCount;
+    private final long flushIntervalNanos;
+    private final ScheduledExecutorService fanOutExecutor;
+    private final Map<UUID, SpectatedGame> games = new ConcurrentHashMap<>();
+
+    /**
+     * The spectator subscriptions of each session, by subscription ID
+     */
+    private final Map<String, Map<String, Subscription>> sessions = new ConcurrentHashMap<>();
+
+    public SpectatorService(
+            SimpMessagingTemplate simpMessagingTemplate,
+            MatchService matchService,
+            ClusterService clusterService,
+            @Value("${chessmate.spectator.shards:32}") int shardCount,
+            @Value("${chessmate.spectator.flush-interval-ms:250}") long flushIntervalMillis)
+    {
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.matchService = matchService;
+        this.clusterService = clusterService;
+        this.shardCount = shardCount;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+
+        // A single thread keeps the frames of every shard in order
+        this.fanOutExecutor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("spectator-fanout").daemon().factory());
+        this.fanOutExecutor.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers the handlers of the spectator counts, which are kept on the cluster node owning the game.
+     */
+    @PostConstruct
+    public void registerClusterHandlers() {
+        clusterService.registerHandler(AddSpectatorCommand.class, command -> addSpectator(command.gameId(), command.shard()));
+        clusterService.registerHandler(RemoveSpectatorCommand.class, command -> removeSpectator(command.gameId(), command.shard()));
+        clusterService.registerHandler(RestoreSpectatorsCommand.class, this::restoreSpectators);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdownNow();
+    }
+
+    /**
+     * Get the moves made so far in a game and assign the spectator to a shard.
+     * @param gameId The ID of the game
+     * @param sessionId The WebSocket session ID of the spectator
+     * @throws NoSuchElementException if the game is not ongoing on this node
+     * @return The moves of the game and the shard topic of the spectator
+     */
+    public Snapshot getSnapshot(UUID gameId, String sessionId) {
+        var moves = matchService.getActiveGameMoves(gameId);
+        var topic = topicOf(gameId, Math.floorMod(sessionId.hashCode(), shardCount));
+        return new Snapshot(moves, topic, getSpectatorsCount(gameId));
+    }
+
+    /**
+     * Buffer a move for the spectators of the game, the move is dropped if the game has no spectators.
+     * @param move The move
+     */
+    public void recordMove(MoveDto move) {
+        var game = games.get(move.gameId());
+
+        if (game == null) {
+            return;
+        }
+
+        synchronized (game) {
+            game.moves.add(move);
+            game.nextMoveIndex = move.ply() + 1;
+        }
+    }
+
+    /**
+     * Get the number of spectators of a game.
+     * @param gameId The ID of the game
+     * @return The number of spectators
+     */
+    public int getSpectatorsCount(UUID gameId) {
+        var game = games.get(gameId);
+        return game != null ? getSpectatorsCount(game) : 0;
+    }
+
+    @EventListener
+    public void handleGameEnded(GameEndedEvent event) {
+        var game = games.get(event.game().getId());
+
+        if (game != null) {
+            synchronized (game) {
+                game.status = event.game().getStatus().name();
+            }
+        }
+    }
+
+    @EventListener
+    public void handleSubscribe(SessionSubscribeEvent event) {
+        var headers = StompHeaderAccessor.wrap(event.getMessage());
+        var subscription = parseTopic(headers.getDestination());
+
+        if (subscription == null) {
+            return;
+        }
+
+        Boolean isSpectated = clusterService.route(subscription.gameId(), new AddSpectatorCommand(subscription.gameId(), subscription.shard()));
+
+        if (!isSpectated) {
+            return;
+        }
+
+        sessions.computeIfAbsent(headers.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(headers.getSubscriptionId(), subscription);
+    }
+
+    @EventListener
+    public void handleUnsubscribe(SessionUnsubscribeEvent event) {
+        var headers = StompHeaderAccessor.wrap(event.getMessage());
+        var subscriptions = sessions.get(headers.getSessionId());
+
+        if (subscriptions != null) {
+            removeSubscription(subscriptions.remove(headers.getSubscriptionId()));
+        }
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        var subscriptions = sessions.remove(event.getSessionId());
+
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::removeSubscription);
+        }
+    }
+
+    /**
+     * Buffer the moves of a game taken over from another node until the spectators of the previous owner are added.
+     */
+    @EventListener
+    public void handleGameImported(GameImportedEvent event) {
+        var gameId = event.game().getId();
+        var nextMoveIndex = matchService.getActiveGameMoves(gameId).size();
+        var spectatedGame = new SpectatedGame(shardCount, nextMoveIndex);
+        spectatedGame.isAwaitingSpectators = true;
+        games.putIfAbsent(gameId, spectatedGame);
+    }
+
+    /**
+     * Send the buffered moves of a game handed off to another node and pass its spectators to the new owner.
+     */
+    @EventListener
+    public void handleGameHandedOff(GameHandedOffEvent event) {
+        var game = games.remove(event.gameId());
+        var shardSpectators = new int[shardCount];
+
+        if (game != null) {
+            SpectatorFrameDto frame = null;
+
+            synchronized (game) {
+                if (!game.moves.isEmpty()) {
+                    frame = new SpectatorFrameDto(event.gameId(), game.moves.getFirst().ply(), List.copyOf(game.moves), null);
+                    game.moves.clear();
+                }
+            }
+
+            if (frame != null) {
+                sendToShards(event.gameId(), game, frame);
+            }
+
+            for (var shard = 0; shard < shardCount; shard++) {
+                shardSpectators[shard] = game.shardSpectators.get(shard);
+            }
+        }
+
+        clusterService.routeTo(event.ownerNodeId(), new RestoreSpectatorsCommand(event.gameId(), shardSpectators));
+    }
+
+    /**
+     * Send the buffered moves of every game to the shards that have spectators.
+     */
+    public void flush() {
+        for (var entry : games.entrySet()) {
+            var gameId = entry.getKey();
+            var game = entry.getValue();
+            SpectatorFrameDto frame;
+
+            synchronized (game) {
+                if (game.isAwaitingSpectators) {
+                    // The previous owner may have failed before passing its spectators
+                    if (!matchService.isActiveGame(gameId)) {
+                        games.remove(gameId, game);
+                    }
+
+                    continue;
+                }
+
+                if (game.moves.isEmpty() && game.status == null) {
+                    // The game may have ended before its first spectator was counted, or moved to another node
+                    if (!matchService.isActiveGame(gameId)) {
+                        games.remove(gameId, game);
+                    }
+
+                    continue;
+                }
+
+                var firstMoveIndex = game.moves.isEmpty() ? game.nextMoveIndex : game.moves.getFirst().ply();
+                frame = new SpectatorFrameDto(gameId, firstMoveIndex, List.copyOf(game.moves), game.status);
+                game.moves.clear();
+
+                if (game.status != null) {
+                    games.remove(gameId, game);
+                }
+            }
+
+            sendToShards(gameId, game, frame);
+        }
+    }
+
+    /**
+     * Send the frame to the shards with spectators, spread evenly over the flush interval.
+     */
+    private void sendToShards(UUID gameId, SpectatedGame game, SpectatorFrameDto frame) {
+        var activeShards = new ArrayList<Integer>();
+
+        for (var shard = 0; shard < shardCount; shard++) {
+            if (game.shardSpectators.get(shard) > 0) {
+                activeShards.add(shard);
+            }
+        }
+
+        if (activeShards.isEmpty()) {
+            return;
+        }
+
+        simpMessagingTemplate.convertAndSend(topicOf(gameId, activeShards.get(0)), frame);
+        var spacingNanos = flushIntervalNanos / activeShards.size();
+
+        for (var i = 1; i < activeShards.size(); i++) {
+            var topic = topicOf(gameId, activeShards.get(i));
+            fanOutExecutor.schedule(() -> simpMessagingTemplate.convertAndSend(topic, frame), i * spacingNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void removeSubscription(Subscription subscription) {
+        if (subscription != null) {
+            clusterService.route(subscription.gameId(), new RemoveSpectatorCommand(subscription.gameId(), subscription.shard()));
+        }
+    }
+
+    /**
+     * Count a spectator of a game owned by this node.
+     * @return True if the game is spectated, false if it is not ongoing on this node
+     */
+    private boolean addSpectator(UUID gameId, int shard) {
+        int nextMoveIndex;
+
+        try {
+            nextMoveIndex = matchService.getActiveGameMoves(gameId).size();
+        }
+        catch (NoSuchElementException e) {
+            // Only ongoing games are spectated
+            return false;
+        }
+
+        games.compute(gameId, (id, game) -> {
+            var spectatedGame = game != null ? game : new SpectatedGame(shardCount, nextMoveIndex);
+            spectatedGame.shardSpectators.incrementAndGet(shard);
+            return spectatedGame;
+        });
+
+        return true;
+    }
+
+    private Void removeSpectator(UUID gameId, int shard) {
+        // The game is dropped with its last spectator, its buffered moves are not needed anymore
+        games.computeIfPresent(gameId, (id, game) -> {
+            game.shardSpectators.decrementAndGet(shard);
+            return getSpectatorsCount(game) > 0 || game.isAwaitingSpectators ? game : null;
+        });
+
+        return null;
+    }
+
+    private Void restoreSpectators(RestoreSpectatorsCommand command) {
+        games.computeIfPresent(command.gameId(), (id, game) -> {
+            for (var shard = 0; shard < shardCount; shard++) {
+                game.shardSpectators.addAndGet(shard, command.shardSpectators()[shard]);
+            }
+
+            game.isAwaitingSpectators = false;
+            return getSpectatorsCount(game) > 0 ? game : null;
+        });
+
+        return null;
+    }
+
+    private int getSpectatorsCount(SpectatedGame game) {
+        var count = 0;
+
+        for (var shard = 0; shard < shardCount; shard++) {
+            count += game.shardSpectators.get(shard);
+        }
+
+        return count;
+    }
+
+    private Subscription parseTopic(String destination) {
+        if (destination == null || !destination.startsWith(SPECTATE_TOPIC_PREFIX)) {
+            return null;
+        }
+
+        var parts = destination.substring(SPECTATE_TOPIC_PREFIX.length()).split("\\.");
+
+        try {
+            var shard = Integer.parseInt(parts[1]);
+            return parts.length == 2 && shard >= 0 && shard < shardCount ? new Subscription(UUID.fromString(parts[0]), shard) : null;
+        }
+        catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static String topicOf(UUID gameId, int shard) {
+        return SPECTATE_TOPIC_PREFIX + gameId + "." + shard;
+    }
+
+    /**
+     * @param moves The moves made so far
+     * @param topic The shard topic of the spectator
+     * @param spectatorsCount The number of spectators of the game
+     */
+    public record Snapshot(List<MoveDto> moves, String topic, int spectatorsCount) {
+    }
+
+    private record Subscription(UUID gameId, int shard) {
+    }
+
+    private record AddSpectatorCommand(UUID gameId, int shard) {
+    }
+
+    private record RemoveSpectatorCommand(UUID gameId, int shard) {
+    }
+
+    /**
+     * @param gameId The ID of the game handed off
+     * @param shardSpectators The number of spectators of each shard on the previous owner
+     */
+    private record RestoreSpectatorsCommand(UUID gameId, int[] shardSpectators) {
+    }
+
+    /**
+     * Buffered moves and spectators of a game. The moves are guarded by the game's monitor.
+     */
+    private static final class SpectatedGame {
+        final List<MoveDto> moves = new ArrayList<>();
+        final AtomicIntegerArray shardSpectators;
+        int nextMoveIndex;
+        String status;
+
+        /**
+         * Whether the game was taken over from another node whose spectators are not added yet
+         */
+        volatile boolean isAwaitingSpectators;
+
+        SpectatedGame(int shardCount, int nextMoveIndex) {
+            this.shardSpectators = new AtomicIntegerArray(shardCount);
+            this.nextMoveIndex = nextMoveIndex;
+        }
+    }
+}
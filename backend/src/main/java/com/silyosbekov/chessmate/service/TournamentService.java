@@ -0,0 +1,523 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.core.SwissPairingEngine;
+import com.silyosbekov.chessmate.core.TimeControl;
+import com.silyosbekov.chessmate.dto.CreateTournamentCommand;
+import com.silyosbekov.chessmate.dto.TournamentDto;
+import com.silyosbekov.chessmate.dto.TournamentStandingDto;
+import com.silyosbekov.chessmate.event.GameEndedEvent;
+import com.silyosbekov.chessmate.event.RemoteGameEndedEvent;
+import com.silyosbekov.chessmate.mapper.GameMapper;
+import com.silyosbekov.chessmate.model.Game;
+import com.silyosbekov.chessmate.model.PlayerColor;
+import com.silyosbekov.chessmate.model.TournamentStatus;
+import com.silyosbekov.chessmate.model.TournamentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tournament service, runs Swiss and arena tournaments in memory on top of matched games.
+ * <p>
+ *     Swiss tournaments pair a round with {@link SwissPairingEngine} once all games of the previous round have ended.
+ *     Arena tournaments pair the waiting players on a fixed tick until the tournament ends, so players are paired
+ *     again as soon as they finish their games. The standings are kept sorted and updated incrementally
+ *     when a tournament game ends. Games are started the same way as matchmaking games.
+ * </p>
+ */
+@Service
+public class TournamentService {
+    private static final Logger logger = LoggerFactory.getLogger(TournamentService.class);
+
+    /**
+     * Standings order, by score, then by rating
+     */
+    private static final Comparator<Participant> STANDINGS_ORDER = Comparator
+            .comparingInt((Participant participant) -> participant.score).reversed()
+            .thenComparing(Comparator.comparingInt((Participant participant) -> participant.elo).reversed())
+            .thenComparing(participant -> participant.playerId);
+
+    private final MatchService matchService;
+    private final PlayerCacheService playerCacheService;
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final Map<UUID, Tournament> tournaments = new ConcurrentHashMap<>();
+
+    /**
+     * The tournament of each started tournament game
+     */
+    private final Map<UUID, Tournament> tournamentGames = new ConcurrentHashMap<>();
+
+    public TournamentService(
+            MatchService matchService,
+            PlayerCacheService playerCacheService,
+            SimpMessagingTemplate simpMessagingTemplate)
+    {
+        this.matchService = matchService;
+        this.playerCacheService = playerCacheService;
+        this.simpMessagingTemplate = simpMessagingTemplate;
+    }
+
+    /**
+     * Create a new tournament, players can join until it is started.
+     * @param command The tournament settings
+     * @throws IllegalArgumentException if the settings are invalid
+     * @return The created tournament
+     */
+    public TournamentDto createTournament(CreateTournamentCommand command) {
+        if (command.name() == null || command.name().isBlank() || command.type() == null) {
+            throw new IllegalArgumentException("Tournament name and type are required");
+        }
+        if (command.type() == TournamentType.SWISS && command.rounds() < 1) {
+            throw new IllegalArgumentException("Swiss tournament must have at least one round");
+        }
+        if (command.type() == TournamentType.ARENA && command.durationMinutes() < 1) {
+            throw new IllegalArgumentException("Arena tournament must last at least one minute");
+        }
+
+        var tournament = new Tournament(command.name(), command.type(), TimeControl.parse(command.timeControl()),
+                command.rounds(), command.durationMinutes());
+        tournaments.put(tournament.id, tournament);
+        return toDto(tournament);
+    }
+
+    public List<TournamentDto> getTournaments() {
+        return tournaments.values().stream().map(TournamentService::toDto).toList();
+    }
+
+    /**
+     * Get a tournament by its ID
+     * @param tournamentId The ID of the tournament
+     * @throws NoSuchElementException if the tournament does not exist
+     * @return The tournament
+     */
+    public TournamentDto getTournament(UUID tournamentId) {
+        return toDto(requireTournament(tournamentId));
+    }
+
+    /**
+     * Join a tournament. Players can join Swiss tournaments before they start,
+     * and arena tournaments until they end.
+     * @param tournamentId The ID of the tournament
+     * @param playerId The ID of the joining player
+     * @throws NoSuchElementException if the tournament or the player does not exist
+     * @throws IllegalStateException if the tournament can no longer be joined
+     */
+    public void joinTournament(UUID tournamentId, UUID playerId) {
+        var tournament = requireTournament(tournamentId);
+        var player = playerCacheService.getPlayer(playerId);
+
+        synchronized (tournament) {
+            var canJoin = tournament.status == TournamentStatus.OPEN
+                    || (tournament.type == TournamentType.ARENA && tournament.status == TournamentStatus.ONGOING);
+
+            if (!canJoin) {
+                throw new IllegalStateException("Tournament can no longer be joined");
+            }
+
+            if (tournament.participants.containsKey(playerId)) {
+                return;
+            }
+
+            var participant = new Participant(playerId, player.username(), player.elo());
+            tournament.participants.put(playerId, participant);
+            tournament.standings.add(participant);
+
+            if (tournament.status == TournamentStatus.ONGOING) {
+                tournament.waitingPlayers.add(playerId);
+            }
+        }
+    }
+
+    /**
+     * Start a tournament. Swiss tournaments pair the first round immediately,
+     * arena tournaments pair the players on the next tick.
+     * @param tournamentId The ID of the tournament
+     * @throws NoSuchElementException if the tournament does not exist
+     * @throws IllegalStateException if the tournament has already started or has less than two players
+     */
+    public void startTournament(UUID tournamentId) {
+        var tournament = requireTournament(tournamentId);
+        List<SwissPairingEngine.Pairing<UUID>> pairings = List.of();
+
+        synchronized (tournament) {
+            if (tournament.status != TournamentStatus.OPEN) {
+                throw new IllegalStateException("Tournament has already started");
+            }
+            if (tournament.participants.size() < 2) {
+                throw new IllegalStateException("Tournament needs at least two players");
+            }
+
+            tournament.status = TournamentStatus.ONGOING;
+
+            if (tournament.type == TournamentType.SWISS) {
+                pairings = pairNextSwissRound(tournament);
+            }
+            else {
+                tournament.endDate = Instant.now().plus(Duration.ofMinutes(tournament.durationMinutes));
+                tournament.waitingPlayers.addAll(tournament.participants.keySet());
+            }
+        }
+
+        startGames(tournament, pairings);
+    }
+
+    /**
+     * Get the standings of a tournament.
+     * @param tournamentId The ID of the tournament
+     * @param count The maximum number of players
+     * @throws NoSuchElementException if the tournament does not exist
+     * @return The standings, the leader first
+     */
+    public List<TournamentStandingDto> getStandings(UUID tournamentId, int count) {
+        var tournament = requireTournament(tournamentId);
+
+        synchronized (tournament) {
+            var standings = new ArrayList<TournamentStandingDto>(Math.min(count, tournament.standings.size()));
+
+            for (var participant : tournament.standings) {
+                if (standings.size() == count) {
+                    break;
+                }
+
+                standings.add(new TournamentStandingDto(
+                        standings.size() + 1,
+                        participant.playerId,
+                        participant.username,
+                        participant.elo,
+                        participant.score / 2.0,
+                        participant.gamesPlayed));
+            }
+
+            return standings;
+        }
+    }
+
+    /**
+     * Update the standings when a tournament game ends, and pair the next Swiss round once the round is over.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleGameEnded(GameEndedEvent event) {
+        handleTournamentGameEnded(event.game());
+    }
+
+    /**
+     * Handle the end of a tournament game handed off to another node of the cluster.
+     */
+    @EventListener
+    public void handleRemoteGameEnded(RemoteGameEndedEvent event) {
+        handleTournamentGameEnded(event.game());
+    }
+
+    private void handleTournamentGameEnded(Game game) {
+        var tournament = tournamentGames.remove(game.getId());
+
+        if (tournament == null) {
+            return;
+        }
+
+        List<SwissPairingEngine.Pairing<UUID>> pairings = List.of();
+
+        synchronized (tournament) {
+            var white = tournament.participants.get(game.getWhitePlayerId());
+            var black = tournament.participants.get(game.getBlackPlayerId());
+            var winPoints = tournament.type == TournamentType.SWISS ? 2 : 4;
+
+            if (game.getWinnerPlayer() == PlayerColor.WHITE) {
+                addScore(tournament, white, winPoints);
+                addScore(tournament, black, 0);
+            }
+            else if (game.getWinnerPlayer() == PlayerColor.BLACK) {
+                addScore(tournament, white, 0);
+                addScore(tournament, black, winPoints);
+            }
+            else {
+                addScore(tournament, white, winPoints / 2);
+                addScore(tournament, black, winPoints / 2);
+            }
+
+            tournament.pendingGames.remove(game.getId());
+
+            if (tournament.type == TournamentType.ARENA && tournament.status == TournamentStatus.ONGOING) {
+                tournament.waitingPlayers.add(white.playerId);
+                tournament.waitingPlayers.add(black.playerId);
+            }
+            else if (tournament.type == TournamentType.SWISS && tournament.pendingGames.isEmpty() && !tournament.isStartingGames) {
+                pairings = completeSwissRound(tournament);
+            }
+        }
+
+        startGames(tournament, pairings);
+    }
+
+    /**
+     * Pair the waiting players of the ongoing arena tournaments and finish the tournaments that have ended.
+     */
+    @Scheduled(fixedDelayString = "${chessmate.tournament.arena-tick-ms:1000}")
+    public void pairArenaPlayers() {
+        var now = Instant.now();
+
+        for (var tournament : tournaments.values()) {
+            if (tournament.type != TournamentType.ARENA) {
+                continue;
+            }
+
+            List<SwissPairingEngine.Pairing<UUID>> pairings;
+
+            synchronized (tournament) {
+                if (tournament.status != TournamentStatus.ONGOING) {
+                    continue;
+                }
+
+                if (!now.isBefore(tournament.endDate)) {
+                    tournament.status = TournamentStatus.COMPLETED;
+                    tournament.waitingPlayers.clear();
+                    continue;
+                }
+
+                pairings = pairArenaRound(tournament);
+            }
+
+            startGames(tournament, pairings);
+        }
+    }
+
+    /**
+     * Pair the waiting arena players by their standings, avoiding an immediate rematch.
+     */
+    private static List<SwissPairingEngine.Pairing<UUID>> pairArenaRound(Tournament tournament) {
+        if (tournament.waitingPlayers.size() < 2) {
+            return List.of();
+        }
+
+        var waiting = new ArrayList<Participant>(tournament.waitingPlayers.size());
+
+        for (var participant : tournament.standings) {
+            if (tournament.waitingPlayers.contains(participant.playerId)) {
+                waiting.add(participant);
+            }
+        }
+
+        var pairings = new ArrayList<SwissPairingEngine.Pairing<UUID>>(waiting.size() / 2);
+        var i = 0;
+
+        while (i + 1 < waiting.size()) {
+            var player = waiting.get(i);
+            var opponentIndex = i + 1;
+
+            if (player.playerId.equals(waiting.get(opponentIndex).lastOpponent) && opponentIndex + 1 < waiting.size()) {
+                Collections.swap(waiting, opponentIndex, opponentIndex + 1);
+            }
+
+            var opponent = waiting.get(opponentIndex);
+            var isPlayerWhite = player.colourBalance <= opponent.colourBalance;
+            pairings.add(isPlayerWhite
+                    ? new SwissPairingEngine.Pairing<>(player.playerId, opponent.playerId)
+                    : new SwissPairingEngine.Pairing<>(opponent.playerId, player.playerId));
+            i += 2;
+        }
+
+        for (var pairing : pairings) {
+            tournament.waitingPlayers.remove(pairing.white());
+            tournament.waitingPlayers.remove(pairing.black());
+            recordPairing(tournament, pairing);
+        }
+
+        return pairings;
+    }
+
+    /**
+     * Pair the next Swiss round or complete the tournament after the last round.
+     */
+    private static List<SwissPairingEngine.Pairing<UUID>> completeSwissRound(Tournament tournament) {
+        if (tournament.currentRound >= tournament.rounds) {
+            tournament.status = TournamentStatus.COMPLETED;
+            return List.of();
+        }
+
+        return pairNextSwissRound(tournament);
+    }
+
+    private static List<SwissPairingEngine.Pairing<UUID>> pairNextSwissRound(Tournament tournament) {
+        tournament.currentRound++;
+        var players = new ArrayList<SwissPairingEngine.Player<UUID>>(tournament.participants.size());
+
+        for (var participant : tournament.participants.values()) {
+            players.add(new SwissPairingEngine.Player<>(
+                    participant.playerId,
+                    participant.score,
+                    participant.elo,
+                    participant.colourBalance,
+                    participant.lastColour,
+                    participant.opponents,
+                    participant.hadBye));
+        }
+
+        var round = SwissPairingEngine.pair(players);
+
+        if (round.byePlayer() != null) {
+            var participant = tournament.participants.get(round.byePlayer());
+            participant.hadBye = true;
+            addScore(tournament, participant, 2);
+        }
+
+        for (var pairing : round.pairings()) {
+            recordPairing(tournament, pairing);
+        }
+
+        return round.pairings();
+    }
+
+    private static void recordPairing(Tournament tournament, SwissPairingEngine.Pairing<UUID> pairing) {
+        var white = tournament.participants.get(pairing.white());
+        var black = tournament.participants.get(pairing.black());
+        white.opponents.add(black.playerId);
+        white.lastOpponent = black.playerId;
+        white.lastColour = PlayerColor.WHITE;
+        white.colourBalance++;
+        black.opponents.add(white.playerId);
+        black.lastOpponent = white.playerId;
+        black.lastColour = PlayerColor.BLACK;
+        black.colourBalance--;
+    }
+
+    /**
+     * Add points to a player and move the player to the new position in the standings.
+     * @param points The points in half points
+     */
+    private static void addScore(Tournament tournament, Participant participant, int points) {
+        tournament.standings.remove(participant);
+        participant.score += points;
+        participant.gamesPlayed++;
+        tournament.standings.add(participant);
+    }
+
+    /**
+     * Start the games of the pairings outside the tournament lock.
+     */
+    private void startGames(Tournament tournament, List<SwissPairingEngine.Pairing<UUID>> pairings) {
+        if (pairings.isEmpty()) {
+            return;
+        }
+
+        synchronized (tournament) {
+            tournament.isStartingGames = true;
+        }
+
+        var timeControl = tournament.timeControl.toPgn();
+
+        for (var pairing : pairings) {
+            try {
+                // The game is tracked before it starts, so its end is never missed
+                var game = matchService.startMatchedGame(pairing.white(), pairing.black(), timeControl, gameId -> {
+                    synchronized (tournament) {
+                        tournament.pendingGames.add(gameId);
+                        tournamentGames.put(gameId, tournament);
+                    }
+                });
+
+                simpMessagingTemplate.convertAndSend(MatchmakingService.MATCH_JOIN_TOPIC, GameMapper.toDto(game, playerCacheService::getPlayer));
+            }
+            catch (RuntimeException e) {
+                logger.warn("Could not start the tournament game of players {} and {}", pairing.white(), pairing.black(), e);
+            }
+        }
+
+        List<SwissPairingEngine.Pairing<UUID>> nextPairings = List.of();
+
+        synchronized (tournament) {
+            tournament.isStartingGames = false;
+
+            // Every game of the round has ended while the games were being started, or none could be started
+            if (tournament.type == TournamentType.SWISS && tournament.pendingGames.isEmpty()) {
+                nextPairings = completeSwissRound(tournament);
+            }
+        }
+
+        startGames(tournament, nextPairings);
+    }
+
+    private Tournament requireTournament(UUID tournamentId) {
+        var tournament = tournaments.get(tournamentId);
+
+        if (tournament == null) {
+            throw new NoSuchElementException("Tournament with ID '%s' does not exist".formatted(tournamentId));
+        }
+
+        return tournament;
+    }
+
+    private static TournamentDto toDto(Tournament tournament) {
+        synchronized (tournament) {
+            return new TournamentDto(
+                    tournament.id,
+                    tournament.name,
+                    tournament.type,
+                    tournament.status,
+                    tournament.timeControl.toString(),
+                    tournament.rounds,
+                    tournament.currentRound,
+                    tournament.durationMinutes,
+                    tournament.participants.size(),
+                    tournament.endDate);
+        }
+    }
+
+    /**
+     * In-memory state of a tournament, guarded by the tournament's monitor.
+     */
+    private static final class Tournament {
+        final UUID id = UUID.randomUUID();
+        final String name;
+        final TournamentType type;
+        final TimeControl timeControl;
+        final int rounds;
+        final int durationMinutes;
+        final Map<UUID, Participant> participants = new HashMap<>();
+        final NavigableSet<Participant> standings = new TreeSet<>(STANDINGS_ORDER);
+        final Set<UUID> pendingGames = new HashSet<>();
+        final Set<UUID> waitingPlayers = new HashSet<>();
+        TournamentStatus status = TournamentStatus.OPEN;
+        int currentRound;
+        Instant endDate;
+        boolean isStartingGames;
+
+        Tournament(String name, TournamentType type, TimeControl timeControl, int rounds, int durationMinutes) {
+            this.name = name;
+            this.type = type;
+            this.timeControl = timeControl;
+            this.rounds = rounds;
+            this.durationMinutes = durationMinutes;
+        }
+    }
+
+    /**
+     * A player of a tournament. The score is kept in half points.
+     */
+    private static final class Participant {
+        final UUID playerId;
+        final String username;
+        final int elo;
+        final Set<UUID> opponents = new HashSet<>();
+        int score;
+        int gamesPlayed;
+        int colourBalance;
+        PlayerColor lastColour;
+        UUID lastOpponent;
+        boolean hadBye;
+
+        Participant(UUID playerId, String username, int elo) {
+            this.playerId = playerId;
+            this.username = username;
+            this.elo = elo;
+        }
+    }
+}
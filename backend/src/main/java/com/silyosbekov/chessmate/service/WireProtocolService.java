@@ -0,0 +1,216 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.core.MoveCodec;
+import com.silyosbekov.chessmate.dto.GameHandleDto;
+import com.silyosbekov.chessmate.dto.MakeMoveCommand;
+import com.silyosbekov.chessmate.dto.MoveAckDto;
+import com.silyosbekov.chessmate.dto.MoveDto;
+import com.silyosbekov.chessmate.event.GameCancelledEvent;
+import com.silyosbekov.chessmate.event.GameEndedEvent;
+import com.silyosbekov.chessmate.event.GameHandedOffEvent;
+import com.silyosbekov.chessmate.event.GameImportedEvent;
+import com.silyosbekov.chessmate.event.GameJoinedEvent;
+import com.silyosbekov.chessmate.model.PlayerColor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wire protocol service, publishes moves in the encodings negotiated by the connections.
+ * <p>
+ *     Every connection receives JSON on {@value #MOVES_TOPIC}. Binary connections subscribe to the binary topic
+ *     of the node owning their game, {@value #BINARY_MOVES_TOPIC}.{nodeId}, where moves are sent as {@link MoveCodec}
+ *     frames that refer to games by a small integer handle instead of repeating the game and player IDs.
+ *     Each message is encoded once per encoding, not per connection.
+ * </p>
+ * <p>
+ *     Handles are assigned by the node owning the game, when the game starts or is handed off to the node,
+ *     and are only unique on that node. A handle is announced on {@value #HANDLE_TOPIC} together with the node,
+ *     binary move commands carry the node in the {@value #NODE_HEADER} header and are decoded there.
+ *     The handle is released when the game ends or is handed off to another node, which announces a new handle.
+ * </p>
+ */
+@Service
+public class WireProtocolService {
+    public static final String NODE_HEADER = "chessmate-node";
+    public static final String MOVES_TOPIC = "/topic/match.moveReceived";
+    public static final String BINARY_MOVES_TOPIC = "/topic/match.moveReceived.bin";
+    public static final String HANDLE_TOPIC = "/topic/match.handle";
+
+    private static final Map<String, Object> BINARY_HEADERS = Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_OCTET_STREAM);
+
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final ClusterService clusterService;
+    private final String binaryMovesTopic;
+    private final Map<UUID, Integer> handles = new ConcurrentHashMap<>();
+    private final Map<Integer, UUID> gameIds = new ConcurrentHashMap<>();
+
+    /**
+     * Released handles are reused, so handles stay small and fit in one or two varint bytes
+     */
+    private final Queue<Integer> freeHandles = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger nextHandle = new AtomicInteger();
+
+    public WireProtocolService(SimpMessagingTemplate simpMessagingTemplate, ClusterService clusterService) {
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.clusterService = clusterService;
+        this.binaryMovesTopic = BINARY_MOVES_TOPIC + "." + clusterService.getNodeId();
+    }
+
+    /**
+     * Send moves applied together in a game owned by this node to the JSON and binary subscribers.
+     * @param moves The moves in ply order
+     */
+    public void publishMoves(List<MoveDto> moves) {
+        if (moves.isEmpty()) {
+            return;
+        }
+
+        simpMessagingTemplate.convertAndSend(MOVES_TOPIC, moves);
+        var handle = handles.get(moves.get(0).gameId());
+
+        if (handle == null) {
+            return;
+        }
+
+        var frame = MoveCodec.encode(handle, moves.get(0).ply(), toCodecMoves(moves));
+        simpMessagingTemplate.convertAndSend(binaryMovesTopic, frame, BINARY_HEADERS);
+    }
+
+    /**
+     * Decode a binary move command holding a single move, on the node that assigned its handle.
+     * @param data The encoded frame
+     * @return The handle of the frame and the move command
+     * @throws IllegalArgumentException if the frame is malformed or does not hold a single move
+     * @throws NoSuchElementException if the handle does not belong to a game owned by this node
+     */
+    public DecodedMoveCommand decodeMoveCommand(byte[] data) {
+        var frame = MoveCodec.decode(data);
+
+        if (frame.moves().size() != 1) {
+            throw new IllegalArgumentException("Move command must hold a single move");
+        }
+
+        var gameId = gameIds.get(frame.handle());
+
+        if (gameId == null) {
+            throw new NoSuchElementException("Game with handle %d does not exist".formatted(frame.handle()));
+        }
+
+        var move = frame.moves().get(0);
+        var color = frame.firstPly() % 2 == 0 ? PlayerColor.WHITE : PlayerColor.BLACK;
+        var command = new MakeMoveCommand(gameId, color, frame.firstPly(), move.from(), move.to(), move.promotion(), false, false);
+        return new DecodedMoveCommand(frame.handle(), command);
+    }
+
+    /**
+     * Encode the acknowledgement of a binary move command.
+     * @param handle The handle of the command's frame, the game may have ended and released it in the meantime
+     * @param ack The acknowledgement
+     * @return The encoded acknowledgement frame
+     */
+    public byte[] encodeMoveAck(int handle, MoveAckDto ack) {
+        return MoveCodec.encodeAck(handle, ack.requestedPly(), ack.status().ordinal(), ack.ply(), toCodecMoves(ack.moves()));
+    }
+
+    /**
+     * Get the handle of an ongoing game owned by this node.
+     * @param gameId The ID of the game
+     * @return The handle
+     * @throws NoSuchElementException if the game is not ongoing on this node
+     */
+    public GameHandleDto getHandle(UUID gameId) {
+        var handle = handles.get(gameId);
+
+        if (handle == null) {
+            throw new NoSuchElementException("Game with ID '%s' does not exist".formatted(gameId));
+        }
+
+        return toDto(gameId, handle);
+    }
+
+    /**
+     * Assign the handle of a started game on its owner, a game started on another node gets its handle when it is
+     * handed off to its owner.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleGameJoined(GameJoinedEvent event) {
+        var gameId = event.game().getId();
+
+        if (clusterService.isOwner(gameId)) {
+            assignHandle(gameId);
+        }
+    }
+
+    @EventListener
+    public void handleGameImported(GameImportedEvent event) {
+        assignHandle(event.game().getId());
+    }
+
+    @EventListener
+    public void handleGameEnded(GameEndedEvent event) {
+        releaseHandle(event.game().getId());
+    }
+
+    @EventListener
+    public void handleGameCancelled(GameCancelledEvent event) {
+        releaseHandle(event.game().getId());
+    }
+
+    @EventListener
+    public void handleGameHandedOff(GameHandedOffEvent event) {
+        releaseHandle(event.gameId());
+    }
+
+    private void assignHandle(UUID gameId) {
+        var freeHandle = freeHandles.poll();
+        var handle = freeHandle != null ? freeHandle : nextHandle.getAndIncrement();
+        var previousHandle = handles.putIfAbsent(gameId, handle);
+
+        if (previousHandle != null) {
+            freeHandles.add(handle);
+            return;
+        }
+
+        gameIds.put(handle, gameId);
+        simpMessagingTemplate.convertAndSend(HANDLE_TOPIC, toDto(gameId, handle));
+    }
+
+    private void releaseHandle(UUID gameId) {
+        var handle = handles.remove(gameId);
+
+        if (handle != null) {
+            gameIds.remove(handle);
+            freeHandles.add(handle);
+        }
+    }
+
+    private GameHandleDto toDto(UUID gameId, int handle) {
+        return new GameHandleDto(gameId, handle, clusterService.getNodeId(), binaryMovesTopic);
+    }
+
+    private static List<MoveCodec.Move> toCodecMoves(List<MoveDto> moves) {
+        return moves.stream()
+                .map(move -> new MoveCodec.Move(move.from(), move.to(), move.promotion(), move.isCheckmate(), move.isStalemate()))
+                .toList();
+    }
+
+    /**
+     * @param handle The handle of the frame
+     * @param command The decoded move command
+     */
+    public record DecodedMoveCommand(int handle, MakeMoveCommand command) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.silyosbekov.chessmate.configuration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silyosbekov.chessmate.Application;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs two nodes of the application in broker relay mode against an embedded STOMP broker, the way the nodes
+ * of a cluster share the topics. Events are published with the {@link SimpMessagingTemplate} of one node
+ * and received by WebSocket clients connected to the other nodes.
+ * <p>
+ *     The events per second a node publishes through the relay are measured by the load test with
+ *     {@code --relay=host:port}, not by this test.
+ * </p>
+ */
+class BrokerRelayTest {
+    private static final String TOPIC = "/topic/match.state";
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private static EmbeddedActiveMQ broker;
+    private static ConfigurableApplicationContext publisherNode;
+    private static ConfigurableApplicationContext subscriberNode;
+
+    private final List<StompSession> sessions = new ArrayList<>();
+
+    @BeforeAll
+    static void startNodes() throws Exception {
+        int brokerPort;
+
+        try (var socket = new ServerSocket(0)) {
+            brokerPort = socket.getLocalPort();
+        }
+
+        // Destinations under /topic/ are multicast, every subscriber receives each message like with the simple broker
+        var configuration = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("stomp", "tcp://localhost:%d?protocols=STOMP;multicastPrefix=/topic/".formatted(brokerPort));
+
+        broker = new EmbeddedActiveMQ().setConfiguration(configuration).start();
+        publisherNode = startNode("node-a", brokerPort);
+        subscriberNode = startNode("node-b", brokerPort);
+    }
+
+    @AfterAll
+    static void stopNodes() throws Exception {
+        if (publisherNode != null) {
+            publisherNode.close();
+        }
+
+        if (subscriberNode != null) {
+            subscriberNode.close();
+        }
+
+        broker.stop();
+    }
+
+    @AfterEach
+    void disconnect() {
+        sessions.forEach(StompSession::disconnect);
+    }
+
+    @Test
+    void convertAndSendShouldDeliverMessageToSubscriberOfAnotherNode() throws Exception {
+        // Arrange
+        var frames = subscribe(subscriberNode, TOPIC);
+
+        // Act
+        publisherNode.getBean("brokerMessagingTemplate", SimpMessagingTemplate.class)
+                .convertAndSend(TOPIC, Map.of("version", 1));
+
+        // Assert
+        var frame = frames.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertNotNull(frame, "No message received on the subscriber's node");
+        assertEquals(1, frame.path("version").asInt());
+    }
+
+    @Test
+    void convertAndSendShouldDeliverMessageToSubscribersOfEveryNode() throws Exception {
+        // Arrange
+        var publisherNodeFrames = subscribe(publisherNode, TOPIC);
+        var subscriberNodeFrames = subscribe(subscriberNode, TOPIC);
+
+        // Act
+        subscriberNode.getBean("brokerMessagingTemplate", SimpMessagingTemplate.class)
+                .convertAndSend(TOPIC, Map.of("version", 2));
+
+        // Assert
+        for (var frames : List.of(publisherNodeFrames, subscriberNodeFrames)) {
+            var frame = frames.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            assertNotNull(frame, "No message received on one of the nodes");
+            assertEquals(2, frame.path("version").asInt());
+        }
+    }
+
+    /**
+     * Start a node on a random port with an in-memory database, relaying the topics to the embedded broker.
+     * The node is returned once its relay has connected to the broker.
+     */
+    private static ConfigurableApplicationContext startNode(String nodeId, int brokerPort) throws InterruptedException {
+        var context = SpringApplication.run(Application.class,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1".formatted(nodeId),
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--chessmate.cluster.node-id=" + nodeId,
+                "--chessmate.broker.relay.enabled=true",
+                "--chessmate.broker.relay.host=localhost",
+                "--chessmate.broker.relay.port=" + brokerPort);
+
+        var relay = context.getBean(StompBrokerRelayMessageHandler.class);
+        var deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+
+        while (!relay.isBrokerAvailable()) {
+            if (System.currentTimeMillis() > deadline) {
+                context.close();
+                throw new IllegalStateException("Broker relay of %s did not connect to the broker".formatted(nodeId));
+            }
+
+            Thread.sleep(20);
+        }
+
+        return context;
+    }
+
+    /**
+     * Connect a WebSocket client to a node and subscribe to a topic.
+     * Returns once the broker has acknowledged the subscription with a receipt.
+     * @return The payloads of the received messages
+     */
+    private BlockingQueue<JsonNode> subscribe(ConfigurableApplicationContext node, String destination) throws Exception {
+        var port = ((WebServerApplicationContext) node).getWebServer().getPort();
+        var stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        var messageConverter = new MappingJackson2MessageConverter();
+        messageConverter.setObjectMapper(new ObjectMapper());
+        stompClient.setMessageConverter(messageConverter);
+
+        var session = stompClient.connectAsync("ws://localhost:%d/ws".formatted(port), new StompSessionHandlerAdapter() {})
+                .get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        sessions.add(session);
+        session.setAutoReceipt(true);
+
+        var frames = new LinkedBlockingQueue<JsonNode>();
+        var subscribed = new CompletableFuture<Void>();
+        var subscription = session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return JsonNode.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                frames.add((JsonNode) payload);
+            }
+        });
+
+        subscription.addReceiptTask(() -> subscribed.complete(null));
+        subscribed.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        return frames;
+    }
+}
@@ -0,0 +1,56 @@
+package com.silyosbekov.chessmate.configuration;
+
+import com.silyosbekov.chessmate.jfr.MoveEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderConfigTest {
+
+    @Test
+    void stopRecording_ShouldDumpCommittedEvents_WhenEnabled() throws Exception {
+        // Arrange
+        var destination = Files.createTempFile("chessmate", ".jfr");
+        var config = new FlightRecorderConfig(true, 0, 5, destination.toString());
+        config.startRecording();
+
+        // Act
+        var event = new MoveEvent();
+        event.begin();
+        event.gameId = "game-1";
+        event.ply = 3;
+        event.status = "ACCEPTED";
+        event.commit();
+        config.stopRecording();
+
+        // Assert
+        var events = RecordingFile.readAllEvents(destination).stream()
+                .filter(recordedEvent -> recordedEvent.getEventType().getName().equals("chessmate.Move"))
+                .toList();
+
+        assertEquals(1, events.size());
+        assertEquals("game-1", events.getFirst().getString("gameId"));
+        assertEquals(3, events.getFirst().getInt("ply"));
+        Files.delete(destination);
+    }
+
+    @Test
+    void startRecording_ShouldNotRecord_WhenDisabled() throws Exception {
+        // Arrange
+        var destination = Files.createTempFile("chessmate", ".jfr");
+        var config = new FlightRecorderConfig(false, 0, 5, destination.toString());
+
+        // Act
+        config.startRecording();
+        var event = new MoveEvent();
+
+        // Assert
+        assertFalse(event.isEnabled());
+        config.stopRecording();
+        assertEquals(0, Files.size(destination));
+        Files.delete(destination);
+    }
+}
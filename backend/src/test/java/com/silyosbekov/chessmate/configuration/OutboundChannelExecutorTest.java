@@ -0,0 +1,136 @@
+package com.silyosbekov.chessmate.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OutboundChannelExecutorTest {
+    private static final String STATE_TOPIC = "/topic/match.state";
+    private static final String PRESENCE_TOPIC = "/topic/presence";
+
+    private OutboundChannelExecutor executor;
+    private ExecutorSubscribableChannel channel;
+    private BlockingQueue<String> handledPayloads;
+    private BlockingQueue<String> interceptedPayloads;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = new OutboundChannelExecutor(new SimpleMeterRegistry(), 1 << 20, 10_000, Map.of(
+                PRESENCE_TOPIC, OutboundChannelExecutorTest::concat));
+
+        handledPayloads = new LinkedBlockingQueue<>();
+        interceptedPayloads = new LinkedBlockingQueue<>();
+        release = new CountDownLatch(1);
+
+        // Registered like in WebSocketConfig, the executor first
+        channel = new ExecutorSubscribableChannel(executor);
+        channel.setInterceptors(List.<ChannelInterceptor>of(executor, new ExecutorChannelInterceptor() {
+            @Override
+            public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+                interceptedPayloads.add(payloadOf(message));
+                return message;
+            }
+        }));
+
+        // The first message blocks the session's sends, the following ones wait in its queue
+        channel.subscribe(message -> {
+            awaitRelease();
+            handledPayloads.add(payloadOf(message));
+        });
+
+        var session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("session-1");
+        executor.decorate(mock(WebSocketHandler.class)).afterConnectionEstablished(session);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void send_ShouldPassCoalescedMessageThroughChannelInterceptors() throws InterruptedException {
+        // Arrange
+        channel.send(message(STATE_TOPIC, "state"));
+        channel.send(message(PRESENCE_TOPIC, "presence-1"));
+        channel.send(message(PRESENCE_TOPIC, "presence-2"));
+
+        // Act
+        release.countDown();
+
+        // Assert
+        assertEquals("state", handledPayloads.poll(5, TimeUnit.SECONDS));
+        assertEquals("presence-1+presence-2", handledPayloads.poll(5, TimeUnit.SECONDS));
+        assertNull(handledPayloads.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(List.of("state", "presence-1+presence-2"), List.copyOf(interceptedPayloads));
+    }
+
+    @Test
+    void send_ShouldPassEachMessageThroughChannelInterceptors_WhenNotCoalesced() throws InterruptedException {
+        // Arrange
+        channel.send(message(STATE_TOPIC, "state-1"));
+        channel.send(message(PRESENCE_TOPIC, "presence-1"));
+        channel.send(message(STATE_TOPIC, "state-2"));
+
+        // Act
+        release.countDown();
+
+        // Assert
+        for (var payload : List.of("state-1", "presence-1", "state-2")) {
+            assertEquals(payload, handledPayloads.poll(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(List.of("state-1", "presence-1", "state-2"), List.copyOf(interceptedPayloads));
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Message<byte[]> message(String destination, String payload) {
+        var accessor = SimpMessageHeaderAccessor.create();
+        accessor.setSessionId("session-1");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(payload.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+
+    private static String payloadOf(Message<?> message) {
+        return new String((byte[]) message.getPayload(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] concat(byte[] queuedPayload, byte[] payload) {
+        return (payloadOf(queuedPayload) + "+" + payloadOf(payload)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String payloadOf(byte[] payload) {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
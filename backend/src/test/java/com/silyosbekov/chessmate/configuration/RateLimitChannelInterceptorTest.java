@@ -0,0 +1,87 @@
+package com.silyosbekov.chessmate.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silyosbekov.chessmate.dto.MoveAckDto;
+import com.silyosbekov.chessmate.model.MoveAckStatus;
+import com.silyosbekov.chessmate.service.RateLimitService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RateLimitChannelInterceptorTest {
+    private static final String JOIN_DESTINATION = "/app/matchmaking/join";
+
+    private SimpMessagingTemplate simpMessagingTemplate;
+    private RateLimitChannelInterceptor interceptor;
+    private MessageChannel channel;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        simpMessagingTemplate = mock(SimpMessagingTemplate.class);
+        ObjectProvider<SimpMessagingTemplate> simpMessagingTemplateProvider = mock(ObjectProvider.class);
+        when(simpMessagingTemplateProvider.getObject()).thenReturn(simpMessagingTemplate);
+
+        var rateLimitService = new RateLimitService(new SimpleMeterRegistry(),
+                List.of(RateLimitChannelInterceptor.MOVE_DESTINATION + "=1:1", JOIN_DESTINATION + "=1:1"), List.of());
+        interceptor = new RateLimitChannelInterceptor(rateLimitService, new ObjectMapper(), simpMessagingTemplateProvider);
+        channel = mock(MessageChannel.class);
+    }
+
+    @Test
+    void preSend_ShouldDropMessage_WhenPlayerExceedsLimitFromAnotherSession() {
+        // Arrange
+        var payload = "{\"playerId\":\"%s\",\"timeControl\":\"300+0\"}".formatted(UUID.randomUUID());
+        interceptor.preSend(message(JOIN_DESTINATION, "session-1", payload), channel);
+
+        // Act
+        var result = interceptor.preSend(message(JOIN_DESTINATION, "session-2", payload), channel);
+
+        // Assert
+        assertNull(result);
+    }
+
+    @Test
+    void preSend_ShouldSendRejectedAck_WhenMoveIsDropped() {
+        // Arrange
+        var gameId = UUID.randomUUID();
+        var payload = "{\"gameId\":\"%s\",\"color\":\"WHITE\",\"ply\":4,\"from\":\"e2\",\"to\":\"e4\"}".formatted(gameId);
+        assertNotNull(interceptor.preSend(message(RateLimitChannelInterceptor.MOVE_DESTINATION, "session-1", payload), channel));
+
+        // Act
+        var result = interceptor.preSend(message(RateLimitChannelInterceptor.MOVE_DESTINATION, "session-1", payload), channel);
+
+        // Assert
+        assertNull(result);
+        verify(simpMessagingTemplate).convertAndSendToUser(
+                eq("session-1"),
+                eq(RateLimitChannelInterceptor.MOVE_ACK_DESTINATION),
+                argThat((MoveAckDto ack) -> ack.status() == MoveAckStatus.REJECTED
+                        && gameId.equals(ack.gameId())
+                        && ack.requestedPly() == 4
+                        && ack.moves().isEmpty()),
+                anyMap());
+    }
+
+    private static Message<byte[]> message(String destination, String sessionId, String payload) {
+        var accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(payload.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,199 @@
+package com.silyosbekov.chessmate.controller;
+
+import com.silyosbekov.chessmate.dto.CancelGameCommand;
+import com.silyosbekov.chessmate.dto.CreateGameCommand;
+import com.silyosbekov.chessmate.dto.GameListItemDto;
+import com.silyosbekov.chessmate.dto.JoinGameCommand;
+import com.silyosbekov.chessmate.model.Game;
+import com.silyosbekov.chessmate.model.GameStatus;
+import com.silyosbekov.chessmate.model.Player;
+import com.silyosbekov.chessmate.model.PlayerColor;
+import com.silyosbekov.chessmate.repository.GameRepository;
+import com.silyosbekov.chessmate.repository.PlayerRepository;
+import com.silyosbekov.chessmate.service.GameService;
+import com.silyosbekov.chessmate.service.LobbyService;
+import com.silyosbekov.chessmate.service.MatchService;
+import com.silyosbekov.chessmate.service.OnlinePlayersService;
+import com.silyosbekov.chessmate.service.PlayerCacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static com.silyosbekov.chessmate.support.QueryCountInspector.assertQueryBudget;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query budgets of the REST and STOMP handlers. The handlers run outside a test transaction,
+ * the same way they run in production, so lazy loading and merges are counted as well.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.silyosbekov.chessmate.support.QueryCountInspector")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+    GameService.class,
+    MatchService.class,
+    LobbyService.class,
+    OnlinePlayersService.class,
+    PlayerCacheService.class,
+    SimpleMeterRegistry.class,
+    GameController.class,
+    GameRestController.class,
+    MatchController.class
+})
+class QueryBudgetTest {
+    private static final int GAMES_COUNT = 10;
+
+    @MockBean
+    private SimpMessagingTemplate simpMessagingTemplate;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private LobbyService lobbyService;
+
+    @Autowired
+    private PlayerCacheService playerCacheService;
+
+    @Autowired
+    private GameController gameController;
+
+    @Autowired
+    private GameRestController gameRestController;
+
+    @Autowired
+    private MatchController matchController;
+
+    private final List<Player> players = new ArrayList<>();
+    private final List<Game> games = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (var i = 0; i < GAMES_COUNT; i++) {
+            var player = new Player();
+            player.setUsername("player" + i);
+            player.setEmail("player" + i + "@chessmate.test");
+            players.add(playerRepository.save(player));
+
+            var game = new Game();
+            game.setHostPlayer(player);
+            game.setHostPlayerColor(PlayerColor.WHITE);
+            game.setStatus(GameStatus.OPEN);
+            game.setPgn("");
+            games.add(gameRepository.save(game));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameRepository.deleteAll();
+        playerRepository.deleteAll();
+    }
+
+    @Test
+    void getGames_ShouldUseSingleQuery() {
+        var response = assertQueryBudget(1, () -> gameRestController.getGame(null, null, 20));
+
+        assertEquals(GAMES_COUNT, response.getBody().getData().size());
+        assertEquals(players.get(0).getUsername(), findListItemHost(response.getBody().getData(), games.get(0)));
+    }
+
+    @Test
+    void getGames_ShouldUseSingleQueryPerPage_WhenPagingWithCursor() {
+        for (var gameStatus : Arrays.asList(null, GameStatus.OPEN)) {
+            var gameIds = new HashSet<UUID>();
+            String cursor = null;
+
+            for (var page = 0; page < 3; page++) {
+                var pageCursor = cursor;
+                var response = assertQueryBudget(1, () -> gameRestController.getGame(gameStatus, pageCursor, 4));
+                response.getBody().getData().forEach(item -> gameIds.add(item.id()));
+                cursor = response.getBody().getNextCursor();
+            }
+
+            assertNull(cursor);
+            assertEquals(GAMES_COUNT, gameIds.size());
+        }
+    }
+
+    @Test
+    void getGameById_ShouldUseSingleQuery() {
+        var game = games.get(0);
+
+        var response = assertQueryBudget(1, () -> gameRestController.getGameById(game.getId()));
+
+        assertEquals(players.get(0).getUsername(), response.getBody().hostPlayerUsername());
+    }
+
+    @Test
+    void loadOpenGames_ShouldUseSingleQuery() {
+        assertQueryBudget(1, () -> {
+            lobbyService.loadOpenGames();
+            return null;
+        });
+
+        assertEquals(GAMES_COUNT, lobbyService.getOpenGamesCount());
+    }
+
+    @Test
+    void createGame_ShouldStayWithinQueryBudget() {
+        var command = new CreateGameCommand(players.get(0).getId(), PlayerColor.WHITE);
+
+        var gameDto = assertQueryBudget(3, () -> gameController.createGame(command));
+
+        assertEquals(players.get(0).getUsername(), gameDto.hostPlayerUsername());
+    }
+
+    @Test
+    void createGame_ShouldNotQueryPlayer_WhenPlayerIsCached() {
+        var command = new CreateGameCommand(players.get(0).getId(), PlayerColor.WHITE);
+        playerCacheService.getPlayer(players.get(0).getId());
+
+        var gameDto = assertQueryBudget(2, () -> gameController.createGame(command));
+
+        assertEquals(players.get(0).getUsername(), gameDto.hostPlayerUsername());
+    }
+
+    @Test
+    void cancelGame_ShouldStayWithinQueryBudget() {
+        var command = new CancelGameCommand(games.get(0).getId());
+
+        var gameDto = assertQueryBudget(2, () -> gameController.cancelGame(command));
+
+        assertEquals(GameStatus.CANCELLED.name(), gameDto.status());
+    }
+
+    @Test
+    void joinGame_ShouldStayWithinQueryBudget() {
+        var command = new JoinGameCommand(games.get(0).getId(), players.get(1).getId());
+
+        var gameDto = assertQueryBudget(3, () -> matchController.joinGame(command));
+
+        assertEquals(players.get(0).getUsername(), gameDto.whitePlayerUsername());
+        assertEquals(players.get(1).getUsername(), gameDto.blackPlayerUsername());
+    }
+
+    private static String findListItemHost(List<GameListItemDto> items, Game game) {
+        return items.stream()
+                .filter(item -> item.id().equals(game.getId()))
+                .findFirst()
+                .orElseThrow()
+                .hostPlayerUsername();
+    }
+}
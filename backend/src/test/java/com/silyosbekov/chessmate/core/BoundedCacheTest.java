@@ -0,0 +1,111 @@
+package com.silyosbekov.chessmate.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    @Test
+    void putShouldEvictLeastRecentlyUsedEntryWhenFull() {
+        var cache = new BoundedCache<String, Integer>(2, 1000);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void getShouldReturnNullWhenEntryExpired() {
+        var clock = new AtomicLong();
+        var cache = new BoundedCache<String, Integer>(10, 100, clock::get);
+        cache.put("a", 1);
+
+        clock.set(100_000_000);
+        assertEquals(1, cache.get("a"));
+
+        clock.set(100_000_001);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void getShouldCountHitsAndMisses() {
+        var cache = new BoundedCache<String, Integer>(10, 1000);
+        cache.put("a", 1);
+
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void computeIfPresentShouldOnlyUpdateCachedKeys() {
+        var cache = new BoundedCache<String, Integer>(10, 1000);
+        cache.put("a", 1);
+
+        cache.computeIfPresent("a", value -> value + 1);
+        cache.computeIfPresent("b", value -> value + 1);
+
+        assertEquals(2, cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    void invalidateShouldRemoveKey() {
+        var cache = new BoundedCache<String, Integer>(10, 1000);
+        cache.put("a", 1);
+
+        cache.invalidate("a");
+
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void getShouldCacheLoadedValueOnMiss() {
+        var cache = new BoundedCache<String, Integer>(10, 1000);
+
+        assertEquals(1, cache.get("a", key -> 1));
+
+        assertEquals(1, cache.get("a"));
+        assertEquals(1, cache.get("a", key -> 2));
+    }
+
+    @Test
+    void getShouldNotCacheLoadedValueWhenKeyIsUpdatedDuringLoad() {
+        var cache = new BoundedCache<String, Integer>(10, 1000);
+
+        var value = cache.get("a", key -> {
+            cache.computeIfPresent("a", cachedValue -> cachedValue + 1);
+            return 1;
+        });
+
+        assertEquals(1, value);
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void putShouldKeepSizeWithinMaximumAcrossSegments() {
+        var cache = new BoundedCache<Integer, Integer>(1000, 1000);
+
+        for (var i = 0; i < 5000; i++) {
+            cache.put(i, i);
+        }
+
+        assertTrue(cache.size() <= 1000);
+        assertEquals(5000 - cache.size(), cache.getEvictionCount());
+    }
+}
@@ -0,0 +1,65 @@
+package com.silyosbekov.chessmate.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    @Test
+    void getOwnerShouldBeSameForRingsWithSameNodes() {
+        var ring = new ConsistentHashRing<>(List.of("node-a", "node-b", "node-c"), 64);
+        var otherRing = new ConsistentHashRing<>(List.of("node-c", "node-a", "node-b"), 64);
+
+        for (var i = 0; i < 1000; i++) {
+            var key = UUID.randomUUID();
+            assertEquals(ring.getOwner(key), otherRing.getOwner(key));
+        }
+    }
+
+    @Test
+    void getOwnerShouldSpreadKeysEvenly() {
+        var ring = new ConsistentHashRing<>(List.of("node-a", "node-b", "node-c", "node-d"), 128);
+        var counts = new HashMap<String, Integer>();
+
+        for (var i = 0; i < 40_000; i++) {
+            counts.merge(ring.getOwner(UUID.randomUUID()), 1, Integer::sum);
+        }
+
+        for (var count : counts.values()) {
+            assertTrue(count > 7_000 && count < 13_000, "Node owns " + count + " of 40000 keys");
+        }
+    }
+
+    @Test
+    void getOwnerShouldOnlyMoveKeysToAddedNode() {
+        var ring = new ConsistentHashRing<>(List.of("node-a", "node-b", "node-c"), 128);
+        var grownRing = new ConsistentHashRing<>(List.of("node-a", "node-b", "node-c", "node-d"), 128);
+        var movedCount = 0;
+
+        for (var i = 0; i < 10_000; i++) {
+            var key = UUID.randomUUID();
+            var owner = ring.getOwner(key);
+            var newOwner = grownRing.getOwner(key);
+
+            if (!owner.equals(newOwner)) {
+                assertEquals("node-d", newOwner);
+                movedCount++;
+            }
+        }
+
+        assertTrue(movedCount > 1_500 && movedCount < 3_500, "Moved " + movedCount + " of 10000 keys");
+    }
+
+    @Test
+    void getOwnerShouldThrowWhenRingIsEmpty() {
+        var ring = new ConsistentHashRing<String>(Set.of(), 16);
+
+        assertThrows(IllegalStateException.class, () -> ring.getOwner("key"));
+    }
+}
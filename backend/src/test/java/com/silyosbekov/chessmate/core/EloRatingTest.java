@@ -0,0 +1,32 @@
+package com.silyosbekov.chessmate.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EloRatingTest {
+
+    @Test
+    void expectedScoreShouldBeHalfWhenRatingsAreEqual() {
+        assertEquals(0.5, EloRating.expectedScore(1500, 1500), 1e-9);
+    }
+
+    @Test
+    void expectedScoreShouldFavorHigherRating() {
+        assertEquals(0.909, EloRating.expectedScore(1800, 1400), 1e-3);
+        assertEquals(0.091, EloRating.expectedScore(1400, 1800), 1e-3);
+    }
+
+    @Test
+    void ratingChangeShouldBeHalfOfKFactorWhenEqualPlayersDecided() {
+        assertEquals(16, EloRating.ratingChange(1500, 1500, 1.0, 32));
+        assertEquals(-16, EloRating.ratingChange(1500, 1500, 0.0, 32));
+        assertEquals(0, EloRating.ratingChange(1500, 1500, 0.5, 32));
+    }
+
+    @Test
+    void ratingChangeShouldBeSmallWhenFavoriteWins() {
+        assertEquals(3, EloRating.ratingChange(1800, 1400, 1.0, 32));
+        assertEquals(-29, EloRating.ratingChange(1800, 1400, 0.0, 32));
+    }
+}
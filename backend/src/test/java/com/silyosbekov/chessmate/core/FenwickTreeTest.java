@@ -0,0 +1,61 @@
+package com.silyosbekov.chessmate.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FenwickTreeTest {
+
+    @Test
+    void prefixSumShouldMatchNaiveSum() {
+        var tree = new FenwickTree(100);
+        var counts = new long[100];
+        var random = new Random(7);
+
+        for (var i = 0; i < 1000; i++) {
+            var index = random.nextInt(100);
+            var delta = random.nextInt(5) - 2;
+            tree.add(index, delta);
+            counts[index] += delta;
+        }
+
+        var sum = 0L;
+        for (var i = 0; i < 100; i++) {
+            sum += counts[i];
+            assertEquals(sum, tree.prefixSum(i));
+            assertEquals(counts[i], tree.get(i));
+        }
+
+        assertEquals(sum, tree.total());
+    }
+
+    @Test
+    void suffixSumShouldCountFromIndexToEnd() {
+        var tree = new FenwickTree(10);
+        tree.add(2, 1);
+        tree.add(5, 2);
+        tree.add(9, 3);
+
+        assertEquals(6, tree.suffixSum(0));
+        assertEquals(5, tree.suffixSum(3));
+        assertEquals(3, tree.suffixSum(9));
+    }
+
+    @Test
+    void prefixSumShouldReturnZeroForEmptyRange() {
+        var tree = new FenwickTree(10);
+        tree.add(0, 4);
+
+        assertEquals(0, tree.prefixSum(-1));
+    }
+
+    @Test
+    void addShouldThrowWhenIndexOutOfBounds() {
+        var tree = new FenwickTree(10);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.add(10, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> tree.add(-1, 1));
+    }
+}
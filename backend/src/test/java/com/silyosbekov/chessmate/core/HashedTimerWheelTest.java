@@ -0,0 +1,76 @@
+package com.silyosbekov.chessmate.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimerWheelTest {
+
+    @Test
+    void advanceShouldExpireKeyWhenDeadlinePassed() {
+        var wheel = new HashedTimerWheel<String>(100, 8, 0);
+        var expired = new ArrayList<String>();
+        wheel.schedule("a", 250, 0);
+
+        wheel.advance(200, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(300, expired::add);
+        assertEquals(List.of("a"), expired);
+        assertFalse(wheel.isScheduled("a"));
+    }
+
+    @Test
+    void advanceShouldNotExpireKeyWhenRescheduledToLaterDeadline() {
+        var wheel = new HashedTimerWheel<String>(100, 8, 0);
+        var expired = new ArrayList<String>();
+        wheel.schedule("a", 200, 0);
+        wheel.schedule("a", 200, 150);
+
+        wheel.advance(300, expired::add);
+        assertTrue(expired.isEmpty());
+        assertTrue(wheel.isScheduled("a"));
+
+        wheel.advance(400, expired::add);
+        assertEquals(List.of("a"), expired);
+    }
+
+    @Test
+    void advanceShouldExpireKeyWhenDeadlineIsMoreThanOneRoundAway() {
+        var wheel = new HashedTimerWheel<String>(100, 4, 0);
+        var expired = new ArrayList<String>();
+        wheel.schedule("a", 1000, 0);
+
+        wheel.advance(900, expired::add);
+        assertTrue(expired.isEmpty());
+
+        wheel.advance(1000, expired::add);
+        assertEquals(List.of("a"), expired);
+    }
+
+    @Test
+    void advanceShouldExpireKeyOnceWhenRescheduledToEarlierDeadline() {
+        var wheel = new HashedTimerWheel<String>(100, 8, 0);
+        var expired = new ArrayList<String>();
+        wheel.schedule("a", 500, 0);
+        wheel.schedule("a", 100, 0);
+
+        wheel.advance(800, expired::add);
+        assertEquals(List.of("a"), expired);
+    }
+
+    @Test
+    void advanceShouldNotExpireKeyWhenCancelled() {
+        var wheel = new HashedTimerWheel<String>(100, 8, 0);
+        var expired = new ArrayList<String>();
+        wheel.schedule("a", 100, 0);
+
+        assertTrue(wheel.cancel("a"));
+        wheel.advance(500, expired::add);
+        assertTrue(expired.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+}
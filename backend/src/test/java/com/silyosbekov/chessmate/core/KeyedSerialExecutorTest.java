@@ -0,0 +1,148 @@
+package com.silyosbekov.chessmate.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedSerialExecutorTest {
+    private ExecutorService virtualThreadExecutor;
+    private KeyedSerialExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        executor = new KeyedSerialExecutor(virtualThreadExecutor, task -> task instanceof KeyedTask keyed ? keyed.key() : null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        virtualThreadExecutor.shutdownNow();
+    }
+
+    @Test
+    void executeShouldRunTasksOfSameKeyInSubmissionOrder() throws InterruptedException {
+        var results = Collections.synchronizedList(new ArrayList<Integer>());
+        var done = new CountDownLatch(1000);
+
+        for (var i = 0; i < 1000; i++) {
+            var value = i;
+            executor.execute(new KeyedTask("game", () -> {
+                results.add(value);
+                done.countDown();
+            }));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        for (var i = 0; i < 1000; i++) {
+            assertEquals(i, results.get(i));
+        }
+    }
+
+    @Test
+    void executeShouldRunTasksOneAtATime_WhenSubmittedConcurrently() throws InterruptedException {
+        var running = new AtomicInteger();
+        var overlaps = new AtomicInteger();
+        var done = new CountDownLatch(8 * 500);
+
+        try (var submitters = Executors.newFixedThreadPool(8)) {
+            for (var i = 0; i < 8; i++) {
+                submitters.execute(() -> {
+                    for (var j = 0; j < 500; j++) {
+                        executor.execute(new KeyedTask("game", () -> {
+                            if (running.incrementAndGet() > 1) {
+                                overlaps.incrementAndGet();
+                            }
+
+                            running.decrementAndGet();
+                            done.countDown();
+                        }));
+                    }
+                });
+            }
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        assertEquals(0, executor.getQueuedCount());
+    }
+
+    @Test
+    void executeShouldNotBlockOtherKeysBehindBlockedTask() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        var otherKeyDone = new CountDownLatch(1);
+
+        executor.execute(new KeyedTask("slow", () -> await(release)));
+        executor.execute(new KeyedTask("fast", otherKeyDone::countDown));
+
+        assertTrue(otherKeyDone.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void executeShouldRunNextTaskOfKey_WhenTaskThrows() throws InterruptedException {
+        var done = new CountDownLatch(1);
+
+        executor.execute(new KeyedTask("game", () -> {
+            throw new IllegalStateException("Handler failed");
+        }));
+        executor.execute(new KeyedTask("game", done::countDown));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void countsShouldReflectQueuedAndRunningTasks() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        var done = new CountDownLatch(2);
+
+        executor.execute(new KeyedTask("game", () -> {
+            started.countDown();
+            await(release);
+            done.countDown();
+        }));
+        executor.execute(new KeyedTask("game", done::countDown));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, executor.getRunningCount());
+        assertEquals(1, executor.getQueuedCount());
+        assertEquals(1, executor.getActiveKeysCount());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        virtualThreadExecutor.shutdown();
+        assertTrue(virtualThreadExecutor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(0, executor.getQueuedCount());
+        assertEquals(0, executor.getActiveKeysCount());
+        assertEquals(2, executor.getCompletedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record KeyedTask(String key, Runnable task) implements Runnable {
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+}
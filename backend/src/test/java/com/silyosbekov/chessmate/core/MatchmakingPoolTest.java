@@ -0,0 +1,110 @@
+package com.silyosbekov.chessmate.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchmakingPoolTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void pairShouldMatchPlayersWithinInitialWindow() {
+        var pool = new MatchmakingPool<String>(100, 50, 25, 400);
+        pool.add("a", 1500, 0);
+        pool.add("b", 1540, 0);
+
+        var matches = pool.pair(0);
+
+        assertEquals(List.of(new MatchmakingPool.Match<>("a", "b", 0, 0)), matches);
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    void pairShouldMatchClosestRatingsAcrossBuckets() {
+        var pool = new MatchmakingPool<String>(100, 50, 25, 400);
+        pool.add("a", 1210, 0);
+        pool.add("b", 1495, 0);
+        pool.add("c", 1190, 0);
+        pool.add("d", 1505, 0);
+
+        var matches = pool.pair(0);
+
+        assertEquals(2, matches.size());
+        assertEquals("c", matches.get(0).first());
+        assertEquals("a", matches.get(0).second());
+        assertEquals("b", matches.get(1).first());
+        assertEquals("d", matches.get(1).second());
+    }
+
+    @Test
+    void pairShouldWidenWindowWithWaitTime() {
+        var pool = new MatchmakingPool<String>(100, 50, 25, 400);
+        pool.add("a", 1200, 0);
+        pool.add("b", 1400, 0);
+
+        assertTrue(pool.pair(5 * SECOND).isEmpty());
+        assertEquals(2, pool.size());
+
+        var matches = pool.pair(6 * SECOND);
+        assertEquals(1, matches.size());
+    }
+
+    @Test
+    void pairShouldNotExceedMaximumWindow() {
+        var pool = new MatchmakingPool<String>(100, 50, 25, 400);
+        pool.add("a", 1000, 0);
+        pool.add("b", 1500, 0);
+
+        assertTrue(pool.pair(3600 * SECOND).isEmpty());
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    void pairShouldSkipRemovedPlayers() {
+        var pool = new MatchmakingPool<String>(100, 50, 25, 400);
+        pool.add("a", 1500, 0);
+        pool.add("b", 1510, 0);
+        pool.add("c", 1520, 0);
+        pool.remove("b");
+
+        var matches = pool.pair(0);
+
+        assertEquals(1, matches.size());
+        assertEquals("a", matches.get(0).first());
+        assertEquals("c", matches.get(0).second());
+    }
+
+    @Test
+    void addShouldRejectPlayerAlreadyInPool() {
+        var pool = new MatchmakingPool<String>(100, 50, 25, 400);
+
+        assertTrue(pool.add("a", 1500, 0));
+        assertFalse(pool.add("a", 1600, 0));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void pairShouldMatchEveryPlayerOnceWhenWindowIsAtMaximum() {
+        var pool = new MatchmakingPool<Integer>(100, 400, 0, 400);
+        var random = new Random(42);
+
+        for (var i = 0; i < 10_000; i++) {
+            pool.add(i, 1200 + random.nextInt(400), 0);
+        }
+
+        var matches = pool.pair(0);
+        var matched = new HashSet<Integer>();
+
+        for (var match : matches) {
+            assertTrue(matched.add(match.first()));
+            assertTrue(matched.add(match.second()));
+        }
+
+        assertEquals(5_000, matches.size());
+        assertEquals(0, pool.size());
+    }
+}
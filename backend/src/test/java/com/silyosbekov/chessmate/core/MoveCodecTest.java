@@ -0,0 +1,74 @@
+package com.silyosbekov.chessmate.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveCodecTest {
+
+    @Test
+    void encodeShouldPackSingleMoveIntoFourBytes() {
+        var data = MoveCodec.encode(5, 12, List.of(move("e2", "e4")));
+
+        assertEquals(4, data.length);
+    }
+
+    @Test
+    void encodeShouldAddFlagsByteOnlyForGameEndingMoves() {
+        var checkmate = new MoveCodec.Move("h5", "f7", null, true, false);
+
+        var data = MoveCodec.encode(5, 12, List.of(move("e2", "e4"), checkmate));
+
+        assertEquals(7, data.length);
+    }
+
+    @Test
+    void decodeShouldRestoreEncodedMoves() {
+        var moves = List.of(
+                move("a1", "h8"),
+                new MoveCodec.Move("g7", "g8", 'q', false, true),
+                new MoveCodec.Move("b2", "a1", 'n', true, false));
+
+        var frame = MoveCodec.decode(MoveCodec.encode(300, 70_000, moves));
+
+        assertEquals(300, frame.handle());
+        assertEquals(70_000, frame.firstPly());
+        assertEquals(moves, frame.moves());
+    }
+
+    @Test
+    void decodeAckShouldRestoreEncodedAcknowledgement() {
+        var moves = List.of(move("e2", "e4"), move("e7", "e5"));
+
+        var ack = MoveCodec.decodeAck(MoveCodec.encodeAck(7, 10, 0, 12, moves));
+
+        assertEquals(new MoveCodec.Ack(7, 10, 0, 12, moves), ack);
+    }
+
+    @Test
+    void encodeAckShouldPackRejectedCommandIntoFourBytes() {
+        var data = MoveCodec.encodeAck(7, 10, 3, 11, List.of());
+
+        assertEquals(4, data.length);
+    }
+
+    @Test
+    void decodeShouldRejectTruncatedFrame() {
+        var data = MoveCodec.encode(1, 0, List.of(move("e2", "e4")));
+        var truncated = new byte[data.length - 1];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+
+        assertThrows(IllegalArgumentException.class, () -> MoveCodec.decode(truncated));
+    }
+
+    @Test
+    void encodeShouldRejectInvalidSquare() {
+        assertThrows(IllegalArgumentException.class, () -> MoveCodec.encode(1, 0, List.of(move("i9", "e4"))));
+    }
+
+    private static MoveCodec.Move move(String from, String to) {
+        return new MoveCodec.Move(from, to, null, false, false);
+    }
+}
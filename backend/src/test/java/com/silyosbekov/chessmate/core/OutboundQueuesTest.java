@@ -0,0 +1,148 @@
+package com.silyosbekov.chessmate.core;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundQueuesTest {
+    private Queue<Runnable> tasks;
+    private long[] now;
+    private List<String> sent;
+    private Map<String, String> closedSessions;
+    private OutboundQueues queues;
+
+    @BeforeEach
+    void setUp() {
+        tasks = new ArrayDeque<>();
+        now = new long[1];
+        sent = new ArrayList<>();
+        closedSessions = new HashMap<>();
+        queues = new OutboundQueues(tasks::add, 100, 1000, () -> now[0], closedSessions::put);
+    }
+
+    @Test
+    void enqueueShouldSendMessagesOfSessionInOrder() {
+        queues.enqueue("session", message("move-1", null));
+        queues.enqueue("session", message("move-2", null));
+        runTasks();
+
+        assertEquals(List.of("move-1", "move-2"), sent);
+        assertEquals(0, queues.getBufferedBytes());
+        assertEquals(0, queues.getBufferedCount());
+    }
+
+    @Test
+    void enqueueShouldMergeQueuedMessageWithSameCoalesceKey() {
+        queues.enqueue("session", message("move-1", null));
+        queues.enqueue("session", message("presence-1", "presence"));
+        queues.enqueue("session", message("move-2", null));
+        queues.enqueue("session", message("presence-2", "presence"));
+        runTasks();
+
+        assertEquals(List.of("move-1", "presence-1+presence-2", "move-2"), sent);
+        assertEquals(1, queues.getCoalescedCount());
+    }
+
+    @Test
+    void enqueueShouldNotMergeIntoMessageBeingSent() {
+        queues.enqueue("session", new TestMessage("presence-1", 10, "presence", () -> {
+            sent.add("presence-1");
+            queues.enqueue("session", message("presence-2", "presence"));
+        }));
+        runTasks();
+
+        assertEquals(List.of("presence-1", "presence-2"), sent);
+        assertEquals(0, queues.getCoalescedCount());
+    }
+
+    @Test
+    void enqueueShouldCloseSession_WhenBufferSizeLimitExceeded() {
+        for (var i = 0; i < 11; i++) {
+            queues.enqueue("session", message("move-" + i, null));
+        }
+
+        queues.enqueue("session", message("move-11", null));
+        runTasks();
+
+        assertTrue(closedSessions.get("session").contains("100 bytes"));
+        assertTrue(sent.isEmpty());
+        assertEquals(0, queues.getBufferedBytes());
+        assertEquals(1, queues.getSlowConsumersCount());
+    }
+
+    @Test
+    void enqueueShouldCloseSession_WhenSendTimeLimitExceeded() {
+        queues.enqueue("session", new TestMessage("move-1", 10, null, () -> {
+            now[0] += 2_000_000_000L;
+            queues.enqueue("session", message("move-2", null));
+        }));
+        runTasks();
+
+        assertTrue(closedSessions.get("session").contains("1000 ms"));
+        assertFalse(sent.contains("move-2"));
+    }
+
+    @Test
+    void enqueueShouldNotAffectOtherSessions_WhenSessionIsClosed() {
+        queues.enqueue("slow", message("move-1", null));
+        queues.remove("slow");
+        queues.enqueue("fast", message("move-2", null));
+        runTasks();
+
+        assertEquals(List.of("move-2"), sent);
+        assertEquals(0, queues.getBufferedCount());
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+
+    private TestMessage message(String name, String coalesceKey) {
+        return new TestMessage(name, 10, coalesceKey, () -> sent.add(name));
+    }
+
+    private class TestMessage implements OutboundQueues.Message {
+        private final String name;
+        private final int size;
+        private final String coalesceKey;
+        private final Runnable send;
+
+        TestMessage(String name, int size, String coalesceKey, Runnable send) {
+            this.name = name;
+            this.size = size;
+            this.coalesceKey = coalesceKey;
+            this.send = send;
+        }
+
+        @Override
+        public void send() {
+            send.run();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Object coalesceKey() {
+            return coalesceKey;
+        }
+
+        @Override
+        public OutboundQueues.Message coalesce(OutboundQueues.Message queued) {
+            var mergedName = ((TestMessage) queued).name + "+" + name;
+            return new TestMessage(mergedName, size, coalesceKey, () -> sent.add(mergedName));
+        }
+    }
+}
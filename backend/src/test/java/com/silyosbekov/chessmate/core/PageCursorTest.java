@@ -0,0 +1,28 @@
+package com.silyosbekov.chessmate.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void decodeShouldReturnSameCursorWhenEncoded() {
+        var cursor = new PageCursor(Instant.parse("2024-02-10T12:30:45.123456Z"), UUID.randomUUID());
+        assertEquals(cursor, PageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decodeShouldReturnNullWhenCursorIsNullOrEmpty() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(""));
+    }
+
+    @Test
+    void decodeShouldThrowWhenCursorIsMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not-a-cursor"));
+    }
+}
@@ -0,0 +1,128 @@
+package com.silyosbekov.chessmate.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolyglotBookTest {
+    private static final int E2E4 = PolyglotBook.encodeMove("e2", "e4", null);
+    private static final int D2D4 = PolyglotBook.encodeMove("d2", "d4", null);
+    private static final int G1F3 = PolyglotBook.encodeMove("g1", "f3", null);
+
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = Files.createTempFile("opening-book", ".bin");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    void encodeMoveShouldPackSquaresAndPromotion() {
+        assertEquals(0x031C, E2E4);
+        assertEquals(0x4C38, PolyglotBook.encodeMove("a7", "a8", 'q'));
+        assertEquals(0x1C38, PolyglotBook.encodeMove("a7", "a8", 'N'));
+        assertThrows(IllegalArgumentException.class, () -> PolyglotBook.encodeMove("a7", "a9", null));
+        assertThrows(IllegalArgumentException.class, () -> PolyglotBook.encodeMove("a7", "a8", 'k'));
+    }
+
+    @Test
+    void findShouldReturnMovesOfPositionByWeight() throws IOException {
+        var writer = new PolyglotBookWriter();
+        writer.add(7, E2E4, 2);
+        writer.add(7, D2D4, 1);
+        writer.add(7, D2D4, 2);
+        writer.add(7, G1F3, 1);
+        writer.add(3, E2E4, 1);
+
+        assertEquals(4, writer.write(path));
+        var book = PolyglotBook.open(path);
+
+        assertEquals(4, book.getEntriesCount());
+        assertEquals(List.of(
+                new PolyglotBook.Entry(D2D4, 3),
+                new PolyglotBook.Entry(E2E4, 2),
+                new PolyglotBook.Entry(G1F3, 1)), book.find(7));
+        assertEquals(List.of(new PolyglotBook.Entry(E2E4, 1)), book.find(3));
+    }
+
+    @Test
+    void findShouldReturnEmptyListWhenKeyIsMissing() throws IOException {
+        var writer = new PolyglotBookWriter();
+        writer.add(10, E2E4, 1);
+        writer.add(20, E2E4, 1);
+        writer.write(path);
+        var book = PolyglotBook.open(path);
+
+        assertTrue(book.find(5).isEmpty());
+        assertTrue(book.find(15).isEmpty());
+        assertTrue(book.find(25).isEmpty());
+    }
+
+    @Test
+    void findShouldSearchKeysAsUnsigned() throws IOException {
+        var writer = new PolyglotBookWriter();
+
+        for (var key : new long[] {-1, Long.MIN_VALUE, 0, Long.MAX_VALUE, 42}) {
+            writer.add(key, E2E4, 1);
+        }
+
+        writer.write(path);
+        var book = PolyglotBook.open(path);
+
+        for (var key : new long[] {-1, Long.MIN_VALUE, 0, Long.MAX_VALUE, 42}) {
+            assertEquals(1, book.find(key).size());
+        }
+    }
+
+    @Test
+    void writeShouldLeaveOutMovesWithoutWeight() throws IOException {
+        var writer = new PolyglotBookWriter();
+        writer.add(1, E2E4, 0);
+        writer.add(1, D2D4, 1);
+        writer.add(2, E2E4, 0);
+
+        assertEquals(1, writer.write(path));
+        var book = PolyglotBook.open(path);
+
+        assertEquals(List.of(new PolyglotBook.Entry(D2D4, 1)), book.find(1));
+        assertTrue(book.find(2).isEmpty());
+        assertEquals(2, writer.getPositionsCount());
+    }
+
+    @Test
+    void writeShouldScaleWeightsOfPositionAboveSixteenBits() throws IOException {
+        var writer = new PolyglotBookWriter();
+        writer.add(1, E2E4, 0x20000);
+        writer.add(1, D2D4, 0x10000);
+        writer.add(1, G1F3, 1);
+        writer.add(2, E2E4, 100);
+
+        writer.write(path);
+        var book = PolyglotBook.open(path);
+
+        assertEquals(List.of(
+                new PolyglotBook.Entry(E2E4, 0xFFFF),
+                new PolyglotBook.Entry(D2D4, 0x7FFF),
+                new PolyglotBook.Entry(G1F3, 1)), book.find(1));
+        assertEquals(List.of(new PolyglotBook.Entry(E2E4, 100)), book.find(2));
+    }
+
+    @Test
+    void openShouldRejectFileOfPartialEntries() throws IOException {
+        Files.write(path, new byte[PolyglotBook.ENTRY_SIZE + 1]);
+
+        assertThrows(IllegalArgumentException.class, () -> PolyglotBook.open(path));
+    }
+}
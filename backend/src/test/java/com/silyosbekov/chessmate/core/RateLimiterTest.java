@@ -0,0 +1,110 @@
+package com.silyosbekov.chessmate.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+    private static final long SECOND = 1_000_000_000;
+
+    @Test
+    void acquireShouldAllowBurstThenReject() {
+        var limiter = new RateLimiter(10, 5);
+
+        for (var i = 0; i < 5; i++) {
+            assertEquals(0, limiter.acquire("client", 0));
+        }
+
+        assertEquals(SECOND / 10, limiter.acquire("client", 0));
+    }
+
+    @Test
+    void acquireShouldRefillAtRate() {
+        var limiter = new RateLimiter(10, 5);
+
+        for (var i = 0; i < 5; i++) {
+            limiter.acquire("client", 0);
+        }
+
+        assertTrue(limiter.acquire("client", SECOND / 20) > 0);
+        assertEquals(0, limiter.acquire("client", SECOND / 10));
+        assertTrue(limiter.acquire("client", SECOND / 10) > 0);
+
+        // The bucket never holds more than the burst
+        for (var i = 0; i < 5; i++) {
+            assertEquals(0, limiter.acquire("client", 10 * SECOND));
+        }
+        assertTrue(limiter.acquire("client", 10 * SECOND) > 0);
+    }
+
+    @Test
+    void acquireShouldLimitKeysSeparately() {
+        var limiter = new RateLimiter(1, 1);
+
+        assertEquals(0, limiter.acquire("first", 0));
+        assertTrue(limiter.acquire("first", 0) > 0);
+        assertEquals(0, limiter.acquire("second", 0));
+    }
+
+    @Test
+    void acquireShouldNotExceedBurstWhenCalledConcurrently() throws InterruptedException {
+        var limiter = new RateLimiter(1, 100);
+        var acquiredCount = new AtomicInteger();
+        var start = new CountDownLatch(1);
+
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (var i = 0; i < 8; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    }
+                    catch (InterruptedException e) {
+                        return;
+                    }
+
+                    for (var j = 0; j < 1000; j++) {
+                        if (limiter.acquire("client", 0) == 0) {
+                            acquiredCount.incrementAndGet();
+                        }
+                    }
+                });
+            }
+
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(100, acquiredCount.get());
+    }
+
+    @Test
+    void evictFullShouldOnlyForgetRefilledKeys() {
+        var limiter = new RateLimiter(1, 2);
+        limiter.acquire("idle", 0);
+        limiter.acquire("busy", 0);
+        limiter.acquire("busy", 0);
+        limiter.acquire("busy", SECOND);
+
+        limiter.evictFull(SECOND);
+
+        assertEquals(1, limiter.getKeysCount());
+        assertTrue(limiter.acquire("busy", SECOND) > 0);
+    }
+
+    @Test
+    void parseShouldReadRateAndBurst() {
+        var limiter = RateLimiter.parse("0.5:2");
+
+        assertEquals(0, limiter.acquire("client", 0));
+        assertEquals(0, limiter.acquire("client", 0));
+        assertEquals(2 * SECOND, limiter.acquire("client", 0));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.parse("fast"));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.parse("10:0"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.silyosbekov.chessmate.core;
+
+import com.silyosbekov.chessmate.model.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SwissPairingEngineTest {
+
+    @Test
+    void pairShouldPairTopHalfAgainstBottomHalfInFirstRound() {
+        var players = List.of(
+                player(1, 0, 2000),
+                player(2, 0, 1900),
+                player(3, 0, 1800),
+                player(4, 0, 1700));
+
+        var round = SwissPairingEngine.pair(players);
+
+        assertNull(round.byePlayer());
+        assertEquals(List.of(
+                new SwissPairingEngine.Pairing<>(1, 3),
+                new SwissPairingEngine.Pairing<>(4, 2)
+        ), round.pairings());
+    }
+
+    @Test
+    void pairShouldGiveByeToLowestPlayerWithoutBye() {
+        var players = List.of(
+                player(1, 0, 2000),
+                player(2, 0, 1900),
+                new SwissPairingEngine.Player<>(3, 0, 1800, 0, null, Set.of(), true));
+
+        var round = SwissPairingEngine.pair(players);
+
+        assertEquals(2, round.byePlayer());
+        assertEquals(1, round.pairings().size());
+    }
+
+    @Test
+    void pairShouldAvoidRematches() {
+        var players = List.of(
+                new SwissPairingEngine.Player<>(1, 2, 2000, 1, PlayerColor.WHITE, Set.of(3), false),
+                new SwissPairingEngine.Player<>(2, 2, 1900, -1, PlayerColor.BLACK, Set.of(4), false),
+                new SwissPairingEngine.Player<>(3, 0, 1800, -1, PlayerColor.BLACK, Set.of(1), false),
+                new SwissPairingEngine.Player<>(4, 0, 1700, 1, PlayerColor.WHITE, Set.of(2), false));
+
+        var round = SwissPairingEngine.pair(players);
+
+        for (var pairing : round.pairings()) {
+            var white = players.get(pairing.white() - 1);
+            assertFalse(white.opponents().contains(pairing.black()));
+        }
+    }
+
+    @Test
+    void pairShouldBalanceColours() {
+        var players = List.of(
+                new SwissPairingEngine.Player<>(1, 2, 2000, 1, PlayerColor.WHITE, Set.of(), false),
+                new SwissPairingEngine.Player<>(2, 2, 1900, -1, PlayerColor.BLACK, Set.of(), false));
+
+        var round = SwissPairingEngine.pair(players);
+
+        assertEquals(List.of(new SwissPairingEngine.Pairing<>(2, 1)), round.pairings());
+    }
+
+    @Test
+    void pairShouldPairLargeTournamentWithoutRematchesWellUnderASecond() {
+        var random = new Random(42);
+        var playersCount = 5_001;
+        var scores = new int[playersCount];
+        var balances = new int[playersCount];
+        var lastColours = new PlayerColor[playersCount];
+        var opponents = new ArrayList<Set<Integer>>();
+        var byes = new boolean[playersCount];
+        var ratings = new int[playersCount];
+
+        for (var i = 0; i < playersCount; i++) {
+            opponents.add(new HashSet<>());
+            ratings[i] = 1000 + random.nextInt(1500);
+        }
+
+        var elapsedNanos = 0L;
+
+        for (var roundNumber = 0; roundNumber < 9; roundNumber++) {
+            var players = new ArrayList<SwissPairingEngine.Player<Integer>>(playersCount);
+
+            for (var i = 0; i < playersCount; i++) {
+                players.add(new SwissPairingEngine.Player<>(i, scores[i], ratings[i], balances[i], lastColours[i], opponents.get(i), byes[i]));
+            }
+
+            var start = System.nanoTime();
+            var round = SwissPairingEngine.pair(players);
+            elapsedNanos = Math.max(elapsedNanos, System.nanoTime() - start);
+
+            var paired = new HashSet<Integer>();
+            paired.add(round.byePlayer());
+            byes[round.byePlayer()] = true;
+            scores[round.byePlayer()] += 2;
+
+            for (var pairing : round.pairings()) {
+                assertTrue(paired.add(pairing.white()));
+                assertTrue(paired.add(pairing.black()));
+                assertTrue(opponents.get(pairing.white()).add(pairing.black()), "Rematch in round " + (roundNumber + 1));
+                opponents.get(pairing.black()).add(pairing.white());
+                balances[pairing.white()]++;
+                balances[pairing.black()]--;
+                lastColours[pairing.white()] = PlayerColor.WHITE;
+                lastColours[pairing.black()] = PlayerColor.BLACK;
+
+                var result = random.nextInt(3);
+                scores[pairing.white()] += result;
+                scores[pairing.black()] += 2 - result;
+            }
+
+            assertEquals(playersCount, paired.size());
+        }
+
+        for (var balance : balances) {
+            assertTrue(Math.abs(balance) <= 2, "Colour balance " + balance);
+        }
+
+        assertTrue(elapsedNanos < 1_000_000_000L, "Pairing took " + elapsedNanos / 1_000_000 + " ms");
+    }
+
+    private static SwissPairingEngine.Player<Integer> player(int key, int score, int rating) {
+        return new SwissPairingEngine.Player<>(key, score, rating, 0, null, Set.of(), false);
+    }
+}
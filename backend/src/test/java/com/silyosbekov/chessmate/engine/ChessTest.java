@@ -0,0 +1,52 @@
+package com.silyosbekov.chessmate.engine;
+
+import com.silyosbekov.chessmate.engine.option.MoveOptions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChessTest {
+
+    @Test
+    void isCheckmateShouldDetectFoolsMate() {
+        var chess = new Chess();
+
+        for (var san : new String[] {"f3", "e5", "g4", "Qh4#"}) {
+            chess.move(new MoveOptions(null, null, san, null, false));
+        }
+
+        assertTrue(chess.isCheckmate());
+        assertFalse(chess.isStalemate());
+        assertEquals(0, chess.generateMoves().length);
+    }
+
+    @Test
+    void isStalemateShouldDetectKingWithoutMoves() {
+        var chess = new Chess("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+
+        assertTrue(chess.isStalemate());
+        assertFalse(chess.isCheckmate());
+    }
+
+    @Test
+    void moveShouldRejectMoveLeavingKingInCheck() {
+        // The knight on d7 is pinned by the queen on a4
+        var chess = new Chess("4k3/3n4/8/8/Q7/8/8/4K3 b - - 0 1");
+
+        assertThrows(IllegalArgumentException.class, () -> chess.move(new MoveOptions("d7", "f6", null, null, true)));
+        assertThrows(IllegalArgumentException.class, () -> chess.move(new MoveOptions(null, null, "Nf6", null, false)));
+        assertEquals("Ke7", chess.move(new MoveOptions("e8", "e7", null, null, true)).getSan());
+    }
+
+    @Test
+    void moveShouldParsePermissiveNotation() {
+        var chess = new Chess();
+        var sans = new StringBuilder();
+
+        for (var move : new String[] {"e2e4", "e7-e5", "Ng1f3", "Nb8c6", "Bf1-c4"}) {
+            sans.append(chess.move(new MoveOptions(null, null, move, null, false)).getSan()).append(' ');
+        }
+
+        assertEquals("e4 e5 Nf3 Nc6 Bc4", sans.toString().trim());
+    }
+}
@@ -0,0 +1,124 @@
+package com.silyosbekov.chessmate.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the move generator against the reference node counts of the positions in perft.epd.
+ * <p>
+ *     The depths up to the system property {@code chessmate.perft.depth} are checked, 3 by default,
+ *     run deeper with {@code ./gradlew test --tests '*PerftTest' -PperftDepth=6}.
+ *     The nodes per second of each position and depth are written as CSV to the file named by
+ *     {@code chessmate.perft.results}, set by the build to build/results/perft/results.csv.
+ * </p>
+ */
+class PerftTest {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    void perftShouldMatchReferenceNodeCounts() throws IOException {
+        var maxDepth = Integer.getInteger("chessmate.perft.depth", 3);
+        var results = new ArrayList<String>();
+        results.add("id,depth,nodes,millis,nodesPerSecond");
+
+        for (var position : readPositions()) {
+            for (var entry : position.nodes().entrySet()) {
+                var depth = entry.getKey();
+
+                if (depth > maxDepth) {
+                    break;
+                }
+
+                var chess = new Chess(position.fen());
+                var start = System.nanoTime();
+                var nodes = chess.perft(depth);
+                var elapsedNanos = Math.max(System.nanoTime() - start, 1);
+
+                assertEquals((int) entry.getValue(), nodes, "Nodes of " + position.id() + " at depth " + depth);
+                results.add("\"%s\",%d,%d,%.3f,%d".formatted(
+                        position.id(), depth, nodes, elapsedNanos / 1e6, nodes * 1_000_000_000L / elapsedNanos));
+            }
+        }
+
+        var resultsFile = System.getProperty("chessmate.perft.results");
+
+        if (resultsFile != null) {
+            var path = Path.of(resultsFile);
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Files.write(path, results);
+        }
+    }
+
+    @Test
+    void perftShouldRestorePosition() {
+        var chess = new Chess(KIWIPETE);
+
+        chess.perft(3);
+
+        assertEquals(KIWIPETE, chess.fen());
+        assertEquals(0, chess.history().length);
+    }
+
+    @Test
+    void constructorShouldKeepKingsAndCastlingRights() {
+        var chess = new Chess(KIWIPETE);
+
+        assertEquals(KIWIPETE, chess.fen());
+        assertEquals(48, chess.perft(1));
+    }
+
+    private static List<EpdPosition> readPositions() throws IOException {
+        var positions = new ArrayList<EpdPosition>();
+        var stream = PerftTest.class.getResourceAsStream("perft.epd");
+        assertNotNull(stream, "perft.epd is missing");
+
+        try (var reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    positions.add(EpdPosition.parse(line));
+                }
+            }
+        }
+
+        return positions;
+    }
+
+    /**
+     * Position of the EPD file with its reference node counts by depth, in the form
+     * {@code <fen> ;id "<name>" ;D1 <nodes> ;D2 <nodes> ...}.
+     */
+    private record EpdPosition(String fen, String id, Map<Integer, Integer> nodes) {
+        static EpdPosition parse(String line) {
+            var operations = line.split(";");
+            var id = operations[0].trim();
+            var nodes = new TreeMap<Integer, Integer>();
+
+            for (var i = 1; i < operations.length; i++) {
+                var operation = operations[i].trim().split("\\s+", 2);
+
+                if (operation[0].equals("id")) {
+                    id = operation[1].replace("\"", "");
+                }
+                else if (operation[0].startsWith("D")) {
+                    nodes.put(Integer.parseInt(operation[0].substring(1)), Integer.parseInt(operation[1]));
+                }
+            }
+
+            return new EpdPosition(operations[0].trim(), id, nodes);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.silyosbekov.chessmate.engine;
+
+import com.silyosbekov.chessmate.engine.option.MoveOptions;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZobristHashTest {
+
+    @Test
+    void ofShouldMatchPolyglotReferenceKeys() {
+        // Keys of the example positions in the Polyglot book format specification
+        assertEquals(0x463b96181691fc9cL, ZobristHash.of(new Chess()));
+        assertEquals(0x823c9b50fd114196L, ZobristHash.of(play("e4")));
+        assertEquals(0x0756b94461c50fb0L, ZobristHash.of(play("e4", "d5")));
+        assertEquals(0x662fafb965db29d4L, ZobristHash.of(play("e4", "d5", "e5")));
+        assertEquals(0x22a48b5a8e47ff78L, ZobristHash.of(play("e4", "d5", "e5", "f5")));
+        assertEquals(0x652a607ca3f242c1L, ZobristHash.of(play("e4", "d5", "e5", "f5", "Ke2")));
+        assertEquals(0x00fdd303c946bdd9L, ZobristHash.of(play("e4", "d5", "e5", "f5", "Ke2", "Kf7")));
+        assertEquals(0x3c8123ea7b067637L, ZobristHash.of(play("a4", "b5", "h4", "b4", "c4")));
+        assertEquals(0x5c3f9b829b279560L, ZobristHash.of(play("a4", "b5", "h4", "b4", "c4", "bxc3", "Ra3")));
+    }
+
+    @Test
+    void ofShouldMatchForTranspositions() {
+        var first = play("Nf3", "Nf6", "Nc3");
+        var second = play("Nc3", "Nf6", "Nf3");
+
+        assertEquals(ZobristHash.of(first), ZobristHash.of(second));
+        assertNotEquals(ZobristHash.of(first), ZobristHash.of(new Chess()));
+    }
+
+    @Test
+    void ofShouldIgnoreMoveCounters() {
+        assertEquals(
+                ZobristHash.of("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"),
+                ZobristHash.of("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -"));
+    }
+
+    @Test
+    void ofShouldHashSideToMoveAndCastlingRights() {
+        var key = ZobristHash.of("r3k2r/8/8/8/8/8/8/R3K2R w KQkq -");
+
+        assertNotEquals(key, ZobristHash.of("r3k2r/8/8/8/8/8/8/R3K2R b KQkq -"));
+        assertNotEquals(key, ZobristHash.of("r3k2r/8/8/8/8/8/8/R3K2R w Kkq -"));
+        assertNotEquals(key, ZobristHash.of("r3k2r/8/8/8/8/8/8/R3K2R w KQk -"));
+    }
+
+    @Test
+    void ofShouldIgnoreEnPassantSquareWithoutCapturingPawn() {
+        assertEquals(
+                ZobristHash.of("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3"),
+                ZobristHash.of("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq -"));
+    }
+
+    @Test
+    void ofShouldHashEnPassantSquareWhenPawnCanCapture() {
+        assertNotEquals(
+                ZobristHash.of("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq e3"),
+                ZobristHash.of("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq -"));
+        assertNotEquals(
+                ZobristHash.of("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6"),
+                ZobristHash.of("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq -"));
+    }
+
+    @Test
+    void ofShouldRejectIncompleteFen() {
+        assertThrows(IllegalArgumentException.class, () -> ZobristHash.of("8/8/8/8/8/8/8/8 w"));
+    }
+
+    private static Chess play(String... moves) {
+        var chess = new Chess();
+
+        for (var san : moves) {
+            chess.move(new MoveOptions(null, null, san, null, false));
+        }
+
+        return chess;
+    }
+}
@@ -0,0 +1,221 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.core.ActiveGame;
+import com.silyosbekov.chessmate.core.ConsistentHashRing;
+import com.silyosbekov.chessmate.core.InProcessClusterBus;
+import com.silyosbekov.chessmate.dto.GameStateDto;
+import com.silyosbekov.chessmate.dto.MakeMoveCommand;
+import com.silyosbekov.chessmate.dto.MoveAckDto;
+import com.silyosbekov.chessmate.engine.Chess;
+import com.silyosbekov.chessmate.event.GameEndedEvent;
+import com.silyosbekov.chessmate.event.GameHandedOffEvent;
+import com.silyosbekov.chessmate.event.GameImportedEvent;
+import com.silyosbekov.chessmate.event.RemoteGameEndedEvent;
+import com.silyosbekov.chessmate.model.Game;
+import com.silyosbekov.chessmate.model.MoveAckStatus;
+import com.silyosbekov.chessmate.model.PlayerColor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ClusterServiceTest {
+    private InProcessClusterBus clusterBus;
+    private MatchService matchServiceA;
+    private MatchService matchServiceB;
+    private GameStateService gameStateServiceA;
+    private GameStateService gameStateServiceB;
+    private ApplicationEventPublisher eventPublisherA;
+    private ApplicationEventPublisher eventPublisherB;
+    private ClusterService nodeA;
+    private ClusterService nodeB;
+
+    @BeforeEach
+    void setUp() {
+        clusterBus = new InProcessClusterBus();
+        matchServiceA = mock(MatchService.class);
+        matchServiceB = mock(MatchService.class);
+        gameStateServiceA = mock(GameStateService.class);
+        gameStateServiceB = mock(GameStateService.class);
+        eventPublisherA = mock(ApplicationEventPublisher.class);
+        eventPublisherB = mock(ApplicationEventPublisher.class);
+        nodeA = new ClusterService(clusterBus, matchServiceA, gameStateServiceA, eventPublisherA, "node-a", 64);
+        nodeB = new ClusterService(clusterBus, matchServiceB, gameStateServiceB, eventPublisherB, "node-b", 64);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clusterBus.shutdown();
+    }
+
+    @Test
+    void route_ShouldHandleCommandOnOwner_WhenGameIsOwnedByOtherNode() {
+        // Arrange
+        nodeA.join();
+        nodeB.join();
+        nodeB.registerHandler(MakeMoveCommand.class, command ->
+                new MoveAckDto(command.gameId(), command.color(), command.ply(), 1, MoveAckStatus.ACCEPTED, List.of()));
+        var gameId = gameOwnedBy("node-b");
+        var command = new MakeMoveCommand(gameId, PlayerColor.WHITE, 0, "e2", "e4", null, false, false);
+
+        // Act
+        MoveAckDto ack = nodeA.route(gameId, command);
+
+        // Assert
+        assertEquals(MoveAckStatus.ACCEPTED, ack.status());
+        assertFalse(nodeA.isOwner(gameId));
+        assertTrue(nodeB.isOwner(gameId));
+    }
+
+    @Test
+    void route_ShouldRethrowOwnersException() {
+        // Arrange
+        nodeA.join();
+        nodeB.join();
+        nodeB.registerHandler(MakeMoveCommand.class, command -> {
+            throw new NoSuchElementException("Game does not exist");
+        });
+        var gameId = gameOwnedBy("node-b");
+        var command = new MakeMoveCommand(gameId, PlayerColor.WHITE, 0, "e2", "e4", null, false, false);
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> nodeA.route(gameId, command));
+    }
+
+    @Test
+    void routeTo_ShouldHandleCommandOnGivenNode() {
+        // Arrange
+        nodeA.join();
+        nodeB.join();
+        nodeB.registerHandler(MakeMoveCommand.class, command ->
+                new MoveAckDto(command.gameId(), command.color(), command.ply(), 1, MoveAckStatus.ACCEPTED, List.of()));
+        var gameId = gameOwnedBy("node-a");
+        var command = new MakeMoveCommand(gameId, PlayerColor.WHITE, 0, "e2", "e4", null, false, false);
+
+        // Act
+        MoveAckDto ack = nodeA.routeTo("node-b", command);
+
+        // Assert
+        assertEquals(MoveAckStatus.ACCEPTED, ack.status());
+        assertThrows(NoSuchElementException.class, () -> nodeA.routeTo("node-c", command));
+    }
+
+    @Test
+    void join_ShouldHandOffGames_WhenNodeTakesOverTheirOwnership() {
+        // Arrange
+        var game = new Game();
+
+        while (!gameOwnedBy(game.getId(), "node-b")) {
+            game = new Game();
+        }
+
+        var activeGame = new ActiveGame(game, new Chess());
+        when(matchServiceA.getActiveGameIds()).thenReturn(Set.of(game.getId()));
+        when(matchServiceA.removeActiveGame(game.getId())).thenReturn(activeGame);
+        when(gameStateServiceA.removeState(game)).thenReturn(new GameStateDto(null, 3, null));
+        when(matchServiceB.importActiveGame(eq(game.getId()), anyList(), isNull())).thenReturn(game);
+        nodeA.join();
+
+        // Act
+        nodeB.join();
+
+        // Assert
+        verify(matchServiceB).importActiveGame(eq(game.getId()), eq(List.of()), isNull());
+        verify(gameStateServiceB).restoreState(eq(game), eq(3L), isNull());
+        verify(eventPublisherA).publishEvent(new GameHandedOffEvent(game.getId(), "node-b"));
+        verify(eventPublisherB).publishEvent(new GameImportedEvent(game));
+    }
+
+    @Test
+    void leave_ShouldHandOffGamesToRemainingNodes() {
+        // Arrange
+        var game = new Game();
+        var activeGame = new ActiveGame(game, new Chess());
+        nodeA.join();
+        nodeB.join();
+        when(matchServiceA.getActiveGameIds()).thenReturn(Set.of(game.getId()));
+        when(matchServiceA.removeActiveGame(game.getId())).thenReturn(activeGame);
+        when(gameStateServiceA.removeState(game)).thenReturn(new GameStateDto(null, 0, null));
+        when(matchServiceB.importActiveGame(eq(game.getId()), anyList(), isNull())).thenReturn(game);
+
+        // Act
+        nodeA.leave();
+
+        // Assert
+        verify(matchServiceB).importActiveGame(eq(game.getId()), eq(List.of()), isNull());
+        assertEquals(Set.of("node-b"), clusterBus.getNodeIds());
+    }
+
+    @Test
+    void join_ShouldRestoreGameAndRetryHandOff_WhenRequestFails() {
+        // Arrange
+        var game = new Game();
+
+        while (!gameOwnedBy(game.getId(), "node-b")) {
+            game = new Game();
+        }
+
+        var activeGame = new ActiveGame(game, new Chess());
+        when(matchServiceA.getActiveGameIds()).thenReturn(Set.of(game.getId()));
+        when(matchServiceA.removeActiveGame(game.getId())).thenReturn(activeGame);
+        when(matchServiceA.importActiveGame(eq(game.getId()), anyList(), isNull())).thenReturn(game);
+        when(gameStateServiceA.removeState(game)).thenReturn(new GameStateDto(null, 3, null));
+        when(matchServiceB.importActiveGame(eq(game.getId()), anyList(), isNull()))
+                .thenThrow(new IllegalStateException("Database is unavailable"))
+                .thenReturn(game);
+        nodeA.join();
+
+        // Act
+        nodeB.join();
+
+        // Assert
+        verify(matchServiceA).importActiveGame(eq(game.getId()), eq(List.of()), isNull());
+        verify(gameStateServiceA).restoreState(eq(game), eq(3L), isNull());
+        verify(gameStateServiceB, never()).restoreState(any(), anyLong(), any());
+
+        // Act
+        nodeA.retryHandOffs();
+
+        // Assert
+        verify(matchServiceB, times(2)).importActiveGame(eq(game.getId()), eq(List.of()), isNull());
+        verify(gameStateServiceB).restoreState(eq(game), eq(3L), isNull());
+    }
+
+    @Test
+    void handleGameEnded_ShouldAnnounceEndToOtherNodes() {
+        // Arrange
+        var game = new Game();
+        nodeA.join();
+        nodeB.join();
+
+        // Act
+        nodeA.handleGameEnded(new GameEndedEvent(game));
+
+        // Assert
+        verify(eventPublisherB, timeout(5000)).publishEvent(new RemoteGameEndedEvent(game));
+        verify(eventPublisherA, never()).publishEvent(any(RemoteGameEndedEvent.class));
+    }
+
+    private UUID gameOwnedBy(String nodeId) {
+        var gameId = UUID.randomUUID();
+
+        while (!gameOwnedBy(gameId, nodeId)) {
+            gameId = UUID.randomUUID();
+        }
+
+        return gameId;
+    }
+
+    private static boolean gameOwnedBy(UUID gameId, String nodeId) {
+        return new ConsistentHashRing<>(Set.of("node-a", "node-b"), 64).getOwner(gameId).equals(nodeId);
+    }
+}
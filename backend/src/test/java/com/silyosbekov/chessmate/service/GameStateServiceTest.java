@@ -0,0 +1,136 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.dto.GameStateDeltaDto;
+import com.silyosbekov.chessmate.dto.MoveDto;
+import com.silyosbekov.chessmate.dto.PlayerSummaryDto;
+import com.silyosbekov.chessmate.event.GameEndedEvent;
+import com.silyosbekov.chessmate.event.GameJoinedEvent;
+import com.silyosbekov.chessmate.model.Game;
+import com.silyosbekov.chessmate.model.GameStatus;
+import com.silyosbekov.chessmate.model.PlayerColor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GameStateServiceTest {
+    private SimpMessagingTemplate simpMessagingTemplate;
+    private GameStateService gameStateService;
+    private Game game;
+    private UUID whitePlayerId;
+
+    @BeforeEach
+    void setUp() {
+        simpMessagingTemplate = mock(SimpMessagingTemplate.class);
+        var playerCacheService = mock(PlayerCacheService.class);
+        when(playerCacheService.getPlayer(any(UUID.class)))
+                .thenAnswer(invocation -> new PlayerSummaryDto(invocation.getArgument(0), "player", 1500));
+
+        gameStateService = new GameStateService(simpMessagingTemplate, playerCacheService);
+        whitePlayerId = UUID.randomUUID();
+        game = new Game();
+        game.setWhiteAnonymousPlayerId(whitePlayerId);
+        game.setBlackAnonymousPlayerId(UUID.randomUUID());
+        game.setStatus(GameStatus.ONGOING);
+        game.setCurrentTurn(PlayerColor.WHITE);
+        gameStateService.handleGameJoined(new GameJoinedEvent(game));
+    }
+
+    @Test
+    void offerDraw_ShouldPublishOnlyDrawOffer() {
+        // Act
+        var delta = gameStateService.offerDraw(game, whitePlayerId);
+
+        // Assert
+        assertEquals(1, delta.version());
+        assertEquals(Boolean.TRUE, delta.isDrawOffered());
+        assertEquals(PlayerColor.WHITE, delta.drawOfferedBy());
+        assertNull(delta.status());
+        assertNull(delta.currentTurn());
+        verify(simpMessagingTemplate).convertAndSend(GameStateService.STATE_TOPIC, delta);
+    }
+
+    @Test
+    void offerDraw_ShouldThrow_WhenPlayerIsNotInGame() {
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> gameStateService.offerDraw(game, UUID.randomUUID()));
+    }
+
+    @Test
+    void publish_ShouldNotSend_WhenNothingChanged() {
+        // Act
+        var delta = gameStateService.publish(game);
+
+        // Assert
+        assertNull(delta);
+        verify(simpMessagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void handleMoves_ShouldWithdrawDrawOffer_WhenOpponentMoves() {
+        // Arrange
+        gameStateService.offerDraw(game, whitePlayerId);
+        var move = new MoveDto(game.getId(), whitePlayerId, game.getBlackPlayerId(), PlayerColor.BLACK, "e7", "e5", null, false, false, 1);
+
+        // Act
+        gameStateService.handleMoves(game, List.of(move));
+
+        // Assert
+        verify(simpMessagingTemplate).convertAndSend(eq(GameStateService.STATE_TOPIC), argThat((GameStateDeltaDto delta) ->
+                delta.version() == 2 && Boolean.FALSE.equals(delta.isDrawOffered())));
+        assertNull(gameStateService.getState(game).drawOfferedBy());
+    }
+
+    @Test
+    void handleGameEnded_ShouldPublishChangedFieldsWithNextVersion() {
+        // Arrange
+        gameStateService.offerDraw(game, whitePlayerId);
+        game.setStatus(GameStatus.DRAW);
+
+        // Act
+        gameStateService.handleGameEnded(new GameEndedEvent(game));
+
+        // Assert
+        verify(simpMessagingTemplate).convertAndSend(eq(GameStateService.STATE_TOPIC), argThat((GameStateDeltaDto delta) ->
+                delta.version() == 2
+                        && GameStatus.DRAW.name().equals(delta.status())
+                        && Boolean.FALSE.equals(delta.isDrawOffered())
+                        && delta.winnerPlayer() == null));
+    }
+
+    @Test
+    void offerDraw_ShouldNotTrackGame_WhenGameHasEnded() {
+        // Arrange
+        game.setStatus(GameStatus.RESIGNED);
+        gameStateService.handleGameEnded(new GameEndedEvent(game));
+
+        // Act
+        var delta = gameStateService.offerDraw(game, whitePlayerId);
+
+        // Assert
+        assertNull(delta);
+        assertEquals(0, gameStateService.getState(game).version());
+        verify(simpMessagingTemplate, times(1)).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void getState_ShouldReturnGameWithCurrentVersion() {
+        // Arrange
+        gameStateService.offerDraw(game, whitePlayerId);
+
+        // Act
+        var state = gameStateService.getState(game);
+
+        // Assert
+        assertEquals(1, state.version());
+        assertEquals(PlayerColor.WHITE, state.drawOfferedBy());
+        assertEquals(game.getId(), state.game().id());
+    }
+}
@@ -0,0 +1,105 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.dto.LeaderboardEntryDto;
+import com.silyosbekov.chessmate.dto.PlayerSummaryDto;
+import com.silyosbekov.chessmate.event.PlayerCreatedEvent;
+import com.silyosbekov.chessmate.event.RatingChangedEvent;
+import com.silyosbekov.chessmate.model.Player;
+import com.silyosbekov.chessmate.repository.PlayerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LeaderboardServiceTest {
+    private final PlayerSummaryDto alice = new PlayerSummaryDto(new UUID(0, 1), "alice", 1800);
+    private final PlayerSummaryDto bob = new PlayerSummaryDto(new UUID(0, 2), "bob", 1500);
+    private final PlayerSummaryDto carol = new PlayerSummaryDto(new UUID(0, 3), "carol", 1500);
+    private final PlayerSummaryDto dave = new PlayerSummaryDto(new UUID(0, 4), "dave", 1200);
+    private LeaderboardService leaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        var playerRepository = mock(PlayerRepository.class);
+        when(playerRepository.findAllSummaries()).thenReturn(List.of(dave, carol, bob, alice));
+        var playerCacheService = new PlayerCacheService(playerRepository, new SimpleMeterRegistry(), 100, 60000);
+        leaderboardService = new LeaderboardService(playerRepository, playerCacheService);
+        leaderboardService.loadPlayers();
+    }
+
+    @Test
+    void getTopPlayers_ShouldRankByEloAndShareRankOnTies() {
+        // Act
+        var topPlayers = leaderboardService.getTopPlayers(10);
+
+        // Assert
+        assertEquals(List.of(
+                new LeaderboardEntryDto(1, alice.id(), "alice", 1800),
+                new LeaderboardEntryDto(2, bob.id(), "bob", 1500),
+                new LeaderboardEntryDto(2, carol.id(), "carol", 1500),
+                new LeaderboardEntryDto(4, dave.id(), "dave", 1200)
+        ), topPlayers);
+    }
+
+    @Test
+    void getTopPlayers_ShouldLimitCount() {
+        assertEquals(2, leaderboardService.getTopPlayers(2).size());
+    }
+
+    @Test
+    void handleRatingChanged_ShouldUpdateRanks() {
+        // Act
+        leaderboardService.handleRatingChanged(new RatingChangedEvent(dave.id(), 1200, 1900));
+
+        // Assert
+        assertEquals(1, leaderboardService.getPlayerEntry(dave.id()).rank());
+        assertEquals(2, leaderboardService.getPlayerEntry(alice.id()).rank());
+        assertEquals(3, leaderboardService.getPlayerEntry(carol.id()).rank());
+        assertEquals(4, leaderboardService.getPlayersCount());
+    }
+
+    @Test
+    void handlePlayerCreated_ShouldRankNewPlayer() {
+        // Arrange
+        var player = new Player();
+        player.setUsername("erin");
+        player.setElo(1600);
+
+        // Act
+        leaderboardService.handlePlayerCreated(new PlayerCreatedEvent(player));
+
+        // Assert
+        assertEquals(new LeaderboardEntryDto(2, player.getId(), "erin", 1600), leaderboardService.getPlayerEntry(player.getId()));
+        assertEquals(3, leaderboardService.getPlayerEntry(bob.id()).rank());
+        assertEquals(5, leaderboardService.getPlayersCount());
+    }
+
+    @Test
+    void getNeighbours_ShouldReturnPlayersAroundPlayerInRankOrder() {
+        // Act
+        var neighbours = leaderboardService.getNeighbours(bob.id(), 1);
+
+        // Assert
+        assertEquals(List.of(alice.id(), bob.id(), carol.id()), neighbours.stream().map(LeaderboardEntryDto::playerId).toList());
+    }
+
+    @Test
+    void getNeighbours_ShouldStopAtTheEndsOfTheLeaderboard() {
+        // Act
+        var neighbours = leaderboardService.getNeighbours(dave.id(), 2);
+
+        // Assert
+        assertEquals(List.of(bob.id(), carol.id(), dave.id()), neighbours.stream().map(LeaderboardEntryDto::playerId).toList());
+    }
+
+    @Test
+    void getPlayerEntry_ShouldThrow_WhenPlayerIsNotRanked() {
+        assertThrows(NoSuchElementException.class, () -> leaderboardService.getPlayerEntry(UUID.randomUUID()));
+    }
+}
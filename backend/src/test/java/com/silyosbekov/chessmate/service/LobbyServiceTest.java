@@ -0,0 +1,106 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.dto.GetOpenGamesQuery;
+import com.silyosbekov.chessmate.dto.LobbyDeltaDto;
+import com.silyosbekov.chessmate.event.GameCancelledEvent;
+import com.silyosbekov.chessmate.event.GameCreatedEvent;
+import com.silyosbekov.chessmate.event.GameJoinedEvent;
+import com.silyosbekov.chessmate.model.Game;
+import com.silyosbekov.chessmate.model.GameStatus;
+import com.silyosbekov.chessmate.model.Player;
+import com.silyosbekov.chessmate.model.PlayerColor;
+import com.silyosbekov.chessmate.repository.GameRepository;
+import com.silyosbekov.chessmate.repository.PlayerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LobbyServiceTest {
+    private SimpMessagingTemplate simpMessagingTemplate;
+    private LobbyService lobbyService;
+
+    @BeforeEach
+    void setUp() {
+        simpMessagingTemplate = mock(SimpMessagingTemplate.class);
+        var playerCacheService = new PlayerCacheService(mock(PlayerRepository.class), new SimpleMeterRegistry(), 100, 60000);
+        lobbyService = new LobbyService(mock(GameRepository.class), simpMessagingTemplate, playerCacheService);
+    }
+
+    @Test
+    void handleGameCreated_ShouldAddGameAndPushDelta() {
+        // Arrange
+        var game = createOpenGame(PlayerColor.WHITE, 1500, true);
+
+        // Act
+        lobbyService.handleGameCreated(new GameCreatedEvent(game));
+
+        // Assert
+        var openGames = lobbyService.getOpenGames(GetOpenGamesQuery.all());
+        assertEquals(1, openGames.size());
+        assertEquals(game.getId(), openGames.get(0).id());
+        verify(simpMessagingTemplate).convertAndSend(
+                eq(LobbyService.LOBBY_TOPIC),
+                argThat((LobbyDeltaDto delta) -> delta.type() == LobbyDeltaDto.Type.ADDED && delta.gameId().equals(game.getId())));
+    }
+
+    @Test
+    void handleGameJoined_ShouldRemoveGameAndPushDelta() {
+        // Arrange
+        var game = createOpenGame(PlayerColor.WHITE, 1500, true);
+        lobbyService.handleGameCreated(new GameCreatedEvent(game));
+
+        // Act
+        lobbyService.handleGameJoined(new GameJoinedEvent(game));
+
+        // Assert
+        assertEquals(0, lobbyService.getOpenGamesCount());
+        verify(simpMessagingTemplate).convertAndSend(
+                eq(LobbyService.LOBBY_TOPIC),
+                argThat((LobbyDeltaDto delta) -> delta.type() == LobbyDeltaDto.Type.REMOVED && delta.game() == null));
+    }
+
+    @Test
+    void handleGameCancelled_ShouldNotPushDelta_WhenGameIsNotInLobby() {
+        // Act
+        lobbyService.handleGameCancelled(new GameCancelledEvent(createOpenGame(PlayerColor.BLACK, 1200, false)));
+
+        // Assert
+        verifyNoInteractions(simpMessagingTemplate);
+    }
+
+    @Test
+    void getOpenGames_ShouldApplyFilters() {
+        // Arrange
+        var rankedWhite = createOpenGame(PlayerColor.WHITE, 1600, true);
+        var casualWhite = createOpenGame(PlayerColor.WHITE, 1200, false);
+        var rankedBlack = createOpenGame(PlayerColor.BLACK, 1800, true);
+        lobbyService.handleGameCreated(new GameCreatedEvent(rankedWhite));
+        lobbyService.handleGameCreated(new GameCreatedEvent(casualWhite));
+        lobbyService.handleGameCreated(new GameCreatedEvent(rankedBlack));
+
+        // Act
+        var result = lobbyService.getOpenGames(new GetOpenGamesQuery(PlayerColor.WHITE, true, null, 1500, 1700));
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(rankedWhite.getId(), result.get(0).id());
+    }
+
+    private static Game createOpenGame(PlayerColor hostPlayerColor, int hostPlayerElo, boolean isRanked) {
+        var hostPlayer = new Player();
+        hostPlayer.setUsername("host");
+        hostPlayer.setElo(hostPlayerElo);
+
+        var game = new Game();
+        game.setHostPlayer(hostPlayer);
+        game.setHostPlayerColor(hostPlayerColor);
+        game.setRanked(isRanked);
+        game.setStatus(GameStatus.OPEN);
+        return game;
+    }
+}
@@ -0,0 +1,293 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.dto.AbandonmentDto;
+import com.silyosbekov.chessmate.dto.MakeMoveCommand;
+import com.silyosbekov.chessmate.dto.MoveDto;
+import com.silyosbekov.chessmate.dto.PlayerSummaryDto;
+import com.silyosbekov.chessmate.event.GameEndedEvent;
+import com.silyosbekov.chessmate.model.Game;
+import com.silyosbekov.chessmate.model.GameStatus;
+import com.silyosbekov.chessmate.model.MoveAckStatus;
+import com.silyosbekov.chessmate.model.PlayerColor;
+import com.silyosbekov.chessmate.repository.GameRepository;
+import com.silyosbekov.chessmate.repository.PlayerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MatchServiceTest {
+    private GameRepository gameRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private ApplicationEventPublisher eventPublisher;
+    private MatchService matchService;
+    private Game game;
+    private UUID gameId;
+
+    @BeforeEach
+    void setUp() {
+        gameRepository = mock(GameRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        var playerCacheService = mock(PlayerCacheService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(playerCacheService.getPlayer(any(UUID.class)))
+                .thenAnswer(invocation -> new PlayerSummaryDto(invocation.getArgument(0), "player", 1500));
+
+        matchService = new MatchService(
+                gameRepository,
+                mock(PlayerRepository.class),
+                playerCacheService,
+                eventPublisher,
+                meterRegistry);
+
+        game = matchService.startMatchedGame(UUID.randomUUID(), UUID.randomUUID(), "300+0");
+        gameId = game.getId();
+    }
+
+    @Test
+    void makeMove_ShouldAcceptMove_WhenPlyIsCurrent() {
+        // Act
+        var ack = matchService.makeMove(createCommand(PlayerColor.WHITE, 0, "e2", "e4"));
+
+        // Assert
+        assertEquals(MoveAckStatus.ACCEPTED, ack.status());
+        assertEquals(1, ack.ply());
+        assertEquals(0, ack.moves().get(0).ply());
+    }
+
+    @Test
+    void makeMove_ShouldReturnAppliedMove_WhenCommandIsRetried() {
+        // Arrange
+        var command = createCommand(PlayerColor.WHITE, 0, "e2", "e4");
+        var firstAck = matchService.makeMove(command);
+
+        // Act
+        var ack = matchService.makeMove(command);
+
+        // Assert
+        assertEquals(MoveAckStatus.DUPLICATE, ack.status());
+        assertEquals(1, ack.ply());
+        assertEquals(firstAck.moves(), ack.moves());
+    }
+
+    @Test
+    void makeMove_ShouldReject_WhenPlyIsAhead() {
+        // Act
+        var ack = matchService.makeMove(createCommand(PlayerColor.WHITE, 2, "d2", "d4"));
+
+        // Assert
+        assertEquals(MoveAckStatus.REJECTED, ack.status());
+        assertEquals(0, ack.ply());
+        assertTrue(ack.moves().isEmpty());
+    }
+
+    @Test
+    void makeMove_ShouldReject_WhenMoveIsIllegal() {
+        // Act
+        var ack = matchService.makeMove(createCommand(PlayerColor.WHITE, 0, "e2", "e5"));
+
+        // Assert
+        assertEquals(MoveAckStatus.REJECTED, ack.status());
+        assertEquals(0, ack.ply());
+    }
+
+    @Test
+    void makeMove_ShouldApplyPremoveWithOpponentMove() {
+        // Arrange
+        var premoveAck = matchService.makeMove(createCommand(PlayerColor.BLACK, 1, "e7", "e5"));
+
+        // Act
+        var ack = matchService.makeMove(createCommand(PlayerColor.WHITE, 0, "e2", "e4"));
+
+        // Assert
+        assertEquals(MoveAckStatus.QUEUED, premoveAck.status());
+        assertEquals(MoveAckStatus.ACCEPTED, ack.status());
+        assertEquals(2, ack.ply());
+        assertEquals(List.of("e4", "e5"), ack.moves().stream().map(MoveDto::to).toList());
+    }
+
+    @Test
+    void makeMove_ShouldDropPremove_WhenBlockedByOpponentMove() {
+        // Arrange
+        matchService.makeMove(createCommand(PlayerColor.WHITE, 0, "e2", "e4"));
+        matchService.makeMove(createCommand(PlayerColor.WHITE, 2, "e4", "e5"));
+
+        // Act
+        var ack = matchService.makeMove(createCommand(PlayerColor.BLACK, 1, "e7", "e5"));
+
+        // Assert
+        assertEquals(MoveAckStatus.ACCEPTED, ack.status());
+        assertEquals(2, ack.ply());
+        assertEquals(1, ack.moves().size());
+    }
+
+    @Test
+    void makeMove_ShouldReject_WhenStalePlyHasDifferentMove() {
+        // Arrange
+        matchService.makeMove(createCommand(PlayerColor.WHITE, 0, "e2", "e4"));
+
+        // Act
+        var ack = matchService.makeMove(createCommand(PlayerColor.WHITE, 0, "d2", "d4"));
+
+        // Assert
+        assertEquals(MoveAckStatus.REJECTED, ack.status());
+        assertEquals(1, ack.ply());
+    }
+
+    @Test
+    void makeMove_ShouldReject_WhenNotPlayersTurn() {
+        // Act
+        var ack = matchService.makeMove(createCommand(PlayerColor.BLACK, 0, "e7", "e5"));
+
+        // Assert
+        assertEquals(MoveAckStatus.REJECTED, ack.status());
+        assertEquals(0, ack.ply());
+    }
+
+    @Test
+    void makeMove_ShouldEndGame_WhenMoveIsCheckmate() {
+        // Arrange
+        matchService.makeMove(createCommand(PlayerColor.WHITE, 0, "f2", "f3"));
+        matchService.makeMove(createCommand(PlayerColor.BLACK, 1, "e7", "e5"));
+        matchService.makeMove(createCommand(PlayerColor.WHITE, 2, "g2", "g4"));
+
+        // Act
+        var ack = matchService.makeMove(createCommand(PlayerColor.BLACK, 3, "d8", "h4"));
+
+        // Assert
+        assertEquals(MoveAckStatus.ACCEPTED, ack.status());
+        assertTrue(ack.moves().get(0).isCheckmate());
+        assertEquals(GameStatus.COMPLETED, game.getStatus());
+        assertEquals(PlayerColor.BLACK, game.getWinnerPlayer());
+        assertTrue(game.getPgn().contains("[Result \"0-1\"]"));
+        assertTrue(game.getPgn().endsWith("\n1. f3 e5 2. g4 Qh4#"));
+        assertFalse(matchService.getActiveGameIds().contains(gameId));
+        verify(eventPublisher).publishEvent(any(GameEndedEvent.class));
+    }
+
+    @Test
+    void makeMove_ShouldPassMovesToListener_BeforeGameEnds() {
+        // Arrange
+        matchService.makeMove(createCommand(PlayerColor.WHITE, 0, "f2", "f3"));
+        matchService.makeMove(createCommand(PlayerColor.BLACK, 1, "e7", "e5"));
+        matchService.makeMove(createCommand(PlayerColor.WHITE, 2, "g2", "g4"));
+        var isActiveInListener = new boolean[1];
+
+        // Act
+        matchService.makeMove(
+                createCommand(PlayerColor.BLACK, 3, "d8", "h4"),
+                moves -> isActiveInListener[0] = matchService.getActiveGameIds().contains(gameId));
+
+        // Assert
+        assertTrue(isActiveInListener[0]);
+        assertFalse(matchService.getActiveGameIds().contains(gameId));
+    }
+
+    @Test
+    void drawGame_ShouldThrow_WhenGameHasAlreadyEnded() {
+        // Arrange
+        matchService.drawGame(gameId);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> matchService.drawGame(gameId));
+        verify(eventPublisher, times(1)).publishEvent(any(GameEndedEvent.class));
+    }
+
+    @Test
+    void resignGame_ShouldKeepResult_WhenGameEndedByCheckmate() {
+        // Arrange
+        playFoolsMate();
+        when(gameRepository.findWithPlayersById(gameId)).thenReturn(Optional.of(game));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> matchService.resignGame(gameId, game.getBlackPlayerId()));
+        assertEquals(GameStatus.COMPLETED, game.getStatus());
+        assertEquals(PlayerColor.BLACK, game.getWinnerPlayer());
+        verify(eventPublisher, times(1)).publishEvent(any(GameEndedEvent.class));
+    }
+
+    @Test
+    void resignGame_ShouldCancelAbandonTimer_WhenGameWasLeft() {
+        // Arrange
+        matchService.leaveGame(gameId, game.getWhitePlayerId());
+
+        // Act
+        matchService.resignGame(gameId, game.getBlackPlayerId());
+
+        // Assert
+        assertEquals(GameStatus.RESIGNED, game.getStatus());
+        assertEquals(PlayerColor.WHITE, game.getWinnerPlayer());
+        assertEquals(0, meterRegistry.get("chessmate.match.abandon.pending").gauge().value());
+    }
+
+    @Test
+    void leaveGame_ShouldKeepResult_WhenGameHasEnded() {
+        // Arrange
+        matchService.resignGame(gameId, game.getWhitePlayerId());
+        when(gameRepository.findWithPlayersById(gameId)).thenReturn(Optional.of(game));
+
+        // Act
+        matchService.leaveGame(gameId, game.getBlackPlayerId());
+
+        // Assert
+        assertEquals(GameStatus.RESIGNED, game.getStatus());
+        assertEquals(0, meterRegistry.get("chessmate.match.abandon.pending").gauge().value());
+    }
+
+    @Test
+    void takeAbandonment_ShouldCancelAbandonTimer_WhenGameWasLeft() {
+        // Arrange
+        matchService.leaveGame(gameId, game.getWhitePlayerId());
+
+        // Act
+        var abandonment = matchService.takeAbandonment(gameId);
+
+        // Assert
+        assertEquals(game.getWhitePlayerId(), abandonment.playerId());
+        assertTrue(abandonment.deadline().isAfter(Instant.now()));
+        assertEquals(0, meterRegistry.get("chessmate.match.abandon.pending").gauge().value());
+        assertNull(matchService.takeAbandonment(gameId));
+    }
+
+    @Test
+    void scheduleAbandonment_ShouldCompleteGame_WhenDeadlineHasPassed() throws InterruptedException {
+        // Arrange
+        matchService.leaveGame(gameId, game.getWhitePlayerId());
+        matchService.takeAbandonment(gameId);
+
+        // Act
+        matchService.scheduleAbandonment(gameId, new AbandonmentDto(game.getWhitePlayerId(), Instant.now().minusSeconds(1)));
+
+        // Assert
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (game.getStatus() != GameStatus.COMPLETED && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(GameStatus.COMPLETED, game.getStatus());
+        assertEquals(PlayerColor.BLACK, game.getWinnerPlayer());
+    }
+
+    private void playFoolsMate() {
+        matchService.makeMove(createCommand(PlayerColor.WHITE, 0, "f2", "f3"));
+        matchService.makeMove(createCommand(PlayerColor.BLACK, 1, "e7", "e5"));
+        matchService.makeMove(createCommand(PlayerColor.WHITE, 2, "g2", "g4"));
+        matchService.makeMove(createCommand(PlayerColor.BLACK, 3, "d8", "h4"));
+    }
+
+    private MakeMoveCommand createCommand(PlayerColor color, int ply, String from, String to) {
+        return new MakeMoveCommand(gameId, color, ply, from, to, null, false, false);
+    }
+}
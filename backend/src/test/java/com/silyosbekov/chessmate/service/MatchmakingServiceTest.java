@@ -0,0 +1,75 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.dto.PlayerSummaryDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MatchmakingServiceTest {
+    private MatchService matchService;
+    private MatchmakingService matchmakingService;
+
+    @BeforeEach
+    void setUp() {
+        matchService = mock(MatchService.class);
+        var playerCacheService = mock(PlayerCacheService.class);
+        when(playerCacheService.getPlayer(any(UUID.class)))
+                .thenAnswer(invocation -> new PlayerSummaryDto(invocation.getArgument(0), "player", 1500));
+
+        matchmakingService = new MatchmakingService(matchService, playerCacheService, mock(SimpMessagingTemplate.class),
+                new SimpleMeterRegistry(), List.of("5+0"), 100, 50, 25, 400);
+    }
+
+    @Test
+    void joinQueue_ShouldThrow_WhenPlayerIsAlreadyQueued() {
+        // Arrange
+        var playerId = UUID.randomUUID();
+        matchmakingService.joinQueue(playerId, "5+0");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> matchmakingService.joinQueue(playerId, "5+0"));
+        assertTrue(matchmakingService.isQueued(playerId));
+    }
+
+    @Test
+    void leaveQueue_ShouldRemovePlayerFromPool() {
+        // Arrange
+        var playerId = UUID.randomUUID();
+        var opponentId = UUID.randomUUID();
+        matchmakingService.joinQueue(playerId, "5+0");
+        matchmakingService.joinQueue(opponentId, "5+0");
+
+        // Act
+        var isRemoved = matchmakingService.leaveQueue(playerId);
+        matchmakingService.pairWaitingPlayers();
+
+        // Assert
+        assertTrue(isRemoved);
+        assertFalse(matchmakingService.isQueued(playerId));
+        assertTrue(matchmakingService.isQueued(opponentId));
+        verify(matchService, never()).startMatchedGame(any(), any(), anyString());
+    }
+
+    @Test
+    void joinQueue_ShouldQueuePlayerAgain_WhenPlayerLeftQueue() {
+        // Arrange
+        var playerId = UUID.randomUUID();
+        matchmakingService.joinQueue(playerId, "5+0");
+        matchmakingService.leaveQueue(playerId);
+
+        // Act
+        matchmakingService.joinQueue(playerId, "5+0");
+
+        // Assert
+        assertTrue(matchmakingService.isQueued(playerId));
+        assertFalse(matchmakingService.leaveQueue(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,69 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.event.PlayerDisconnectedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OnlinePlayersServiceTest {
+    private ApplicationEventPublisher eventPublisher;
+    private OnlinePlayersService onlinePlayersService;
+    private UUID playerId;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        onlinePlayersService = new OnlinePlayersService(
+                mock(SimpMessagingTemplate.class), eventPublisher, new SimpleMeterRegistry(), 0, 1);
+        playerId = UUID.randomUUID();
+        onlinePlayersService.addPlayer(playerId, "session-1");
+    }
+
+    @Test
+    void expireMissedHeartbeats_ShouldTakePlayerOffline_WhenHeartbeatIsMissed() throws InterruptedException {
+        // Arrange
+        Thread.sleep(10);
+
+        // Act
+        onlinePlayersService.expireMissedHeartbeats();
+
+        // Assert
+        assertFalse(onlinePlayersService.isPlayerOnline(playerId));
+        verify(eventPublisher).publishEvent(new PlayerDisconnectedEvent(playerId));
+    }
+
+    @Test
+    void heartbeat_ShouldBringPlayerBackOnline_WhenHeartbeatWasMissed() throws InterruptedException {
+        // Arrange
+        Thread.sleep(10);
+        onlinePlayersService.expireMissedHeartbeats();
+
+        // Act
+        var isOnline = onlinePlayersService.heartbeat("session-1");
+
+        // Assert
+        assertTrue(isOnline);
+        assertTrue(onlinePlayersService.isPlayerOnline(playerId));
+        assertEquals("session-1", onlinePlayersService.getSessionId(playerId));
+    }
+
+    @Test
+    void heartbeat_ShouldReturnFalse_WhenSessionDisconnected() {
+        // Arrange
+        onlinePlayersService.removePlayerBySessionId("session-1");
+
+        // Act
+        var isOnline = onlinePlayersService.heartbeat("session-1");
+
+        // Assert
+        assertFalse(isOnline);
+        assertFalse(onlinePlayersService.isPlayerOnline(playerId));
+    }
+}
@@ -0,0 +1,142 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.dto.BookMoveDto;
+import com.silyosbekov.chessmate.engine.Chess;
+import com.silyosbekov.chessmate.engine.Pgn;
+import com.silyosbekov.chessmate.engine.option.MoveOptions;
+import com.silyosbekov.chessmate.repository.GameRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OpeningBookServiceTest {
+    private Path bookPath;
+    private GameRepository gameRepository;
+    private OpeningBookService openingBookService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        bookPath = Files.createTempFile("opening-book", ".bin");
+        Files.delete(bookPath);
+        gameRepository = mock(GameRepository.class);
+        openingBookService = new OpeningBookService(gameRepository, bookPath.toString(), 8);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(bookPath);
+    }
+
+    @Test
+    void getBookMoves_ShouldReturnEmptyList_WhenBookIsNotLoaded() {
+        // Act
+        openingBookService.loadBook();
+        var bookMoves = openingBookService.getBookMoves(new Chess());
+
+        // Assert
+        assertTrue(bookMoves.isEmpty());
+    }
+
+    @Test
+    void buildBook_ShouldWeightMovesByResult() throws IOException {
+        // Arrange
+        when(gameRepository.streamPgnByStatusIn(any())).thenReturn(Stream.of(
+                pgn("1-0", "e4", "e5", "Nf3"),
+                pgn("1/2-1/2", "e4", "c5"),
+                pgn("0-1", "d4", "d5"),
+                pgn("*", "c4")));
+
+        // Act
+        var summary = openingBookService.buildBook();
+        var bookMoves = openingBookService.getBookMoves(new Chess());
+
+        // Assert
+        assertEquals(3, summary.gamesCount());
+        assertEquals(List.of(new BookMoveDto("e2", "e4", null, "e4", 3)), bookMoves);
+        assertEquals(
+                List.of(new BookMoveDto("d7", "d5", null, "d5", 2)),
+                openingBookService.getBookMoves(play("d4")));
+        assertEquals(
+                List.of(new BookMoveDto("c7", "c5", null, "c5", 1)),
+                openingBookService.getBookMoves(play("e4")));
+    }
+
+    @Test
+    void buildBook_ShouldStopAtMaximumPly() throws IOException {
+        // Arrange
+        var moves = new String[] {"e4", "e5", "Nf3", "Nc6", "Bc4", "Bc5", "c3", "Nf6", "d4", "exd4"};
+        when(gameRepository.streamPgnByStatusIn(any())).thenReturn(Stream.of(pgn("1/2-1/2", moves)));
+
+        // Act
+        openingBookService.buildBook();
+
+        // Assert
+        assertEquals(
+                List.of(new BookMoveDto("g8", "f6", null, "Nf6", 1)),
+                openingBookService.getBookMoves(play("e4", "e5", "Nf3", "Nc6", "Bc4", "Bc5", "c3")));
+        assertTrue(openingBookService.getBookMoves(play("e4", "e5", "Nf3", "Nc6", "Bc4", "Bc5", "c3", "Nf6")).isEmpty());
+    }
+
+    @Test
+    void getBookMoves_ShouldReturnCastling_WhenBookMoveIsCastling() throws IOException {
+        // Arrange
+        var moves = new String[] {"e4", "e5", "Nf3", "Nc6", "Bc4", "Bc5", "O-O"};
+        when(gameRepository.streamPgnByStatusIn(any())).thenReturn(Stream.of(pgn("1-0", moves)));
+
+        // Act
+        openingBookService.buildBook();
+        var bookMoves = openingBookService.getBookMoves(play("e4", "e5", "Nf3", "Nc6", "Bc4", "Bc5"));
+
+        // Assert
+        assertEquals(List.of(new BookMoveDto("e1", "g1", null, "O-O", 2)), bookMoves);
+    }
+
+    @Test
+    void pickBookMove_ShouldPickMoveByWeight() throws IOException {
+        // Arrange
+        when(gameRepository.streamPgnByStatusIn(any())).thenReturn(Stream.of(
+                pgn("1-0", "e4"),
+                pgn("1/2-1/2", "d4")));
+        openingBookService.buildBook();
+        var random = mock(RandomGenerator.class);
+
+        // Act
+        when(random.nextLong(3L)).thenReturn(1L);
+        var first = openingBookService.pickBookMove(new Chess(), random);
+        when(random.nextLong(3L)).thenReturn(2L);
+        var second = openingBookService.pickBookMove(new Chess(), random);
+
+        // Assert
+        assertEquals("e4", first.orElseThrow().san());
+        assertEquals("d4", second.orElseThrow().san());
+        assertTrue(openingBookService.pickBookMove(play("a3"), random).isEmpty());
+    }
+
+    private static String pgn(String result, String... moves) {
+        var pgn = new Pgn("White Player", "Black Player");
+        pgn.addHeader("Result", result);
+        pgn.setMoves(moves);
+        return pgn.toString();
+    }
+
+    private static Chess play(String... moves) {
+        var chess = new Chess();
+
+        for (var san : moves) {
+            chess.move(new MoveOptions(null, null, san, null, false));
+        }
+
+        return chess;
+    }
+}
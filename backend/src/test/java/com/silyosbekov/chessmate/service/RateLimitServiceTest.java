@@ -0,0 +1,41 @@
+package com.silyosbekov.chessmate.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitServiceTest {
+    private static final String ENDPOINT = "POST /api/games";
+
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        // A permit every 2.5 seconds
+        rateLimitService = new RateLimitService(new SimpleMeterRegistry(), List.of(), List.of(ENDPOINT + "=0.4:1"));
+    }
+
+    @Test
+    void acquireRest_ShouldRoundRetryAfterUp_WhenLimitIsExceeded() {
+        // Arrange
+        assertEquals(0, rateLimitService.acquireRest(ENDPOINT, "client"));
+
+        // Act
+        var retryAfterSeconds = rateLimitService.acquireRest(ENDPOINT, "client");
+
+        // Assert
+        assertEquals(3, retryAfterSeconds);
+    }
+
+    @Test
+    void acquireRest_ShouldAllowRequest_WhenEndpointIsNotLimited() {
+        // Act & Assert
+        for (var i = 0; i < 10; i++) {
+            assertEquals(0, rateLimitService.acquireRest("GET /api/games", "client"));
+        }
+    }
+}
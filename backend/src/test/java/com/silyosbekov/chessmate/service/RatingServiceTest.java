@@ -0,0 +1,165 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.event.GameEndedEvent;
+import com.silyosbekov.chessmate.event.RatingChangedEvent;
+import com.silyosbekov.chessmate.model.Game;
+import com.silyosbekov.chessmate.model.Player;
+import com.silyosbekov.chessmate.model.PlayerColor;
+import com.silyosbekov.chessmate.repository.PlayerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RatingServiceTest {
+    private PlayerRepository playerRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private RatingService ratingService;
+    private Player alice;
+    private Player bob;
+
+    @BeforeEach
+    void setUp() {
+        playerRepository = mock(PlayerRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        var playerCacheService = new PlayerCacheService(playerRepository, new SimpleMeterRegistry(), 100, 60000);
+        ratingService = new RatingService(
+                playerRepository,
+                playerCacheService,
+                eventPublisher,
+                mock(PlatformTransactionManager.class),
+                32,
+                500);
+
+        alice = createPlayer("alice", 1500);
+        bob = createPlayer("bob", 1500);
+        when(playerRepository.findAllById(anyIterable())).thenReturn(List.of(alice, bob));
+    }
+
+    @Test
+    void applyPendingResults_ShouldApplyResultsInOrder() {
+        // Arrange
+        ratingService.handleGameEnded(new GameEndedEvent(createRankedGame(alice, bob, PlayerColor.WHITE)));
+        ratingService.handleGameEnded(new GameEndedEvent(createRankedGame(bob, alice, PlayerColor.WHITE)));
+
+        // Act
+        ratingService.applyPendingResults();
+
+        // Assert
+        // Alice wins +16 at equal ratings, then bob rated 1484 beats alice rated 1516 for +17
+        assertEquals(1499, alice.getElo());
+        assertEquals(1501, bob.getElo());
+        assertEquals(0, ratingService.getPendingResultsCount());
+        verify(playerRepository, times(1)).findAllById(anyIterable());
+        verify(eventPublisher).publishEvent(new RatingChangedEvent(alice.getId(), 1500, 1499));
+        verify(eventPublisher).publishEvent(new RatingChangedEvent(bob.getId(), 1500, 1501));
+    }
+
+    @Test
+    void handleGameEnded_ShouldIgnoreUnrankedGames() {
+        // Arrange
+        var game = createRankedGame(alice, bob, null);
+        game.setRanked(false);
+
+        // Act
+        ratingService.handleGameEnded(new GameEndedEvent(game));
+
+        // Assert
+        assertEquals(0, ratingService.getPendingResultsCount());
+    }
+
+    @Test
+    void applyPendingResults_ShouldNotSavePlayers_WhenRatingsAreUnchanged() {
+        // Arrange
+        ratingService.handleGameEnded(new GameEndedEvent(createRankedGame(alice, bob, null)));
+
+        // Act
+        ratingService.applyPendingResults();
+
+        // Assert
+        assertEquals(1500, alice.getElo());
+        verify(playerRepository).saveAll(List.of());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void handleGameEnded_ShouldQueueResultOnce_WhenGameEndIsPublishedTwice() {
+        // Arrange
+        var game = createRankedGame(alice, bob, PlayerColor.WHITE);
+        ratingService.handleGameEnded(new GameEndedEvent(game));
+
+        // Act
+        ratingService.handleGameEnded(new GameEndedEvent(game));
+        ratingService.applyPendingResults();
+
+        // Assert
+        assertEquals(1516, alice.getElo());
+        assertEquals(1484, bob.getElo());
+    }
+
+    @Test
+    void applyPendingResults_ShouldDropFailingResult_WhenOtherResultsAreApplied() {
+        // Arrange
+        var carol = createPlayer("carol", 1500);
+        when(playerRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<?> ids = invocation.getArgument(0);
+
+            for (var id : ids) {
+                if (id.equals(carol.getId())) {
+                    throw new IllegalStateException("Player cannot be loaded");
+                }
+            }
+
+            return List.of(alice, bob);
+        });
+
+        ratingService.handleGameEnded(new GameEndedEvent(createRankedGame(carol, bob, PlayerColor.WHITE)));
+        ratingService.handleGameEnded(new GameEndedEvent(createRankedGame(alice, bob, PlayerColor.WHITE)));
+
+        // Act
+        ratingService.applyPendingResults();
+
+        // Assert
+        assertEquals(1516, alice.getElo());
+        assertEquals(1484, bob.getElo());
+        assertEquals(0, ratingService.getPendingResultsCount());
+    }
+
+    @Test
+    void applyPendingResults_ShouldKeepResults_WhenEveryResultFails() {
+        // Arrange
+        when(playerRepository.findAllById(anyIterable())).thenThrow(new IllegalStateException("Database is unavailable"));
+        ratingService.handleGameEnded(new GameEndedEvent(createRankedGame(alice, bob, PlayerColor.WHITE)));
+        ratingService.handleGameEnded(new GameEndedEvent(createRankedGame(bob, alice, PlayerColor.WHITE)));
+
+        // Act
+        ratingService.applyPendingResults();
+
+        // Assert
+        assertEquals(2, ratingService.getPendingResultsCount());
+        assertEquals(1500, alice.getElo());
+    }
+
+    private static Player createPlayer(String username, int elo) {
+        var player = new Player();
+        player.setUsername(username);
+        player.setElo(elo);
+        return player;
+    }
+
+    private static Game createRankedGame(Player whitePlayer, Player blackPlayer, PlayerColor winner) {
+        var game = new Game();
+        game.setWhitePlayer(whitePlayer);
+        game.setBlackPlayer(blackPlayer);
+        game.setRanked(true);
+        game.setWinnerPlayer(winner);
+        return game;
+    }
+}
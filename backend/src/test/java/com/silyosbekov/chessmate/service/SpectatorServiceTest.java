@@ -0,0 +1,258 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.core.InProcessClusterBus;
+import com.silyosbekov.chessmate.dto.MoveDto;
+import com.silyosbekov.chessmate.dto.SpectatorFrameDto;
+import com.silyosbekov.chessmate.event.GameEndedEvent;
+import com.silyosbekov.chessmate.event.GameHandedOffEvent;
+import com.silyosbekov.chessmate.event.GameImportedEvent;
+import com.silyosbekov.chessmate.model.Game;
+import com.silyosbekov.chessmate.model.GameStatus;
+import com.silyosbekov.chessmate.model.PlayerColor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.CloseStatus;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SpectatorServiceTest {
+    private SimpMessagingTemplate simpMessagingTemplate;
+    private MatchService matchService;
+    private InProcessClusterBus clusterBus;
+    private ClusterService clusterService;
+    private SpectatorService spectatorService;
+    private UUID gameId;
+
+    @BeforeEach
+    void setUp() {
+        simpMessagingTemplate = mock(SimpMessagingTemplate.class);
+        matchService = mock(MatchService.class);
+        when(matchService.isActiveGame(any(UUID.class))).thenReturn(true);
+        when(matchService.getActiveGameMoves(any(UUID.class))).thenReturn(List.of());
+        // A long interval keeps the fan-out thread out of the way, the tests flush manually
+        clusterBus = new InProcessClusterBus();
+        clusterService = createClusterService(matchService, "node-a");
+        spectatorService = new SpectatorService(simpMessagingTemplate, matchService, clusterService, 1, 60000);
+        spectatorService.registerClusterHandlers();
+        gameId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        spectatorService.shutdown();
+        clusterBus.shutdown();
+    }
+
+    @Test
+    void getSnapshot_ShouldReturnMovesAndShardTopic() {
+        // Arrange
+        when(matchService.getActiveGameMoves(gameId)).thenReturn(List.of(createMove("e2", "e4", 0)));
+
+        // Act
+        var snapshot = spectatorService.getSnapshot(gameId, "session");
+
+        // Assert
+        assertEquals(1, snapshot.moves().size());
+        assertEquals(SpectatorService.SPECTATE_TOPIC_PREFIX + gameId + ".0", snapshot.topic());
+    }
+
+    @Test
+    void getSnapshot_ShouldThrow_WhenGameIsNotOngoing() {
+        // Arrange
+        when(matchService.getActiveGameMoves(gameId)).thenThrow(new NoSuchElementException());
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> spectatorService.getSnapshot(gameId, "session"));
+    }
+
+    @Test
+    void flush_ShouldSendMovesAsSingleFrame_WhenGameHasSpectators() {
+        // Arrange
+        var topic = spectatorService.getSnapshot(gameId, "session").topic();
+        spectatorService.handleSubscribe(new SessionSubscribeEvent(this, createSubscribeMessage("session", "sub-0", topic)));
+        spectatorService.recordMove(createMove("e2", "e4", 0));
+        spectatorService.recordMove(createMove("e7", "e5", 1));
+
+        // Act
+        spectatorService.flush();
+        spectatorService.flush();
+
+        // Assert
+        verify(simpMessagingTemplate, times(1)).convertAndSend(eq(topic), argThat((SpectatorFrameDto frame) ->
+                frame.firstMoveIndex() == 0 && frame.moves().size() == 2 && frame.status() == null));
+        assertEquals(1, spectatorService.getSpectatorsCount(gameId));
+    }
+
+    @Test
+    void flush_ShouldSendOnlyMovesRecordedWhileGameHasSpectators() {
+        // Arrange
+        spectatorService.recordMove(createMove("e2", "e4", 0));
+        var topic = spectatorService.getSnapshot(gameId, "session").topic();
+        spectatorService.handleSubscribe(new SessionSubscribeEvent(this, createSubscribeMessage("session", "sub-0", topic)));
+        spectatorService.recordMove(createMove("e7", "e5", 1));
+
+        // Act
+        spectatorService.flush();
+
+        // Assert
+        verify(simpMessagingTemplate).convertAndSend(eq(topic), argThat((SpectatorFrameDto frame) ->
+                frame.firstMoveIndex() == 1 && frame.moves().size() == 1));
+    }
+
+    @Test
+    void flush_ShouldNotSend_WhenGameHasNoSpectators() {
+        // Arrange
+        spectatorService.recordMove(createMove("e2", "e4", 0));
+
+        // Act
+        spectatorService.flush();
+
+        // Assert
+        verify(simpMessagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void handleGameEnded_ShouldSendFinalStatus() {
+        // Arrange
+        var game = new Game();
+        game.setStatus(GameStatus.RESIGNED);
+        var topic = spectatorService.getSnapshot(game.getId(), "session").topic();
+        spectatorService.handleSubscribe(new SessionSubscribeEvent(this, createSubscribeMessage("session", "sub-0", topic)));
+
+        // Act
+        spectatorService.handleGameEnded(new GameEndedEvent(game));
+        spectatorService.flush();
+
+        // Assert
+        verify(simpMessagingTemplate).convertAndSend(eq(topic), argThat((SpectatorFrameDto frame) ->
+                GameStatus.RESIGNED.name().equals(frame.status())));
+    }
+
+    @Test
+    void handleSubscribe_ShouldIgnoreGame_WhenGameIsNotOngoing() {
+        // Arrange
+        when(matchService.getActiveGameMoves(gameId)).thenThrow(new NoSuchElementException());
+        var topic = SpectatorService.SPECTATE_TOPIC_PREFIX + gameId + ".0";
+
+        // Act
+        spectatorService.handleSubscribe(new SessionSubscribeEvent(this, createSubscribeMessage("session", "sub-0", topic)));
+        spectatorService.recordMove(createMove("e2", "e4", 0));
+        spectatorService.flush();
+
+        // Assert
+        assertEquals(0, spectatorService.getSpectatorsCount(gameId));
+        verify(simpMessagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void handleDisconnect_ShouldRemoveSpectator() {
+        // Arrange
+        var topic = spectatorService.getSnapshot(gameId, "session").topic();
+        var message = createSubscribeMessage("session", "sub-0", topic);
+        spectatorService.handleSubscribe(new SessionSubscribeEvent(this, message));
+
+        // Act
+        spectatorService.handleDisconnect(new SessionDisconnectEvent(this, message, "session", CloseStatus.NORMAL));
+
+        // Assert
+        assertEquals(0, spectatorService.getSpectatorsCount(gameId));
+    }
+
+    @Test
+    void handleDisconnect_ShouldStopBufferingMoves_WhenLastSpectatorLeaves() {
+        // Arrange
+        var topic = spectatorService.getSnapshot(gameId, "session").topic();
+        var message = createSubscribeMessage("session", "sub-0", topic);
+        spectatorService.handleSubscribe(new SessionSubscribeEvent(this, message));
+        spectatorService.handleDisconnect(new SessionDisconnectEvent(this, message, "session", CloseStatus.NORMAL));
+
+        // Act
+        spectatorService.recordMove(createMove("e2", "e4", 0));
+        spectatorService.handleSubscribe(new SessionSubscribeEvent(this, message));
+        spectatorService.flush();
+
+        // Assert
+        verify(simpMessagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void flush_ShouldDropGame_WhenGameIsNoLongerOngoing() {
+        // Arrange
+        var topic = spectatorService.getSnapshot(gameId, "session").topic();
+        spectatorService.handleSubscribe(new SessionSubscribeEvent(this, createSubscribeMessage("session", "sub-0", topic)));
+        when(matchService.isActiveGame(gameId)).thenReturn(false);
+
+        // Act
+        spectatorService.flush();
+
+        // Assert
+        assertEquals(0, spectatorService.getSpectatorsCount(gameId));
+    }
+
+    @Test
+    void handleGameHandedOff_ShouldSendBufferedMovesAndPassSpectatorsToNewOwner() {
+        // Arrange
+        var game = new Game();
+        gameId = game.getId();
+        var newOwnerTemplate = mock(SimpMessagingTemplate.class);
+        var newOwnerMatchService = mock(MatchService.class);
+        when(newOwnerMatchService.isActiveGame(gameId)).thenReturn(true);
+        when(newOwnerMatchService.getActiveGameMoves(gameId)).thenReturn(List.of(createMove("e2", "e4", 0)));
+        var newOwnerClusterService = createClusterService(newOwnerMatchService, "node-b");
+        var newOwner = new SpectatorService(newOwnerTemplate, newOwnerMatchService, newOwnerClusterService, 1, 60000);
+        newOwner.registerClusterHandlers();
+
+        // The game is spectated while the first node is alone in the cluster
+        var topic = SpectatorService.SPECTATE_TOPIC_PREFIX + gameId + ".0";
+        spectatorService.handleSubscribe(new SessionSubscribeEvent(this, createSubscribeMessage("session", "sub-0", topic)));
+        spectatorService.recordMove(createMove("e2", "e4", 0));
+        clusterService.join();
+        newOwnerClusterService.join();
+        newOwner.handleGameImported(new GameImportedEvent(game));
+        newOwner.recordMove(createMove("e7", "e5", 1));
+
+        // Act
+        spectatorService.handleGameHandedOff(new GameHandedOffEvent(gameId, "node-b"));
+        newOwner.flush();
+
+        // Assert
+        verify(simpMessagingTemplate).convertAndSend(eq(topic), argThat((SpectatorFrameDto frame) ->
+                frame.firstMoveIndex() == 0 && frame.moves().size() == 1));
+        verify(newOwnerTemplate).convertAndSend(eq(topic), argThat((SpectatorFrameDto frame) ->
+                frame.firstMoveIndex() == 1 && frame.moves().size() == 1));
+        assertEquals(0, spectatorService.getSpectatorsCount(gameId));
+        assertEquals(1, newOwner.getSpectatorsCount(gameId));
+        newOwner.shutdown();
+    }
+
+    private ClusterService createClusterService(MatchService matchService, String nodeId) {
+        return new ClusterService(clusterBus, matchService, mock(GameStateService.class), mock(ApplicationEventPublisher.class), nodeId, 16);
+    }
+
+    private MoveDto createMove(String from, String to, int ply) {
+        return new MoveDto(gameId, UUID.randomUUID(), UUID.randomUUID(), PlayerColor.WHITE, from, to, null, false, false, ply);
+    }
+
+    private static Message<byte[]> createSubscribeMessage(String sessionId, String subscriptionId, String destination) {
+        var headers = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        headers.setSessionId(sessionId);
+        headers.setSubscriptionId(subscriptionId);
+        headers.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+}
@@ -0,0 +1,112 @@
+package com.silyosbekov.chessmate.service;
+
+import com.silyosbekov.chessmate.dto.CreateTournamentCommand;
+import com.silyosbekov.chessmate.dto.MakeMoveCommand;
+import com.silyosbekov.chessmate.dto.PlayerSummaryDto;
+import com.silyosbekov.chessmate.event.GameEndedEvent;
+import com.silyosbekov.chessmate.model.Game;
+import com.silyosbekov.chessmate.model.Player;
+import com.silyosbekov.chessmate.model.PlayerColor;
+import com.silyosbekov.chessmate.model.TournamentStatus;
+import com.silyosbekov.chessmate.model.TournamentType;
+import com.silyosbekov.chessmate.repository.GameRepository;
+import com.silyosbekov.chessmate.repository.PlayerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TournamentServiceTest {
+    private final Player alice = new Player();
+    private final Player bob = new Player();
+    private MatchService matchService;
+    private TournamentService tournamentService;
+
+    @BeforeEach
+    void setUp() {
+        var summaries = Map.of(
+                alice.getId(), new PlayerSummaryDto(alice.getId(), "alice", 1800),
+                bob.getId(), new PlayerSummaryDto(bob.getId(), "bob", 1500));
+
+        var gameRepository = mock(GameRepository.class);
+        var playerRepository = mock(PlayerRepository.class);
+        var playerCacheService = mock(PlayerCacheService.class);
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(playerRepository.getReferenceById(alice.getId())).thenReturn(alice);
+        when(playerRepository.getReferenceById(bob.getId())).thenReturn(bob);
+        when(playerCacheService.getPlayer(any(UUID.class))).thenAnswer(invocation -> summaries.get(invocation.getArgument(0)));
+
+        // Game events are delivered synchronously, as without a transaction
+        matchService = new MatchService(
+                gameRepository,
+                playerRepository,
+                playerCacheService,
+                event -> {
+                    if (event instanceof GameEndedEvent gameEndedEvent) {
+                        tournamentService.handleGameEnded(gameEndedEvent);
+                    }
+                },
+                new SimpleMeterRegistry());
+
+        tournamentService = new TournamentService(matchService, playerCacheService, mock(SimpMessagingTemplate.class));
+    }
+
+    @Test
+    void handleGameEnded_ShouldPairNextSwissRound_WhenGameEndsByCheckmate() {
+        // Arrange
+        var tournamentId = tournamentService.createTournament(
+                new CreateTournamentCommand("Swiss", TournamentType.SWISS, "3+2", 2, 0)).id();
+        tournamentService.joinTournament(tournamentId, alice.getId());
+        tournamentService.joinTournament(tournamentId, bob.getId());
+        tournamentService.startTournament(tournamentId);
+        var gameId = matchService.getActiveGameIds().iterator().next();
+        var blackPlayerId = matchService.getActiveGame(gameId).getBlackPlayerId();
+
+        // Act
+        playFoolsMate(gameId);
+
+        // Assert
+        var tournament = tournamentService.getTournament(tournamentId);
+        var leader = tournamentService.getStandings(tournamentId, 1).get(0);
+        assertEquals(TournamentStatus.ONGOING, tournament.status());
+        assertEquals(2, tournament.currentRound());
+        assertEquals(blackPlayerId, leader.playerId());
+        assertEquals(1.0, leader.score());
+        assertEquals(1, leader.gamesPlayed());
+        assertEquals(1, matchService.getActiveGameIds().size());
+        assertFalse(matchService.getActiveGameIds().contains(gameId));
+    }
+
+    @Test
+    void handleGameEnded_ShouldCompleteSwissTournament_WhenLastRoundEndsByCheckmate() {
+        // Arrange
+        var tournamentId = tournamentService.createTournament(
+                new CreateTournamentCommand("Swiss", TournamentType.SWISS, "3+2", 1, 0)).id();
+        tournamentService.joinTournament(tournamentId, alice.getId());
+        tournamentService.joinTournament(tournamentId, bob.getId());
+        tournamentService.startTournament(tournamentId);
+
+        // Act
+        playFoolsMate(matchService.getActiveGameIds().iterator().next());
+
+        // Assert
+        assertEquals(TournamentStatus.COMPLETED, tournamentService.getTournament(tournamentId).status());
+        assertTrue(matchService.getActiveGameIds().isEmpty());
+    }
+
+    private void playFoolsMate(UUID gameId) {
+        var moves = new String[][] {{"f2", "f3"}, {"e7", "e5"}, {"g2", "g4"}, {"d8", "h4"}};
+
+        for (var ply = 0; ply < moves.length; ply++) {
+            var color = ply % 2 == 0 ? PlayerColor.WHITE : PlayerColor.BLACK;
+            matchService.makeMove(new MakeMoveCommand(gameId, color, ply, moves[ply][0], moves[ply][1], null, false, false));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.silyosbekov.chessmate.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hibernate statement inspector that counts the executed SQL statements.
+ * Register it with the {@code spring.jpa.properties.hibernate.session_factory.statement_inspector} property
+ * and wrap the code under test with {@link #assertQueryBudget(int, Supplier)}.
+ */
+public class QueryCountInspector implements StatementInspector {
+    private static final AtomicInteger queryCount = new AtomicInteger();
+
+    @Override
+    public String inspect(String sql) {
+        queryCount.incrementAndGet();
+        return sql;
+    }
+
+    public static void reset() {
+        queryCount.set(0);
+    }
+
+    public static int getQueryCount() {
+        return queryCount.get();
+    }
+
+    /**
+     * Run the action and fail if it executes more SQL statements than the budget.
+     * @param budget The maximum number of SQL statements
+     * @param action The action to run
+     * @return The result of the action
+     */
+    public static <T> T assertQueryBudget(int budget, Supplier<T> action) {
+        reset();
+        var result = action.get();
+        var count = getQueryCount();
+        assertTrue(count <= budget, "Expected at most %d queries, but %d were executed".formatted(budget, count));
+        return result;
+    }
+}
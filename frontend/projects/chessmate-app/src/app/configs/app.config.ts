@@ -1,4 +1,5 @@
 export const APP_CONFIG = {
   apiUrl: 'http://localhost:8000/api',
   wsUrl: 'ws://127.0.0.1:8000/ws',
+  heartbeatInterval: 10000,
 };
@@ -0,0 +1,22 @@
+import {PlayerColor} from './playerColor';
+import {GameStatus} from './gameStatus';
+
+export interface GameListItemDto {
+  id: string;
+  hostPlayerId?: string;
+  hostPlayerUsername?: string;
+  hostPlayerColor?: PlayerColor;
+  hostPlayerElo?: number;
+  whitePlayerId?: string;
+  whitePlayerUsername?: string;
+  whitePlayerElo?: number;
+  blackPlayerId?: string;
+  blackPlayerUsername?: string;
+  blackPlayerElo?: number;
+  winnerPlayer?: PlayerColor;
+  status: GameStatus;
+  currentTurn?: PlayerColor;
+  isRanked: boolean;
+  isTimerEnabled: boolean;
+  createdDate: string;
+}
@@ -0,0 +1,14 @@
+import {GameStatus} from './gameStatus';
+import {PlayerColor} from './playerColor';
+
+/** Change of a game's state, only the changed fields are present */
+export interface GameStateDeltaDto {
+  gameId: string;
+  /** Follows the previous version by one, a gap means a delta was missed */
+  version: number;
+  status?: GameStatus;
+  winnerPlayer?: PlayerColor;
+  isDrawOffered?: boolean;
+  drawOfferedBy?: PlayerColor;
+  currentTurn?: PlayerColor;
+}
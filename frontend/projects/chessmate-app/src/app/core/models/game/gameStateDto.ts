@@ -0,0 +1,8 @@
+import {GameDto} from './gameDto';
+import {PlayerColor} from './playerColor';
+
+export interface GameStateDto {
+  game: GameDto;
+  version: number;
+  drawOfferedBy: PlayerColor | null;
+}
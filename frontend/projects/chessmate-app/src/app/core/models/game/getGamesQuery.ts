@@ -1,6 +1,7 @@
-import {PagedQuery} from '../pagedQuery';
 import {GameStatus} from './gameStatus';
 
-export interface GetGamesQuery extends PagedQuery {
+export interface GetGamesQuery {
   gameStatus?: GameStatus;
+  cursor?: string;
+  pageSize?: number;
 }
@@ -1,6 +1,7 @@
 export * from './createGameCommand';
 export * from './createAnonymousGameCommand';
 export * from './gameDto';
+export * from './gameListItemDto';
 export * from './gameStatus';
 export * from './getGamesQuery';
 export * from './joinGameCommand';
@@ -13,3 +14,11 @@ export * from './acceptDrawCommand';
 export * from './offerDrawCommand';
 export * from './declineDrawCommand';
 export * from './resignGameCommand';
+export * from './joinMatchmakingCommand';
+export * from './leaveMatchmakingCommand';
+export * from './spectatorSnapshotDto';
+export * from './spectatorFrameDto';
+export * from './moveAckDto';
+export * from './moveAckStatus';
+export * from './gameStateDeltaDto';
+export * from './gameStateDto';
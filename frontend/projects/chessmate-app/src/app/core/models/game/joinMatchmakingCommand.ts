@@ -0,0 +1,5 @@
+export interface JoinMatchmakingCommand {
+  playerId: string;
+  /** Minutes plus increment in seconds, e.g. `5+3` */
+  timeControl: string;
+}
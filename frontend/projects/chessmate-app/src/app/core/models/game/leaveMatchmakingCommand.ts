@@ -0,0 +1,3 @@
+export interface LeaveMatchmakingCommand {
+  playerId: string;
+}
@@ -3,8 +3,12 @@ import {PlayerColor} from './playerColor';
 export interface MakeMoveCommand {
   gameId: string;
   color: PlayerColor;
+  /** Number of plies already played, retries resend the same ply */
+  ply: number;
   from: string;
   to: string;
+  /** Piece type a pawn is promoted to, e.g. `q` */
+  promotion: string | null;
   isCheckmate: boolean;
   isStalemate: boolean;
 }
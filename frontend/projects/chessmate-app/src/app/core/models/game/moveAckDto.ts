@@ -0,0 +1,14 @@
+import {MoveAckStatus} from './moveAckStatus';
+import {MoveDto} from './moveDto';
+import {PlayerColor} from './playerColor';
+
+export interface MoveAckDto {
+  gameId: string;
+  color: PlayerColor;
+  requestedPly: number;
+  /** Authoritative number of plies played in the game */
+  ply: number;
+  status: MoveAckStatus;
+  /** Applied moves, followed by the opponent's premove when it was applied in the same step */
+  moves: MoveDto[];
+}
@@ -0,0 +1,6 @@
+export enum MoveAckStatus {
+  ACCEPTED = 'ACCEPTED',
+  QUEUED = 'QUEUED',
+  DUPLICATE = 'DUPLICATE',
+  REJECTED = 'REJECTED',
+}
@@ -7,8 +7,10 @@ export interface MoveDto {
   color: PlayerColor;
   from: string;
   to: string;
+  promotion: string | null;
   isCheckmate: boolean;
   isStalemate: boolean
   san: string;
   pgn: string;
+  ply: number;
 }
@@ -0,0 +1,9 @@
+import {MoveDto} from './moveDto';
+
+export interface SpectatorFrameDto {
+  gameId: string;
+  firstMoveIndex: number;
+  moves: MoveDto[];
+  /** Final status of the game, set only in the last frame */
+  status: string | null;
+}
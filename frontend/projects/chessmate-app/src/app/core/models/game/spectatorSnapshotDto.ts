@@ -0,0 +1,10 @@
+import {GameDto} from './gameDto';
+import {MoveDto} from './moveDto';
+
+export interface SpectatorSnapshotDto {
+  game: GameDto;
+  moves: MoveDto[];
+  /** Topic of the spectator's shard, the following moves arrive there */
+  topic: string;
+  spectatorsCount: number;
+}
@@ -2,6 +2,8 @@ export * from './userDto';
 export * from './searchableQuery';
 export * from './pagedQuery';
 export * from './pagedResult';
+export * from './keysetPagedResult';
 export * from './pagedIntervalQuery';
 export * from './result';
+export * from './leaderboardEntryDto';
 export * from './game';
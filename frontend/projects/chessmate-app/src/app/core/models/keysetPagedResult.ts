@@ -0,0 +1,5 @@
+import {Result} from './result';
+
+export type KeysetPagedResult<T> = Result<T[]> & {
+  nextCursor?: string;
+}
@@ -0,0 +1,7 @@
+export interface LeaderboardEntryDto {
+  /** Players with equal ratings share the same rank */
+  rank: number;
+  playerId: string;
+  username: string;
+  elo: number;
+}
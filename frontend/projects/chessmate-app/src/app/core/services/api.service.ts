@@ -9,6 +9,9 @@ import {
   CreateAnonymousGameCommand,
   CreateGameCommand,
   GameDto,
+  GameListItemDto,
+  KeysetPagedResult,
+  LeaderboardEntryDto,
   //PagedResult,
   GetGamesQuery,
 } from '@chessmate-app/core/models';
@@ -42,12 +45,24 @@ export class ApiService {
     return this.get(url);
   }
 
-  getGames(query?: GetGamesQuery): Observable<GameDto[]> {
-    let url = `/games`;
+  getGames(query?: GetGamesQuery): Observable<KeysetPagedResult<GameListItemDto>> {
+    const params = new URLSearchParams();
 
     if (query?.gameStatus != null) {
-      // url += `?gameStatus=${query.gameStatus}`;
+      params.set('gameStatus', query.gameStatus);
     }
+    if (query?.cursor != null) {
+      params.set('cursor', query.cursor);
+    }
+    if (query?.pageSize != null) {
+      params.set('pageSize', query.pageSize.toString());
+    }
+
+    return this.get(`/games?${params.toString()}`);
+  }
+
+  getOpenGames(): Observable<GameDto[]> {
+    const url = `/games/open`;
     return this.get(url);
   }
 
@@ -79,6 +94,26 @@ export class ApiService {
   //#endregion
 
 
+  //#region Leaderboard API
+
+  getTopPlayers(count = 50): Observable<LeaderboardEntryDto[]> {
+    const url = `/leaderboard?count=${count}`;
+    return this.get(url);
+  }
+
+  getLeaderboardEntry(playerId: string): Observable<LeaderboardEntryDto> {
+    const url = `/leaderboard/players/${playerId}`;
+    return this.get(url);
+  }
+
+  getLeaderboardNeighbours(playerId: string, count = 5): Observable<LeaderboardEntryDto[]> {
+    const url = `/leaderboard/players/${playerId}/neighbours?count=${count}`;
+    return this.get(url);
+  }
+
+  //#endregion
+
+
   //#region Internal methods
 
   private get<TResponse>(endpoint: string): Observable<TResponse> {
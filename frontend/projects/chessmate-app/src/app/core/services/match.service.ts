@@ -2,16 +2,24 @@ import {Injectable} from '@angular/core';
 import {Router} from '@angular/router';
 import {RxStomp} from '@stomp/rx-stomp';
 import {APP_CONFIG} from '@chessmate-app/configs';
-import {Subject} from 'rxjs';
+import {Observable, Subject, first, map} from 'rxjs';
 import {
   CancelGameCommand,
   ConnectPlayerCommand,
   CreateAnonymousGameCommand,
   CreateGameCommand,
   GameDto,
+  GameStateDeltaDto,
+  GameStateDto,
   JoinGameCommand,
+  JoinMatchmakingCommand,
+  LeaveMatchmakingCommand,
   MakeMoveCommand,
+  MoveAckDto,
   MoveDto,
+  PlayerColor,
+  SpectatorFrameDto,
+  SpectatorSnapshotDto,
 } from '@chessmate-app/core/models';
 import {PlayerService} from './player.service';
 
@@ -23,11 +31,21 @@ export class MatchService {
   private readonly gameAdded = new Subject<GameDto>();
   private readonly gameRemoved = new Subject<GameDto>();
   private readonly receivedMove = new Subject<MoveDto>();
+  private readonly moveAck = new Subject<MoveAckDto>();
+  private readonly gameState = new Subject<GameDto>();
+  private readonly drawOffer = new Subject<PlayerColor | null>();
   private currentMatch: GameDto | null = null;
+  private currentMatchVersion = 0;
+  private isResyncing = false;
+  private heartbeatTimer?: ReturnType<typeof setInterval>;
 
   public readonly gameAdded$ = this.gameAdded.asObservable();
   public readonly gameRemoved$ = this.gameRemoved.asObservable();
   public readonly receivedMove$ = this.receivedMove.asObservable();
+  public readonly moveAck$ = this.moveAck.asObservable();
+  public readonly gameState$ = this.gameState.asObservable();
+  /** Color of the player offering a draw, null once the offer is withdrawn */
+  public readonly drawOffer$ = this.drawOffer.asObservable();
 
   constructor(
     private readonly playerService: PlayerService,
@@ -56,6 +74,10 @@ export class MatchService {
       body: JSON.stringify(connectPlayer),
     });
 
+    this.heartbeatTimer = setInterval(() => {
+      this.stomp.publish({destination: '/app/player/heartbeat'});
+    }, APP_CONFIG.heartbeatInterval);
+
     this.subscribeToGameEvents();
   }
 
@@ -102,6 +124,54 @@ export class MatchService {
     });
   }
 
+  /**
+   * Waits for an opponent of a similar rating, the matched game arrives on the match join topic.
+   * @param timeControl Minutes plus increment in seconds, e.g. `5+3`
+   */
+  joinMatchmaking(timeControl: string): void {
+    const command: JoinMatchmakingCommand = {
+      playerId: this.playerService.getPlayerId(),
+      timeControl: timeControl,
+    };
+
+    this.stomp.publish({
+      destination: '/app/matchmaking/join',
+      body: JSON.stringify(command),
+    });
+  }
+
+  leaveMatchmaking(): void {
+    const command: LeaveMatchmakingCommand = {
+      playerId: this.playerService.getPlayerId(),
+    };
+
+    this.stomp.publish({
+      destination: '/app/matchmaking/leave',
+      body: JSON.stringify(command),
+    });
+  }
+
+  /**
+   * Gets the current state of a game for watching it.
+   * @param gameId The ID of the game to watch
+   */
+  spectateGame(gameId: string): Observable<SpectatorSnapshotDto> {
+    return this.stomp.watch(`/app/match/${gameId}/spectate`).pipe(
+      first(),
+      map((message) => JSON.parse(message.body) as SpectatorSnapshotDto),
+    );
+  }
+
+  /**
+   * Watches the batched moves of a spectated game.
+   * @param snapshot The snapshot returned by `spectateGame`
+   */
+  watchSpectatedMoves(snapshot: SpectatorSnapshotDto): Observable<SpectatorFrameDto> {
+    return this.stomp.watch(snapshot.topic).pipe(
+      map((message) => JSON.parse(message.body) as SpectatorFrameDto),
+    );
+  }
+
   makeMove(command: MakeMoveCommand): void {
     this.stomp.publish({
       destination: '/app/match/move',
@@ -109,7 +179,19 @@ export class MatchService {
     });
   }
 
+  /**
+   * Gets the full state of a game, used when a version of the game state stream was missed.
+   * @param gameId The ID of the game
+   */
+  getGameState(gameId: string): Observable<GameStateDto> {
+    return this.stomp.watch(`/app/match/${gameId}/state`).pipe(
+      first(),
+      map((message) => JSON.parse(message.body) as GameStateDto),
+    );
+  }
+
   disconnect(): void {
+    clearInterval(this.heartbeatTimer);
     this.stomp.deactivate();
   }
 
@@ -118,12 +200,25 @@ export class MatchService {
       const game = JSON.parse(message.body) as GameDto;
       this.gameRemoved.next(game);
       this.currentMatch = game;
+      this.currentMatchVersion = 0;
       this.router.navigate(['/game']);
     });
 
+    this.stomp.watch('/topic/match.state').subscribe((message) => {
+      const delta = JSON.parse(message.body) as GameStateDeltaDto;
+      this.applyGameStateDelta(delta);
+    });
+
     this.stomp.watch('/topic/match.moveReceived').subscribe((message) => {
-      const move = JSON.parse(message.body) as MoveDto;
-      this.receivedMove.next(move);
+      // A move and the premove answering it arrive together
+      const moves = JSON.parse(message.body) as MoveDto[];
+      moves.forEach((move) => this.receivedMove.next(move));
+    });
+
+    // Only the acknowledgements of this client's own move commands are received
+    this.stomp.watch('/user/queue/match.moveAck').subscribe((message) => {
+      const moveAck = JSON.parse(message.body) as MoveAckDto;
+      this.moveAck.next(moveAck);
     });
 
     this.stomp.watch('/topic/game.created').subscribe((message) => {
@@ -136,4 +231,48 @@ export class MatchService {
       this.gameRemoved.next(game);
     });
   }
+
+  private applyGameStateDelta(delta: GameStateDeltaDto): void {
+    if (!this.currentMatch || this.currentMatch.id !== delta.gameId || this.isResyncing) {
+      return;
+    }
+
+    if (delta.version <= this.currentMatchVersion) {
+      return;
+    }
+
+    if (delta.version !== this.currentMatchVersion + 1) {
+      this.resyncCurrentMatch(delta.gameId);
+      return;
+    }
+
+    this.currentMatch = {
+      ...this.currentMatch,
+      status: delta.status ?? this.currentMatch.status,
+      winnerPlayer: delta.winnerPlayer ?? this.currentMatch.winnerPlayer,
+      currentTurn: delta.currentTurn ?? this.currentMatch.currentTurn,
+    };
+
+    this.currentMatchVersion = delta.version;
+    this.gameState.next(this.currentMatch);
+
+    if (delta.isDrawOffered !== undefined) {
+      this.drawOffer.next(delta.drawOfferedBy ?? null);
+    }
+  }
+
+  private resyncCurrentMatch(gameId: string): void {
+    this.isResyncing = true;
+
+    this.getGameState(gameId).subscribe((state) => {
+      this.isResyncing = false;
+
+      if (this.currentMatch?.id === gameId) {
+        this.currentMatch = state.game;
+        this.currentMatchVersion = state.version;
+        this.gameState.next(state.game);
+        this.drawOffer.next(state.drawOfferedBy);
+      }
+    });
+  }
 }
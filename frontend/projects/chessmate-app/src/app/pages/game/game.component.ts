@@ -28,6 +28,7 @@ import {MatchService, PlayerService} from '@chessmate-app/core/services';
 export class GameComponent implements OnInit, OnDestroy {
   private currentPlayerColor?: PlayerColor;
   private receivedMoveSubscription?: Subscription;
+  private ply = 0;
   public isLoading = false;
   public game: GameDto | null = null;
   public boardOrientation: 'white' | 'black' = 'white';
@@ -84,12 +85,16 @@ export class GameComponent implements OnInit, OnDestroy {
 
     const from = moveData.move.substring(0, 2);
     const to = moveData.move.substring(2, 4);
+    const promotion = moveData.move.length > 4 ? moveData.move.charAt(4) : null;
 
     const command: MakeMoveCommand = {
       gameId: this.game.id,
       color: moveData.color === 'white' ? PlayerColor.WHITE : PlayerColor.BLACK,
+      // A move made while the opponent is to move is a premove for the next ply
+      ply: this.currentTurn === this.currentPlayerColor ? this.ply : this.ply + 1,
       from: from,
       to: to,
+      promotion: promotion,
       isCheckmate: moveData.mate,
       isStalemate: moveData.stalemate,
     };
@@ -98,10 +103,12 @@ export class GameComponent implements OnInit, OnDestroy {
   }
 
   private handleMoveUpdate(move: MoveDto) {
-    if (!this.chessboardRef) {
+    // Moves are broadcast once per ply, anything older is already on the board
+    if (!this.chessboardRef || move.ply < this.ply) {
       return;
     }
 
+    this.ply = move.ply + 1;
     this.chessboardRef.move(move.from, move.to);
     this.currentTurn = move.color === PlayerColor.WHITE ? PlayerColor.BLACK : PlayerColor.WHITE;
     this.pgn = this.chessboardRef.getPgn();
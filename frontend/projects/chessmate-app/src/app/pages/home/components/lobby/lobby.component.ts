@@ -2,9 +2,8 @@ import {Component, OnDestroy, OnInit} from '@angular/core';
 import {TableLazyLoadEvent, TableModule} from 'primeng/table';
 import {ButtonModule} from 'primeng/button';
 import {Subscription} from 'rxjs';
-import {GameDto, GameStatus, GetGamesQuery, PlayerColor} from '@chessmate-app/core/models';
+import {GameDto, PlayerColor} from '@chessmate-app/core/models';
 import {ApiService, MatchService, PlayerService} from '@chessmate-app/core/services';
-import {SortUtils} from '@chessmate-app/shared/utils';
 
 
 @Component({
@@ -47,20 +46,10 @@ export class LobbyComponent implements OnInit, OnDestroy {
     this.gameRemovedSubscription?.unsubscribe();
   }
 
-  loadGames(event: TableLazyLoadEvent) {
+  loadGames(_event: TableLazyLoadEvent) {
     this.isLoading = true;
-    const first = event.first ?? 1;
-    const rows = event.rows ?? 10;
-    const page = first / rows + 1;
-    const sortField = SortUtils.parseSortProperty(event.sortField as string, event.sortOrder);
-    const query: GetGamesQuery = {
-      orderBy: sortField, 
-      page: page, 
-      pageSize: rows,
-      gameStatus: GameStatus.OPEN,
-    };
 
-    this.apiService.getGames(query).subscribe((result) => {
+    this.apiService.getOpenGames().subscribe((result) => {
       if (result) {
         this.openGames = result;
       }